@@ -0,0 +1,93 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+/**
+ * Metrics of the pool of {@code EntityManager}s that is used when leasing is enabled
+ * via {@link JPAStreamerBuilder#withEntityManagerPool(int, java.time.Duration)}.
+ * <p>
+ * Counters are cumulative since the creation of the {@link JPAStreamer} whereas gauges
+ * reflect the state of the pool at the time of invocation.
+ *
+ * @since 3.0.4
+ */
+public interface EntityManagerPoolMetrics {
+
+    /**
+     * Returns the maximum number of {@code EntityManager}s that can be leased at the same time.
+     *
+     * @return the maximum number of {@code EntityManager}s that can be leased at the same time
+     */
+    int maxSize();
+
+    /**
+     * Returns the number of {@code EntityManager}s that are currently leased.
+     *
+     * @return the number of {@code EntityManager}s that are currently leased
+     */
+    int inUse();
+
+    /**
+     * Returns the number of cleared {@code EntityManager}s that are ready to be leased.
+     *
+     * @return the number of cleared {@code EntityManager}s that are ready to be leased
+     */
+    int idle();
+
+    /**
+     * Returns the total number of successful leases.
+     *
+     * @return the total number of successful leases
+     */
+    long leases();
+
+    /**
+     * Returns the number of lease attempts that found the pool saturated and had to wait
+     * for an {@code EntityManager} to be returned.
+     *
+     * @return the number of lease attempts that found the pool saturated
+     */
+    long saturatedLeases();
+
+    /**
+     * Returns the number of lease attempts that timed out waiting for an {@code EntityManager}.
+     *
+     * @return the number of lease attempts that timed out
+     */
+    long timeouts();
+
+    /**
+     * Returns the total time in nanoseconds spent waiting for leases.
+     *
+     * @return the total time in nanoseconds spent waiting for leases
+     */
+    long totalWaitNanos();
+
+    /**
+     * Returns the longest time in nanoseconds a single lease has waited.
+     *
+     * @return the longest time in nanoseconds a single lease has waited
+     */
+    long maxWaitNanos();
+
+    /**
+     * Returns the average time in nanoseconds spent waiting for a lease.
+     *
+     * @return the average time in nanoseconds spent waiting for a lease
+     */
+    default double averageWaitNanos() {
+        final long leases = leases();
+        return leases == 0 ? 0 : (double) totalWaitNanos() / leases;
+    }
+
+}
@@ -20,8 +20,15 @@ import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 /**
@@ -198,7 +205,9 @@ public interface JPAStreamer {
      * <p>
      *     
      * This method is a convenience method equivalent to:
-     * <pre>{@code stream(StreamConfiguration.of(projection.entityClass()).select(projection))}</pre>
+     * <pre>{@code stream(StreamConfiguration.of(projection.entityClass()).selecting(projection).readOnly())}</pre>
+     * <p>
+     * Since 3.0.4, the Stream is read-only, see {@link StreamConfiguration#readOnly()}.
      *
      * @param <T> the type of the stream elements
      * @param projection to use
@@ -210,7 +219,192 @@ public interface JPAStreamer {
      */
     default <T> Stream<T> stream(final Projection<T> projection) {
         requireNonNull(projection);
-        return stream(StreamConfiguration.of(projection.entityClass()).selecting(projection));
+        return stream(StreamConfiguration.of(projection.entityClass()).selecting(projection).readOnly());
+    }
+
+    /**
+     * Applies the provided {@code query} to a new {@link Stream} described by the
+     * provided {@code streamConfiguration} without blocking the calling thread, and
+     * returns a {@link CompletableFuture} that completes with the result of the query.
+     * <p>
+     * The Stream is created, rendered, queried and consumed by a default executor that
+     * starts a virtual thread per query if supported by the JVM (Java 21 and later),
+     * and otherwise uses a pool of daemon threads. The query should end with a terminal
+     * operation, for example:
+     * <pre>{@code
+     *    CompletableFuture<List<Film>> films = jpaStreamer.async(StreamConfiguration.of(Film.class),
+     *       s -> s.filter(Film$.length.greaterThan(120)).collect(toList()));
+     * }</pre>
+     * The Stream, and thereby its {@link EntityManager}, is closed by the executing thread
+     * when the query completes. Cancelling the returned future before the query has started
+     * prevents it from running. A query that is already running is aborted before it reads
+     * the next element from the database, after which the executing thread closes the Stream.
+     * <p>
+     * The default implementation of this method runs the query on the common
+     * {@link ForkJoinPool} and lets a running query complete before its result is discarded,
+     * whereas the standard JPAStreamer uses the executor and aborts queries as described above.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the query result
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @param query to apply to the Stream
+     * @return a {@link CompletableFuture} that completes with the result of the query
+     *
+     * @see JPAStreamer#async(StreamConfiguration, Function, Executor) for a custom executor
+     * @since 3.0.4
+     */
+    default <T, R> CompletableFuture<R> async(final StreamConfiguration<T> streamConfiguration, final Function<? super Stream<T>, ? extends R> query) {
+        return async(streamConfiguration, query, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the provided {@code query} to a new {@link Stream} described by the
+     * provided {@code streamConfiguration} using the provided {@code executor}, and
+     * returns a {@link CompletableFuture} that completes with the result of the query.
+     * <p>
+     * If the executor rejects the query, the returned future completes exceptionally.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the query result
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @param query to apply to the Stream
+     * @param executor to create, render, query and consume the Stream with
+     * @return a {@link CompletableFuture} that completes with the result of the query
+     *
+     * @see JPAStreamer#async(StreamConfiguration, Function) for further details
+     * @since 3.0.4
+     */
+    default <T, R> CompletableFuture<R> async(final StreamConfiguration<T> streamConfiguration, final Function<? super Stream<T>, ? extends R> query, final Executor executor) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(query);
+        requireNonNull(executor);
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try (final Stream<T> stream = stream(streamConfiguration)) {
+                    future.complete(query.apply(stream));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Applies the provided {@code query} to a new {@link Stream} over all entities
+     * of the provided type {@code entityClass} without blocking the calling thread.
+     * <p>
+     * This method is a convenience method equivalent to:
+     * <pre>{@code async(StreamConfiguration.of(entityClass), query)}</pre>
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the query result
+     * @param entityClass to use
+     * @param query to apply to the Stream
+     * @return a {@link CompletableFuture} that completes with the result of the query
+     *
+     * @see JPAStreamer#async(StreamConfiguration, Function) for further details
+     * @since 3.0.4
+     */
+    default <T, R> CompletableFuture<R> async(final Class<T> entityClass, final Function<? super Stream<T>, ? extends R> query) {
+        requireNonNull(entityClass);
+        return async(StreamConfiguration.of(entityClass), query);
+    }
+
+    /**
+     * Creates and returns a new {@link Flow.Publisher} that publishes the elements of the
+     * provided {@code pipeline} applied to Streams described by the provided
+     * {@code streamConfiguration}, reading the elements in pages of {@code pageSize}
+     * elements as they are requested by the subscriber.
+     * <p>
+     * Each page is read by a separate Stream, using a separate {@link EntityManager} that
+     * is closed once the page has been read, so that no database connection is held while
+     * the subscriber is processing the elements and at most one page is held in memory.
+     * The next page is read only after the subscriber has requested all the elements of
+     * the previous page. Every subscription publishes the elements from the start.
+     * <p>
+     * Pages are read using keyset pagination, see {@link StreamConfiguration#seekingAfter(com.speedment.jpastreamer.streamconfiguration.Cursor)},
+     * if the pipeline is sorted using field comparators, if sorted at all, and only filtered
+     * using field predicates before it is sorted, and neither skips, limits nor otherwise
+     * depends on the preceding elements of the Stream. This is decided when the publisher is
+     * created. Otherwise, the elements of the preceding pages are skipped, for example:
+     * <pre>{@code
+     *    Flow.Publisher<Film> films = jpaStreamer.publisher(StreamConfiguration.of(Film.class), s -> s
+     *       .filter(Film$.rating.equal("G"))
+     *       .sorted(Film$.length), 100);
+     * }</pre>
+     * Pages are read and elements are published by a default executor that starts a virtual
+     * thread per page if supported by the JVM (Java 21 and later), and otherwise uses a pool
+     * of daemon threads.
+     * <p>
+     * The default implementation of this method uses the common {@link ForkJoinPool} and
+     * reads pages using keyset pagination only if {@link #isSeekable(StreamConfiguration, UnaryOperator)}
+     * holds for the pipeline, whereas the standard JPAStreamer reads pages as described above.
+     *
+     * @param <T> the type of the stream elements
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @param pipeline applied to the Stream of each page
+     * @param pageSize the number of elements of a page
+     * @return a new {@link Flow.Publisher} of the elements of the pipeline
+     * @throws IllegalArgumentException if the provided {@code pageSize} is not positive
+     *
+     * @see JPAStreamer#publisher(StreamConfiguration, UnaryOperator, int, Executor) for a custom executor
+     * @since 3.0.4
+     */
+    default <T> Flow.Publisher<T> publisher(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> pipeline, final int pageSize) {
+        return publisher(streamConfiguration, pipeline, pageSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates and returns a new {@link Flow.Publisher} that publishes the elements of the
+     * provided {@code pipeline} applied to Streams described by the provided
+     * {@code streamConfiguration}, reading the elements in pages of {@code pageSize}
+     * elements on the provided {@code executor} as they are requested by the subscriber.
+     *
+     * @param <T> the type of the stream elements
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @param pipeline applied to the Stream of each page
+     * @param pageSize the number of elements of a page
+     * @param executor to read pages and publish elements with
+     * @return a new {@link Flow.Publisher} of the elements of the pipeline
+     * @throws IllegalArgumentException if the provided {@code pageSize} is not positive
+     *
+     * @see JPAStreamer#publisher(StreamConfiguration, UnaryOperator, int) for further details
+     * @since 3.0.4
+     */
+    default <T> Flow.Publisher<T> publisher(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> pipeline, final int pageSize, final Executor executor) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(pipeline);
+        return new PagingPublisher<>(this::stream, streamConfiguration, pipeline, pageSize, executor, isSeekable(streamConfiguration, pipeline));
+    }
+
+    /**
+     * Returns whether a {@link #publisher(StreamConfiguration, UnaryOperator, int) publisher}
+     * of the provided {@code pipeline} applied to Streams described by the provided
+     * {@code streamConfiguration} reads its pages using keyset pagination, rather than by
+     * skipping the elements of the preceding pages. This is decided without querying the
+     * database.
+     * <p>
+     * The default implementation of this method returns {@code false}.
+     *
+     * @param <T> the type of the stream elements
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @param pipeline applied to the Stream of each page
+     * @return whether the pages are read using keyset pagination
+     *
+     * @see JPAStreamer#publisher(StreamConfiguration, UnaryOperator, int) for further details
+     * @since 3.0.4
+     */
+    default <T> boolean isSeekable(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> pipeline) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(pipeline);
+        return false;
     }
 
     /**
@@ -299,22 +493,29 @@ public interface JPAStreamer {
     }
     
     /**
-     * Resets the Streamer associated with the provided Entity classes.
-     * <p> 
-     * This will create a new instance of the underlying {@code jakarta.persistence.EntityManager}, removing all entries of the 
-     * associated Entity class from the first-level cache. The old {@code jakarta.persistence.EntityManager} is closed upon removal from the cache. 
-     * 
-     * In case JPAStreamer was configured with a {@code Supplier<EntityManager>} the lifecycle of the Entity Managers is 
-     * not managed by JPAStreamer, thus use of the method is not permitted and will result in an {@code UnsupportedOperationException}. 
-     * 
-     * @deprecated since 3.0.2, JPAStreamer no longer caches Streamers thus there is no need for a method that resets the cache.
-     * If you wish to manage the Streamer lifecycle manually, see {@link JPAStreamer#createStreamSupplier(StreamConfiguration)}
-     * @param entityClasses of the streamer  
-     * @throws UnsupportedOperationException if JPAStreamer is configured with a Supplier, see {@code com.speedment.jpastreamer.application.JPAStreamer#of(java.util.function.Supplier)}
+     * Drops the cached query results of the provided Entity classes, or of all Entity classes if none
+     * are provided, see {@link StreamConfiguration#caching(java.time.Duration)}.
+     * <p>
+     * This should be called after the entities of the provided classes have been changed so that
+     * future Streams read the changes from the database rather than from cached results.
+     * <p>
+     * Since 3.0.2, JPAStreamer no longer caches Streamers. If you wish to manage the Streamer
+     * lifecycle manually, see {@link JPAStreamer#createStreamSupplier(StreamConfiguration)}.
+     *
+     * @param entityClasses to drop the cached query results of
      */
-    @Deprecated(since = "3.0.2", forRemoval = true)
     void resetStreamer(Class<?>... entityClasses);
     
+    /**
+     * Returns the metrics of the {@code EntityManager} pool, or an empty Optional
+     * if leasing was not enabled via {@link JPAStreamerBuilder#withEntityManagerPool(int, java.time.Duration)}.
+     *
+     * @return the metrics of the {@code EntityManager} pool, if any
+     */
+    default Optional<EntityManagerPoolMetrics> entityManagerPoolMetrics() {
+        return Optional.empty();
+    }
+
     /**
      * Closes this JPAStreamer and releases any resources potentially held.
      * <p>
@@ -12,8 +12,52 @@
  */
 package com.speedment.jpastreamer.application;
 
+import java.time.Duration;
+
 public interface JPAStreamerBuilder {
 
+    /**
+     * Enables leasing of {@code EntityManager}s from a bounded pool for the streams created
+     * via {@link JPAStreamer#stream(com.speedment.jpastreamer.streamconfiguration.StreamConfiguration)}.
+     * <p>
+     * Instead of creating a new {@code EntityManager} per stream, an {@code EntityManager} is
+     * leased when the stream is created and returned to the pool, after being cleared, when the
+     * stream is closed. Leased {@code EntityManager}s use {@code FlushModeType.COMMIT} and are intended for
+     * reading only; their previous flush mode is restored when they are returned. If all
+     * {@code EntityManager}s are leased, stream creation waits at most {@code maxWait} for one to be returned.
+     * <p>
+     * If the {@code EntityManager}s are provided by a caller-supplied {@code Supplier}, they are not owned
+     * by JPAStreamer and hence neither pooled, cleared nor changed: each stream obtains its
+     * {@code EntityManager} from the supplier and the pool only bounds how many are in use at the same time.
+     * <p>
+     * Pool metrics are available via {@link JPAStreamer#entityManagerPoolMetrics()}.
+     * <p>
+     * The default implementation throws an {@code UnsupportedOperationException} for
+     * builders that do not support pooling.
+     *
+     * @param maxSize the maximum number of {@code EntityManager}s leased at the same time
+     * @param maxWait the maximum time to wait for an {@code EntityManager}
+     * @return this builder
+     * @throws IllegalArgumentException if {@code maxSize} is not positive or {@code maxWait} is negative
+     * @throws UnsupportedOperationException if this builder does not support pooling
+     */
+    default JPAStreamerBuilder withEntityManagerPool(final int maxSize, final Duration maxWait) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support EntityManager pooling");
+    }
+
+    /**
+     * Enables leasing of {@code EntityManager}s from a bounded pool, waiting at most 30 seconds
+     * for an {@code EntityManager} to be returned if all are leased.
+     *
+     * @param maxSize the maximum number of {@code EntityManager}s leased at the same time
+     * @return this builder
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     * @see #withEntityManagerPool(int, Duration)
+     */
+    default JPAStreamerBuilder withEntityManagerPool(final int maxSize) {
+        return withEntityManagerPool(maxSize, Duration.ofSeconds(30));
+    }
+
     /**
      * Creates and returns a new JPAStreamer instance.
      *
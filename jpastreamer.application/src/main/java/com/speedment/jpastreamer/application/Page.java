@@ -0,0 +1,46 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A page of elements read using keyset (seek) pagination, see
+ * {@link StreamSupplier#page(Cursor, java.util.function.UnaryOperator)}.
+ *
+ * @param <T> the type of the elements
+ * @since 3.0.4
+ */
+public interface Page<T> {
+
+    /**
+     * Returns the elements of this page.
+     *
+     * @return the elements of this page
+     */
+    List<T> content();
+
+    /**
+     * Returns the Cursor to pass in order to read the page following this page, or an
+     * empty Optional if this page is empty.
+     * <p>
+     * Note that a non-empty page does not imply that there are more elements.
+     *
+     * @return the Cursor of the last element of this page, if any
+     */
+    Optional<Cursor> next();
+
+}
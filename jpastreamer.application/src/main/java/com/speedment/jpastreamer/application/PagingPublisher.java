@@ -0,0 +1,191 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@link Flow.Publisher} returned by
+ * {@link JPAStreamer#publisher(StreamConfiguration, UnaryOperator, int, Executor)}, that
+ * reads the elements of a pipeline in pages of a fixed size, reading the next page only
+ * once the subscriber has requested all elements of the previous page.
+ * <p>
+ * Each page is read by a separate Stream, and thereby a separate EntityManager, that
+ * is closed as soon as the page has been read. Pages are read using keyset
+ * pagination if the pipeline is known to be seekable up front, see
+ * {@link JPAStreamer#isSeekable(StreamConfiguration, UnaryOperator)}. Otherwise, e.g.
+ * because it is sorted by a lambda, the elements of the preceding pages are skipped.
+ * <p>
+ * Every subscription reads the pipeline from its start.
+ *
+ * @param <T> the type of the elements
+ */
+final class PagingPublisher<T> implements Flow.Publisher<T> {
+
+    private final Function<StreamConfiguration<T>, Stream<T>> streamer;
+    private final StreamConfiguration<T> streamConfiguration;
+    private final UnaryOperator<Stream<T>> pipeline;
+    private final int pageSize;
+    private final Executor executor;
+    private final boolean keyset;
+
+    PagingPublisher(final Function<StreamConfiguration<T>, Stream<T>> streamer,
+                    final StreamConfiguration<T> streamConfiguration,
+                    final UnaryOperator<Stream<T>> pipeline,
+                    final int pageSize,
+                    final Executor executor,
+                    final boolean keyset) {
+        this.streamer = requireNonNull(streamer);
+        this.streamConfiguration = requireNonNull(streamConfiguration);
+        this.pipeline = requireNonNull(pipeline);
+        this.executor = requireNonNull(executor);
+        this.keyset = keyset;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be positive: " + pageSize);
+        }
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+        requireNonNull(subscriber);
+        final PagingSubscription subscription = new PagingSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class PagingSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        // Only accessed by the thread draining the subscription
+        private final Queue<T> buffer = new ArrayDeque<>();
+        private Cursor cursor = Cursor.start();
+        private long offset;
+        private boolean exhausted;
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        private PagingSubscription(final Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                // Signalled by the draining thread so that signals are never concurrent
+                invalidRequest = new IllegalArgumentException("The number of requested elements must be positive: " + n);
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (workInProgress.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                try {
+                    if (!cancelled && invalidRequest != null) {
+                        cancel();
+                        subscriber.onError(invalidRequest);
+                    }
+                    while (!cancelled && requested.get() > 0) {
+                        if (buffer.isEmpty()) {
+                            if (exhausted) {
+                                break;
+                            }
+                            readPage();
+                            continue;
+                        }
+                        // Long.MAX_VALUE requests an unbounded number of elements
+                        requested.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+                        subscriber.onNext(buffer.poll());
+                    }
+                    if (!cancelled && exhausted && buffer.isEmpty()) {
+                        cancel();
+                        subscriber.onComplete();
+                    }
+                } catch (Throwable t) {
+                    if (!cancelled) {
+                        cancel();
+                        subscriber.onError(t);
+                    }
+                }
+                if (cancelled) {
+                    buffer.clear();
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void readPage() {
+            final List<T> page;
+            if (keyset) {
+                final AtomicReference<Cursor> next = new AtomicReference<>();
+                page = read(streamConfiguration.seekingAfter(cursor, next::set), 0);
+                if (next.get() != null) {
+                    cursor = next.get();
+                }
+            } else {
+                page = read(streamConfiguration, offset);
+            }
+            offset += page.size();
+            exhausted = page.size() < pageSize;
+            buffer.addAll(page);
+        }
+
+        private List<T> read(final StreamConfiguration<T> configuration, final long skip) {
+            try (final Stream<T> stream = streamer.apply(configuration)) {
+                final Stream<T> elements = pipeline.apply(stream);
+                return (skip == 0 ? elements : elements.skip(skip))
+                    .limit(pageSize)
+                    .collect(Collectors.toList());
+            }
+        }
+    }
+}
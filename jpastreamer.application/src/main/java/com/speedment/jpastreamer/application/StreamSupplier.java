@@ -12,9 +12,11 @@
  */
 package com.speedment.jpastreamer.application;
 
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 /**
@@ -173,6 +175,41 @@ public interface StreamSupplier<T> extends AutoCloseable {
      */
     Stream<T> stream();
 
+    /**
+     * Reads a page of the stream using keyset (seek) pagination, starting after the
+     * provided {@code cursor}.
+     * <p>
+     * The provided {@code pipeline} is applied to a {@link Stream} configured as per
+     * {@link StreamConfiguration#seekingAfter(Cursor)} and is expected to sort and
+     * limit the stream, for example:
+     * <pre>{@code
+     * Page<Film> page = streamSupplier.page(Cursor.start(), s -> s
+     *     .filter(Film$.rating.equal("G"))
+     *     .sorted(Film$.length)
+     *     .limit(20));
+     *
+     * Page<Film> nextPage = streamSupplier.page(page.next().get(), s -> s
+     *     .filter(Film$.rating.equal("G"))
+     *     .sorted(Film$.length)
+     *     .limit(20));
+     * }</pre>
+     * The same pipeline must be used for all pages.
+     * <p>
+     * The default implementation throws an {@link UnsupportedOperationException}
+     * as keyset pagination must be supported by the underlying renderer.
+     *
+     * @param cursor the position after which the page starts, see {@link Cursor#start()}
+     * @param pipeline applied to the stream to read the page
+     * @return the page
+     * @throws NullPointerException if any of the parameters are {@code null}
+     * @throws UnsupportedOperationException if this Stream Supplier does not
+     *                                       support keyset pagination
+     * @since 3.0.4
+     */
+    default Page<T> page(Cursor cursor, UnaryOperator<Stream<T>> pipeline) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support keyset pagination");
+    }
+
     /**
      * Closes this Stream Supplier and releases any resources potentially held, such as the underlying Entity Manager. 
      */
@@ -0,0 +1,361 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.KeysetConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class PagingPublisherTest {
+
+    private static final int ELEMENTS = 10;
+
+    private final List<Integer> data = IntStream.rangeClosed(1, ELEMENTS).boxed().collect(Collectors.toList());
+    private final StreamConfiguration<Integer> configuration = configuration();
+    private final List<Optional<Cursor>> reads = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger closed = new AtomicInteger();
+
+    /**
+     * Reads the data starting after the cursor of a keyset configuration, or from
+     * the start otherwise, and hands the cursor of the last element read to the
+     * configuration once closed, like the standard renderer does.
+     */
+    private final Function<StreamConfiguration<Integer>, Stream<Integer>> streamer = streamConfiguration -> {
+        final Optional<KeysetConfiguration> keyset = streamConfiguration.keyset();
+        reads.add(keyset.map(KeysetConfiguration::cursor));
+        if (!keyset.isPresent()) {
+            return data.stream().onClose(closed::incrementAndGet);
+        }
+        final List<Object> values = keyset.get().cursor().values();
+        final int after = values.isEmpty() ? 0 : (Integer) values.get(0);
+        final AtomicReference<Integer> last = new AtomicReference<>();
+        return data.stream()
+            .filter(i -> i > after)
+            .peek(last::set)
+            .onClose(() -> {
+                closed.incrementAndGet();
+                if (last.get() != null) {
+                    keyset.get().nextCursorConsumer().accept(Cursor.of(last.get()));
+                }
+            });
+    };
+
+    @Test
+    void invalidPageSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> publisher(UnaryOperator.identity(), 0, true));
+    }
+
+    @Test
+    void pagesAreReadAsElementsAreRequested() {
+        final RecordingSubscriber subscriber = subscribe(publisher(UnaryOperator.identity(), 4, true));
+
+        subscriber.request(3);
+        assertEquals(List.of(1, 2, 3), subscriber.elements);
+        assertEquals(1, reads.size());
+
+        subscriber.request(1);
+        assertEquals(List.of(1, 2, 3, 4), subscriber.elements);
+        assertEquals(1, reads.size());
+
+        subscriber.request(2);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), subscriber.elements);
+        assertEquals(2, reads.size());
+        assertFalse(subscriber.completed);
+        assertEquals(reads.size(), closed.get());
+    }
+
+    @Test
+    void keysetPagesStartAfterTheCursorOfThePreviousPage() {
+        final RecordingSubscriber subscriber = subscribe(publisher(UnaryOperator.identity(), 4, true));
+
+        subscriber.request(Long.MAX_VALUE);
+
+        assertEquals(data, subscriber.elements);
+        assertTrue(subscriber.completed);
+        assertEquals(List.of(Optional.of(Cursor.start()), Optional.of(Cursor.of(4)), Optional.of(Cursor.of(8))), reads);
+        verify(configuration, times(3)).seekingAfter(any(), any());
+    }
+
+    @Test
+    void unseekablePipelineSkipsPrecedingPages() {
+        final RecordingSubscriber subscriber = subscribe(publisher(s -> s.filter(i -> i % 2 == 1), 2, false));
+
+        subscriber.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(1, 3, 5, 7, 9), subscriber.elements);
+        assertTrue(subscriber.completed);
+        assertEquals(3, reads.size());
+        assertTrue(reads.stream().noneMatch(Optional::isPresent));
+        verify(configuration, never()).seekingAfter(any(), any());
+    }
+
+    @Test
+    void limitedPipelineIsLimitedAcrossPages() {
+        final RecordingSubscriber subscriber = subscribe(publisher(s -> s.skip(1).limit(7), 3, false));
+
+        subscriber.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(2, 3, 4, 5, 6, 7, 8), subscriber.elements);
+        assertTrue(subscriber.completed);
+        assertEquals(3, reads.size());
+    }
+
+    @Test
+    void exactPagesCompleteAfterAnEmptyPage() {
+        final RecordingSubscriber subscriber = subscribe(publisher(UnaryOperator.identity(), 5, true));
+
+        subscriber.request(ELEMENTS);
+        assertEquals(data, subscriber.elements);
+        assertFalse(subscriber.completed);
+
+        subscriber.request(1);
+        assertTrue(subscriber.completed);
+        assertEquals(3, reads.size());
+    }
+
+    @Test
+    void failureOfTheFirstPageIsSignalled() {
+        final IllegalStateException failure = new IllegalStateException("EntityManager is closed");
+        final PagingPublisher<Integer> publisher = new PagingPublisher<>(c -> {
+            throw failure;
+        }, configuration, UnaryOperator.identity(), 4, Runnable::run, true);
+        final RecordingSubscriber subscriber = subscribe(publisher);
+
+        subscriber.request(1);
+
+        assertSame(failure, subscriber.error);
+        assertTrue(subscriber.elements.isEmpty());
+
+        // The failure must not be mistaken for a pipeline that cannot be paginated by keyset
+        subscriber.request(1);
+        assertSame(failure, subscriber.error);
+        assertEquals(1, subscriber.signals.get());
+    }
+
+    @Test
+    void nonPositiveRequestIsSignalledAsError() {
+        final RecordingSubscriber subscriber = subscribe(publisher(UnaryOperator.identity(), 4, true));
+
+        subscriber.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(reads.isEmpty());
+    }
+
+    @Test
+    void cancelledSubscriptionReadsNoFurtherPages() {
+        final RecordingSubscriber subscriber = subscribe(publisher(UnaryOperator.identity(), 4, true));
+
+        subscriber.request(2);
+        subscriber.subscription.cancel();
+        subscriber.request(5);
+
+        assertEquals(List.of(1, 2), subscriber.elements);
+        assertEquals(1, reads.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void cancellationFromOnNextStopsTheSubscription() {
+        final PagingPublisher<Integer> publisher = publisher(UnaryOperator.identity(), 4, true);
+        final RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(final Integer item) {
+                super.onNext(item);
+                if (item == 3) {
+                    subscription.cancel();
+                }
+            }
+        };
+        publisher.subscribe(subscriber);
+
+        subscriber.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(1, 2, 3), subscriber.elements);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void everySubscriptionStartsFromTheStart() {
+        final PagingPublisher<Integer> publisher = publisher(UnaryOperator.identity(), 4, true);
+        final RecordingSubscriber first = subscribe(publisher);
+        final RecordingSubscriber second = subscribe(publisher);
+
+        first.request(6);
+        second.request(2);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), first.elements);
+        assertEquals(List.of(1, 2), second.elements);
+    }
+
+    /**
+     * Requests elements from several threads at the same time, as well as from within
+     * onNext, and verifies that onNext is never called concurrently, that elements are
+     * delivered in order and that the subscription completes exactly once (rule 1.3 of
+     * the Reactive Streams specification).
+     */
+    @Test
+    void signalsAreNeverConcurrent() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final ExecutorService requesters = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 20; round++) {
+                reads.clear();
+                final AtomicBoolean inSignal = new AtomicBoolean();
+                final AtomicInteger overlaps = new AtomicInteger();
+                final CountDownLatch done = new CountDownLatch(1);
+                final RecordingSubscriber subscriber = new RecordingSubscriber() {
+                    @Override
+                    public void onNext(final Integer item) {
+                        enter();
+                        super.onNext(item);
+                        Thread.yield();
+                        if (item % 3 == 0) {
+                            subscription.request(1);
+                        }
+                        inSignal.set(false);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        enter();
+                        super.onComplete();
+                        inSignal.set(false);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(final Throwable throwable) {
+                        super.onError(throwable);
+                        done.countDown();
+                    }
+
+                    private void enter() {
+                        if (!inSignal.compareAndSet(false, true)) {
+                            overlaps.incrementAndGet();
+                        }
+                    }
+                };
+                new PagingPublisher<>(streamer, configuration, UnaryOperator.identity(), 3, executor, true).subscribe(subscriber);
+
+                for (int i = 0; i < 4 * ELEMENTS; i++) {
+                    requesters.execute(() -> subscriber.request(1));
+                }
+
+                assertTrue(done.await(10, TimeUnit.SECONDS));
+                assertEquals(0, overlaps.get());
+                assertNull(subscriber.error);
+                assertEquals(data, subscriber.elements);
+                assertEquals(1, subscriber.signals.get() - subscriber.elements.size());
+            }
+        } finally {
+            executor.shutdownNow();
+            requesters.shutdownNow();
+        }
+    }
+
+    private PagingPublisher<Integer> publisher(final UnaryOperator<Stream<Integer>> pipeline, final int pageSize, final boolean keyset) {
+        return new PagingPublisher<>(streamer, configuration, pipeline, pageSize, Runnable::run, keyset);
+    }
+
+    private static RecordingSubscriber subscribe(final Flow.Publisher<Integer> publisher) {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        return subscriber;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StreamConfiguration<Integer> configuration() {
+        final StreamConfiguration<Integer> configuration = mock(StreamConfiguration.class);
+        when(configuration.keyset()).thenReturn(Optional.empty());
+        when(configuration.seekingAfter(any(), any())).thenAnswer(invocation -> {
+            final Cursor cursor = invocation.getArgument(0);
+            final Consumer<? super Cursor> nextCursorConsumer = invocation.getArgument(1);
+            final StreamConfiguration<Integer> seeking = mock(StreamConfiguration.class);
+            when(seeking.keyset()).thenReturn(Optional.of(new KeysetConfiguration() {
+                @Override
+                public Cursor cursor() {
+                    return cursor;
+                }
+
+                @Override
+                public Consumer<? super Cursor> nextCursorConsumer() {
+                    return nextCursorConsumer;
+                }
+            }));
+            return seeking;
+        });
+        return configuration;
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+
+        final List<Integer> elements = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger signals = new AtomicInteger();
+        volatile Flow.Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final Integer item) {
+            signals.incrementAndGet();
+            elements.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            signals.incrementAndGet();
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            signals.incrementAndGet();
+            completed = true;
+        }
+
+        void request(final long n) {
+            subscription.request(n);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.benchmark;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.benchmark.model.Actor;
+import com.speedment.jpastreamer.benchmark.model.Film;
+import com.speedment.jpastreamer.benchmark.model.Language;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An in-memory H2 database holding a Sakila-like model of {@link Film}s, {@link Actor}s
+ * and {@link Language}s, shared by the benchmarks of a trial.
+ * <p>
+ * The content is deterministic so that results of different releases can be compared.
+ */
+@State(Scope.Benchmark)
+public class Database {
+
+    static final String[] RATINGS = {"G", "PG", "PG-13", "R", "NC-17"};
+    static final int LANGUAGES = 6;
+    static final int ACTORS = 200;
+    static final int ACTORS_PER_FILM = 5;
+
+    @Param({"1000"})
+    public int films;
+
+    EntityManagerFactory entityManagerFactory;
+    JPAStreamer jpaStreamer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("benchmark");
+        populate(entityManagerFactory, films);
+        jpaStreamer = JPAStreamer.of(entityManagerFactory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jpaStreamer.close();
+        entityManagerFactory.close();
+    }
+
+    static void populate(final EntityManagerFactory entityManagerFactory, final int films) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+
+            final List<Language> languages = new ArrayList<>();
+            for (int i = 1; i <= LANGUAGES; i++) {
+                final Language language = new Language(i, "Language " + i);
+                entityManager.persist(language);
+                languages.add(language);
+            }
+
+            final List<Actor> actors = new ArrayList<>();
+            for (int i = 1; i <= ACTORS; i++) {
+                final Actor actor = new Actor(i, "First" + i, "Last" + (i % 50));
+                entityManager.persist(actor);
+                actors.add(actor);
+            }
+
+            final LocalDateTime lastUpdate = LocalDateTime.of(2022, 1, 1, 0, 0);
+            for (int i = 1; i <= films; i++) {
+                final Film film = new Film(i, "FILM " + Integer.toString(i * 7919 % 100_000, 36).toUpperCase());
+                film.setDescription("A film about " + (i % 97) + " things");
+                film.setLanguage(languages.get(i % LANGUAGES));
+                film.setRentalDuration(3 + i % 5);
+                film.setRentalRate(0.99f + (i % 3) * 2);
+                film.setLength(46 + (i * 37) % 140);
+                film.setReplacementCost(9.99f + (i % 21));
+                film.setRating(RATINGS[i % RATINGS.length]);
+                film.setLastUpdate(lastUpdate.plusMinutes(i));
+                for (int a = 0; a < ACTORS_PER_FILM; a++) {
+                    film.getActors().add(actors.get((i * 7 + a * 31) % ACTORS));
+                }
+                entityManager.persist(film);
+
+                if (i % 500 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    // The cleared languages and actors are referenced by the following films
+                    languages.replaceAll(language -> entityManager.getReference(Language.class, language.getLanguageId()));
+                    actors.replaceAll(actor -> entityManager.getReference(Actor.class, actor.getActorId()));
+                }
+            }
+
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
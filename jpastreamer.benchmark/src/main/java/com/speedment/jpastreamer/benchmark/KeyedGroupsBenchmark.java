@@ -0,0 +1,95 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.benchmark;
+
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.collector.FieldCollectors;
+import com.speedment.jpastreamer.field.collector.IntKeyedGroups;
+import com.speedment.jpastreamer.field.collector.LongKeyedGroups;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures grouping elements by a primitive key into {@link IntKeyedGroups} and
+ * {@link LongKeyedGroups}, relative to grouping them by the boxed key with
+ * {@link Collectors#groupingBy}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyedGroupsBenchmark {
+
+    private static final IntField<Element> INT_KEY = IntField.create(Element.class, "int_key", Element::intKey, false);
+    private static final LongField<Element> LONG_KEY = LongField.create(Element.class, "long_key", Element::longKey, false);
+
+    @Param({"100000"})
+    public int elements;
+
+    @Param({"16", "1024", "65536"})
+    public int keys;
+
+    private List<Element> list;
+
+    @Setup
+    public void setup() {
+        list = IntStream.range(0, elements)
+            .mapToObj(i -> new Element((i * 7919) % keys))
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupingByBoxedInt() {
+        return list.stream().collect(Collectors.groupingBy(Element::intKey, Collectors.counting()));
+    }
+
+    @Benchmark
+    public IntKeyedGroups<Long> groupingByInt() {
+        return list.stream().collect(FieldCollectors.groupingByInt(INT_KEY, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Long, Long> groupingByBoxedLong() {
+        return list.stream().collect(Collectors.groupingBy(Element::longKey, Collectors.counting()));
+    }
+
+    @Benchmark
+    public LongKeyedGroups<Long> groupingByLong() {
+        return list.stream().collect(FieldCollectors.groupingByLong(LONG_KEY, Collectors.counting()));
+    }
+
+    public static final class Element {
+
+        private final int key;
+
+        Element(final int key) {
+            this.key = key;
+        }
+
+        public int intKey() {
+            return key;
+        }
+
+        public long longKey() {
+            return (long) key << 32 | key;
+        }
+    }
+}
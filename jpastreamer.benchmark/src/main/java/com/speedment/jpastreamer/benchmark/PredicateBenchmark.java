@@ -0,0 +1,86 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.benchmark;
+
+import com.speedment.jpastreamer.benchmark.model.Film;
+import com.speedment.jpastreamer.benchmark.model.Film$;
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of field predicates into JPA Criteria predicates by the
+ * {@link PredicateFactory}, relative to only creating the Criteria.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateBenchmark {
+
+    private static final SpeedmentPredicate<Film> EQUAL = Film$.rating.equal("PG-13");
+    private static final SpeedmentPredicate<Film> BETWEEN = Film$.length.between(60, 150);
+    private static final SpeedmentPredicate<Film> COMBINED = Film$.rating.in("G", "PG")
+        .and(Film$.length.greaterThan(90))
+        .or(Film$.title.startsWith("FILM A").and(Film$.rentalRate.lessThan(2.0f)));
+
+    private CriteriaFactory criteriaFactory;
+    private PredicateFactory predicateFactory;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setup(final Database database) {
+        criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
+        predicateFactory = RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load);
+        entityManager = database.entityManagerFactory.createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    @Benchmark
+    public Criteria<Film, Film> createCriteria() {
+        return criteriaFactory.createCriteria(entityManager, Film.class);
+    }
+
+    @Benchmark
+    public Predicate equal() {
+        return createPredicate(EQUAL);
+    }
+
+    @Benchmark
+    public Predicate between() {
+        return createPredicate(BETWEEN);
+    }
+
+    @Benchmark
+    public Predicate combined() {
+        return createPredicate(COMBINED);
+    }
+
+    private Predicate createPredicate(final SpeedmentPredicate<Film> predicate) {
+        return predicateFactory.createPredicate(criteriaFactory.createCriteria(entityManager, Film.class), predicate);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.benchmark;
+
+import com.speedment.jpastreamer.benchmark.model.Film;
+import com.speedment.jpastreamer.benchmark.model.Film$;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.RendererFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the overhead of {@link Renderer#render(Pipeline, StreamConfiguration)}, i.e.
+ * optimizing and merging a pipeline into a query, compared to executing the equivalent
+ * hand-written Criteria query on the same EntityManager.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    private PipelineFactory pipelineFactory;
+    private IntermediateOperationFactory intermediateOperationFactory;
+    private TerminalOperationFactory terminalOperationFactory;
+    private StreamConfiguration<Film> streamConfiguration;
+    private EntityManager entityManager;
+    private Renderer renderer;
+
+    @Setup
+    public void setup(final Database database) {
+        pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+        intermediateOperationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+        terminalOperationFactory = RootFactory.getOrThrow(TerminalOperationFactory.class, ServiceLoader::load);
+        streamConfiguration = StreamConfiguration.of(Film.class);
+        entityManager = database.entityManagerFactory.createEntityManager();
+        renderer = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load).createRenderer(entityManager);
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.close();
+    }
+
+    @Benchmark
+    public Pipeline<Film> createPipeline() {
+        return pipeline();
+    }
+
+    @Benchmark
+    public List<Film> render() {
+        final RenderResult<Film, Film, Stream<Film>> renderResult = renderer.render(pipeline(), streamConfiguration);
+        try (Stream<Film> stream = renderResult.stream()) {
+            return stream.collect(Collectors.toList());
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    @Benchmark
+    public List<Film> renderBaseline() {
+        try {
+            final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            final CriteriaQuery<Film> query = builder.createQuery(Film.class);
+            final Root<Film> root = query.from(Film.class);
+            query.select(root)
+                .where(builder.equal(root.get("rating"), "PG-13"))
+                .orderBy(builder.desc(root.get("length")));
+            return entityManager.createQuery(query)
+                .setMaxResults(StreamBenchmark.PAGE_SIZE)
+                .getResultList();
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Returns a new pipeline corresponding to
+     * {@code filter(rating == "PG-13").sorted(length desc).limit(20).collect(toList())},
+     * as the renderer modifies the pipeline it renders.
+     */
+    private Pipeline<Film> pipeline() {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(intermediateOperationFactory.createFilter(Film$.rating.equal("PG-13")));
+        pipeline.intermediateOperations().add(intermediateOperationFactory.createSorted(Film$.length.reversed()));
+        pipeline.intermediateOperations().add(intermediateOperationFactory.createLimit(StreamBenchmark.PAGE_SIZE));
+        pipeline.terminatingOperation(terminalOperationFactory.createCollect(Collectors.toList()));
+        return pipeline;
+    }
+}
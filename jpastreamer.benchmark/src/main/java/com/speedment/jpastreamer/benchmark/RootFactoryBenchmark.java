@@ -0,0 +1,104 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.benchmark;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.renderer.RendererFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the cost of resolving services through the {@link RootFactory} and the
+ * resulting cost of creating streams, with and without memoized services.
+ * <p>
+ * The EntityManagers are inert proxies, so only the stream creation overhead is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RootFactoryBenchmark {
+
+    private JPAStreamer jpaStreamer;
+
+    @Setup
+    public void setup() {
+        jpaStreamer = JPAStreamer.of(inert(EntityManagerFactory.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        jpaStreamer.close();
+    }
+
+    @Benchmark
+    public RendererFactory resolveService() {
+        return RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load);
+    }
+
+    @Benchmark
+    public RendererFactory resolveServiceInvalidated() {
+        RootFactory.invalidate();
+        return RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load);
+    }
+
+    @Benchmark
+    public Stream<Object> createStream() {
+        return createAndClose();
+    }
+
+    @Benchmark
+    public Stream<Object> createStreamInvalidated() {
+        RootFactory.invalidate();
+        return createAndClose();
+    }
+
+    private Stream<Object> createAndClose() {
+        final Stream<Object> stream = jpaStreamer.stream(Object.class);
+        stream.close();
+        return stream;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T inert(final Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                case "toString": return type.getSimpleName();
+                default: break;
+            }
+            if (method.getReturnType() == EntityManager.class) {
+                return inert(EntityManager.class);
+            }
+            if (method.getReturnType() == Map.class) {
+                return Collections.emptyMap();
+            }
+            if (method.getReturnType() == boolean.class) {
+                return false;
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.benchmark;
+
+import com.speedment.jpastreamer.benchmark.model.Film;
+import com.speedment.jpastreamer.benchmark.model.Film$;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures complete streams against the {@link Database}, from the creation of the
+ * stream to the consumption of its result, compared to the equivalent hand-written
+ * Criteria or JPQL query.
+ * <p>
+ * Both JPAstreamer and the baselines use a new EntityManager per invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamBenchmark {
+
+    static final int PAGE_SIZE = 20;
+    static final int PAGE_OFFSET = 100;
+
+    @Benchmark
+    public Stream<Film> createStream(final Database database) {
+        final Stream<Film> stream = database.jpaStreamer.stream(Film.class);
+        stream.close();
+        return stream;
+    }
+
+    @Benchmark
+    public long count(final Database database) {
+        return database.jpaStreamer.stream(Film.class)
+            .filter(Film$.rating.equal("PG-13"))
+            .count();
+    }
+
+    @Benchmark
+    public long countBaseline(final Database database) {
+        final EntityManager entityManager = database.entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select count(f) from Film f where f.rating = :rating", Long.class)
+                .setParameter("rating", "PG-13")
+                .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<Film> page(final Database database) {
+        return database.jpaStreamer.stream(Film.class)
+            .filter(Film$.length.between(60, 150))
+            .sorted(Film$.title)
+            .skip(PAGE_OFFSET)
+            .limit(PAGE_SIZE)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Film> pageBaseline(final Database database) {
+        final EntityManager entityManager = database.entityManagerFactory.createEntityManager();
+        try {
+            final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            final CriteriaQuery<Film> query = builder.createQuery(Film.class);
+            final Root<Film> root = query.from(Film.class);
+            query.select(root)
+                .where(builder.between(root.get("length"), 60, 150))
+                .orderBy(builder.asc(root.get("title")));
+            return entityManager.createQuery(query)
+                .setFirstResult(PAGE_OFFSET)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * The lambdas cannot be expressed in the query, so the filtering and summing are
+     * performed in memory on the entities read.
+     */
+    @Benchmark
+    public long residual(final Database database) {
+        return database.jpaStreamer.stream(Film.class)
+            .filter(film -> film.getTitle().indexOf('A') >= 0)
+            .mapToLong(film -> film.getLength() * 2L)
+            .sum();
+    }
+
+    @Benchmark
+    public long residualBaseline(final Database database) {
+        final EntityManager entityManager = database.entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select f from Film f", Film.class)
+                .getResultStream()
+                .filter(film -> film.getTitle().indexOf('A') >= 0)
+                .mapToLong(film -> film.getLength() * 2L)
+                .sum();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
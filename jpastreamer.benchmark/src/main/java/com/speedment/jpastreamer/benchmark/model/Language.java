@@ -0,0 +1,58 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.benchmark.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "language")
+public class Language {
+
+    public Language() {}
+
+    public Language(Integer languageId, String name) {
+        this.languageId = languageId;
+        this.name = name;
+    }
+
+    @Id
+    @Column(name = "language_id", nullable = false, updatable = false)
+    private Integer languageId;
+
+    @Column(name = "name", nullable = false, length = 20)
+    private String name;
+
+    public Integer getLanguageId() {
+        return languageId;
+    }
+
+    public void setLanguageId(Integer languageId) {
+        this.languageId = languageId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "Language{" +
+                "languageId=" + languageId +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
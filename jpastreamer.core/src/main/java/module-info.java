@@ -30,4 +30,5 @@ module jpastreamer.core {
     requires jpastreamer.appinfo.standard;
     requires jpastreamer.fieldgenerator.standard;
     requires jpastreamer.streamconfiguration.standard;
+    requires jpastreamer.metrics.standard;
 }
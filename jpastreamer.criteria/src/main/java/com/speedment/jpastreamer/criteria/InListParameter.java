@@ -0,0 +1,68 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A query parameter holding the values of an IN-list, which are bound to a single
+ * collection-valued parameter.
+ * <p>
+ * The bound value is padded to a power of two by repeating its last element, so
+ * that IN-lists of similar lengths expand into the same SQL statement and share
+ * prepared statements. The padding does not affect the result of the query.
+ *
+ * @param <T> the type of the values
+ * @since 3.0.4
+ */
+public interface InListParameter<T> extends QueryParameter<Collection<T>> {
+
+    /**
+     * Returns the values of the IN-list, as provided by the predicate, i.e.
+     * without padding.
+     *
+     * @return the values of the IN-list
+     */
+    Collection<T> values();
+
+    /**
+     * Returns the provided values padded to the nearest power of two by
+     * repeating the last value.
+     *
+     * @param values to pad, must not be empty
+     * @param <T> the type of the values
+     * @return the provided values padded to the nearest power of two
+     * @throws IllegalArgumentException if the provided values are empty
+     */
+    static <T> List<T> pad(final Collection<T> values) {
+        requireNonNull(values);
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("An empty IN-list can not be padded");
+        }
+
+        final int size = values.size();
+        final int paddedSize = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+
+        final List<T> padded = new ArrayList<>(paddedSize);
+        padded.addAll(values);
+        final T last = padded.get(size - 1);
+        while (padded.size() < paddedSize) {
+            padded.add(last);
+        }
+        return padded;
+    }
+}
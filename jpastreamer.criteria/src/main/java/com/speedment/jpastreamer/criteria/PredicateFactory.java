@@ -16,6 +16,8 @@ import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.List;
+
 /**
  * @author Mislav Milicevic
  * @since 0.0.9
@@ -35,4 +37,44 @@ public interface PredicateFactory {
         final Criteria<ENTITY, ?> criteria,
         final SpeedmentPredicate<ENTITY> speedmentPredicate
     );
+
+    /**
+     * Returns the values that {@link #createPredicate(Criteria, SpeedmentPredicate)}
+     * would bind as query parameters for the provided {@code speedmentPredicate},
+     * in the same order as they are added to the {@code Criteria}.
+     * <p>
+     * This allows a previously rendered query to be reused by only
+     * rebinding its parameters.
+     *
+     * @param speedmentPredicate used as a model for the parameter values
+     * @param <ENTITY> root entity used in the Speedment Predicate
+     * @return parameter values in binding order
+     */
+    <ENTITY> List<Object> createParameterValues(
+        final SpeedmentPredicate<ENTITY> speedmentPredicate
+    );
+
+    /**
+     * Returns a {@code SpeedmentPredicate} that is equivalent to the provided
+     * {@code speedmentPredicate} but has a simpler structure, or the provided
+     * {@code speedmentPredicate} if it can not be simplified.
+     * <p>
+     * Nested logical operators are flattened, constant predicates are folded, ranges on
+     * the same field are intersected and equality tests on the same field that are
+     * combined using {@code or} are collapsed into a single {@code in} predicate. A
+     * predicate that can never be satisfied is normalized into
+     * {@link com.speedment.jpastreamer.field.predicate.PredicateType#ALWAYS_FALSE}.
+     * <p>
+     * Both {@link #createPredicate(Criteria, SpeedmentPredicate)} and
+     * {@link #createParameterValues(SpeedmentPredicate)} normalize the provided
+     * predicate before mapping it.
+     *
+     * @param speedmentPredicate to normalize
+     * @param <ENTITY> root entity used in the Speedment Predicate
+     * @return the normalized Speedment Predicate
+     * @since 3.0.4
+     */
+    <ENTITY> SpeedmentPredicate<ENTITY> normalize(
+        final SpeedmentPredicate<ENTITY> speedmentPredicate
+    );
 }
@@ -0,0 +1,56 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+
+import java.util.Optional;
+import java.util.stream.Collector;
+
+/**
+ * A downstream collector that remembers what it computes, allowing the
+ * aggregation to be expressed in a query rather than in the JVM.
+ *
+ * @param <T>  the entity type to be collected
+ * @param <A>  the intermediate accumulation type
+ * @param <R>  the collected result
+ *
+ * @since  3.0.4
+ */
+public interface AggregateCollector<T, A, R> extends Collector<T, A, R> {
+
+    /**
+     * Returns the type of aggregation performed by this collector.
+     *
+     * @return  the aggregate type
+     */
+    AggregateType getAggregateType();
+
+    /**
+     * Returns the field that is aggregated, or an empty {@code Optional} if
+     * the aggregation does not depend on a field ({@link AggregateType#COUNTING}).
+     *
+     * @return  the aggregated field
+     */
+    Optional<Field<T>> getField();
+
+    /**
+     * Returns the comparator used by {@link AggregateType#MIN_BY} and
+     * {@link AggregateType#MAX_BY}, or an empty {@code Optional} for other types.
+     *
+     * @return  the comparator
+     */
+    Optional<FieldComparator<T>> getComparator();
+
+}
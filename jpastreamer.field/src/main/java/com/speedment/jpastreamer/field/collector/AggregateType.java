@@ -0,0 +1,35 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+/**
+ * The kinds of downstream collectors that can be applied to the groups of a
+ * {@link FieldCollector} by the database. Each type corresponds to the
+ * collector with the same name in {@link java.util.stream.Collectors}.
+ *
+ * @since  3.0.4
+ */
+public enum AggregateType {
+
+    COUNTING,
+    SUMMING_INT,
+    SUMMING_LONG,
+    SUMMING_DOUBLE,
+    AVERAGING_INT,
+    AVERAGING_LONG,
+    AVERAGING_DOUBLE,
+    MIN_BY,
+    MAX_BY,
+    MAPPING
+
+}
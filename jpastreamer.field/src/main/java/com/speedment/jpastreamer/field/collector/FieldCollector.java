@@ -14,6 +14,7 @@ package com.speedment.jpastreamer.field.collector;
 
 import com.speedment.jpastreamer.field.Field;
 
+import java.util.Optional;
 import java.util.stream.Collector;
 
 /**
@@ -33,5 +34,17 @@ public interface FieldCollector<T, A, R> extends Collector<T, A, R> {
      * @return  the field
      */
     Field<T> getField();
+
+    /**
+     * Returns the downstream collector that is applied to each group, if the
+     * elements are grouped by the value of the {@link #getField() field} and
+     * the downstream collector is an {@link AggregateCollector}.
+     *
+     * @return  the downstream collector
+     * @since   3.0.4
+     */
+    default Optional<AggregateCollector<? super T, ?, ?>> getDownstream() {
+        return Optional.empty();
+    }
     
 }
@@ -13,11 +13,17 @@
 package com.speedment.jpastreamer.field.collector;
 
 import com.speedment.jpastreamer.field.*;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.internal.collector.AggregateCollectorImpl;
+import com.speedment.jpastreamer.field.internal.collector.DoubleKeyedGroupsImpl;
 import com.speedment.jpastreamer.field.internal.collector.FieldCollectorImpl;
+import com.speedment.jpastreamer.field.internal.collector.IntKeyedGroupsImpl;
+import com.speedment.jpastreamer.field.internal.collector.LongKeyedGroupsImpl;
 
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
@@ -85,52 +91,157 @@ public final class FieldCollectors {
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Long, R>>
     groupingBy(LongField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Integer, R>>
     groupingBy(IntField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Short, R>>
     groupingBy(ShortField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Byte, R>>
     groupingBy(ByteField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Double, R>>
     groupingBy(DoubleField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Float, R>>
     groupingBy(FloatField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Boolean, R>>
     groupingBy(BooleanField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Character, R>>
     groupingBy(CharField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<String, R>>
     groupingBy(StringField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, T, A, R> Collector<ENTITY, ?, Map<T, R>>
     groupingBy(ReferenceField<ENTITY, T> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
+    }
+
+    /**
+     * Returns a {@link Collector} that groups the entities by the field values
+     * into lists, like {@link #groupingBy(IntField)}, without boxing the
+     * field values, see {@link IntKeyedGroups}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to group by
+     * @return          a collector that groups the entities by the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> Collector<ENTITY, ?, IntKeyedGroups<List<ENTITY>>>
+    groupingByInt(IntField<ENTITY> field) {
+        return groupingByInt(field, toList());
+    }
+
+    /**
+     * Returns a {@link Collector} that groups the entities by the field values
+     * and reduces the entities of each group using the {@code downstream}
+     * collector, like {@link #groupingBy(IntField, Collector)}, without boxing
+     * the field values, see {@link IntKeyedGroups}. The groups are always
+     * computed by the stream.
+     *
+     * @param <ENTITY>    the entity type
+     * @param <A>         the intermediate accumulation type of the downstream collector
+     * @param <R>         the result type of the downstream collector
+     * @param field       the field to group by
+     * @param downstream  the collector reducing the entities of each group
+     * @return            a collector that groups the entities by the field values
+     * @since             3.0.4
+     */
+    public static <ENTITY, A, R> Collector<ENTITY, ?, IntKeyedGroups<R>>
+    groupingByInt(IntField<ENTITY> field, Collector<? super ENTITY, A, R> downstream) {
+        return IntKeyedGroupsImpl.groupingBy(field.getter(), downstream);
+    }
+
+    /**
+     * Returns a {@link Collector} that groups the entities by the field values
+     * into lists, like {@link #groupingBy(LongField)}, without boxing the
+     * field values, see {@link LongKeyedGroups}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to group by
+     * @return          a collector that groups the entities by the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> Collector<ENTITY, ?, LongKeyedGroups<List<ENTITY>>>
+    groupingByLong(LongField<ENTITY> field) {
+        return groupingByLong(field, toList());
+    }
+
+    /**
+     * Returns a {@link Collector} that groups the entities by the field values
+     * and reduces the entities of each group using the {@code downstream}
+     * collector, like {@link #groupingBy(LongField, Collector)}, without boxing
+     * the field values, see {@link LongKeyedGroups}. The groups are always
+     * computed by the stream.
+     *
+     * @param <ENTITY>    the entity type
+     * @param <A>         the intermediate accumulation type of the downstream collector
+     * @param <R>         the result type of the downstream collector
+     * @param field       the field to group by
+     * @param downstream  the collector reducing the entities of each group
+     * @return            a collector that groups the entities by the field values
+     * @since             3.0.4
+     */
+    public static <ENTITY, A, R> Collector<ENTITY, ?, LongKeyedGroups<R>>
+    groupingByLong(LongField<ENTITY> field, Collector<? super ENTITY, A, R> downstream) {
+        return LongKeyedGroupsImpl.groupingBy(field.getter(), downstream);
+    }
+
+    /**
+     * Returns a {@link Collector} that groups the entities by the field values
+     * into lists, like {@link #groupingBy(DoubleField)}, without boxing the
+     * field values, see {@link DoubleKeyedGroups}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to group by
+     * @return          a collector that groups the entities by the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> Collector<ENTITY, ?, DoubleKeyedGroups<List<ENTITY>>>
+    groupingByDouble(DoubleField<ENTITY> field) {
+        return groupingByDouble(field, toList());
+    }
+
+    /**
+     * Returns a {@link Collector} that groups the entities by the field values
+     * and reduces the entities of each group using the {@code downstream}
+     * collector, like {@link #groupingBy(DoubleField, Collector)}, without boxing
+     * the field values, see {@link DoubleKeyedGroups}. The groups are always
+     * computed by the stream.
+     *
+     * @param <ENTITY>    the entity type
+     * @param <A>         the intermediate accumulation type of the downstream collector
+     * @param <R>         the result type of the downstream collector
+     * @param field       the field to group by
+     * @param downstream  the collector reducing the entities of each group
+     * @return            a collector that groups the entities by the field values
+     * @since             3.0.4
+     */
+    public static <ENTITY, A, R> Collector<ENTITY, ?, DoubleKeyedGroups<R>>
+    groupingByDouble(DoubleField<ENTITY> field, Collector<? super ENTITY, A, R> downstream) {
+        return DoubleKeyedGroupsImpl.groupingBy(field.getter(), downstream);
     }
     
     public static <T, K, D, A, M extends Map<K, D>>
@@ -140,6 +251,178 @@ public final class FieldCollectors {
             Supplier<M> mapFactory,
             Collector<? super T, A, D> downstream) {
 
+        return groupingBy(field, classifier, mapFactory, downstream, null);
+    }
+
+    /**
+     * Returns a {@link Collector} that counts the number of elements, like
+     * {@link Collectors#counting()}. When used as the downstream of a
+     * {@code groupingBy} collector, the count can be computed by the database.
+     *
+     * @param <ENTITY>  the entity type
+     * @return          a collector that counts the elements
+     * @since           3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Long> counting() {
+        return aggregate(AggregateType.COUNTING, null, null, Collectors.counting());
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the sum of the field values,
+     * like {@link Collectors#summingInt(ToIntFunction)}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to sum
+     * @return          a collector that sums the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Integer> summingInt(IntField<ENTITY> field) {
+        return aggregate(AggregateType.SUMMING_INT, field, null, Collectors.summingInt(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the sum of the field values,
+     * like {@link Collectors#summingLong(ToLongFunction)}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to sum
+     * @return          a collector that sums the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Long> summingLong(LongField<ENTITY> field) {
+        return aggregate(AggregateType.SUMMING_LONG, field, null, Collectors.summingLong(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the sum of the field values,
+     * like {@link Collectors#summingDouble(ToDoubleFunction)}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to sum
+     * @return          a collector that sums the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> summingDouble(DoubleField<ENTITY> field) {
+        return aggregate(AggregateType.SUMMING_DOUBLE, field, null, Collectors.summingDouble(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the arithmetic mean of the
+     * field values, like {@link Collectors#averagingInt(ToIntFunction)}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to average
+     * @return          a collector that averages the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> averagingInt(IntField<ENTITY> field) {
+        return aggregate(AggregateType.AVERAGING_INT, field, null, Collectors.averagingInt(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the arithmetic mean of the
+     * field values, like {@link Collectors#averagingLong(ToLongFunction)}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to average
+     * @return          a collector that averages the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> averagingLong(LongField<ENTITY> field) {
+        return aggregate(AggregateType.AVERAGING_LONG, field, null, Collectors.averagingLong(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the arithmetic mean of the
+     * field values, like {@link Collectors#averagingDouble(ToDoubleFunction)}.
+     *
+     * @param <ENTITY>  the entity type
+     * @param field     the field to average
+     * @return          a collector that averages the field values
+     * @since           3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> averagingDouble(DoubleField<ENTITY> field) {
+        return aggregate(AggregateType.AVERAGING_DOUBLE, field, null, Collectors.averagingDouble(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the minimal element according
+     * to the given comparator, like {@link Collectors#minBy(Comparator)}.
+     *
+     * @param <ENTITY>    the entity type
+     * @param comparator  the comparator to compare the elements with
+     * @return            a collector that produces the minimal element
+     * @since             3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Optional<ENTITY>> minBy(FieldComparator<ENTITY> comparator) {
+        return aggregate(AggregateType.MIN_BY, comparator.getField(), comparator, Collectors.minBy(comparator));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the maximal element according
+     * to the given comparator, like {@link Collectors#maxBy(Comparator)}.
+     *
+     * @param <ENTITY>    the entity type
+     * @param comparator  the comparator to compare the elements with
+     * @return            a collector that produces the maximal element
+     * @since             3.0.4
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Optional<ENTITY>> maxBy(FieldComparator<ENTITY> comparator) {
+        return aggregate(AggregateType.MAX_BY, comparator.getField(), comparator, Collectors.maxBy(comparator));
+    }
+
+    /**
+     * Returns a {@link Collector} that applies the downstream collector to
+     * the field values, like {@link Collectors#mapping(Function, Collector)}.
+     * When used as the downstream of a {@code groupingBy} collector with a
+     * downstream such as {@link Collectors#toSet()}, the distinct values of
+     * each group can be selected by the database.
+     *
+     * @param <ENTITY>    the entity type
+     * @param <V>         the field value type
+     * @param <A>         the intermediate accumulation type of the downstream collector
+     * @param <R>         the result type of the downstream collector
+     * @param field       the field to map the elements to
+     * @param downstream  the collector to apply to the field values
+     * @return            a collector that collects the field values
+     * @since             3.0.4
+     */
+    public static <ENTITY, V, A, R> AggregateCollector<ENTITY, ?, R>
+    mapping(ReferenceField<ENTITY, V> field, Collector<? super V, A, R> downstream) {
+        final Function<ENTITY, V> mapper = field.getter()::apply;
+        return aggregate(AggregateType.MAPPING, field, null, Collectors.mapping(mapper, downstream));
+    }
+
+    private static <T, A, R> AggregateCollector<T, A, R> aggregate(
+            AggregateType aggregateType,
+            Field<T> field,
+            FieldComparator<T> comparator,
+            Collector<T, A, R> delegate) {
+
+        return new AggregateCollectorImpl<>(aggregateType, field, comparator, delegate);
+    }
+
+    private static <T, K, D, A> FieldCollector<T, ?, Map<K, D>> groupingByField(
+            Field<T> field,
+            Function<T, K> classifier,
+            Collector<? super T, A, D> downstream) {
+
+        // The keys are the field values, hence the groups can be computed by the database
+        final AggregateCollector<? super T, ?, ?> aggregate = downstream instanceof AggregateCollector
+            ? (AggregateCollector<? super T, ?, ?>) downstream
+            : null;
+
+        return groupingBy(field, classifier, HashMap::new, downstream, aggregate);
+    }
+
+    private static <T, K, D, A, M extends Map<K, D>>
+    FieldCollector<T, ?, M> groupingBy(
+            Field<T> field,
+            Function<T, K> classifier,
+            Supplier<M> mapFactory,
+            Collector<? super T, A, D> downstream,
+            AggregateCollector<? super T, ?, ?> aggregate) {
+
         Supplier<A> downstreamSupplier = downstream.supplier();
         BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
         BiConsumer<Map<K, A>, T> accumulator = (m, t) -> {
@@ -152,18 +435,18 @@ public final class FieldCollectors {
         Supplier<Map<K, A>> mangledFactory = (Supplier<Map<K, A>>) mapFactory;
 
         if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
-            return new FieldCollectorImpl<>(field, mangledFactory, accumulator, merger, CH_ID);
+            return new FieldCollectorImpl<>(field, mangledFactory, accumulator, merger, CH_ID, aggregate);
         }
         else {
             @SuppressWarnings("unchecked")
-            UnaryOperator<A> downstreamFinisher = (UnaryOperator<A>) downstream.finisher();
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
             Function<Map<K, A>, M> finisher = intermediate -> {
                 intermediate.replaceAll((k, v) -> downstreamFinisher.apply(v));
                 @SuppressWarnings("unchecked")
                 M castResult = (M) intermediate;
                 return castResult;
             };
-            return new FieldCollectorImpl<>(field, mangledFactory, accumulator, merger, finisher, CH_NOID);
+            return new FieldCollectorImpl<>(field, mangledFactory, accumulator, merger, finisher, CH_NOID, aggregate);
         }
     }
 
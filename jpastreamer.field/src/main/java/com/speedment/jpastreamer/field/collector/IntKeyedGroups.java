@@ -0,0 +1,119 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+import java.util.Map;
+
+/**
+ * Groups of elements keyed by {@code int} values, as collected by
+ * {@link FieldCollectors#groupingByInt(com.speedment.jpastreamer.field.IntField, java.util.stream.Collector)}.
+ * <p>
+ * The keys are held in an open-addressing hash table of {@code int} values, hence
+ * grouping the elements does not box the keys. A {@link Map} view of the groups is
+ * created only if requested using {@link #asMap()}.
+ * <p>
+ * Instances are unmodifiable.
+ *
+ * @param <V> the type of the group values
+ * @since 3.0.4
+ */
+public interface IntKeyedGroups<V> {
+
+    /**
+     * Returns the number of groups.
+     *
+     * @return the number of groups
+     */
+    int size();
+
+    /**
+     * Returns whether there are no groups.
+     *
+     * @return whether there are no groups
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns whether there is a group with the provided {@code key}.
+     *
+     * @param key of the group
+     * @return whether there is a group with the provided {@code key}
+     */
+    boolean containsKey(int key);
+
+    /**
+     * Returns the value of the group with the provided {@code key}, or
+     * {@code null} if there is no such group. As the value of a group may be
+     * {@code null}, {@link #containsKey(int)} tells the two apart.
+     *
+     * @param key of the group
+     * @return the value of the group with the provided {@code key}, if any
+     */
+    V get(int key);
+
+    /**
+     * Returns the value of the group with the provided {@code key}, or the
+     * provided {@code defaultValue} if there is no such group.
+     *
+     * @param key of the group
+     * @param defaultValue to return if there is no such group
+     * @return the value of the group with the provided {@code key}, or the
+     * provided {@code defaultValue}
+     */
+    default V getOrDefault(final int key, final V defaultValue) {
+        final V value = get(key);
+        return value != null || containsKey(key) ? value : defaultValue;
+    }
+
+    /**
+     * Returns the keys of the groups, in no particular order.
+     *
+     * @return the keys of the groups
+     */
+    int[] keys();
+
+    /**
+     * Calls the provided {@code action} with the key and value of each group,
+     * in no particular order.
+     *
+     * @param action to call for each group
+     */
+    void forEach(EntryConsumer<? super V> action);
+
+    /**
+     * Returns an unmodifiable {@link Map} view of the groups. The keys are
+     * boxed as the view is accessed.
+     *
+     * @return an unmodifiable {@link Map} view of the groups
+     */
+    Map<Integer, V> asMap();
+
+    /**
+     * An action called with the key and value of a group.
+     *
+     * @param <V> the type of the group values
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V> {
+
+        /**
+         * Performs this action on the provided group.
+         *
+         * @param key of the group
+         * @param value of the group
+         */
+        void accept(int key, V value);
+    }
+}
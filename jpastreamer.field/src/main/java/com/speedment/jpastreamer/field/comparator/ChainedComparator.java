@@ -0,0 +1,50 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.comparator;
+
+import java.util.Comparator;
+
+/**
+ * A {@link Comparator} that compares using a {@link CombinedComparator} of
+ * fields, and if that evaluates to {@code 0}, continues on to an arbitrary
+ * tie breaker. Such comparators are returned when a {@link FieldComparator}
+ * or {@link CombinedComparator} is followed by a comparator that is not based
+ * on fields, for example {@code Film$.rating.thenComparing(Film::getTitle)}.
+ * <p>
+ * This allows the leading fields to be ordered by the database even though
+ * the whole comparator can not be expressed in a query.
+ *
+ * @param <ENTITY>  the entity type
+ *
+ * @since  3.0.4
+ */
+public interface ChainedComparator<ENTITY> extends Comparator<ENTITY> {
+
+    /**
+     * Returns the comparator of the fields that are compared first.
+     *
+     * @return  the comparator of the leading fields
+     */
+    CombinedComparator<ENTITY> leadingComparator();
+
+    /**
+     * Returns the comparator that is used if the {@link #leadingComparator()}
+     * evaluates to {@code 0}.
+     *
+     * @return  the tie breaking comparator
+     */
+    Comparator<? super ENTITY> tieBreaker();
+
+    @Override
+    ChainedComparator<ENTITY> reversed();
+}
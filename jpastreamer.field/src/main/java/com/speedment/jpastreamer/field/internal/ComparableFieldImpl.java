@@ -19,6 +19,7 @@ import com.speedment.jpastreamer.field.comparator.NullOrder;
 import com.speedment.jpastreamer.field.internal.comparator.ReferenceFieldComparatorImpl;
 import com.speedment.jpastreamer.field.internal.predicate.reference.*;
 import com.speedment.jpastreamer.field.internal.util.CollectionUtil;
+import com.speedment.jpastreamer.field.internal.method.GetReferenceImpl;
 import com.speedment.jpastreamer.field.method.ReferenceGetter;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.predicate.Inclusion;
@@ -53,7 +54,7 @@ implements ComparableField<ENTITY, V>, FieldComparator<ENTITY> {
         
         this.table = requireNonNull(table);
         this.columnName = requireNonNull(columnName);
-        this.getter     = requireNonNull(getter);
+        this.getter     = new GetReferenceImpl<>(this, getter);
         this.unique     = unique;
     }
 
@@ -22,6 +22,7 @@ import com.speedment.jpastreamer.field.internal.predicate.enums.EnumIsNotNullPre
 import com.speedment.jpastreamer.field.internal.predicate.enums.EnumIsNullPredicate;
 import com.speedment.jpastreamer.field.internal.predicate.reference.ReferenceEqualPredicate;
 import com.speedment.jpastreamer.field.internal.predicate.reference.ReferenceInPredicate;
+import com.speedment.jpastreamer.field.internal.method.GetReferenceImpl;
 import com.speedment.jpastreamer.field.method.ReferenceGetter;
 import com.speedment.jpastreamer.field.predicate.Inclusion;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
@@ -57,7 +58,7 @@ public final class EnumFieldImpl<ENTITY, E extends Enum<E>>
     ) {
         this.table = requireNonNull(table);
         this.columnName = requireNonNull(columnName);
-        this.getter       = requireNonNull(getter);
+        this.getter       = new GetReferenceImpl<>(this, getter);
         this.enumClass    = requireNonNull(enumClass);
         this.constants    = EnumSet.allOf(enumClass);
     }
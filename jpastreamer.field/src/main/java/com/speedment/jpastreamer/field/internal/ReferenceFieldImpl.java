@@ -15,6 +15,7 @@ package com.speedment.jpastreamer.field.internal;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.ReferenceField;
 import com.speedment.jpastreamer.field.internal.predicate.reference.ReferenceIsNullPredicate;
+import com.speedment.jpastreamer.field.internal.method.GetReferenceImpl;
 import com.speedment.jpastreamer.field.method.ReferenceGetter;
 
 import static java.util.Objects.requireNonNull;
@@ -43,7 +44,7 @@ implements ReferenceField<ENTITY, V> {
     ) {
         this.table = requireNonNull(table);
         this.columnName = requireNonNull(columnName);
-        this.getter     = requireNonNull(getter);
+        this.getter     = new GetReferenceImpl<>(this, getter);
         this.unique     = unique;
     }
 
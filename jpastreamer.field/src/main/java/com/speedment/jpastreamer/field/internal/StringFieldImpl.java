@@ -21,6 +21,7 @@ import com.speedment.jpastreamer.field.internal.predicate.string.*;
 import com.speedment.jpastreamer.field.internal.util.CollectionUtil;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.internal.method.GetReferenceImpl;
 import com.speedment.jpastreamer.field.method.ReferenceGetter;
 import com.speedment.jpastreamer.field.predicate.Inclusion;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
@@ -53,7 +54,7 @@ implements StringField<ENTITY>,
     ) {
         this.table = requireNonNull(table);
         this.columnName = requireNonNull(columnName);
-        this.getter     = requireNonNull(getter);
+        this.getter     = new GetReferenceImpl<>(this, getter);
         this.unique     = unique;
     }
 
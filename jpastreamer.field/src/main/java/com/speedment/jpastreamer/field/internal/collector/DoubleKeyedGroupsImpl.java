@@ -0,0 +1,181 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.collector.DoubleKeyedGroups;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Groups keyed by {@code double} values, held in a {@link LongKeyedGroupsImpl} keyed by
+ * the bits of the values as given by {@link Double#doubleToLongBits(double)}.
+ *
+ * @param <V> the type of the group values
+ */
+public final class DoubleKeyedGroupsImpl<V> implements DoubleKeyedGroups<V> {
+
+    private final LongKeyedGroupsImpl<V> groups;
+    private Map<Double, V> map;
+
+    private DoubleKeyedGroupsImpl(final LongKeyedGroupsImpl<V> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Returns a Collector grouping the elements by the keys of the provided
+     * {@code classifier} and reducing the elements of each group using the
+     * provided {@code downstream} Collector.
+     *
+     * @param classifier computing the key of an element
+     * @param downstream reducing the elements of a group
+     * @param <T> the type of the elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <R> the result type of the downstream collector
+     * @return a Collector grouping the elements
+     */
+    public static <T, A, R> Collector<T, ?, DoubleKeyedGroups<R>> groupingBy(
+            final ToDoubleFunction<? super T> classifier,
+            final Collector<? super T, A, R> downstream) {
+        requireNonNull(classifier);
+        requireNonNull(downstream);
+
+        final Collector<T, ?, ?> bits = LongKeyedGroupsImpl.groupingBy(t -> Double.doubleToLongBits(classifier.applyAsDouble(t)), downstream);
+        return wrap(bits);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, A, R> Collector<T, A, DoubleKeyedGroups<R>> wrap(final Collector<T, A, ?> bits) {
+        final Function<A, ?> finisher = bits.finisher();
+        return Collector.of(
+            bits.supplier(),
+            bits.accumulator(),
+            bits.combiner(),
+            container -> new DoubleKeyedGroupsImpl<>((LongKeyedGroupsImpl<R>) finisher.apply(container))
+        );
+    }
+
+    @Override
+    public int size() {
+        return groups.size();
+    }
+
+    @Override
+    public boolean containsKey(final double key) {
+        return groups.containsKey(Double.doubleToLongBits(key));
+    }
+
+    @Override
+    public V get(final double key) {
+        return groups.get(Double.doubleToLongBits(key));
+    }
+
+    @Override
+    public double[] keys() {
+        final long[] bits = groups.keys();
+        final double[] result = new double[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            result[i] = Double.longBitsToDouble(bits[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public void forEach(final EntryConsumer<? super V> action) {
+        requireNonNull(action);
+        groups.forEach((key, value) -> action.accept(Double.longBitsToDouble(key), value));
+    }
+
+    @Override
+    public Map<Double, V> asMap() {
+        if (map == null) {
+            map = new MapView();
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DoubleKeyedGroups)) return false;
+        return asMap().equals(((DoubleKeyedGroups<?>) o).asMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return asMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private final class MapView extends AbstractMap<Double, V> {
+
+        private Set<Entry<Double, V>> entrySet;
+
+        @Override
+        public int size() {
+            return groups.size();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof Double && DoubleKeyedGroupsImpl.this.containsKey((Double) key);
+        }
+
+        @Override
+        public V get(final Object key) {
+            return key instanceof Double ? DoubleKeyedGroupsImpl.this.get((Double) key) : null;
+        }
+
+        @Override
+        public Set<Entry<Double, V>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<Double, V>>() {
+                    @Override
+                    public Iterator<Entry<Double, V>> iterator() {
+                        final Iterator<Entry<Long, V>> bits = groups.asMap().entrySet().iterator();
+                        return new Iterator<Entry<Double, V>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return bits.hasNext();
+                            }
+
+                            @Override
+                            public Entry<Double, V> next() {
+                                final Entry<Long, V> entry = bits.next();
+                                return new SimpleImmutableEntry<>(Double.longBitsToDouble(entry.getKey()), entry.getValue());
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return groups.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+}
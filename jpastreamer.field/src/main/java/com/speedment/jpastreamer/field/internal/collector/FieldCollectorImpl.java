@@ -12,9 +12,11 @@
  */
 package com.speedment.jpastreamer.field.internal.collector;
 
+import com.speedment.jpastreamer.field.collector.AggregateCollector;
 import com.speedment.jpastreamer.field.collector.FieldCollector;
 import com.speedment.jpastreamer.field.Field;
 
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -42,6 +44,7 @@ implements FieldCollector<T, A, R> {
     private final BinaryOperator<A> combiner;
     private final Function<A, R> finisher;
     private final Set<Collector.Characteristics> characteristics;
+    private final AggregateCollector<? super T, ?, ?> downstream;
 
     public FieldCollectorImpl(
                 Field<T> field,
@@ -49,7 +52,8 @@ implements FieldCollector<T, A, R> {
                 BiConsumer<A, T> accumulator,
                 BinaryOperator<A> combiner,
                 Function<A, R> finisher,
-                Set<Collector.Characteristics> characteristics) {
+                Set<Collector.Characteristics> characteristics,
+                AggregateCollector<? super T, ?, ?> downstream) {
         
         this.field           = requireNonNull(field);
         this.supplier        = requireNonNull(supplier);
@@ -57,6 +61,18 @@ implements FieldCollector<T, A, R> {
         this.combiner        = requireNonNull(combiner);
         this.finisher        = requireNonNull(finisher);
         this.characteristics = requireNonNull(characteristics);
+        this.downstream      = downstream;
+    }
+
+    public FieldCollectorImpl(
+                Field<T> field,
+                Supplier<A> supplier,
+                BiConsumer<A, T> accumulator,
+                BinaryOperator<A> combiner,
+                Function<A, R> finisher,
+                Set<Collector.Characteristics> characteristics) {
+
+        this(field, supplier, accumulator, combiner, finisher, characteristics, null);
     }
 
     public FieldCollectorImpl(
@@ -68,12 +84,28 @@ implements FieldCollector<T, A, R> {
         
         this(field, supplier, accumulator, combiner, castingIdentity(), characteristics);
     }
+
+    public FieldCollectorImpl(
+            Field<T> field,
+            Supplier<A> supplier,
+            BiConsumer<A, T> accumulator,
+            BinaryOperator<A> combiner,
+            Set<Collector.Characteristics> characteristics,
+            AggregateCollector<? super T, ?, ?> downstream) {
+
+        this(field, supplier, accumulator, combiner, castingIdentity(), characteristics, downstream);
+    }
     
     @Override
     public Field<T> getField() {
         return field;
     }
 
+    @Override
+    public Optional<AggregateCollector<? super T, ?, ?>> getDownstream() {
+        return Optional.ofNullable(downstream);
+    }
+
     @Override
     public BiConsumer<A, T> accumulator() {
         return accumulator;
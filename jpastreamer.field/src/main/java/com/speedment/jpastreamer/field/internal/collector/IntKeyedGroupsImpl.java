@@ -0,0 +1,181 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.collector.IntKeyedGroups;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Groups keyed by {@code int} values, held in a {@link LongKeyedGroupsImpl} keyed by
+ * the values widened to {@code long}.
+ *
+ * @param <V> the type of the group values
+ */
+public final class IntKeyedGroupsImpl<V> implements IntKeyedGroups<V> {
+
+    private final LongKeyedGroupsImpl<V> groups;
+    private Map<Integer, V> map;
+
+    private IntKeyedGroupsImpl(final LongKeyedGroupsImpl<V> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Returns a Collector grouping the elements by the keys of the provided
+     * {@code classifier} and reducing the elements of each group using the
+     * provided {@code downstream} Collector.
+     *
+     * @param classifier computing the key of an element
+     * @param downstream reducing the elements of a group
+     * @param <T> the type of the elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <R> the result type of the downstream collector
+     * @return a Collector grouping the elements
+     */
+    public static <T, A, R> Collector<T, ?, IntKeyedGroups<R>> groupingBy(
+            final ToIntFunction<? super T> classifier,
+            final Collector<? super T, A, R> downstream) {
+        requireNonNull(classifier);
+        requireNonNull(downstream);
+
+        final Collector<T, ?, ?> widened = LongKeyedGroupsImpl.groupingBy(t -> (long) classifier.applyAsInt(t), downstream);
+        return wrap(widened);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, A, R> Collector<T, A, IntKeyedGroups<R>> wrap(final Collector<T, A, ?> widened) {
+        final Function<A, ?> finisher = widened.finisher();
+        return Collector.of(
+            widened.supplier(),
+            widened.accumulator(),
+            widened.combiner(),
+            container -> new IntKeyedGroupsImpl<>((LongKeyedGroupsImpl<R>) finisher.apply(container))
+        );
+    }
+
+    @Override
+    public int size() {
+        return groups.size();
+    }
+
+    @Override
+    public boolean containsKey(final int key) {
+        return groups.containsKey(key);
+    }
+
+    @Override
+    public V get(final int key) {
+        return groups.get(key);
+    }
+
+    @Override
+    public int[] keys() {
+        final long[] widened = groups.keys();
+        final int[] result = new int[widened.length];
+        for (int i = 0; i < widened.length; i++) {
+            result[i] = (int) widened[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void forEach(final EntryConsumer<? super V> action) {
+        requireNonNull(action);
+        groups.forEach((key, value) -> action.accept((int) key, value));
+    }
+
+    @Override
+    public Map<Integer, V> asMap() {
+        if (map == null) {
+            map = new MapView();
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntKeyedGroups)) return false;
+        return asMap().equals(((IntKeyedGroups<?>) o).asMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return asMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private final class MapView extends AbstractMap<Integer, V> {
+
+        private Set<Entry<Integer, V>> entrySet;
+
+        @Override
+        public int size() {
+            return groups.size();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof Integer && IntKeyedGroupsImpl.this.containsKey((Integer) key);
+        }
+
+        @Override
+        public V get(final Object key) {
+            return key instanceof Integer ? IntKeyedGroupsImpl.this.get((Integer) key) : null;
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<Integer, V>>() {
+                    @Override
+                    public Iterator<Entry<Integer, V>> iterator() {
+                        final Iterator<Entry<Long, V>> widened = groups.asMap().entrySet().iterator();
+                        return new Iterator<Entry<Integer, V>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return widened.hasNext();
+                            }
+
+                            @Override
+                            public Entry<Integer, V> next() {
+                                final Entry<Long, V> entry = widened.next();
+                                return new SimpleImmutableEntry<>(entry.getKey().intValue(), entry.getValue());
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return groups.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+}
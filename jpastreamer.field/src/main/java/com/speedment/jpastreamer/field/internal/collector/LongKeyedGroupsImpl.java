@@ -0,0 +1,314 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.collector.LongKeyedGroups;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * An open-addressing hash table of groups keyed by {@code long} values, using linear
+ * probing. A slot is free if its value is {@code null}, hence a {@code null} value of
+ * a group is held as {@link #NULL}. The groups keyed by {@code int} and {@code double}
+ * values are held in this table as well, see {@link IntKeyedGroupsImpl} and
+ * {@link DoubleKeyedGroupsImpl}.
+ *
+ * @param <V> the type of the group values
+ */
+public final class LongKeyedGroupsImpl<V> implements LongKeyedGroups<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Holds the null value of a group, e.g. as returned by a downstream finisher
+    private static final Object NULL = new Object();
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private Map<Long, V> map;
+
+    public LongKeyedGroupsImpl() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns a Collector grouping the elements by the keys of the provided
+     * {@code classifier} and reducing the elements of each group using the
+     * provided {@code downstream} Collector.
+     *
+     * @param classifier computing the key of an element
+     * @param downstream reducing the elements of a group
+     * @param <T> the type of the elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <R> the result type of the downstream collector
+     * @return a Collector grouping the elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, A, R> Collector<T, ?, LongKeyedGroups<R>> groupingBy(
+            final ToLongFunction<? super T> classifier,
+            final Collector<? super T, A, R> downstream) {
+        requireNonNull(classifier);
+        requireNonNull(downstream);
+
+        final Supplier<A> downstreamSupplier = downstream.supplier();
+        final BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        final BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        final BiConsumer<LongKeyedGroupsImpl<A>, T> accumulator = (groups, t) ->
+            downstreamAccumulator.accept(groups.computeIfAbsent(classifier.applyAsLong(t), downstreamSupplier), t);
+        final BinaryOperator<LongKeyedGroupsImpl<A>> combiner = (left, right) -> left.merge(right, downstreamCombiner);
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return (Collector<T, ?, LongKeyedGroups<R>>) (Collector<T, ?, ?>) Collector.of(LongKeyedGroupsImpl<A>::new, accumulator, combiner, Collector.Characteristics.IDENTITY_FINISH);
+        }
+
+        final Function<A, R> downstreamFinisher = downstream.finisher();
+        return Collector.of(LongKeyedGroupsImpl<A>::new, accumulator, combiner, groups -> groups.finish(downstreamFinisher));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final long key) {
+        return values[indexOf(key)] != null;
+    }
+
+    @Override
+    public V get(final long key) {
+        return unmask(values[indexOf(key)]);
+    }
+
+    @Override
+    public long[] keys() {
+        final long[] result = new long[size];
+        int j = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result[j++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void forEach(final EntryConsumer<? super V> action) {
+        requireNonNull(action);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i], unmask(values[i]));
+            }
+        }
+    }
+
+    @Override
+    public Map<Long, V> asMap() {
+        if (map == null) {
+            map = new MapView();
+        }
+        return map;
+    }
+
+    /**
+     * Returns the value of the group with the provided {@code key}, adding a
+     * group with a value obtained from the provided {@code supplier} if there
+     * is no such group.
+     *
+     * @param key of the group
+     * @param supplier of the value of a new group
+     * @return the value of the group with the provided {@code key}
+     */
+    public V computeIfAbsent(final long key, final Supplier<? extends V> supplier) {
+        final int i = indexOf(key);
+        if (values[i] != null) {
+            return unmask(values[i]);
+        }
+        final V value = supplier.get();
+        insert(i, key, value);
+        return value;
+    }
+
+    /**
+     * Returns the slot holding the provided {@code key}, or the free slot where
+     * it is to be inserted if there is no group with the provided {@code key}.
+     */
+    private int indexOf(final long key) {
+        final int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private LongKeyedGroupsImpl<V> merge(final LongKeyedGroupsImpl<V> other, final BinaryOperator<V> combiner) {
+        other.forEach((key, value) -> {
+            final int i = indexOf(key);
+            if (values[i] != null) {
+                values[i] = mask(combiner.apply(unmask(values[i]), value));
+            } else {
+                insert(i, key, value);
+            }
+        });
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> LongKeyedGroups<R> finish(final Function<V, R> finisher) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                values[i] = mask(finisher.apply(unmask(values[i])));
+            }
+        }
+        return (LongKeyedGroups<R>) this;
+    }
+
+    private void insert(final int index, final long key, final V value) {
+        keys[index] = key;
+        values[index] = mask(value);
+        // Keeps the load factor at or below 0.75
+        if (++size > (values.length >> 1) + (values.length >> 2)) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new Object[oldValues.length << 1];
+        final int mask = keys.length - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static Object mask(final Object value) {
+        return value == null ? NULL : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unmask(final Object value) {
+        return value == NULL ? null : (V) value;
+    }
+
+    private static int hash(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongKeyedGroups)) return false;
+        return asMap().equals(((LongKeyedGroups<?>) o).asMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return asMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private final class MapView extends AbstractMap<Long, V> {
+
+        private Set<Entry<Long, V>> entrySet;
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof Long && LongKeyedGroupsImpl.this.containsKey((Long) key);
+        }
+
+        @Override
+        public V get(final Object key) {
+            return key instanceof Long ? LongKeyedGroupsImpl.this.get((Long) key) : null;
+        }
+
+        @Override
+        public Set<Entry<Long, V>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<Long, V>>() {
+                    @Override
+                    public Iterator<Entry<Long, V>> iterator() {
+                        return new EntryIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Long, V>> {
+
+        private int index = advance(0);
+
+        private int advance(final int from) {
+            int i = from;
+            while (i < values.length && values[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        @Override
+        public Map.Entry<Long, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<Long, V> entry = new AbstractMap.SimpleImmutableEntry<>(keys[index], unmask(values[index]));
+            index = advance(index + 1);
+            return entry;
+        }
+    }
+}
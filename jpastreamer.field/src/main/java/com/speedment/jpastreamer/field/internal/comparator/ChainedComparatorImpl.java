@@ -0,0 +1,94 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.comparator;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.comparator.ChainedComparator;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+
+import java.util.Comparator;
+
+/**
+ * Default implementation of the {@link ChainedComparator}-interface.
+ *
+ * @since  3.0.4
+ */
+public final class ChainedComparatorImpl<ENTITY>
+implements ChainedComparator<ENTITY> {
+
+    private final CombinedComparator<ENTITY> leadingComparator;
+    private final Comparator<? super ENTITY> tieBreaker;
+
+    public ChainedComparatorImpl(
+            final CombinedComparator<ENTITY> leadingComparator,
+            final Comparator<? super ENTITY> tieBreaker) {
+
+        this.leadingComparator = requireNonNull(leadingComparator);
+        this.tieBreaker = requireNonNull(tieBreaker);
+    }
+
+    @Override
+    public CombinedComparator<ENTITY> leadingComparator() {
+        return leadingComparator;
+    }
+
+    @Override
+    public Comparator<? super ENTITY> tieBreaker() {
+        return tieBreaker;
+    }
+
+    @Override
+    public int compare(ENTITY o1, ENTITY o2) {
+        final int c = leadingComparator.compare(o1, o2);
+        return c == 0 ? tieBreaker.compare(o1, o2) : c;
+    }
+
+    @Override
+    public ChainedComparator<ENTITY> reversed() {
+        return new ChainedComparatorImpl<>(
+            leadingComparator.reversed(),
+            (a, b) -> tieBreaker.compare(b, a)
+        );
+    }
+
+    @Override
+    public Comparator<ENTITY> thenComparing(Comparator<? super ENTITY> other) {
+        requireNonNull(other);
+        return new ChainedComparatorImpl<>(leadingComparator, (a, b) -> {
+            final int c = tieBreaker.compare(a, b);
+            return c == 0 ? other.compare(a, b) : c;
+        });
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChainedComparator)) return false;
+
+        final ChainedComparator<?> that = (ChainedComparator<?>) o;
+        return leadingComparator.equals(that.leadingComparator())
+            && tieBreaker.equals(that.tieBreaker());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * leadingComparator.hashCode() + tieBreaker.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ChainedComparatorImpl{leadingComparator=" + leadingComparator
+            + ", tieBreaker=" + tieBreaker + "}";
+    }
+}
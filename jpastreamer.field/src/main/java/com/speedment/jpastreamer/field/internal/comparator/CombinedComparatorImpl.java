@@ -12,6 +12,7 @@
  */
 package com.speedment.jpastreamer.field.internal.comparator;
 
+import com.speedment.jpastreamer.field.comparator.ChainedComparator;
 import com.speedment.jpastreamer.field.comparator.FieldComparator;
 import com.speedment.jpastreamer.field.comparator.NullOrder;
 import com.speedment.jpastreamer.field.method.*;
@@ -93,15 +94,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                return keyComparator.compare(
-                    keyExtractor.apply(a),
-                    keyExtractor.apply(b)
-                );
-            } else return c;
-        };
+        return then((ENTITY a, ENTITY b) -> keyComparator.compare(
+            keyExtractor.apply(a),
+            keyExtractor.apply(b)
+        ));
     }
 
     @Override
@@ -116,22 +112,19 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final U oa = keyExtractor.apply(a);
-                final U ob = keyExtractor.apply(b);
-                if (oa == null && ob == null) {
-                    return 0;
-                } else if (oa == null) {
-                    return 1;
-                } else if (ob == null) {
-                    return -1;
-                } else {
-                    return oa.compareTo(ob);
-                }
-            } else return c;
-        };
+        return then((ENTITY a, ENTITY b) -> {
+            final U oa = keyExtractor.apply(a);
+            final U ob = keyExtractor.apply(b);
+            if (oa == null && ob == null) {
+                return 0;
+            } else if (oa == null) {
+                return 1;
+            } else if (ob == null) {
+                return -1;
+            } else {
+                return oa.compareTo(ob);
+            }
+        });
     }
 
     @Override
@@ -146,14 +139,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final int oa = keyExtractor.applyAsInt(a);
-                final int ob = keyExtractor.applyAsInt(b);
-                return Integer.compare(oa, ob);
-            } else return c;
-        };
+        return then((ENTITY a, ENTITY b) -> Integer.compare(
+            keyExtractor.applyAsInt(a),
+            keyExtractor.applyAsInt(b)
+        ));
     }
 
     @Override
@@ -168,14 +157,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final long oa = keyExtractor.applyAsLong(a);
-                final long ob = keyExtractor.applyAsLong(b);
-                return Long.compare(oa, ob);
-            } else return c;
-        };
+        return then((ENTITY a, ENTITY b) -> Long.compare(
+            keyExtractor.applyAsLong(a),
+            keyExtractor.applyAsLong(b)
+        ));
     }
 
     @Override
@@ -190,14 +175,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final double oa = keyExtractor.applyAsDouble(a);
-                final double ob = keyExtractor.applyAsDouble(b);
-                return Double.compare(oa, ob);
-            } else return c;
-        };
+        return then((ENTITY a, ENTITY b) -> Double.compare(
+            keyExtractor.applyAsDouble(a),
+            keyExtractor.applyAsDouble(b)
+        ));
     }
 
     @Override
@@ -247,11 +228,22 @@ implements CombinedComparator<ENTITY> {
             cc.stream().forEachOrdered(copy::add);
 
             return new CombinedComparatorImpl<>(copy);
+        } else if (other instanceof ChainedComparator) {
+            @SuppressWarnings("unchecked")
+            final ChainedComparator<? super ENTITY> chc =
+                (ChainedComparator<? super ENTITY>) other;
+
+            final List<FieldComparator<? super ENTITY>> copy =
+                new ArrayList<>(comparators);
+
+            chc.leadingComparator().stream().forEachOrdered(copy::add);
+
+            return new ChainedComparatorImpl<>(
+                new CombinedComparatorImpl<>(copy), chc.tieBreaker()
+            );
         } else {
-            return (a, b) -> {
-                final int c = compare(a, b);
-                return c == 0 ? other.compare(a, b) : c;
-            };
+            // The fields can still be ordered by the database, see ChainedComparator
+            return new ChainedComparatorImpl<>(this, other);
         }
     }
 
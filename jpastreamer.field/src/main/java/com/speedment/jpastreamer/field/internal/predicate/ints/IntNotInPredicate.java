@@ -13,11 +13,13 @@
 package com.speedment.jpastreamer.field.internal.predicate.ints;
 
 import com.speedment.jpastreamer.field.internal.predicate.AbstractFieldPredicate;
+import com.speedment.jpastreamer.field.internal.util.IntHashSet;
 import com.speedment.jpastreamer.field.predicate.PredicateType;
 import com.speedment.jpastreamer.field.trait.HasArg0;
 import com.speedment.jpastreamer.field.trait.HasIntValue;
 
 import java.util.Set;
+import java.util.function.Predicate;
 
 import static java.util.Objects.requireNonNull;
 
@@ -36,10 +38,14 @@ implements HasArg0<Set<Integer>> {
     private final Set<Integer> set;
     
     public IntNotInPredicate(HasIntValue<ENTITY> field, Set<Integer> set) {
-        super(PredicateType.NOT_IN, field, entity -> !set.contains(field.getAsInt(entity)));
+        super(PredicateType.NOT_IN, field, notIn(field, new IntHashSet(set)));
         this.set = requireNonNull(set);
     }
     
+    private static <ENTITY> Predicate<ENTITY> notIn(final HasIntValue<ENTITY> field, final IntHashSet values) {
+        return entity -> !values.contains(field.getAsInt(entity));
+    }
+
     @Override
     public Set<Integer> get0() {
         return set;
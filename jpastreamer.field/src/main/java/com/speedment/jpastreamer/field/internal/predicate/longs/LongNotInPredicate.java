@@ -13,11 +13,13 @@
 package com.speedment.jpastreamer.field.internal.predicate.longs;
 
 import com.speedment.jpastreamer.field.internal.predicate.AbstractFieldPredicate;
+import com.speedment.jpastreamer.field.internal.util.LongHashSet;
 import com.speedment.jpastreamer.field.predicate.PredicateType;
 import com.speedment.jpastreamer.field.trait.HasArg0;
 import com.speedment.jpastreamer.field.trait.HasLongValue;
 
 import java.util.Set;
+import java.util.function.Predicate;
 
 import static java.util.Objects.requireNonNull;
 
@@ -36,10 +38,14 @@ implements HasArg0<Set<Long>> {
     private final Set<Long> set;
     
     public LongNotInPredicate(HasLongValue<ENTITY> field, Set<Long> set) {
-        super(PredicateType.NOT_IN, field, entity -> !set.contains(field.getAsLong(entity)));
+        super(PredicateType.NOT_IN, field, notIn(field, new LongHashSet(set)));
         this.set = requireNonNull(set);
     }
     
+    private static <ENTITY> Predicate<ENTITY> notIn(final HasLongValue<ENTITY> field, final LongHashSet values) {
+        return entity -> !values.contains(field.getAsLong(entity));
+    }
+
     @Override
     public Set<Long> get0() {
         return set;
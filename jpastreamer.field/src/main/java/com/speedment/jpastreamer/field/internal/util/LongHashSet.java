@@ -0,0 +1,80 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.util;
+
+import java.util.Collection;
+
+/**
+ * An immutable set of primitive {@code long} values using open addressing, which
+ * allows the values of an entity to be tested without boxing them.
+ *
+ * @since 3.0.4
+ */
+public final class LongHashSet {
+
+    private final long[] table;
+    private final boolean[] used;
+    private final int mask;
+
+    /**
+     * Creates a set holding the non-null values of the provided collection.
+     *
+     * @param values of the set
+     */
+    public LongHashSet(final Collection<Long> values) {
+        // Keeps the load factor at or below one half
+        final int capacity = Integer.highestOneBit(Math.max(2, values.size()) * 2 - 1) << 1;
+        this.table = new long[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+
+        for (final Long value : values) {
+            if (value != null) {
+                add(value);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the provided value is included in this set.
+     *
+     * @param value to look up
+     * @return whether the provided value is included in this set
+     */
+    public boolean contains(final long value) {
+        for (int index = index(value); used[index]; index = (index + 1) & mask) {
+            if (table[index] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(final long value) {
+        int index = index(value);
+        while (used[index]) {
+            if (table[index] == value) {
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        used[index] = true;
+    }
+
+    private int index(final long value) {
+        final long mixed = value * 0x9E3779B97F4A7C15L;
+        final int hash = (int) (mixed ^ (mixed >>> 32));
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.reducing;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.field.collector.DoubleKeyedGroups;
+import com.speedment.jpastreamer.field.collector.IntKeyedGroups;
+import com.speedment.jpastreamer.field.collector.LongKeyedGroups;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class KeyedGroupsImplTest {
+
+    @Test
+    void intGroupsThroughResizes() {
+        // Every size up to a few resizes, so that each load factor threshold is crossed
+        for (int keys = 0; keys <= 200; keys++) {
+            final int n = keys;
+            final List<Integer> elements = IntStream.range(0, n * 3).boxed().collect(toList());
+            final IntKeyedGroups<List<Integer>> actual = elements.stream()
+                .collect(IntKeyedGroupsImpl.groupingBy(i -> (i % Math.max(n, 1)) * -7919, toList()));
+
+            assertMatches(elements.stream().collect(groupingBy(i -> (i % Math.max(n, 1)) * -7919, toList())), actual.asMap());
+            assertEquals(n, actual.size());
+        }
+    }
+
+    @Test
+    void intGroupsOfExtremeKeys() {
+        final List<Integer> elements = Arrays.asList(Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 1, 0, Integer.MIN_VALUE, 1 << 16, 1 << 31 >>> 1);
+        final IntKeyedGroups<Long> actual = elements.stream().collect(IntKeyedGroupsImpl.groupingBy(i -> i, counting()));
+
+        assertMatches(elements.stream().collect(groupingBy(i -> i, counting())), actual.asMap());
+        assertEquals(2L, actual.get(Integer.MIN_VALUE));
+        assertTrue(actual.containsKey(Integer.MAX_VALUE));
+        assertFalse(actual.containsKey(2));
+        assertNull(actual.get(2));
+        assertEquals(-1L, actual.getOrDefault(2, -1L));
+        assertEquals(new HashSet<>(elements), IntStream.of(actual.keys()).boxed().collect(toSet()));
+
+        final Map<Integer, Long> visited = new HashMap<>();
+        actual.forEach(visited::put);
+        assertEquals(actual.asMap(), visited);
+    }
+
+    @Test
+    void longGroupsOfKeysDifferingInTheHighBits() {
+        final List<Long> elements = longs(2_000).map(i -> (i % 500) << 40).collect(toList());
+        final LongKeyedGroups<Set<Long>> actual = elements.stream()
+            .collect(LongKeyedGroupsImpl.groupingBy(l -> l, mapping(l -> l >>> 40, toSet())));
+
+        assertMatches(elements.stream().collect(groupingBy(l -> l, mapping(l -> l >>> 40, toSet()))), actual.asMap());
+        assertEquals(500, actual.size());
+        assertEquals(Set.of(499L), actual.get(499L << 40));
+    }
+
+    @Test
+    void doubleGroupsCompareKeysLikeDoubleEquals() {
+        final double otherNaN = Double.longBitsToDouble(0x7ff8000000000001L);
+        final List<Double> elements = Arrays.asList(
+            0.0, -0.0, 0.0, Double.NaN, otherNaN, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, 1.5, 1.5
+        );
+        final DoubleKeyedGroups<Long> actual = elements.stream().collect(DoubleKeyedGroupsImpl.groupingBy(d -> d, counting()));
+
+        assertMatches(elements.stream().collect(groupingBy(d -> d, counting())), actual.asMap());
+        assertEquals(2L, actual.get(0.0));
+        assertEquals(1L, actual.get(-0.0));
+        assertEquals(3L, actual.get(Double.NaN));
+        assertEquals(3L, actual.get(otherNaN));
+        assertTrue(actual.containsKey(-0.0));
+        assertFalse(actual.containsKey(-1.5));
+        assertTrue(actual.asMap().containsKey(Double.NaN));
+    }
+
+    @Test
+    void nullDownstreamResults() {
+        // The first non-null name of each group, or null if all names of a group are null
+        final List<String> names = Arrays.asList(null, "b", null, null, "e", "f", null, null);
+        final IntKeyedGroups<String> actual = IntStream.range(0, names.size()).boxed()
+            .collect(IntKeyedGroupsImpl.groupingBy(i -> i / 2, mapping(names::get, reducing((String) null, (a, b) -> a == null ? b : a))));
+
+        final Map<Integer, String> expected = IntStream.range(0, names.size()).boxed()
+            .collect(groupingBy(i -> i / 2, mapping(names::get, reducing((String) null, (a, b) -> a == null ? b : a))));
+        assertMatches(expected, actual.asMap());
+        assertEquals(4, actual.size());
+        assertTrue(actual.containsKey(1));
+        assertNull(actual.get(1));
+        assertNull(actual.getOrDefault(1, "default"));
+        assertEquals("default", actual.getOrDefault(4, "default"));
+        assertEquals("b", actual.get(0));
+
+        final DoubleKeyedGroups<String> doubles = Stream.of("a", null)
+            .collect(DoubleKeyedGroupsImpl.groupingBy(s -> s == null ? -0.0 : 0.0, reducing((String) null, (a, b) -> b)));
+        assertTrue(doubles.containsKey(-0.0));
+        assertNull(doubles.get(-0.0));
+        assertEquals("a", doubles.get(0.0));
+    }
+
+    @Test
+    void parallelGroupsAreMerged() {
+        final List<Integer> elements = IntStream.range(0, 100_000).boxed().collect(toList());
+        final IntKeyedGroups<Long> actual = elements.parallelStream().collect(IntKeyedGroupsImpl.groupingBy(i -> i % 1_000, counting()));
+
+        assertMatches(elements.parallelStream().collect(groupingBy(i -> i % 1_000, counting())), actual.asMap());
+    }
+
+    @Test
+    void mapViewOfOtherKeyTypes() {
+        final IntKeyedGroups<List<Integer>> ints = Stream.of(1, 2).collect(IntKeyedGroupsImpl.groupingBy(i -> i, toList()));
+        assertNull(ints.asMap().get(1L));
+        assertFalse(ints.asMap().containsKey(1L));
+        assertFalse(ints.asMap().containsKey("1"));
+
+        final LongKeyedGroups<List<Long>> longs = Stream.of(1L, 2L).collect(LongKeyedGroupsImpl.groupingBy(l -> l, toList()));
+        assertNull(longs.asMap().get(1));
+        assertFalse(longs.asMap().containsKey(1));
+
+        final DoubleKeyedGroups<List<Double>> doubles = Stream.of(1.0).collect(DoubleKeyedGroupsImpl.groupingBy(d -> d, toList()));
+        assertNull(doubles.asMap().get(1f));
+        assertFalse(doubles.asMap().containsKey(1));
+    }
+
+    @Test
+    void equalGroupsOfTheSameKeyType() {
+        final IntKeyedGroups<Long> a = Stream.of(1, 2, 2).collect(IntKeyedGroupsImpl.groupingBy(i -> i, counting()));
+        final IntKeyedGroups<Long> b = Stream.of(2, 1, 2).collect(IntKeyedGroupsImpl.groupingBy(i -> i, counting()));
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a.asMap().toString(), a.toString());
+        assertNotEquals(a, Stream.of(1L, 2L, 2L).collect(LongKeyedGroupsImpl.groupingBy(l -> l, counting())));
+    }
+
+    /**
+     * Asserts that the provided Map view of groups holds the same groups as the Map
+     * computed by {@link Collectors#groupingBy}, as seen through each of its methods.
+     */
+    private static <K, V> void assertMatches(final Map<K, V> expected, final Map<K, V> actual) {
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        assertEquals(expected.entrySet(), actual.entrySet());
+        assertEquals(expected.keySet(), actual.keySet());
+        assertEquals(expected.entrySet().size(), actual.entrySet().stream().count());
+        for (final Map.Entry<K, V> entry : expected.entrySet()) {
+            assertTrue(actual.containsKey(entry.getKey()), () -> String.valueOf(entry.getKey()));
+            assertEquals(entry.getValue(), actual.get(entry.getKey()), () -> String.valueOf(entry.getKey()));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> actual.put(null, null));
+        assertThrows(UnsupportedOperationException.class, () -> actual.entrySet().iterator().remove());
+    }
+
+    private static Stream<Long> longs(final int size) {
+        return IntStream.range(0, size).mapToObj(i -> (long) i);
+    }
+}
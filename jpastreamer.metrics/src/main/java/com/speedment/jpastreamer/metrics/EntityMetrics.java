@@ -0,0 +1,98 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics;
+
+/**
+ * Metrics of the Streams of an entity class.
+ * <p>
+ * The counts are updated concurrently with the Streams being executed and
+ * are thus not guaranteed to be consistent with each other.
+ *
+ * @since 3.0.4
+ */
+public interface EntityMetrics {
+
+    /**
+     * Returns the entity class of the Streams.
+     *
+     * @return the entity class of the Streams
+     */
+    Class<?> entityClass();
+
+    /**
+     * Returns the number of Streams that have been opened.
+     *
+     * @return the number of Streams that have been opened
+     */
+    long streams();
+
+    /**
+     * Returns the number of queries that have been executed.
+     *
+     * @return the number of queries that have been executed
+     */
+    long queries();
+
+    /**
+     * Returns the number of rows that have been read from the database.
+     *
+     * @return the number of rows that have been read from the database
+     */
+    long rows();
+
+    /**
+     * Returns the number of intermediate operations that have been applied
+     * to the rows by the Streams rather than expressed in the queries.
+     *
+     * @return the number of intermediate operations applied by the Streams
+     */
+    long residualOperations();
+
+    /**
+     * Returns the number of Streams that failed to be rendered or to read
+     * their rows from the database.
+     *
+     * @return the number of Streams that failed
+     */
+    long exceptions();
+
+    /**
+     * Returns the average number of queries executed per second since the
+     * metrics were created or reset.
+     *
+     * @return the average number of queries executed per second
+     */
+    double queriesPerSecond();
+
+    /**
+     * Returns the latencies of creating, binding and executing the queries.
+     *
+     * @return the latencies of the queries
+     */
+    Histogram queryLatency();
+
+    /**
+     * Returns the latencies from opening the Streams until their first rows
+     * were read.
+     *
+     * @return the latencies until the first rows were read
+     */
+    Histogram firstRowLatency();
+
+    /**
+     * Returns the latencies from opening the Streams until they were closed.
+     *
+     * @return the latencies until the Streams were closed
+     */
+    Histogram streamLatency();
+}
@@ -0,0 +1,52 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics;
+
+import java.time.Duration;
+
+/**
+ * A Histogram of recorded latencies, from which percentiles can be
+ * obtained with a bounded relative error.
+ *
+ * @since 3.0.4
+ */
+public interface Histogram {
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    long count();
+
+    /**
+     * Returns the latency below or at which the provided {@code percentile}
+     * of the recorded latencies fall, or {@link Duration#ZERO} if no latency
+     * has been recorded.
+     *
+     * @param percentile in the range {@code [0, 100]}, e.g. {@code 99} for
+     *                   the 99th percentile
+     * @return the latency at the provided {@code percentile}
+     * @throws IllegalArgumentException if the provided {@code percentile}
+     * is not in the range {@code [0, 100]}
+     */
+    Duration percentile(final double percentile);
+
+    /**
+     * Returns the highest recorded latency, or {@link Duration#ZERO} if no
+     * latency has been recorded.
+     *
+     * @return the highest recorded latency
+     */
+    Duration max();
+}
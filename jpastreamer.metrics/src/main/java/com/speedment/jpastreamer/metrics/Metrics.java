@@ -0,0 +1,50 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Metrics of the Streams executed since the metrics were created or
+ * {@link #reset() reset}, per entity class.
+ * <p>
+ * The metrics of the standard {@link MetricsListener} are obtained using
+ * {@code MetricsListener.get().metrics()}.
+ *
+ * @since 3.0.4
+ */
+public interface Metrics {
+
+    /**
+     * Returns the metrics of the Streams of the provided {@code entityClass},
+     * or {@link Optional#empty()} if no such Stream has been opened.
+     *
+     * @param entityClass of the Streams
+     * @return the metrics of the Streams of the provided {@code entityClass}
+     */
+    Optional<EntityMetrics> of(final Class<?> entityClass);
+
+    /**
+     * Returns an unmodifiable view of the metrics of the Streams per entity
+     * class.
+     *
+     * @return the metrics of the Streams per entity class
+     */
+    Map<Class<?>, EntityMetrics> entities();
+
+    /**
+     * Discards all metrics collected so far.
+     */
+    void reset();
+}
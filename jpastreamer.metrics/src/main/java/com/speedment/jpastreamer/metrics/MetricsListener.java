@@ -0,0 +1,116 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics;
+
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * A MetricsListener is notified of the events in the life of each Stream,
+ * from the moment it is opened until it is closed.
+ * <p>
+ * The listener is resolved through {@link RootFactory}, so a custom listener
+ * is installed by providing it as a {@link ServiceLoader service} with a
+ * higher {@link com.speedment.jpastreamer.rootfactory.Priority priority}
+ * than the standard listener.
+ * <p>
+ * The methods are called by the threads executing the Streams and must
+ * therefore be thread-safe and return quickly. All methods do nothing by
+ * default.
+ *
+ * @since 3.0.4
+ */
+public interface MetricsListener {
+
+    /**
+     * Called when the terminal operation of a Stream is invoked, before the
+     * Stream is rendered into a query.
+     *
+     * @param context of the Stream
+     */
+    default void onOpen(final StreamContext context) {}
+
+    /**
+     * Called when the query of a Stream has been executed.
+     *
+     * @param context of the Stream
+     * @param nanos spent creating, binding and executing the query
+     */
+    default void onQuery(final StreamContext context, final long nanos) {}
+
+    /**
+     * Called when the first row of the query of a Stream has been read,
+     * unless the query yielded no rows.
+     *
+     * @param context of the Stream
+     * @param nanos elapsed since the Stream was opened
+     */
+    default void onFirstRow(final StreamContext context, final long nanos) {}
+
+    /**
+     * Called when a Stream is closed with the number of rows that were
+     * read from the database.
+     *
+     * @param context of the Stream
+     * @param rows read from the database
+     */
+    default void onRows(final StreamContext context, final long rows) {}
+
+    /**
+     * Called when a Stream has been rendered with the number of intermediate
+     * operations that could not be expressed in the query and are applied
+     * to the rows by the Stream.
+     *
+     * @param context of the Stream
+     * @param operations applied to the rows by the Stream
+     */
+    default void onResidualOperations(final StreamContext context, final int operations) {}
+
+    /**
+     * Called when a Stream is closed.
+     *
+     * @param context of the Stream
+     * @param nanos elapsed since the Stream was opened
+     */
+    default void onClose(final StreamContext context, final long nanos) {}
+
+    /**
+     * Called when rendering a Stream or reading its rows from the database
+     * fails. Only the first failure of a Stream is reported.
+     *
+     * @param context of the Stream
+     * @param throwable that was thrown
+     */
+    default void onException(final StreamContext context, final Throwable throwable) {}
+
+    /**
+     * Returns the metrics collected by this listener, or
+     * {@link Optional#empty()} if it does not collect metrics.
+     *
+     * @return the metrics collected by this listener
+     */
+    default Optional<Metrics> metrics() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the MetricsListener that is notified of the events of Streams.
+     *
+     * @return the MetricsListener that is notified of the events of Streams
+     */
+    static MetricsListener get() {
+        return RootFactory.getOrThrow(MetricsListener.class, ServiceLoader::load);
+    }
+}
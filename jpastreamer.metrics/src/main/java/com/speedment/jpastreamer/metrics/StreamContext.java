@@ -0,0 +1,50 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics;
+
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+
+import java.util.Optional;
+
+/**
+ * A StreamContext identifies the Stream that an event of a
+ * {@link MetricsListener} relates to.
+ *
+ * @since 3.0.4
+ */
+public interface StreamContext {
+
+    /**
+     * Returns the entity class of the Stream.
+     *
+     * @return the entity class of the Stream
+     */
+    Class<?> entityClass();
+
+    /**
+     * Returns the type of the terminal operation of the Stream, as
+     * expressed by the user.
+     *
+     * @return the type of the terminal operation of the Stream
+     */
+    TerminalOperationType terminalOperationType();
+
+    /**
+     * Returns a structural signature of the operations of the Stream, which
+     * is shared by Streams that only differ in the values of their predicates,
+     * or {@link Optional#empty()} if the Stream has no such signature.
+     *
+     * @return a structural signature of the operations of the Stream
+     */
+    Optional<String> signature();
+}
@@ -47,6 +47,19 @@ public interface Projection<ENTITY> extends Function<ENTITY, Tuple> {
      */
     Set<Field<ENTITY>> fields();
 
+    /**
+     * Returns a tuple holding the provided values of the selected fields, for
+     * example when the values have been selected by the database rather than
+     * read from an entity.
+     *
+     * @param values of the selected fields, in the order of {@link #fields()}
+     * @return a tuple holding the provided values
+     * @throws IllegalArgumentException if the number of values does not match
+     *                                  the number of selected fields
+     * @since 3.0.4
+     */
+    Tuple tuple(Object... values);
+
     @SafeVarargs
     @SuppressWarnings("varargs")
     static <ENTITY> Projection<ENTITY> select(final Field<ENTITY> first, final Field<ENTITY>... other) {
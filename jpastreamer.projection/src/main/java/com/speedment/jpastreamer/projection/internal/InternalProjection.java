@@ -47,4 +47,9 @@ public final class InternalProjection<ENTITY> implements Projection<ENTITY> {
     public Tuple apply(ENTITY entity) {
         return tupleContext.create(entity);
     }
+
+    @Override
+    public Tuple tuple(Object... values) {
+        return tupleContext.create(values);
+    }
 }
@@ -1,60 +1,68 @@
-/*
- * JPAstreamer - Express JPA queries with Java Streams
- * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
- *
- * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
- *
- * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
- * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
- * See the GNU Lesser General Public License for more details.
- *
- * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
- */
 package com.speedment.jpastreamer.projection.internal;
 
 import com.speedment.jpastreamer.field.*;
+import com.speedment.jpastreamer.field.method.Getter;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TupleElement;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toMap;
 
+/**
+ * Creates the Tuples of a projection. The getters, elements and aliases of the
+ * fields are resolved once so that creating a Tuple and accessing its values
+ * only involves array accesses.
+ */
 final class TupleContext<ENTITY> {
 
-    private final List<Field<ENTITY>> fields;
+    private final Getter<ENTITY>[] getters;
+    private final TupleElement<?>[] elementArray;
     private final List<TupleElement<?>> elements;
     private final Map<TupleElement<?>, Integer> elementToIndex;
-    private final Map<String, Integer> aliasToIndex;
+    private final AliasIndex aliasIndex;
 
+    @SuppressWarnings("unchecked")
     TupleContext(final Class<ENTITY> entityClass, final Set<Field<ENTITY>> fields) {
-        this.fields = new ArrayList<>(fields);
-
-        elements = fields.stream()
-                .map(this::tupleElement)
-                .collect(Collectors.toList());
-
-        final AtomicInteger cnt = new AtomicInteger();
-        elementToIndex = elements.stream()
-                .collect(toMap(Function.identity(), te -> cnt.getAndIncrement()));
-
-        aliasToIndex = elementToIndex.entrySet().stream()
-                .collect(toMap(e -> e.getKey().getAlias(), Map.Entry::getValue));
+        final List<Field<ENTITY>> fieldList = new ArrayList<>(fields);
+        final int size = fieldList.size();
+
+        getters = (Getter<ENTITY>[]) new Getter<?>[size];
+        elementArray = new TupleElement<?>[size];
+        elementToIndex = new HashMap<>();
+        final String[] aliases = new String[size];
+        for (int i = 0; i < size; i++) {
+            final Field<ENTITY> field = fieldList.get(i);
+            getters[i] = field.getter();
+            elementArray[i] = tupleElement(field);
+            aliases[i] = elementArray[i].getAlias();
+            if (elementToIndex.putIfAbsent(elementArray[i], i) != null) {
+                throw new IllegalStateException("Duplicate tuple element " + elementArray[i]);
+            }
+        }
+        elements = Collections.unmodifiableList(Arrays.asList(elementArray));
+        aliasIndex = new AliasIndex(aliases);
     }
 
     Tuple create(final ENTITY entity) {
         requireNonNull(entity);
 
-        final Object[] tuple = fields.stream()
-                .map(f -> f.getter().apply(entity))
-                .toArray(Object[]::new);
+        final Object[] tuple = new Object[getters.length];
+        for (int i = 0; i < tuple.length; i++) {
+            tuple[i] = getters[i].apply(entity);
+        }
         return new StandardTuple(tuple);
     }
 
+    Tuple create(final Object[] values) {
+        requireNonNull(values);
+
+        if (values.length != elementArray.length)
+            throw new IllegalArgumentException(String.format("Expected %d values but got %d", elementArray.length, values.length));
+
+        return new StandardTuple(values.clone());
+    }
+
     private TupleElement<?> tupleElement(final Field<ENTITY> field) {
         // Fields should hold their type and typeToken
         if (field instanceof LongField) return new StandardTupleElement<>(Long.class, field.columnName());
@@ -74,11 +82,17 @@ final class TupleContext<ENTITY> {
 
         private StandardTuple(Object[] tuple) {
             this.tuple = requireNonNull(tuple);
-            assert tuple.length != elements.size();
+            assert tuple.length == elementArray.length;
         }
 
         @Override
         public <X> X get(TupleElement<X> tupleElement) {
+            // The elements of the context are typically passed back
+            for (int i = 0; i < elementArray.length; i++) {
+                if (elementArray[i] == tupleElement)
+                    return checkedCast(tuple[i], tupleElement.getJavaType());
+            }
+
             final Integer index = elementToIndex.get(tupleElement);
             if (index != null)
                 return checkedCast(tuple[index], tupleElement.getJavaType());
@@ -88,8 +102,8 @@ final class TupleContext<ENTITY> {
 
         @Override
         public Object get(String alias) {
-            final Integer index = aliasToIndex.get(alias);
-            if (index != null)
+            final int index = aliasIndex.indexOf(alias);
+            if (index >= 0)
                 return tuple[index];
 
             throw newIllegalArgumentException("The provided alias %s is not known. Known are %s", alias, elements);
@@ -129,7 +143,22 @@ final class TupleContext<ENTITY> {
 
         @Override
         public List<TupleElement<?>> getElements() {
-            return Collections.unmodifiableList(elements);
+            return elements;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Tuple)) return false;
+
+            final Tuple that = (Tuple) o;
+
+            return elements.equals(that.getElements()) && Arrays.equals(tuple, that.toArray());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(tuple);
         }
 
         @Override
@@ -151,4 +180,95 @@ final class TupleContext<ENTITY> {
         }
 
     }
+
+    /**
+     * A perfect hash table of the aliases of the elements, sized so that no two aliases
+     * occupy the same slot. A lookup hence computes the hash of the alias and compares
+     * it to at most one alias. Aliases that cannot be placed apart within a bounded
+     * table, for example because their hash codes are equal, are looked up in a map instead.
+     */
+    private static final class AliasIndex {
+
+        /**
+         * The largest table, relative to the smallest table that holds the aliases,
+         * that is tried before falling back to a map.
+         */
+        private static final int MAX_GROWTH = 16;
+
+        private final String[] aliases;
+        private final int[] indices;
+        private final int mask;
+        private final Map<String, Integer> aliasToIndex;
+
+        private AliasIndex(final String[] elementAliases) {
+            final int minCapacity = Integer.highestOneBit(Math.max(1, elementAliases.length) * 2 - 1) << 1;
+            int capacity = minCapacity;
+            String[] slots;
+            while ((slots = place(elementAliases, capacity)) == null && capacity < minCapacity * MAX_GROWTH) {
+                capacity <<= 1;
+            }
+            if (slots == null) {
+                this.aliases = null;
+                this.indices = null;
+                this.mask = 0;
+                this.aliasToIndex = new HashMap<>();
+                for (int i = 0; i < elementAliases.length; i++) {
+                    if (elementAliases[i] != null && aliasToIndex.putIfAbsent(elementAliases[i], i) != null) {
+                        throw new IllegalStateException("Duplicate alias " + elementAliases[i]);
+                    }
+                }
+            } else {
+                this.aliases = slots;
+                this.mask = capacity - 1;
+                this.indices = new int[capacity];
+                this.aliasToIndex = null;
+                for (int i = 0; i < elementAliases.length; i++) {
+                    if (elementAliases[i] != null) {
+                        indices[slot(elementAliases[i], mask)] = i;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the aliases placed in a table of the provided capacity, or
+         * {@code null} if two aliases collide.
+         */
+        private static String[] place(final String[] elementAliases, final int capacity) {
+            final String[] slots = new String[capacity];
+            boolean collision = false;
+            for (final String alias : elementAliases) {
+                if (alias == null) {
+                    continue;
+                }
+                final int slot = slot(alias, capacity - 1);
+                if (slots[slot] != null) {
+                    if (slots[slot].equals(alias)) {
+                        throw new IllegalStateException("Duplicate alias " + alias);
+                    }
+                    // Keep placing so that duplicates are always detected
+                    collision = true;
+                    continue;
+                }
+                slots[slot] = alias;
+            }
+            return collision ? null : slots;
+        }
+
+        private static int slot(final String alias, final int mask) {
+            final int h = alias.hashCode() * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private int indexOf(final String alias) {
+            if (alias == null) {
+                return -1;
+            }
+            if (aliasToIndex != null) {
+                return aliasToIndex.getOrDefault(alias, -1);
+            }
+            final int slot = slot(alias, mask);
+            return alias.equals(aliases[slot]) ? indices[slot] : -1;
+        }
+    }
 }
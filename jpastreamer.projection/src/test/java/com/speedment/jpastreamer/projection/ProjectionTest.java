@@ -38,6 +38,15 @@ final class ProjectionTest {
         assertEquals(new HashSet<>(Arrays.asList(Person$.personId, Person$.name)), projection.fields());
     }
 
+    @Test
+    void tupleEquality() {
+        final Projection<Person> projection = Projection.select(Person$.personId, Person$.name);
+        assertEquals(projection.tuple(1, null), projection.tuple(1, null));
+        assertEquals(projection.tuple(1, "a").hashCode(), projection.tuple(1, "a").hashCode());
+        assertNotEquals(projection.tuple(1, "a"), projection.tuple(1, "b"));
+        assertNotEquals(projection.tuple(1, "a"), Projection.select(Person$.born, Person$.name).tuple(1, "a"));
+    }
+
     private static final class Person {
         int personId;
         String name;
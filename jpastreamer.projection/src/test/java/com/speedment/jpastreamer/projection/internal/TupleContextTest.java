@@ -0,0 +1,173 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.projection.internal;
+
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.StringField;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class TupleContextTest {
+
+    @Test
+    void createReadsFieldsInOrder() {
+        final TupleContext<Person> context = context(List.of(Person$.personId, Person$.name));
+        final Tuple tuple = context.create(new Person(1, "Ann"));
+
+        assertEquals(1, tuple.get(0));
+        assertEquals("Ann", tuple.get(1));
+        assertArrayEquals(new Object[]{1, "Ann"}, tuple.toArray());
+        assertEquals(List.of("personId", "name"), tuple.getElements().stream().map(TupleElement::getAlias).collect(Collectors.toList()));
+    }
+
+    @Test
+    void getByAlias() {
+        final Tuple tuple = context(List.of(Person$.personId, Person$.name)).create(new Person(1, null));
+
+        assertEquals(1, tuple.get("personId"));
+        assertEquals(1, tuple.get("personId", Integer.class));
+        assertNull(tuple.get("name"));
+        assertNull(tuple.get("name", String.class));
+        assertThrows(IllegalArgumentException.class, () -> tuple.get("born"));
+        assertThrows(IllegalArgumentException.class, () -> tuple.get((String) null));
+        assertThrows(IllegalArgumentException.class, () -> tuple.get("personId", String.class));
+    }
+
+    @Test
+    void getByIndex() {
+        final Tuple tuple = context(List.of(Person$.personId, Person$.name)).create(new Person(1, "Ann"));
+
+        assertEquals("Ann", tuple.get(1, String.class));
+        assertThrows(IllegalArgumentException.class, () -> tuple.get(-1));
+        assertThrows(IllegalArgumentException.class, () -> tuple.get(2));
+        assertThrows(IllegalArgumentException.class, () -> tuple.get(0, String.class));
+    }
+
+    @Test
+    void getByElement() {
+        final Tuple tuple = context(List.of(Person$.personId, Person$.name)).create(new Person(1, "Ann"));
+
+        // The elements of the tuple itself
+        final TupleElement<?> element = tuple.getElements().get(0);
+        assertEquals(1, tuple.get(element));
+
+        // An equal element
+        assertEquals("Ann", tuple.get(new StandardTupleElement<>(String.class, "name")));
+
+        // An element of the same alias but another type
+        assertThrows(IllegalArgumentException.class, () -> tuple.get(new StandardTupleElement<>(Object.class, "name")));
+    }
+
+    @Test
+    void createFromValues() {
+        final TupleContext<Person> context = context(List.of(Person$.personId, Person$.name));
+        final Object[] values = {1, "Ann"};
+        final Tuple tuple = context.create(values);
+        values[1] = "Bob";
+
+        assertEquals("Ann", tuple.get("name"));
+        assertEquals(context.create(new Person(1, "Ann")), tuple);
+        assertThrows(IllegalArgumentException.class, () -> context.create(new Object[]{1}));
+    }
+
+    @Test
+    void aliasesWithEqualHashCodes() {
+        // "Aa" and "BB" have the same hash code, and so do all their concatenations
+        final List<String> aliases = List.of("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB");
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertEquals("AaAa".hashCode(), "BBBB".hashCode());
+
+        final Tuple tuple = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            final TupleContext<Person> context = context(aliases.stream().<Field<Person>>map(TupleContextTest::nameField).collect(Collectors.toList()));
+            return context.create(new Person(1, "Ann"));
+        });
+        for (String alias : aliases) {
+            assertEquals("Ann", tuple.get(alias));
+        }
+        assertThrows(IllegalArgumentException.class, () -> tuple.get("Ab"));
+    }
+
+    @Test
+    void manyAliases() {
+        final List<String> aliases = IntStream.range(0, 200).mapToObj(i -> "column" + i).collect(Collectors.toList());
+        final TupleContext<Person> context = context(aliases.stream().<Field<Person>>map(TupleContextTest::nameField).collect(Collectors.toList()));
+        final Object[] values = aliases.toArray();
+        final Tuple tuple = context.create(values);
+        for (int i = 0; i < aliases.size(); i++) {
+            assertEquals(i, tuple.getElements().indexOf(new StandardTupleElement<>(String.class, aliases.get(i))));
+            assertEquals(aliases.get(i), tuple.get(aliases.get(i)));
+        }
+    }
+
+    @Test
+    void duplicateAliases() {
+        final Field<Person> name = Person$.name;
+        final ComparableField<Person, Integer> otherName = ComparableField.create(Person.class, "name", Person::getPersonId, false);
+        assertThrows(IllegalStateException.class, () -> context(List.of(name, otherName)));
+    }
+
+    private static TupleContext<Person> context(final List<Field<Person>> fields) {
+        return new TupleContext<>(Person.class, new LinkedHashSet<>(fields));
+    }
+
+    private static StringField<Person> nameField(final String columnName) {
+        return StringField.create(Person.class, columnName, Person::getName, false);
+    }
+
+    private static final class Person {
+        private final int personId;
+        private final String name;
+
+        private Person(final int personId, final String name) {
+            this.personId = personId;
+            this.name = name;
+        }
+
+        public int getPersonId() {
+            return personId;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class Person$ {
+
+        public static final ComparableField<Person, Integer> personId = ComparableField.create(
+                Person.class,
+                "personId",
+                Person::getPersonId,
+                true
+        );
+
+        public static final StringField<Person> name = StringField.create(
+                Person.class,
+                "name",
+                Person::getName,
+                false
+        );
+
+    }
+
+}
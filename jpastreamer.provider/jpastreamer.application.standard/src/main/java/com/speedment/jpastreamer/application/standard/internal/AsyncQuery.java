@@ -0,0 +1,118 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs a query on a Stream using an {@link Executor} and completes a
+ * {@link CompletableFuture} with its result.
+ * <p>
+ * The Stream, and thereby its EntityManager, is only ever used and closed by
+ * the thread running the query. Cancelling the future before the query has
+ * started prevents the Stream from being created. Cancelling it while the query
+ * is running aborts the query before the next element is read, after which the
+ * running thread closes the Stream right away. Closing the Stream from the
+ * cancelling thread instead would hand a pooled EntityManager back to the pool
+ * while the query is still using it.
+ *
+ * @param <T> the type of the Stream elements
+ * @param <R> the type of the query result
+ */
+final class AsyncQuery<T, R> implements Runnable {
+
+    private final Function<Runnable, ? extends Stream<T>> streamFactory;
+    private final Function<? super Stream<T>, ? extends R> query;
+    private final CompletableFuture<R> future;
+
+    private AsyncQuery(final Function<Runnable, ? extends Stream<T>> streamFactory, final Function<? super Stream<T>, ? extends R> query) {
+        this.streamFactory = requireNonNull(streamFactory);
+        this.query = requireNonNull(query);
+        this.future = new CompletableFuture<>();
+    }
+
+    /**
+     * Submits the provided query to the provided executor.
+     *
+     * @param streamFactory creates the Stream to query, running the provided check before
+     *                      each element is read. The check throws a {@link CancellationException}
+     *                      once the returned future is cancelled.
+     * @param query to apply to the Stream
+     * @param executor to run the query with
+     * @return a future that is completed with the result of the query
+     */
+    static <T, R> CompletableFuture<R> submit(final Function<Runnable, ? extends Stream<T>> streamFactory,
+                                              final Function<? super Stream<T>, ? extends R> query,
+                                              final Executor executor) {
+        requireNonNull(executor);
+        final AsyncQuery<T, R> asyncQuery = new AsyncQuery<>(streamFactory, query);
+        try {
+            executor.execute(asyncQuery);
+        } catch (RuntimeException e) {
+            asyncQuery.future.completeExceptionally(e);
+        }
+        return asyncQuery.future;
+    }
+
+    static Executor defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    @Override
+    public void run() {
+        if (future.isDone()) {
+            return;
+        }
+        try (final Stream<T> stream = streamFactory.apply(this::checkCancelled)) {
+            // The future may have been cancelled while the Stream was created
+            if (!future.isCancelled()) {
+                future.complete(query.apply(stream));
+            }
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private void checkCancelled() {
+        if (future.isCancelled()) {
+            throw new CancellationException("The query was cancelled");
+        }
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        private static final Executor EXECUTOR = create();
+
+        private static Executor create() {
+            try {
+                // Available from Java 21
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                final AtomicInteger threadCount = new AtomicInteger();
+                return Executors.newCachedThreadPool(runnable -> {
+                    final Thread thread = new Thread(runnable, "jpastreamer-async-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link Renderer} that runs a check before each element of the rendered Streams is
+ * read, e.g. to abort a query that is no longer needed by throwing an exception.
+ * <p>
+ * Only the rendered Streams are checked, so the pipeline is rendered, and pushed down
+ * to the database, as by the delegate.
+ */
+final class CheckingRenderer implements Renderer {
+
+    private final Renderer delegate;
+    private final Runnable check;
+
+    CheckingRenderer(final Renderer delegate, final Runnable check) {
+        this.delegate = requireNonNull(delegate);
+        this.check = requireNonNull(check);
+    }
+
+    @Override
+    public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        final RenderResult<E, T, S> result = delegate.render(pipeline, streamConfiguration);
+        return new CheckedResult<>(result, checked(result.stream()));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, S extends BaseStream<T, S>> S checked(final S stream) {
+        final BaseStream<?, ?> checked;
+        if (stream instanceof IntStream) {
+            checked = StreamSupport.intStream(checked(((IntStream) stream).spliterator()), stream.isParallel());
+        } else if (stream instanceof LongStream) {
+            checked = StreamSupport.longStream(checked(((LongStream) stream).spliterator()), stream.isParallel());
+        } else if (stream instanceof DoubleStream) {
+            checked = StreamSupport.doubleStream(checked(((DoubleStream) stream).spliterator()), stream.isParallel());
+        } else {
+            checked = StreamSupport.stream(checked(((Stream<T>) stream).spliterator()), stream.isParallel());
+        }
+        return ((S) checked).onClose(stream::close);
+    }
+
+    private <T> Spliterator<T> checked(final Spliterator<T> spliterator) {
+        return new Spliterators.AbstractSpliterator<T>(spliterator.estimateSize(), characteristics(spliterator)) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                check.run();
+                return spliterator.tryAdvance(action);
+            }
+        };
+    }
+
+    private Spliterator.OfInt checked(final Spliterator.OfInt spliterator) {
+        return new Spliterators.AbstractIntSpliterator(spliterator.estimateSize(), characteristics(spliterator)) {
+            @Override
+            public boolean tryAdvance(final IntConsumer action) {
+                check.run();
+                return spliterator.tryAdvance(action);
+            }
+        };
+    }
+
+    private Spliterator.OfLong checked(final Spliterator.OfLong spliterator) {
+        return new Spliterators.AbstractLongSpliterator(spliterator.estimateSize(), characteristics(spliterator)) {
+            @Override
+            public boolean tryAdvance(final LongConsumer action) {
+                check.run();
+                return spliterator.tryAdvance(action);
+            }
+        };
+    }
+
+    private Spliterator.OfDouble checked(final Spliterator.OfDouble spliterator) {
+        return new Spliterators.AbstractDoubleSpliterator(spliterator.estimateSize(), characteristics(spliterator)) {
+            @Override
+            public boolean tryAdvance(final DoubleConsumer action) {
+                check.run();
+                return spliterator.tryAdvance(action);
+            }
+        };
+    }
+
+    // The elements remain sorted, but the comparator of the spliterator is not retained
+    private static int characteristics(final Spliterator<?> spliterator) {
+        return spliterator.characteristics() & ~Spliterator.SORTED;
+    }
+
+    private static final class CheckedResult<E, T, S extends BaseStream<T, S>> implements RenderResult<E, T, S> {
+
+        private final RenderResult<E, T, S> result;
+        private final S stream;
+
+        private CheckedResult(final RenderResult<E, T, S> result, final S stream) {
+            this.result = result;
+            this.stream = stream;
+        }
+
+        @Override
+        public Class<E> root() {
+            return result.root();
+        }
+
+        @Override
+        public S stream() {
+            return stream;
+        }
+
+        @Override
+        public TerminalOperation<?, ?> terminalOperation() {
+            return result.terminalOperation();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.EntityManagerPoolMetrics;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of cleared EntityManagers that are leased for the lifetime of a stream.
+ * <p>
+ * Only EntityManagers owned by the library, i.e. those that are closed by it, are pooled.
+ * EntityManagers obtained from a caller-supplied {@code Supplier} are taken from the supplier
+ * for every lease and are neither cleared, changed nor retained; the pool then only bounds
+ * the number of EntityManagers in use.
+ */
+final class EntityManagerPool implements EntityManagerPoolMetrics, AutoCloseable {
+
+    private final Supplier<EntityManager> entityManagerSupplier;
+    private final boolean closeEntityManagers;
+    private final int maxSize;
+    private final long maxWaitNanos;
+
+    private final Semaphore permits;
+    private final BlockingQueue<EntityManager> idleEntityManagers = new LinkedBlockingQueue<>();
+    private final Map<EntityManager, FlushModeType> leasedFlushModes = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder saturatedLeases = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWait = new AtomicLong();
+
+    EntityManagerPool(
+        final Supplier<EntityManager> entityManagerSupplier,
+        final boolean closeEntityManagers,
+        final int maxSize,
+        final Duration maxWait
+    ) {
+        this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
+        this.closeEntityManagers = closeEntityManagers;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Leases an EntityManager from the pool, creating a new one if no idle EntityManager
+     * is available. An owned EntityManager uses {@code FlushModeType.COMMIT} while leased.
+     * The EntityManager must be returned via {@link #release(EntityManager)}.
+     *
+     * @return a leased EntityManager
+     * @throws JPAStreamerException if no EntityManager became available in time
+     */
+    EntityManager lease() {
+        if (closed.get()) {
+            throw new JPAStreamerException("The EntityManager pool is closed");
+        }
+
+        final long start = System.nanoTime();
+        if (!permits.tryAcquire()) {
+            saturatedLeases.increment();
+            try {
+                if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    timeouts.increment();
+                    throw new JPAStreamerException("Timed out waiting for an EntityManager, all " + maxSize + " EntityManagers are leased");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JPAStreamerException("Interrupted while waiting for an EntityManager", e);
+            }
+        }
+
+        final long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWait.accumulateAndGet(waited, Math::max);
+
+        try {
+            final EntityManager entityManager = nextEntityManager();
+            if (closeEntityManagers) {
+                leasedFlushModes.put(entityManager, entityManager.getFlushMode());
+                entityManager.setFlushMode(FlushModeType.COMMIT);
+            }
+            inUse.incrementAndGet();
+            leases.increment();
+            return entityManager;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a leased EntityManager to the pool after clearing its persistence context
+     * and restoring the flush mode it had before it was leased. EntityManagers that are
+     * not owned by the library are left untouched.
+     *
+     * @param entityManager to return
+     */
+    void release(final EntityManager entityManager) {
+        requireNonNull(entityManager);
+        inUse.decrementAndGet();
+        try {
+            if (!closeEntityManagers) {
+                return;
+            }
+            final FlushModeType flushMode = leasedFlushModes.remove(entityManager);
+            if (!closed.get() && entityManager.isOpen()) {
+                entityManager.clear();
+                if (flushMode != null) {
+                    entityManager.setFlushMode(flushMode);
+                }
+                idleEntityManagers.offer(entityManager);
+                if (closed.get() && idleEntityManagers.remove(entityManager)) {
+                    // The pool was closed concurrently
+                    closeEntityManager(entityManager);
+                }
+            } else {
+                closeEntityManager(entityManager);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            EntityManager entityManager;
+            while ((entityManager = idleEntityManagers.poll()) != null) {
+                closeEntityManager(entityManager);
+            }
+        }
+    }
+
+    @Override
+    public int maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int inUse() {
+        return inUse.get();
+    }
+
+    @Override
+    public int idle() {
+        return idleEntityManagers.size();
+    }
+
+    @Override
+    public long leases() {
+        return leases.sum();
+    }
+
+    @Override
+    public long saturatedLeases() {
+        return saturatedLeases.sum();
+    }
+
+    @Override
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long totalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    @Override
+    public long maxWaitNanos() {
+        return maxWait.get();
+    }
+
+    private EntityManager nextEntityManager() {
+        EntityManager entityManager;
+        while ((entityManager = idleEntityManagers.poll()) != null) {
+            if (entityManager.isOpen()) {
+                return entityManager;
+            }
+        }
+        return requireNonNull(entityManagerSupplier.get(), "The EntityManager supplier returned null");
+    }
+
+    private void closeEntityManager(final EntityManager entityManager) {
+        if (closeEntityManagers && entityManager.isOpen()) {
+            entityManager.close();
+        }
+    }
+
+}
@@ -16,15 +16,32 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.announcer.Announcer;
 import com.speedment.jpastreamer.appinfo.ApplicationInformation;
+import com.speedment.jpastreamer.application.EntityManagerPoolMetrics;
 import com.speedment.jpastreamer.application.JPAStreamer;
 import com.speedment.jpastreamer.application.StreamSupplier;
+import com.speedment.jpastreamer.builder.BuilderFactory;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.RendererCache;
+import com.speedment.jpastreamer.renderer.RendererFactory;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
 import jakarta.persistence.EntityManager;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.BaseStream;
 import java.util.stream.Stream;
 
 final class StandardJPAStreamer implements JPAStreamer {
@@ -33,11 +50,25 @@ final class StandardJPAStreamer implements JPAStreamer {
     private final Runnable closeHandler;
     
     private final boolean closeEntityManagers; 
+
+    private final EntityManagerPool entityManagerPool;
+
+    private final RendererFactory rendererFactory;
+    private final BuilderFactory builderFactory;
+    private final RendererCache rendererCache;
     
     StandardJPAStreamer(final Supplier<EntityManager> entityManagerSupplier, Runnable closeHandler, boolean demoMode, boolean closeEntityManagers) {
+        this(entityManagerSupplier, closeHandler, demoMode, closeEntityManagers, null);
+    }
+
+    StandardJPAStreamer(final Supplier<EntityManager> entityManagerSupplier, Runnable closeHandler, boolean demoMode, boolean closeEntityManagers, EntityManagerPool entityManagerPool) {
         this.closeHandler = requireNonNull(closeHandler);
         this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
         this.closeEntityManagers = closeEntityManagers; 
+        this.entityManagerPool = entityManagerPool;
+        this.rendererFactory = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load);
+        this.builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        this.rendererCache = rendererFactory.createCache();
         final ApplicationInformation applicationInformation = RootFactory.getOrThrow(ApplicationInformation.class, ServiceLoader::load);
         printGreeting(applicationInformation);
     }
@@ -45,28 +76,137 @@ final class StandardJPAStreamer implements JPAStreamer {
     @Override
     public <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration) {
         requireNonNull(streamConfiguration);
-        final StreamSupplier<T> streamer = new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, this.closeEntityManagers);
-        return closeEntityManagers ? 
-                    streamer.stream().onClose(streamer::close) : 
-                    streamer.stream();
+        return stream(streamConfiguration, StandardStreamSupplier::stream);
+    }
+
+    @Override
+    public <T, R> CompletableFuture<R> async(final StreamConfiguration<T> streamConfiguration, final Function<? super Stream<T>, ? extends R> query) {
+        return async(streamConfiguration, query, AsyncQuery.defaultExecutor());
+    }
+
+    @Override
+    public <T, R> CompletableFuture<R> async(final StreamConfiguration<T> streamConfiguration, final Function<? super Stream<T>, ? extends R> query, final Executor executor) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(query);
+        requireNonNull(executor);
+        return AsyncQuery.submit(check -> stream(streamConfiguration, streamer -> streamer.stream(check)), query, executor);
+    }
+
+    @Override
+    public <T> Flow.Publisher<T> publisher(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> pipeline, final int pageSize) {
+        return publisher(streamConfiguration, pipeline, pageSize, AsyncQuery.defaultExecutor());
     }
 
     @Override
     public <T> StreamSupplier<T> createStreamSupplier(StreamConfiguration<T> streamConfiguration) { 
         requireNonNull(streamConfiguration); 
-        return new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, this.closeEntityManagers); 
+        return new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, rendererCache, this.closeEntityManagers); 
     }
 
     @Override
     public void resetStreamer(Class<?>... entityClasses) {
-        // As there no longer exists a Streamer cache, this method has no effect
+        requireNonNull(entityClasses);
+        rendererCache.invalidate(entityClasses);
+    }
+
+    @Override
+    public Optional<EntityManagerPoolMetrics> entityManagerPoolMetrics() {
+        return Optional.ofNullable(entityManagerPool);
     }
 
     @Override
     public void close() {
+        if (entityManagerPool != null) {
+            entityManagerPool.close();
+        }
+        rendererCache.close();
         closeHandler.run(); 
     }
 
+    private <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration, final Function<StandardStreamSupplier<T>, Stream<T>> opener) {
+        if (entityManagerPool != null) {
+            return leasedStream(streamConfiguration, opener);
+        }
+        final StandardStreamSupplier<T> streamer = new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, rendererCache, this.closeEntityManagers);
+        return closeEntityManagers ? 
+                    opener.apply(streamer).onClose(streamer::close) : 
+                    opener.apply(streamer);
+    }
+
+    private <T> Stream<T> leasedStream(final StreamConfiguration<T> streamConfiguration, final Function<StandardStreamSupplier<T>, Stream<T>> opener) {
+        final EntityManager entityManager = entityManagerPool.lease();
+        final AtomicBoolean released = new AtomicBoolean();
+        final Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                entityManagerPool.release(entityManager);
+            }
+        };
+        try {
+            // The concurrent queries of a parallel Stream lease owned EntityManagers from the pool as well
+            final StandardStreamSupplier<T> streamer = closeEntityManagers
+                ? new StandardStreamSupplier<>(streamConfiguration, entityManager, rendererCache, entityManagerPool::lease, entityManagerPool::release, release)
+                : new StandardStreamSupplier<>(streamConfiguration, entityManager, rendererCache, release);
+            return opener.apply(streamer).onClose(streamer::close);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> boolean isSeekable(final StreamConfiguration<T> streamConfiguration, final UnaryOperator<Stream<T>> pipeline) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(pipeline);
+        // Decided by the renderer from the operations of the pipeline, which is applied to
+        // a Stream whose renderer only captures the operations, so no query is run
+        final AtomicReference<Pipeline<?>> captured = new AtomicReference<>();
+        final Renderer probe = new Renderer() {
+            @Override
+            public <E, U, S extends BaseStream<U, S>> RenderResult<E, U, S> render(final Pipeline<E> p, final StreamConfiguration<E> configuration) {
+                captured.set(p);
+                return new ProbeResult<>(p);
+            }
+
+            @Override
+            public void close() {
+                // Nothing is held by the probe
+            }
+        };
+        try (final Stream<T> stream = builderFactory.createBuilder(streamConfiguration, probe)) {
+            pipeline.apply(stream).iterator();
+        }
+        // Operations without a builder counterpart, e.g. takeWhile, wrap the spliterator of
+        // the Stream and are thereby hidden from the renderer
+        return captured.get() != null
+            && captured.get().terminatingOperation().type() == TerminalOperationType.ITERATOR
+            && rendererFactory.isSeekable(captured.get());
+    }
+
+    private static final class ProbeResult<E, T, S extends BaseStream<T, S>> implements RenderResult<E, T, S> {
+
+        private final Pipeline<E> pipeline;
+
+        private ProbeResult(final Pipeline<E> pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Class<E> root() {
+            return pipeline.root();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public S stream() {
+            return (S) Stream.empty();
+        }
+
+        @Override
+        public TerminalOperation<?, ?> terminalOperation() {
+            return pipeline.terminatingOperation();
+        }
+    }
+
     private void printGreeting(final ApplicationInformation info) {
         final String greeting = String.format("%s%n" +
                         ":: %s %s :: %s%n" +
@@ -19,6 +19,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import java.time.Duration;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
@@ -33,6 +34,10 @@ public final class StandardJPAStreamerBuilder implements JPAStreamerBuilder {
 
     private final boolean closeEntityManagers;
 
+    private int entityManagerPoolSize;
+
+    private Duration entityManagerPoolMaxWait;
+
     public StandardJPAStreamerBuilder(final String persistenceUnitName) {
         requireNonNull(persistenceUnitName);
         EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName);
@@ -57,9 +62,26 @@ public final class StandardJPAStreamerBuilder implements JPAStreamerBuilder {
         this.closeEntityManagers = false; 
     }
 
+    @Override
+    public JPAStreamerBuilder withEntityManagerPool(final int maxSize, final Duration maxWait) {
+        requireNonNull(maxWait);
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The pool size must be positive: " + maxSize);
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("The maximum wait time must not be negative: " + maxWait);
+        }
+        this.entityManagerPoolSize = maxSize;
+        this.entityManagerPoolMaxWait = maxWait;
+        return this;
+    }
+
     @Override
     public JPAStreamer build() {
-        return new StandardJPAStreamer(entityManagerSupplier, closeHandler, demoMode, closeEntityManagers);
+        final EntityManagerPool entityManagerPool = entityManagerPoolSize > 0
+            ? new EntityManagerPool(entityManagerSupplier, closeEntityManagers, entityManagerPoolSize, entityManagerPoolMaxWait)
+            : null;
+        return new StandardJPAStreamer(entityManagerSupplier, closeHandler, demoMode, closeEntityManagers, entityManagerPool);
     }
 
 }
@@ -0,0 +1,51 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.Page;
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+final class StandardPage<T> implements Page<T> {
+
+    private final List<T> content;
+    private final Cursor next;
+
+    StandardPage(final List<T> content, final Cursor next) {
+        this.content = Collections.unmodifiableList(requireNonNull(content));
+        this.next = next;
+    }
+
+    @Override
+    public List<T> content() {
+        return content;
+    }
+
+    @Override
+    public Optional<Cursor> next() {
+        return Optional.ofNullable(next);
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+            "size=" + content.size() +
+            ", next=" + next +
+            '}';
+    }
+}
@@ -14,20 +14,28 @@ package com.speedment.jpastreamer.application.standard.internal;
 
 import static java.util.Objects.requireNonNull;
 
+import com.speedment.jpastreamer.application.Page;
 import com.speedment.jpastreamer.application.StreamSupplier;
 import com.speedment.jpastreamer.autoclose.AutoCloseFactory;
 import com.speedment.jpastreamer.builder.BuilderFactory;
 import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.RendererCache;
 import com.speedment.jpastreamer.renderer.RendererFactory;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 
+import java.util.List;
 import java.util.ServiceLoader;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 final class StandardStreamSupplier<T> implements StreamSupplier<T> {
@@ -36,21 +44,32 @@ final class StandardStreamSupplier<T> implements StreamSupplier<T> {
     private final BuilderFactory builderFactory;
     private final AutoCloseFactory autoCloseFactory;
     private final StreamConfiguration<T> streamConfiguration;
-    private final boolean closeEntityManager; 
+    private final Runnable closeHandler;
     private static final AtomicBoolean closed = new AtomicBoolean(false);
 
     StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final EntityManagerFactory entityManagerFactory, boolean closeEntityManager) {
-        this(streamConfiguration, entityManagerFactory::createEntityManager, closeEntityManager); 
+        this.streamConfiguration = requireNonNull(streamConfiguration);
+        requireNonNull(entityManagerFactory);
+        this.builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        this.autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
+        this.renderer = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load)
+                .createRenderer(entityManagerFactory::createEntityManager);
+        this.closeHandler = closeHandler(closeEntityManager);
     }
     
-    StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final Supplier<EntityManager> entityManagerSupplier, boolean closeEntityManager) {
+    StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final Supplier<EntityManager> entityManagerSupplier, final RendererCache rendererCache, boolean closeEntityManager) {
         this.streamConfiguration = requireNonNull(streamConfiguration);
         requireNonNull(entityManagerSupplier);
+        requireNonNull(rendererCache);
         this.builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
         this.autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
-        this.renderer = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load)
-                .createRenderer(entityManagerSupplier);
-        this.closeEntityManager = closeEntityManager;
+        final RendererFactory rendererFactory = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load);
+        // The concurrent queries of a parallel Stream only use EntityManagers owned by JPAStreamer,
+        // as a caller-supplied Supplier may hand out EntityManagers that must not be shared or closed
+        this.renderer = closeEntityManager
+                ? rendererFactory.createRenderer(entityManagerSupplier.get(), rendererCache, entityManagerSupplier, EntityManager::close)
+                : rendererFactory.createRenderer(entityManagerSupplier, rendererCache);
+        this.closeHandler = closeHandler(closeEntityManager);
     }
 
     StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final EntityManager entityManager, boolean closeEntityManager) {
@@ -60,7 +79,38 @@ final class StandardStreamSupplier<T> implements StreamSupplier<T> {
         this.autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
         this.renderer = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load)
                 .createRenderer(entityManager);
-        this.closeEntityManager = closeEntityManager; 
+        this.closeHandler = closeHandler(closeEntityManager);
+    }
+
+    StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final EntityManager entityManager, final RendererCache rendererCache, final Runnable closeHandler) {
+        this.streamConfiguration = requireNonNull(streamConfiguration);
+        requireNonNull(entityManager);
+        requireNonNull(rendererCache);
+        this.builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        this.autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
+        this.renderer = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load)
+                .createRenderer(entityManager, rendererCache);
+        this.closeHandler = requireNonNull(closeHandler);
+    }
+
+    StandardStreamSupplier(
+        final StreamConfiguration<T> streamConfiguration,
+        final EntityManager entityManager,
+        final RendererCache rendererCache,
+        final Supplier<EntityManager> partitionEntityManagerSupplier,
+        final Consumer<EntityManager> partitionEntityManagerRelease,
+        final Runnable closeHandler
+    ) {
+        this.streamConfiguration = requireNonNull(streamConfiguration);
+        requireNonNull(entityManager);
+        requireNonNull(rendererCache);
+        requireNonNull(partitionEntityManagerSupplier);
+        requireNonNull(partitionEntityManagerRelease);
+        this.builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        this.autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
+        this.renderer = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load)
+                .createRenderer(entityManager, rendererCache, partitionEntityManagerSupplier, partitionEntityManagerRelease);
+        this.closeHandler = requireNonNull(closeHandler);
     }
 
     @Override
@@ -68,13 +118,47 @@ final class StandardStreamSupplier<T> implements StreamSupplier<T> {
         return autoCloseFactory.createAutoCloseStream(builderFactory.createBuilder(streamConfiguration, renderer));
     }
 
+    /**
+     * Returns a new Stream like {@link #stream()} that runs the provided check before each
+     * element is read, see {@link CheckingRenderer}.
+     *
+     * @param check run before each element is read
+     * @return a new Stream that runs the provided check before each element is read
+     */
+    Stream<T> stream(final Runnable check) {
+        return autoCloseFactory.createAutoCloseStream(builderFactory.createBuilder(streamConfiguration, new CheckingRenderer(renderer, check)));
+    }
+
+    @Override
+    public Page<T> page(final Cursor cursor, final UnaryOperator<Stream<T>> pipeline) {
+        requireNonNull(cursor);
+        requireNonNull(pipeline);
+
+        final AtomicReference<Cursor> next = new AtomicReference<>();
+        final StreamConfiguration<T> pageConfiguration = streamConfiguration.seekingAfter(cursor, next::set);
+
+        final List<T> content;
+        try (final Stream<T> stream = autoCloseFactory.createAutoCloseStream(builderFactory.createBuilder(pageConfiguration, renderer))) {
+            content = pipeline.apply(stream).collect(Collectors.toList());
+        }
+
+        return new StandardPage<>(content, content.isEmpty() ? null : next.get());
+    }
+
     @Override
     public void close() {
-        if (this.closeEntityManager) {
-            renderer.close();
-        } else if (closed.compareAndSet(false, true)) {
-            System.out.println("JPAStreamer does not close Entity Managers obtained by a given Supplier<EntityManager>.");
+        closeHandler.run();
+    }
+
+    private Runnable closeHandler(final boolean closeEntityManager) {
+        if (closeEntityManager) {
+            return renderer::close;
         }
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                System.out.println("JPAStreamer does not close Entity Managers obtained by a given Supplier<EntityManager>.");
+            }
+        };
     }
 
     @Override
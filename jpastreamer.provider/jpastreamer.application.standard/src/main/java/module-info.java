@@ -40,6 +40,7 @@ module jpastreamer.application.standard {
     requires jpastreamer.autoclose;
     requires jpastreamer.announcer;
     requires jpastreamer.rootfactory;
+    requires jpastreamer.exception;
 
     exports com.speedment.jpastreamer.application.standard;
     
@@ -0,0 +1,163 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class AsyncQueryTest {
+
+    private static final int ROWS = 100;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger read = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final AtomicReference<Thread> closingThread = new AtomicReference<>();
+
+    /**
+     * Creates a Stream of the rows that runs the check before each row is read, like
+     * the Streams of the standard JPAStreamer do.
+     */
+    private final Function<Runnable, Stream<Integer>> streamFactory = check -> {
+        created.incrementAndGet();
+        return IntStream.rangeClosed(1, ROWS).boxed()
+            .map(i -> {
+                check.run();
+                read.incrementAndGet();
+                return i;
+            })
+            .onClose(() -> {
+                closed.incrementAndGet();
+                closingThread.set(Thread.currentThread());
+            });
+    };
+
+    @Test
+    void completesWithResultAndClosesStream() throws Exception {
+        final CompletableFuture<Integer> future = AsyncQuery.submit(streamFactory, s -> s.mapToInt(i -> i).sum(), Runnable::run);
+
+        assertEquals(ROWS * (ROWS + 1) / 2, future.get());
+        assertEquals(1, created.get());
+        assertEquals(ROWS, read.get());
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void cancelBeforeStartNeverCreatesStream() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final CompletableFuture<Long> future = AsyncQuery.submit(streamFactory, Stream::count, tasks::add);
+
+        assertTrue(future.cancel(false));
+        tasks.forEach(Runnable::run);
+
+        assertTrue(future.isCancelled());
+        assertEquals(0, created.get());
+        assertEquals(0, closed.get());
+    }
+
+    @Test
+    void cancelMidIterationClosesStreamBeforeAllRowsAreRead() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final AtomicReference<Thread> workerThread = new AtomicReference<>();
+
+        final CompletableFuture<Object> future = AsyncQuery.submit(streamFactory, s -> s
+            .peek(i -> {
+                if (i == 2) {
+                    started.countDown();
+                    await(proceed);
+                }
+            })
+            .collect(Collectors.toList()), task -> {
+            final Thread thread = new Thread(task, "async-query-test");
+            workerThread.set(thread);
+            thread.start();
+        });
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+
+        // The query is still using the Stream, so the Stream and its EntityManager must remain open
+        assertEquals(0, closed.get());
+
+        proceed.countDown();
+        workerThread.get().join(TimeUnit.SECONDS.toMillis(10));
+
+        // The worker stops before reading the next row and closes the Stream
+        assertEquals(1, closed.get());
+        assertSame(workerThread.get(), closingThread.get());
+        assertEquals(2, read.get());
+        assertThrows(CancellationException.class, future::get);
+    }
+
+    @Test
+    void exceptionalQueryCompletesExceptionallyAndClosesStream() {
+        final IllegalArgumentException failure = new IllegalArgumentException("query failed");
+        final CompletableFuture<Object> future = AsyncQuery.submit(streamFactory, s -> {
+            throw failure;
+        }, Runnable::run);
+
+        assertTrue(future.isCompletedExceptionally());
+        final ExecutionException thrown = assertThrows(ExecutionException.class, future::get);
+        assertSame(failure, thrown.getCause());
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void failingStreamCreationCompletesExceptionally() {
+        final IllegalStateException failure = new IllegalStateException("no EntityManager");
+        final CompletableFuture<Long> future = AsyncQuery.submit(check -> {
+            throw failure;
+        }, Stream::count, Runnable::run);
+
+        final CompletionException thrown = assertThrows(CompletionException.class, future::join);
+        assertSame(failure, thrown.getCause());
+    }
+
+    @Test
+    void rejectedQueryCompletesExceptionally() {
+        final CompletableFuture<Long> future = AsyncQuery.submit(streamFactory, Stream::count, task -> {
+            throw new RejectedExecutionException();
+        });
+
+        final CompletionException thrown = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(RejectedExecutionException.class, thrown.getCause());
+        assertEquals(0, created.get());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class CheckingRendererTest {
+
+    private final AtomicInteger checks = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    @Test
+    void checkRunsBeforeEachElementIsRead() {
+        final RenderResult<Object, Integer, Stream<Integer>> result = render(Stream.of(1, 2, 3), () -> checks.incrementAndGet());
+
+        assertSame(result.stream(), result.stream());
+        assertEquals(6, result.stream().mapToInt(Integer::intValue).sum());
+        // The last check precedes finding that there are no more elements
+        assertEquals(4, checks.get());
+    }
+
+    @Test
+    void failingCheckAbortsTheStream() {
+        final RenderResult<Object, Integer, Stream<Integer>> result = render(IntStream.rangeClosed(1, 100).boxed(), () -> {
+            if (checks.incrementAndGet() > 3) {
+                throw new IllegalStateException("aborted");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> result.stream().collect(Collectors.toList()));
+        assertEquals(4, checks.get());
+
+        result.stream().close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void checkRunsBeforeEachPrimitiveElementIsRead() {
+        final RenderResult<Object, Integer, IntStream> result = render(IntStream.rangeClosed(1, 3), () -> checks.incrementAndGet());
+
+        assertEquals(6, result.stream().sum());
+        assertEquals(4, checks.get());
+
+        result.stream().close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void closeClosesTheDelegate() {
+        final AtomicInteger closedRenderers = new AtomicInteger();
+        new CheckingRenderer(renderer(Stream.empty(), closedRenderers), () -> {}).close();
+
+        assertEquals(1, closedRenderers.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, S extends BaseStream<T, S>> RenderResult<Object, T, S> render(final S stream, final Runnable check) {
+        final Renderer renderer = new CheckingRenderer(renderer(stream.onClose(closed::incrementAndGet), new AtomicInteger()), check);
+        return renderer.render(mock(Pipeline.class), mock(StreamConfiguration.class));
+    }
+
+    /**
+     * Returns a Renderer that renders every pipeline as the provided stream.
+     */
+    private static Renderer renderer(final BaseStream<?, ?> stream, final AtomicInteger closed) {
+        return new Renderer() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+                return new RenderResult<>() {
+                    @Override
+                    public Class<E> root() {
+                        return pipeline.root();
+                    }
+
+                    @Override
+                    public S stream() {
+                        return (S) stream;
+                    }
+
+                    @Override
+                    public TerminalOperation<?, ?> terminalOperation() {
+                        return pipeline.terminatingOperation();
+                    }
+                };
+            }
+
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        };
+    }
+}
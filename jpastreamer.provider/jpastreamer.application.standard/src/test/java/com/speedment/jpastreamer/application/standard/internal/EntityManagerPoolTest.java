@@ -0,0 +1,176 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+final class EntityManagerPoolTest {
+
+    private final List<EntityManager> created = new ArrayList<>();
+    private final Supplier<EntityManager> supplier = () -> {
+        final EntityManager entityManager = entityManager();
+        created.add(entityManager);
+        return entityManager;
+    };
+
+    @Test
+    void leaseUsesCommitFlushMode() {
+        final EntityManagerPool pool = new EntityManagerPool(supplier, true, 2, Duration.ofSeconds(1));
+        final EntityManager entityManager = pool.lease();
+        assertEquals(FlushModeType.COMMIT, entityManager.getFlushMode());
+        assertEquals(1, pool.inUse());
+        assertEquals(0, pool.idle());
+        assertEquals(1, pool.leases());
+    }
+
+    @Test
+    void releaseClearsRestoresAndReuses() {
+        final EntityManagerPool pool = new EntityManagerPool(supplier, true, 2, Duration.ofSeconds(1));
+        final EntityManager entityManager = pool.lease();
+        pool.release(entityManager);
+
+        verify(entityManager).clear();
+        verify(entityManager, never()).close();
+        assertEquals(FlushModeType.AUTO, entityManager.getFlushMode());
+        assertEquals(0, pool.inUse());
+        assertEquals(1, pool.idle());
+
+        assertSame(entityManager, pool.lease());
+        assertEquals(FlushModeType.COMMIT, entityManager.getFlushMode());
+        assertEquals(1, created.size());
+        assertEquals(2, pool.leases());
+    }
+
+    @Test
+    void releaseDiscardsClosedEntityManager() {
+        final EntityManagerPool pool = new EntityManagerPool(supplier, true, 2, Duration.ofSeconds(1));
+        final EntityManager entityManager = pool.lease();
+        entityManager.close();
+        pool.release(entityManager);
+        assertEquals(0, pool.idle());
+
+        assertNotSame(entityManager, pool.lease());
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    void exhaustedPoolTimesOut() {
+        final EntityManagerPool pool = new EntityManagerPool(supplier, true, 1, Duration.ofMillis(10));
+        pool.lease();
+        assertThrows(JPAStreamerException.class, pool::lease);
+        assertEquals(1, pool.leases());
+        assertEquals(1, pool.saturatedLeases());
+        assertEquals(1, pool.timeouts());
+        assertEquals(1, pool.inUse());
+    }
+
+    @Test
+    void exhaustedPoolWaitsForRelease() throws Exception {
+        final EntityManagerPool pool = new EntityManagerPool(supplier, true, 1, Duration.ofSeconds(30));
+        final EntityManager entityManager = pool.lease();
+        final CompletableFuture<EntityManager> waiting = CompletableFuture.supplyAsync(pool::lease);
+        while (pool.saturatedLeases() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(waiting.isDone());
+
+        pool.release(entityManager);
+        assertSame(entityManager, waiting.get(10, TimeUnit.SECONDS));
+        assertEquals(1, pool.saturatedLeases());
+        assertEquals(0, pool.timeouts());
+        assertTrue(pool.maxWaitNanos() > 0);
+    }
+
+    @Test
+    void failingSupplierReleasesPermit() {
+        final EntityManagerPool pool = new EntityManagerPool(() -> { throw new IllegalStateException(); }, true, 1, Duration.ZERO);
+        assertThrows(IllegalStateException.class, pool::lease);
+        assertThrows(IllegalStateException.class, pool::lease);
+        assertEquals(0, pool.timeouts());
+        assertEquals(0, pool.inUse());
+    }
+
+    @Test
+    void closeClosesIdleEntityManagers() {
+        final EntityManagerPool pool = new EntityManagerPool(supplier, true, 2, Duration.ofSeconds(1));
+        final EntityManager idle = pool.lease();
+        final EntityManager leased = pool.lease();
+        pool.release(idle);
+
+        pool.close();
+        verify(idle).close();
+        verify(leased, never()).close();
+        assertEquals(0, pool.idle());
+        assertThrows(JPAStreamerException.class, pool::lease);
+
+        pool.release(leased);
+        verify(leased).close();
+        assertEquals(0, pool.idle());
+        assertEquals(0, pool.inUse());
+    }
+
+    @Test
+    void suppliedEntityManagersAreNotPooledOrChanged() {
+        final EntityManagerPool pool = new EntityManagerPool(supplier, false, 1, Duration.ofMillis(10));
+        final EntityManager first = pool.lease();
+        assertThrows(JPAStreamerException.class, pool::lease);
+        pool.release(first);
+
+        final EntityManager second = pool.lease();
+        pool.release(second);
+        pool.close();
+
+        assertNotSame(first, second);
+        assertEquals(0, pool.idle());
+        assertEquals(0, pool.inUse());
+        for (final EntityManager entityManager : created) {
+            verify(entityManager, never()).clear();
+            verify(entityManager, never()).setFlushMode(any());
+            verify(entityManager, never()).close();
+        }
+    }
+
+    private static EntityManager entityManager() {
+        final EntityManager entityManager = mock(EntityManager.class);
+        final AtomicBoolean open = new AtomicBoolean(true);
+        final AtomicReference<FlushModeType> flushMode = new AtomicReference<>(FlushModeType.AUTO);
+        when(entityManager.isOpen()).thenAnswer(invocation -> open.get());
+        doAnswer(invocation -> {
+            open.set(false);
+            return null;
+        }).when(entityManager).close();
+        when(entityManager.getFlushMode()).thenAnswer(invocation -> flushMode.get());
+        doAnswer(invocation -> {
+            flushMode.set(invocation.getArgument(0));
+            return null;
+        }).when(entityManager).setFlushMode(any());
+        return entityManager;
+    }
+
+}
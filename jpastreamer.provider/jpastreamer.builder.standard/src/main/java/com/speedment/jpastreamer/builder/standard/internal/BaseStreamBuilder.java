@@ -51,7 +51,7 @@ abstract class BaseStreamBuilder<E, T, S extends BaseStream<T, S>> implements Ba
 
     @Override
     public S sequential() {
-        baseState.pipeline().parallel();
+        baseState.pipeline().sequential();
         return self();
     }
 
@@ -180,7 +180,10 @@ abstract class BaseStreamBuilder<E, T, S extends BaseStream<T, S>> implements Ba
     }
 
     private RenderResult<E, ?, ?> renderResult() {
-        return baseState.renderer().render(baseState.pipeline(), baseState.streamConfiguration());
+        final RenderResult<E, ?, ?> renderResult = baseState.renderer().render(baseState.pipeline(), baseState.streamConfiguration());
+        // Closing this stream closes the rendered stream and the resources it holds
+        baseState.pipeline().closeHandlers().add(renderResult.stream()::close);
+        return renderResult;
     }
 
     @SuppressWarnings("unchecked")
@@ -19,13 +19,18 @@ import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.renderer.RenderResult;
 import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.Explanation;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import jakarta.persistence.criteria.JoinType;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.*;
@@ -239,6 +244,76 @@ abstract class BaseStreamBuilderTest<T, S extends BaseStream<T, S>> {
         public StreamConfiguration<T> withHint(String hintName, Object value) {
             throw new UnsupportedOperationException();
         }
+
+        @Override
+        public Optional<KeysetConfiguration> keyset() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> seekingAfter(Cursor cursor, Consumer<? super Cursor> nextCursorConsumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OptionalInt chunkSize() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withChunkSize(int chunkSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<ParallelConfiguration> parallelism() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withParallelism(int partitions, Executor executor) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int inListLimit() {
+            return 1000;
+        }
+
+        @Override
+        public StreamConfiguration<T> withInListLimit(int inListLimit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Consumer<? super Explanation>> explanationConsumer() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> explaining(Consumer<? super Explanation> explanationConsumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Duration> cacheTimeToLive() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> caching(Duration timeToLive) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return false;
+        }
+
+        @Override
+        public StreamConfiguration<T> readOnly() {
+            throw new UnsupportedOperationException();
+        }
     }
 
 }
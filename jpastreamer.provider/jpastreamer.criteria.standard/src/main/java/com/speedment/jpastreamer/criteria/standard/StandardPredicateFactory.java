@@ -19,6 +19,8 @@ import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.List;
+
 public final class StandardPredicateFactory implements PredicateFactory {
 
     private final PredicateFactory delegate = new InternalPredicateFactory();
@@ -30,4 +32,14 @@ public final class StandardPredicateFactory implements PredicateFactory {
     ) {
         return delegate.createPredicate(criteria, speedmentPredicate);
     }
+
+    @Override
+    public <ENTITY> List<Object> createParameterValues(final SpeedmentPredicate<ENTITY> speedmentPredicate) {
+        return delegate.createParameterValues(speedmentPredicate);
+    }
+
+    @Override
+    public <ENTITY> SpeedmentPredicate<ENTITY> normalize(final SpeedmentPredicate<ENTITY> speedmentPredicate) {
+        return delegate.normalize(speedmentPredicate);
+    }
 }
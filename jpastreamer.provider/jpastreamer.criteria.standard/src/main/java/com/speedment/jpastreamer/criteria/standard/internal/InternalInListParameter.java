@@ -0,0 +1,49 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.InListParameter;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.Collection;
+import java.util.List;
+
+public final class InternalInListParameter<T> implements InListParameter<T> {
+
+    private final ParameterExpression<Collection<T>> parameterExpression;
+    private final Collection<T> values;
+    private final List<T> value;
+
+    public InternalInListParameter(final ParameterExpression<Collection<T>> parameterExpression, final Collection<T> values) {
+        this.parameterExpression = requireNonNull(parameterExpression);
+        this.values = requireNonNull(values);
+        this.value = InListParameter.pad(values);
+    }
+
+    @Override
+    public ParameterExpression<Collection<T>> getParameterExpression() {
+        return parameterExpression;
+    }
+
+    @Override
+    public Collection<T> getValue() {
+        return value;
+    }
+
+    @Override
+    public Collection<T> values() {
+        return values;
+    }
+}
@@ -12,7 +12,6 @@
  */
 package com.speedment.jpastreamer.criteria.standard.internal;
 
-import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -26,6 +25,7 @@ import com.speedment.jpastreamer.field.comparator.FieldComparator;
 import jakarta.persistence.criteria.Order;
 import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public final class InternalOrderFactory implements OrderFactory {
 
@@ -42,14 +42,14 @@ public final class InternalOrderFactory implements OrderFactory {
         if (comparator instanceof FieldComparator) {
             final FieldComparator<ENTITY> fieldComparator = (FieldComparator<ENTITY>) comparator;
 
-            return singletonList(orderMapper.mapOrder(criteria, fieldComparator));
+            return orders(criteria, fieldComparator).collect(toList());
         }
 
         if (comparator instanceof CombinedComparator) {
             final CombinedComparator<ENTITY> combinedComparator = (CombinedComparator<ENTITY>) comparator;
 
             return combinedComparator.stream()
-                .map(fieldComparator -> orderMapper.mapOrder(criteria, fieldComparator))
+                .flatMap(fieldComparator -> orders(criteria, fieldComparator))
                 .collect(toList());
         }
 
@@ -57,4 +57,14 @@ public final class InternalOrderFactory implements OrderFactory {
             "Comparator type [" + comparator.getClass().getSimpleName() + "] is not supported"
         );
     }
+
+    private <ENTITY> Stream<Order> orders(
+        final Criteria<ENTITY, ?> criteria,
+        final FieldComparator<? super ENTITY> fieldComparator
+    ) {
+        final Order order = orderMapper.mapOrder(criteria, fieldComparator);
+        return orderMapper.mapNullOrder(criteria, fieldComparator)
+            .map(nullOrder -> Stream.of(nullOrder, order))
+            .orElseGet(() -> Stream.of(order));
+    }
 }
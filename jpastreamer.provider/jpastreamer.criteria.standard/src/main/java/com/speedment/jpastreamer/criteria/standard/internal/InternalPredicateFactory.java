@@ -18,6 +18,7 @@ import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.PredicateFactory;
 import com.speedment.jpastreamer.criteria.standard.internal.predicate.PredicateMapper;
 import com.speedment.jpastreamer.criteria.standard.internal.predicate.PredicateMapping;
+import com.speedment.jpastreamer.criteria.standard.internal.predicate.PredicateNormalizer;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
 import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
@@ -25,12 +26,14 @@ import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public final class InternalPredicateFactory implements PredicateFactory {
 
     private final PredicateMapper predicateMapper = PredicateMapper.createPredicateMapper();
 
     @Override
-    @SuppressWarnings("unchecked")
     public <ENTITY> Predicate createPredicate(
         final Criteria<ENTITY, ?> criteria,
         final SpeedmentPredicate<ENTITY> speedmentPredicate
@@ -38,6 +41,26 @@ public final class InternalPredicateFactory implements PredicateFactory {
         requireNonNull(criteria);
         requireNonNull(speedmentPredicate);
 
+        return mapPredicate(criteria, PredicateNormalizer.normalize(speedmentPredicate));
+    }
+
+    @Override
+    public <ENTITY> List<Object> createParameterValues(final SpeedmentPredicate<ENTITY> speedmentPredicate) {
+        requireNonNull(speedmentPredicate);
+
+        return mapValues(PredicateNormalizer.normalize(speedmentPredicate));
+    }
+
+    @Override
+    public <ENTITY> SpeedmentPredicate<ENTITY> normalize(final SpeedmentPredicate<ENTITY> speedmentPredicate) {
+        return PredicateNormalizer.normalize(speedmentPredicate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <ENTITY> Predicate mapPredicate(
+        final Criteria<ENTITY, ?> criteria,
+        final SpeedmentPredicate<ENTITY> speedmentPredicate
+    ) {
         if (speedmentPredicate instanceof FieldPredicate) {
             final FieldPredicate<ENTITY> fieldPredicate = (FieldPredicate<ENTITY>) speedmentPredicate;
             final PredicateMapping predicateMapping = predicateMapper.mapPredicate(criteria, fieldPredicate);
@@ -52,7 +75,7 @@ public final class InternalPredicateFactory implements PredicateFactory {
 
             final Predicate[] predicates = combinedPredicate.stream().map(predicate -> {
                 if (predicate instanceof SpeedmentPredicate) {
-                    return createPredicate(criteria, (SpeedmentPredicate<ENTITY>) predicate);
+                    return mapPredicate(criteria, (SpeedmentPredicate<ENTITY>) predicate);
                 }
                 throw newJPAStreamerException("type", predicate.getClass().getSimpleName());
 
@@ -70,6 +93,28 @@ public final class InternalPredicateFactory implements PredicateFactory {
         throw newJPAStreamerException("logical type", speedmentPredicate.getClass().getSimpleName());
     }
 
+    @SuppressWarnings("unchecked")
+    private <ENTITY> List<Object> mapValues(final SpeedmentPredicate<ENTITY> speedmentPredicate) {
+        if (speedmentPredicate instanceof FieldPredicate) {
+            return predicateMapper.mapValues((FieldPredicate<ENTITY>) speedmentPredicate);
+        }
+
+        if (speedmentPredicate instanceof CombinedPredicate) {
+            final List<Object> values = new ArrayList<>();
+
+            ((CombinedPredicate<ENTITY>) speedmentPredicate).stream().forEach(predicate -> {
+                if (predicate instanceof SpeedmentPredicate) {
+                    values.addAll(mapValues((SpeedmentPredicate<ENTITY>) predicate));
+                    return;
+                }
+                throw newJPAStreamerException("type", predicate.getClass().getSimpleName());
+            });
+
+            return values;
+        }
+        throw newJPAStreamerException("logical type", speedmentPredicate.getClass().getSimpleName());
+    }
+
     private JPAStreamerException newJPAStreamerException(String item, String typeName) {
         return new JPAStreamerException(
                 "Predicate " + item + " [" + typeName + "] is not supported"
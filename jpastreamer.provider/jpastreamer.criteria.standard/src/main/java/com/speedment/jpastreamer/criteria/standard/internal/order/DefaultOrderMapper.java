@@ -17,9 +17,16 @@ import static java.util.Objects.requireNonNull;
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.comparator.NullOrder;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Bindable;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.Optional;
 
 public final class DefaultOrderMapper implements OrderMapper {
 
@@ -42,4 +49,42 @@ public final class DefaultOrderMapper implements OrderMapper {
 
         return builder.asc(root.get(field.columnName()));
     }
+
+    @Override
+    public <ENTITY> Optional<Order> mapNullOrder(
+        final Criteria<ENTITY, ?> criteria,
+        final FieldComparator<? super ENTITY> fieldComparator
+    ) {
+        requireNonNull(criteria);
+        requireNonNull(fieldComparator);
+
+        if (fieldComparator.getNullOrder() == NullOrder.NONE) {
+            return Optional.empty();
+        }
+
+        final Path<?> path = criteria.getRoot().get(fieldComparator.getField().columnName());
+        if (!isNullable(path)) {
+            return Optional.empty();
+        }
+
+        // The null order of a FieldComparator is reversed along with the values
+        final boolean nullsFirst = (fieldComparator.getNullOrder() == NullOrder.FIRST) != fieldComparator.isReversed();
+
+        // NULLS FIRST/LAST is not part of the Criteria API, so the nulls are ordered by a CASE
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final Expression<Integer> nullRank = builder.<Integer>selectCase()
+            .when(builder.isNull(path), nullsFirst ? 0 : 1)
+            .otherwise(nullsFirst ? 1 : 0);
+
+        return Optional.of(builder.asc(nullRank));
+    }
+
+    private static boolean isNullable(final Path<?> path) {
+        final Bindable<?> model = path.getModel();
+        if (!(model instanceof SingularAttribute)) {
+            return true;
+        }
+        final SingularAttribute<?, ?> attribute = (SingularAttribute<?, ?>) model;
+        return attribute.isOptional() && !attribute.isId() && !attribute.getJavaType().isPrimitive();
+    }
 }
@@ -17,6 +17,8 @@ import com.speedment.jpastreamer.field.comparator.FieldComparator;
 
 import jakarta.persistence.criteria.Order;
 
+import java.util.Optional;
+
 public interface OrderMapper {
 
     <ENTITY> Order mapOrder(
@@ -24,6 +26,25 @@ public interface OrderMapper {
         final FieldComparator<? super ENTITY> fieldComparator
     );
 
+    /**
+     * Returns an {@code Order} that places the entities for which the field of the
+     * provided {@code fieldComparator} is {@code null} according to its
+     * {@link com.speedment.jpastreamer.field.comparator.NullOrder}, to precede the
+     * {@code Order} returned by {@link #mapOrder(Criteria, FieldComparator)}.
+     * <p>
+     * An empty Optional is returned if the field cannot be {@code null} or if the
+     * comparator makes no guarantees regarding {@code null} values.
+     *
+     * @param criteria used to create the JPA Order
+     * @param fieldComparator used as a model for the JPA Order
+     * @param <ENTITY> root entity
+     * @return the Order placing the {@code null} values, if any
+     */
+    <ENTITY> Optional<Order> mapNullOrder(
+        final Criteria<ENTITY, ?> criteria,
+        final FieldComparator<? super ENTITY> fieldComparator
+    );
+
     static OrderMapper createOrderMapper() {
         return new DefaultOrderMapper();
     }
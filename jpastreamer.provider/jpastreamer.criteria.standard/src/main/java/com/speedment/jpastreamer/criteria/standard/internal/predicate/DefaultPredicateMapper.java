@@ -13,11 +13,15 @@
 package com.speedment.jpastreamer.criteria.standard.internal.predicate;
 
 import static com.speedment.jpastreamer.criteria.standard.internal.predicate.ParameterizedPredicate.createParameterizedPredicate;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
 import com.speedment.common.function.TriFunction;
 import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.InListParameter;
 import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.criteria.standard.internal.InternalInListParameter;
 import com.speedment.jpastreamer.criteria.standard.internal.InternalQueryParameter;
 import com.speedment.jpastreamer.criteria.standard.internal.util.Cast;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
@@ -29,15 +33,27 @@ import com.speedment.jpastreamer.field.trait.HasArg0;
 import com.speedment.jpastreamer.field.trait.HasArg1;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 
 public final class DefaultPredicateMapper implements PredicateMapper {
-    
+
+    private static final Function<String, String> LOWER_CASE = String::toLowerCase;
+    private static final Function<String, String> STARTS_WITH_PATTERN = value -> value + "%";
+    private static final Function<String, String> STARTS_WITH_IGNORE_CASE_PATTERN = value -> value.toLowerCase() + "%";
+    private static final Function<String, String> ENDS_WITH_PATTERN = value -> "%" + value;
+    private static final Function<String, String> ENDS_WITH_IGNORE_CASE_PATTERN = value -> "%" + value.toLowerCase();
+    private static final Function<String, String> CONTAINS_PATTERN = value -> "%" + value + "%";
+    private static final Function<String, String> CONTAINS_IGNORE_CASE_PATTERN = value -> "%" + value.toLowerCase() + "%";
+
     @Override
     public <ENTITY> PredicateMapping mapPredicate(
         final Criteria<ENTITY, ?> criteria,
@@ -49,6 +65,81 @@ public final class DefaultPredicateMapper implements PredicateMapper {
         return mapPredicate0(criteria, fieldPredicate);
     }
 
+    @Override
+    public <ENTITY> List<Object> mapValues(final FieldPredicate<ENTITY> fieldPredicate) {
+        requireNonNull(fieldPredicate);
+
+        switch (fieldPredicate.getPredicateType()) {
+            case EQUAL:
+            case NOT_EQUAL:
+                return singletonList(Cast.castOrFail(fieldPredicate, HasArg0.class).get0());
+            case GREATER_THAN:
+            case GREATER_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_OR_EQUAL:
+                final Object value = Cast.castOrFail(fieldPredicate, HasArg0.class).get0();
+                return singletonList(value instanceof Character ? (Object) (int) (char) value : value);
+            case BETWEEN:
+            case NOT_BETWEEN:
+                return Arrays.asList(
+                    Cast.castOrFail(fieldPredicate, HasArg0.class).get0(),
+                    Cast.castOrFail(fieldPredicate, HasArg1.class).get1()
+                );
+            case IN:
+            case NOT_IN:
+                final Set<Object> set = inValues(fieldPredicate);
+                return set.isEmpty() ? emptyList() : singletonList(InListParameter.pad(set));
+            case EQUAL_IGNORE_CASE:
+            case NOT_EQUAL_IGNORE_CASE:
+                return stringValue(fieldPredicate, LOWER_CASE);
+            case STARTS_WITH:
+            case NOT_STARTS_WITH:
+                return stringValue(fieldPredicate, STARTS_WITH_PATTERN);
+            case STARTS_WITH_IGNORE_CASE:
+            case NOT_STARTS_WITH_IGNORE_CASE:
+                return stringValue(fieldPredicate, STARTS_WITH_IGNORE_CASE_PATTERN);
+            case ENDS_WITH:
+            case NOT_ENDS_WITH:
+                return stringValue(fieldPredicate, ENDS_WITH_PATTERN);
+            case ENDS_WITH_IGNORE_CASE:
+            case NOT_ENDS_WITH_IGNORE_CASE:
+                return stringValue(fieldPredicate, ENDS_WITH_IGNORE_CASE_PATTERN);
+            case CONTAINS:
+            case NOT_CONTAINS:
+                return stringValue(fieldPredicate, CONTAINS_PATTERN);
+            case CONTAINS_IGNORE_CASE:
+            case NOT_CONTAINS_IGNORE_CASE:
+                return stringValue(fieldPredicate, CONTAINS_IGNORE_CASE_PATTERN);
+            default:
+                // The remaining predicate types are rendered without parameters
+                return emptyList();
+        }
+    }
+
+    private <ENTITY> List<Object> stringValue(
+        final FieldPredicate<ENTITY> fieldPredicate,
+        final Function<String, String> valueMapper
+    ) {
+        final Object value = Cast.castOrFail(fieldPredicate, HasArg0.class).get0();
+
+        if (value instanceof String) {
+            return singletonList(valueMapper.apply((String) value));
+        }
+
+        throw new JPAStreamerException();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <ENTITY> Set<Object> inValues(final FieldPredicate<ENTITY> fieldPredicate) {
+        final Object value = Cast.castOrFail(fieldPredicate, HasArg0.class).get0();
+
+        if (value instanceof Set) {
+            return (Set<Object>) value;
+        }
+
+        throw new JPAStreamerException();
+    }
+
     private <ENTITY> PredicateMapping alwaysTrue(
         final Criteria<ENTITY, ?> criteria,
         final FieldPredicate<ENTITY> fieldPredicate
@@ -284,31 +375,35 @@ public final class DefaultPredicateMapper implements PredicateMapper {
         );
     }
 
+    @SuppressWarnings("unchecked")
     private <ENTITY> PredicateMapping in(
         final Criteria<ENTITY, ?> criteria,
         final FieldPredicate<ENTITY> fieldPredicate
     ) {
-        final Object value = Cast.castOrFail(fieldPredicate, HasArg0.class).get0();
-
-        if (!(value instanceof Set)) {
-            throw new JPAStreamerException();
-        }
+        final Set<Object> set = inValues(fieldPredicate);
 
         final Field<ENTITY> field = fieldPredicate.getField();
         final String column = field.columnName();
 
-        final Set<?> set = (Set<?>) value;
+        if (set.isEmpty()) {
+            // An empty IN-list matches no rows
+            return new PredicateMapping(criteria.getBuilder().disjunction());
+        }
+
+        final ParameterExpression<Collection<Object>> parameter = (ParameterExpression<Collection<Object>>) (ParameterExpression<?>) criteria.getBuilder().parameter(Collection.class);
+        final QueryParameter<Collection<Object>> queryParameter = new InternalInListParameter<>(parameter, set);
 
-        return new PredicateMapping(criteria.getRoot().get(column).in(set));
+        return new PredicateMapping(criteria.getRoot().get(column).in((Expression<Collection<?>>) (Expression<?>) parameter), queryParameter);
     }
 
     private <ENTITY> PredicateMapping notIn(
         final Criteria<ENTITY, ?> criteria,
         final FieldPredicate<ENTITY> fieldPredicate
     ) {
-        final Predicate predicate = in(criteria, fieldPredicate).getPredicate().not();
+        final PredicateMapping inMapping = in(criteria, fieldPredicate);
+        final Predicate predicate = inMapping.getPredicate().not();
 
-        return new PredicateMapping(predicate);
+        return new PredicateMapping(predicate, inMapping.getQueryParameters().toArray(new QueryParameter<?>[0]));
     }
 
     @SuppressWarnings("unchecked")
@@ -354,7 +449,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().equal(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                String::toLowerCase
+                LOWER_CASE
             ),
             String.class
         );
@@ -369,7 +464,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().notEqual(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                String::toLowerCase
+                LOWER_CASE
             ),
             String.class
         );
@@ -384,7 +479,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter),
-                value -> value + "%"
+                STARTS_WITH_PATTERN
             ),
             String.class
         );
@@ -399,7 +494,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter),
-                value -> value + "%"
+                STARTS_WITH_PATTERN
             ),
             String.class
         );
@@ -414,7 +509,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().like(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> value.toLowerCase() + "%"
+                STARTS_WITH_IGNORE_CASE_PATTERN
             ),
             String.class
         );
@@ -429,7 +524,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().notLike(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> value.toLowerCase() + "%"
+                STARTS_WITH_IGNORE_CASE_PATTERN
             ),
             String.class
         );
@@ -444,7 +539,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter),
-                value -> "%" + value
+                ENDS_WITH_PATTERN
             ),
             String.class
         );
@@ -459,7 +554,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter),
-                value -> "%" + value
+                ENDS_WITH_PATTERN
             ),
             String.class
         );
@@ -474,7 +569,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().like(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase()
+                ENDS_WITH_IGNORE_CASE_PATTERN
             ),
             String.class
         );
@@ -489,7 +584,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().notLike(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase()
+                ENDS_WITH_IGNORE_CASE_PATTERN
             ),
             String.class
         );
@@ -504,7 +599,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().like(criteria.getRoot().get(column), parameter),
-                value -> "%" + value + "%"
+                CONTAINS_PATTERN
             ),
             String.class
         );
@@ -519,7 +614,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().notLike(criteria.getRoot().get(column), parameter),
-                value -> "%" + value + "%"
+                CONTAINS_PATTERN
             ),
             String.class
         );
@@ -534,7 +629,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().like(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase() + "%"
+                CONTAINS_IGNORE_CASE_PATTERN
             ),
             String.class
         );
@@ -549,7 +644,7 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             fieldPredicate,
             createParameterizedPredicate(
                 (column, parameter) -> criteria.getBuilder().notLike(criteria.getBuilder().lower(criteria.getRoot().get(column)), parameter),
-                value -> "%" + value.toLowerCase() + "%"
+                CONTAINS_IGNORE_CASE_PATTERN
             ),
             String.class
         );
@@ -15,6 +15,8 @@ package com.speedment.jpastreamer.criteria.standard.internal.predicate;
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 
+import java.util.List;
+
 public interface PredicateMapper {
 
     <ENTITY> PredicateMapping mapPredicate(
@@ -22,6 +24,10 @@ public interface PredicateMapper {
         final FieldPredicate<ENTITY> fieldPredicate
     );
 
+    <ENTITY> List<Object> mapValues(
+        final FieldPredicate<ENTITY> fieldPredicate
+    );
+
     static PredicateMapper createPredicateMapper() {
         return new DefaultPredicateMapper();
     }
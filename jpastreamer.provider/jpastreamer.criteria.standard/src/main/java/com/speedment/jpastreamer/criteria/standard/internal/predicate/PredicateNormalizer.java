@@ -0,0 +1,480 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Simplifies the structure of a {@link SpeedmentPredicate} before it is mapped to a JPA
+ * predicate:
+ * <ul>
+ *     <li>nested {@code and}/{@code or} predicates are flattened,</li>
+ *     <li>{@code alwaysTrue}/{@code alwaysFalse} predicates and empty IN-lists are folded,</li>
+ *     <li>ranges on the same field that are combined using {@code and} are intersected,
+ *     and an empty intersection is folded into {@code alwaysFalse},</li>
+ *     <li>{@code equal} and {@code in} predicates on the same field that are combined using
+ *     {@code or} are collapsed into a single {@code in} predicate.</li>
+ * </ul>
+ * The simplified predicates evaluate the original predicates when tested in memory.
+ * Ranges are only intersected for numbers and temporal values, as the database may
+ * order other values, such as strings, differently than Java does.
+ * <p>
+ * A predicate that is already normalized is returned as is.
+ */
+public final class PredicateNormalizer {
+
+    private PredicateNormalizer() {}
+
+    /**
+     * Returns a predicate that is equivalent to the provided predicate but has a simpler
+     * structure, or the provided predicate if it can not be simplified.
+     *
+     * @param predicate to normalize
+     * @param <ENTITY> the entity type
+     * @return the normalized predicate
+     */
+    @SuppressWarnings("unchecked")
+    public static <ENTITY> SpeedmentPredicate<ENTITY> normalize(final SpeedmentPredicate<ENTITY> predicate) {
+        requireNonNull(predicate);
+
+        if (predicate instanceof FieldPredicate) {
+            return normalizeField((FieldPredicate<ENTITY>) predicate);
+        }
+
+        if (predicate instanceof CombinedPredicate) {
+            return normalizeCombined((CombinedPredicate<ENTITY>) predicate);
+        }
+
+        return predicate;
+    }
+
+    private static <ENTITY> SpeedmentPredicate<ENTITY> normalizeField(final FieldPredicate<ENTITY> predicate) {
+        final PredicateType type = predicate.getPredicateType();
+        if ((type == PredicateType.IN || type == PredicateType.NOT_IN) && predicate.getField() != null) {
+            final Object values = arg0(predicate);
+            if (values instanceof Collection && ((Collection<?>) values).isEmpty()) {
+                return constant(predicate.getField(), type == PredicateType.NOT_IN);
+            }
+        }
+        if (type == PredicateType.BETWEEN && isRange(predicate)) {
+            final FieldPredicate<ENTITY> range = intersect(Collections.singletonList(predicate));
+            if (range.getPredicateType() == PredicateType.ALWAYS_FALSE) {
+                return range;
+            }
+        }
+        return predicate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> SpeedmentPredicate<ENTITY> normalizeCombined(final CombinedPredicate<ENTITY> predicate) {
+        final CombinedPredicate.Type type = predicate.getType();
+        final PredicateType absorbing = type == CombinedPredicate.Type.AND ? PredicateType.ALWAYS_FALSE : PredicateType.ALWAYS_TRUE;
+        final PredicateType neutral = absorbing.negate();
+
+        final List<Predicate<? super ENTITY>> original = new ArrayList<>();
+        predicate.stream().forEach(original::add);
+
+        final List<Predicate<? super ENTITY>> children = new ArrayList<>();
+        FieldPredicate<ENTITY> neutralChild = null;
+        for (final Predicate<? super ENTITY> child : original) {
+            final Predicate<? super ENTITY> normalized = child instanceof SpeedmentPredicate
+                ? normalize((SpeedmentPredicate<ENTITY>) child)
+                : child;
+
+            if (normalized instanceof CombinedPredicate && ((CombinedPredicate<?>) normalized).getType() == type) {
+                ((CombinedPredicate<ENTITY>) normalized).stream().forEach(children::add);
+            } else if (isType(normalized, absorbing)) {
+                return (SpeedmentPredicate<ENTITY>) normalized;
+            } else if (isType(normalized, neutral)) {
+                neutralChild = (FieldPredicate<ENTITY>) normalized;
+            } else {
+                children.add(normalized);
+            }
+        }
+
+        final List<Predicate<? super ENTITY>> merged = type == CombinedPredicate.Type.AND
+            ? intersectRanges(children)
+            : collapseEquals(children);
+
+        for (final Predicate<? super ENTITY> child : merged) {
+            if (isType(child, absorbing)) {
+                return (SpeedmentPredicate<ENTITY>) child;
+            }
+        }
+
+        if (merged.isEmpty()) {
+            return neutralChild;
+        }
+        if (merged.size() == 1 && merged.get(0) instanceof SpeedmentPredicate) {
+            return (SpeedmentPredicate<ENTITY>) merged.get(0);
+        }
+        if (merged.size() == original.size() && isSame(merged, original)) {
+            return predicate;
+        }
+        return type == CombinedPredicate.Type.AND
+            ? CombinedPredicate.and(merged)
+            : CombinedPredicate.or(merged);
+    }
+
+    /**
+     * Replaces the ranges on each field with their intersection, which is placed at the
+     * position of the first range on the field.
+     */
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> List<Predicate<? super ENTITY>> intersectRanges(final List<Predicate<? super ENTITY>> children) {
+        final Map<String, List<FieldPredicate<ENTITY>>> ranges = new LinkedHashMap<>();
+        for (final Predicate<? super ENTITY> child : children) {
+            if (isRange(child)) {
+                final FieldPredicate<ENTITY> range = (FieldPredicate<ENTITY>) child;
+                ranges.computeIfAbsent(range.getField().columnName(), column -> new ArrayList<>()).add(range);
+            }
+        }
+
+        final List<Predicate<? super ENTITY>> result = new ArrayList<>(children.size());
+        for (final Predicate<? super ENTITY> child : children) {
+            if (!isRange(child)) {
+                result.add(child);
+                continue;
+            }
+
+            final List<FieldPredicate<ENTITY>> group = ranges.get(((FieldPredicate<?>) child).getField().columnName());
+            if (group.size() == 1 || !isComparable(group)) {
+                result.add(child);
+            } else if (group.get(0) == child) {
+                result.add(intersect(group));
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <ENTITY> FieldPredicate<ENTITY> intersect(final List<FieldPredicate<ENTITY>> group) {
+        final Interval interval = new Interval();
+        for (final FieldPredicate<ENTITY> range : group) {
+            final Comparable arg0 = (Comparable) arg0(range);
+            switch (range.getPredicateType()) {
+                case EQUAL:
+                    interval.restrictLower(arg0, true);
+                    interval.restrictUpper(arg0, true);
+                    break;
+                case GREATER_THAN:
+                    interval.restrictLower(arg0, false);
+                    break;
+                case GREATER_OR_EQUAL:
+                    interval.restrictLower(arg0, true);
+                    break;
+                case LESS_THAN:
+                    interval.restrictUpper(arg0, false);
+                    break;
+                case LESS_OR_EQUAL:
+                    interval.restrictUpper(arg0, true);
+                    break;
+                case BETWEEN:
+                    final Inclusion inclusion = inclusion(range);
+                    interval.restrictLower(arg0, inclusion.isStartInclusive());
+                    interval.restrictUpper((Comparable) ((HasArg1<?>) range).get1(), inclusion.isEndInclusive());
+                    break;
+                default:
+                    throw new IllegalStateException(range.getPredicateType() + " is not a range");
+            }
+        }
+
+        final Field<ENTITY> field = group.get(0).getField();
+        final Predicate<ENTITY> tester = entity -> group.stream().allMatch(range -> range.test(entity));
+
+        if (interval.lower != null && interval.upper != null) {
+            final int comparison = interval.lower.compareTo(interval.upper);
+            if (comparison > 0 || (comparison == 0 && !(interval.lowerInclusive && interval.upperInclusive))) {
+                return constant(field, false);
+            }
+            if (comparison == 0) {
+                return new ValuePredicate<>(PredicateType.EQUAL, field, tester, interval.lower);
+            }
+            return new RangePredicate<>(PredicateType.BETWEEN, field, tester, interval.lower, interval.upper,
+                inclusion(interval.lowerInclusive, interval.upperInclusive));
+        }
+        if (interval.lower != null) {
+            return new ValuePredicate<>(interval.lowerInclusive ? PredicateType.GREATER_OR_EQUAL : PredicateType.GREATER_THAN, field, tester, interval.lower);
+        }
+        return new ValuePredicate<>(interval.upperInclusive ? PredicateType.LESS_OR_EQUAL : PredicateType.LESS_THAN, field, tester, interval.upper);
+    }
+
+    /**
+     * Replaces the {@code equal} and {@code in} predicates on each field with a single
+     * {@code in} predicate, which is placed at the position of the first of them.
+     */
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> List<Predicate<? super ENTITY>> collapseEquals(final List<Predicate<? super ENTITY>> children) {
+        final Map<String, List<FieldPredicate<ENTITY>>> equals = new LinkedHashMap<>();
+        for (final Predicate<? super ENTITY> child : children) {
+            if (isEqualOrIn(child)) {
+                final FieldPredicate<ENTITY> equal = (FieldPredicate<ENTITY>) child;
+                equals.computeIfAbsent(equal.getField().columnName(), column -> new ArrayList<>()).add(equal);
+            }
+        }
+
+        final List<Predicate<? super ENTITY>> result = new ArrayList<>(children.size());
+        for (final Predicate<? super ENTITY> child : children) {
+            if (!isEqualOrIn(child)) {
+                result.add(child);
+                continue;
+            }
+
+            final List<FieldPredicate<ENTITY>> group = equals.get(((FieldPredicate<?>) child).getField().columnName());
+            if (group.size() == 1) {
+                result.add(child);
+            } else if (group.get(0) == child) {
+                final Set<Object> values = new LinkedHashSet<>();
+                for (final FieldPredicate<ENTITY> equal : group) {
+                    if (equal.getPredicateType() == PredicateType.EQUAL) {
+                        values.add(arg0(equal));
+                    } else {
+                        values.addAll((Collection<?>) arg0(equal));
+                    }
+                }
+                final Predicate<ENTITY> tester = entity -> group.stream().anyMatch(equal -> equal.test(entity));
+                result.add(new ValuePredicate<>(PredicateType.IN, group.get(0).getField(), tester, values));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isRange(final Object predicate) {
+        if (!(predicate instanceof FieldPredicate) || ((FieldPredicate<?>) predicate).getField() == null) {
+            return false;
+        }
+
+        final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) predicate;
+        switch (fieldPredicate.getPredicateType()) {
+            case EQUAL:
+            case GREATER_THAN:
+            case GREATER_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_OR_EQUAL:
+                return isOrdered(arg0(fieldPredicate));
+            case BETWEEN:
+                return fieldPredicate instanceof HasArg1
+                    && isOrdered(arg0(fieldPredicate))
+                    && isOrdered(((HasArg1<?>) fieldPredicate).get1());
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isEqualOrIn(final Object predicate) {
+        if (!(predicate instanceof FieldPredicate) || ((FieldPredicate<?>) predicate).getField() == null) {
+            return false;
+        }
+
+        final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) predicate;
+        final Object value = arg0(fieldPredicate);
+        switch (fieldPredicate.getPredicateType()) {
+            case EQUAL:
+                return value != null && !(value instanceof Character);
+            case IN:
+                return value instanceof Set && !((Set<?>) value).contains(null);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns whether the provided value is ordered the same way in Java as in the database.
+     */
+    private static boolean isOrdered(final Object value) {
+        return value instanceof Number || value instanceof TemporalAccessor || value instanceof Date;
+    }
+
+    /**
+     * Returns whether all values of the provided ranges are of the same type.
+     */
+    private static boolean isComparable(final List<? extends FieldPredicate<?>> group) {
+        final Class<?> type = arg0(group.get(0)).getClass();
+        return group.stream().allMatch(range -> arg0(range).getClass() == type
+            && (!(range instanceof HasArg1) || ((HasArg1<?>) range).get1().getClass() == type));
+    }
+
+    private static boolean isType(final Object predicate, final PredicateType type) {
+        return predicate instanceof FieldPredicate && ((FieldPredicate<?>) predicate).getPredicateType() == type;
+    }
+
+    private static boolean isSame(final List<?> first, final List<?> second) {
+        for (int i = 0; i < first.size(); i++) {
+            if (first.get(i) != second.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object arg0(final FieldPredicate<?> predicate) {
+        return predicate instanceof HasArg0 ? ((HasArg0<?>) predicate).get0() : null;
+    }
+
+    private static Inclusion inclusion(final FieldPredicate<?> predicate) {
+        return predicate instanceof HasInclusion
+            ? ((HasInclusion) predicate).getInclusion()
+            : Inclusion.START_INCLUSIVE_END_INCLUSIVE;
+    }
+
+    private static Inclusion inclusion(final boolean startInclusive, final boolean endInclusive) {
+        if (startInclusive) {
+            return endInclusive ? Inclusion.START_INCLUSIVE_END_INCLUSIVE : Inclusion.START_INCLUSIVE_END_EXCLUSIVE;
+        }
+        return endInclusive ? Inclusion.START_EXCLUSIVE_END_INCLUSIVE : Inclusion.START_EXCLUSIVE_END_EXCLUSIVE;
+    }
+
+    private static <ENTITY> FieldPredicate<ENTITY> constant(final Field<ENTITY> field, final boolean value) {
+        return new ConstantPredicate<>(value ? PredicateType.ALWAYS_TRUE : PredicateType.ALWAYS_FALSE, field, entity -> value);
+    }
+
+    /**
+     * The intersection of ranges, where the tighter bound wins and an exclusive bound
+     * wins over an inclusive bound of the same value. A null bound is unbounded.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class Interval {
+
+        private Comparable lower;
+        private boolean lowerInclusive = true;
+        private Comparable upper;
+        private boolean upperInclusive = true;
+
+        void restrictLower(final Comparable value, final boolean inclusive) {
+            final int comparison = lower == null ? 1 : value.compareTo(lower);
+            if (comparison > 0) {
+                lower = value;
+                lowerInclusive = inclusive;
+            } else if (comparison == 0) {
+                lowerInclusive &= inclusive;
+            }
+        }
+
+        void restrictUpper(final Comparable value, final boolean inclusive) {
+            final int comparison = upper == null ? -1 : value.compareTo(upper);
+            if (comparison < 0) {
+                upper = value;
+                upperInclusive = inclusive;
+            } else if (comparison == 0) {
+                upperInclusive &= inclusive;
+            }
+        }
+    }
+
+    private static class ConstantPredicate<ENTITY> implements FieldPredicate<ENTITY> {
+
+        private final PredicateType predicateType;
+        private final Field<ENTITY> field;
+        private final Predicate<ENTITY> tester;
+
+        ConstantPredicate(final PredicateType predicateType, final Field<ENTITY> field, final Predicate<ENTITY> tester) {
+            this.predicateType = predicateType;
+            this.field = field;
+            this.tester = tester;
+        }
+
+        @Override
+        public PredicateType getPredicateType() {
+            return predicateType;
+        }
+
+        @Override
+        public Field<ENTITY> getField() {
+            return field;
+        }
+
+        @Override
+        public boolean applyAsBoolean(final ENTITY entity) {
+            return tester.test(entity);
+        }
+
+        @Override
+        public FieldPredicate<ENTITY> negate() {
+            return new ConstantPredicate<>(predicateType.negate(), field, tester.negate());
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " {type: '" + predicateType + "', field: " + field.columnName() + "}";
+        }
+    }
+
+    private static class ValuePredicate<ENTITY> extends ConstantPredicate<ENTITY> implements HasArg0<Object> {
+
+        private final Object value;
+
+        ValuePredicate(final PredicateType predicateType, final Field<ENTITY> field, final Predicate<ENTITY> tester, final Object value) {
+            super(predicateType, field, tester);
+            this.value = value;
+        }
+
+        @Override
+        public Object get0() {
+            return value;
+        }
+
+        @Override
+        public FieldPredicate<ENTITY> negate() {
+            return new ValuePredicate<>(getPredicateType().negate(), getField(), entity -> !test(entity), value);
+        }
+    }
+
+    private static final class RangePredicate<ENTITY> extends ValuePredicate<ENTITY> implements HasArg1<Object>, HasInclusion {
+
+        private final Object upper;
+        private final Inclusion inclusion;
+
+        RangePredicate(final PredicateType predicateType, final Field<ENTITY> field, final Predicate<ENTITY> tester, final Object lower, final Object upper, final Inclusion inclusion) {
+            super(predicateType, field, tester, lower);
+            this.upper = upper;
+            this.inclusion = inclusion;
+        }
+
+        @Override
+        public Object get1() {
+            return upper;
+        }
+
+        @Override
+        public Inclusion getInclusion() {
+            return inclusion;
+        }
+
+        @Override
+        public FieldPredicate<ENTITY> negate() {
+            return new RangePredicate<>(getPredicateType().negate(), getField(), entity -> !test(entity), get0(), upper, inclusion);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import com.speedment.jpastreamer.criteria.InListParameter;
+import jakarta.persistence.criteria.ParameterExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+final class InternalInListParameterTest {
+
+    @Test
+    void pad() {
+        assertEquals(Collections.singletonList(1), InListParameter.pad(Collections.singletonList(1)));
+        assertEquals(Arrays.asList(1, 2), InListParameter.pad(Arrays.asList(1, 2)));
+        assertEquals(Arrays.asList(1, 2, 3, 3), InListParameter.pad(Arrays.asList(1, 2, 3)));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 5, 5, 5), InListParameter.pad(Arrays.asList(1, 2, 3, 4, 5)));
+        assertEquals(1024, InListParameter.pad(Collections.nCopies(513, 0)).size());
+
+        assertThrows(IllegalArgumentException.class, () -> InListParameter.pad(Collections.emptyList()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void values() {
+        final ParameterExpression<Collection<Integer>> parameterExpression = mock(ParameterExpression.class);
+        final Set<Integer> values = new LinkedHashSet<>(Arrays.asList(3, 1, 2));
+
+        final InListParameter<Integer> parameter = new InternalInListParameter<>(parameterExpression, values);
+
+        assertSame(parameterExpression, parameter.getParameterExpression());
+        assertSame(values, parameter.values());
+        assertEquals(Arrays.asList(3, 1, 2, 2), parameter.getValue());
+    }
+}
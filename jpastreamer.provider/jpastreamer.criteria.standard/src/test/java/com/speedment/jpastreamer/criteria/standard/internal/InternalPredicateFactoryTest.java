@@ -13,6 +13,7 @@
 package com.speedment.jpastreamer.criteria.standard.internal;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -28,6 +29,7 @@ import com.speedment.jpastreamer.criteria.standard.support.StringEqualPredicate;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
 import com.speedment.jpastreamer.field.predicate.CombinedPredicate.Type;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -36,6 +38,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 final class InternalPredicateFactoryTest {
 
@@ -79,11 +82,34 @@ final class InternalPredicateFactoryTest {
         assertDoesNotThrow(() -> predicateFactory.createPredicate(criteria, orCombinedPredicate));
     }
 
+    @Test
+    void createParameterValues() {
+        assertThrows(NullPointerException.class, () -> predicateFactory.createParameterValues(null));
+
+        final SpeedmentPredicate<String> stringEqualPredicate = new StringEqualPredicate("value");
+        final SpeedmentPredicate<String> stringNotEqualPredicate = stringEqualPredicate.negate();
+
+        assertEquals(Collections.singletonList(PredicateType.EQUAL), predicateFactory.createParameterValues(stringEqualPredicate));
+
+        final SpeedmentPredicate<String> combinedPredicate = new CombinedStringPredicate(Arrays.asList(stringEqualPredicate, stringNotEqualPredicate));
+
+        assertEquals(Arrays.asList(PredicateType.EQUAL, PredicateType.NOT_EQUAL), predicateFactory.createParameterValues(combinedPredicate));
+
+        final SpeedmentPredicate<String> invalidCombinedPredicate = new CombinedStringPredicate(Collections.singletonList(x -> true));
+
+        assertThrows(JPAStreamerException.class, () -> predicateFactory.createParameterValues(invalidCombinedPredicate));
+    }
+
     private static final class MockPredicateMapper implements PredicateMapper {
         @Override
         public <ENTITY> PredicateMapping mapPredicate(Criteria<ENTITY, ?> criteria,
                 FieldPredicate<ENTITY> fieldPredicate) {
             return new PredicateMapping(null);
         }
+
+        @Override
+        public <ENTITY> List<Object> mapValues(FieldPredicate<ENTITY> fieldPredicate) {
+            return Collections.singletonList(fieldPredicate.getPredicateType());
+        }
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+final class PredicateNormalizerTest {
+
+    private static final IntField<String> LENGTH = IntField.create(String.class, "length", String::length, false);
+    private static final StringField<String> VALUE = StringField.create(String.class, "value", String::toString, false);
+
+    private static final List<String> VALUES = Arrays.asList("", "a", "ab", "abc", "abcd", "abcde", "abcdef");
+
+    @Test
+    void unchanged() {
+        assertThrows(NullPointerException.class, () -> PredicateNormalizer.normalize(null));
+
+        final SpeedmentPredicate<String> field = LENGTH.greaterThan(1);
+        assertSame(field, PredicateNormalizer.normalize(field));
+
+        final SpeedmentPredicate<String> combined = LENGTH.greaterThan(1).and(VALUE.startsWith("a"));
+        assertSame(combined, PredicateNormalizer.normalize(combined));
+    }
+
+    @Test
+    void flatten() {
+        final SpeedmentPredicate<String> predicate = LENGTH.lessThan(1).or(VALUE.equal("abc").or(LENGTH.greaterThan(5)));
+        final SpeedmentPredicate<String> normalized = PredicateNormalizer.normalize(predicate);
+
+        assertInstanceOf(CombinedPredicate.class, normalized);
+        assertEquals(3, ((CombinedPredicate<String>) normalized).stream().count());
+        assertEquivalent(predicate, normalized);
+    }
+
+    @Test
+    void intersectRanges() {
+        final SpeedmentPredicate<String> predicate = LENGTH.greaterThan(1).and(LENGTH.lessThan(5)).and(LENGTH.greaterOrEqual(2));
+        final SpeedmentPredicate<String> normalized = PredicateNormalizer.normalize(predicate);
+
+        assertEquals(PredicateType.BETWEEN, predicateType(normalized));
+        assertEquals(2, ((HasArg0<?>) normalized).get0());
+        assertEquals(5, ((HasArg1<?>) normalized).get1());
+        assertEquals(Inclusion.START_INCLUSIVE_END_EXCLUSIVE, ((HasInclusion) normalized).getInclusion());
+        assertEquivalent(predicate, normalized);
+        assertEquivalent(predicate.negate(), normalized.negate());
+    }
+
+    @Test
+    void intersectRangesIntoEqual() {
+        final SpeedmentPredicate<String> predicate = LENGTH.between(1, 3, Inclusion.START_INCLUSIVE_END_INCLUSIVE).and(LENGTH.greaterOrEqual(3));
+        final SpeedmentPredicate<String> normalized = PredicateNormalizer.normalize(predicate);
+
+        assertEquals(PredicateType.EQUAL, predicateType(normalized));
+        assertEquals(3, ((HasArg0<?>) normalized).get0());
+        assertEquivalent(predicate, normalized);
+    }
+
+    @Test
+    void contradiction() {
+        final SpeedmentPredicate<String> predicate = VALUE.startsWith("a").and(LENGTH.greaterThan(4)).and(LENGTH.lessOrEqual(4));
+        final SpeedmentPredicate<String> normalized = PredicateNormalizer.normalize(predicate);
+
+        assertEquals(PredicateType.ALWAYS_FALSE, predicateType(normalized));
+        assertEquivalent(predicate, normalized);
+
+        assertEquals(PredicateType.ALWAYS_FALSE, predicateType(PredicateNormalizer.normalize(LENGTH.between(3, 3))));
+        assertEquals(PredicateType.ALWAYS_TRUE, predicateType(PredicateNormalizer.normalize(predicate.or(LENGTH.notIn(Collections.emptySet())))));
+    }
+
+    @Test
+    void foldConstants() {
+        final SpeedmentPredicate<String> predicate = LENGTH.greaterThan(2).and(LENGTH.notIn(Collections.emptySet()));
+        final SpeedmentPredicate<String> normalized = PredicateNormalizer.normalize(predicate);
+
+        assertEquals(PredicateType.GREATER_THAN, predicateType(normalized));
+        assertEquivalent(predicate, normalized);
+
+        final SpeedmentPredicate<String> inEmpty = PredicateNormalizer.normalize(LENGTH.in(Collections.emptySet()).or(LENGTH.greaterThan(2)));
+        assertEquals(PredicateType.GREATER_THAN, predicateType(inEmpty));
+    }
+
+    @Test
+    void collapseEquals() {
+        final SpeedmentPredicate<String> predicate = VALUE.equal("a").or(LENGTH.equal(4)).or(VALUE.in("abc", "abcdef")).or(VALUE.equal("abc"));
+        final SpeedmentPredicate<String> normalized = PredicateNormalizer.normalize(predicate);
+
+        assertInstanceOf(CombinedPredicate.class, normalized);
+        final FieldPredicate<String> in = (FieldPredicate<String>) ((CombinedPredicate<String>) normalized).stream().findFirst().orElseThrow();
+        assertEquals(PredicateType.IN, in.getPredicateType());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("a", "abc", "abcdef")), ((HasArg0<?>) in).get0());
+        assertEquivalent(predicate, normalized);
+    }
+
+    @Test
+    void idempotent() {
+        final SpeedmentPredicate<String> predicate = LENGTH.greaterThan(1).and(LENGTH.lessThan(5).and(VALUE.equal("a").or(VALUE.equal("ab"))));
+        final SpeedmentPredicate<String> normalized = PredicateNormalizer.normalize(predicate);
+
+        assertSame(normalized, PredicateNormalizer.normalize(normalized));
+        assertEquivalent(predicate, normalized);
+    }
+
+    @Test
+    void stringRangesAreNotIntersected() {
+        final SpeedmentPredicate<String> predicate = VALUE.greaterThan("a").and(VALUE.lessThan("b"));
+        assertSame(predicate, PredicateNormalizer.normalize(predicate));
+    }
+
+    private static PredicateType predicateType(final SpeedmentPredicate<?> predicate) {
+        assertTrue(predicate instanceof FieldPredicate, () -> predicate + " is not a FieldPredicate");
+        return ((FieldPredicate<?>) predicate).getPredicateType();
+    }
+
+    private static void assertEquivalent(final Predicate<String> expected, final Predicate<String> actual) {
+        assertEquals(filter(expected), filter(actual));
+    }
+
+    private static List<String> filter(final Predicate<String> predicate) {
+        return VALUES.stream().filter(predicate).collect(Collectors.toList());
+    }
+}
@@ -93,7 +93,7 @@ public class MoveAnonymousLambdaOperations implements IntermediateOperationOptim
             return true;
         }
         final Object[] arguments = operation.arguments();
-        return (arguments != null && (arguments[0] instanceof SpeedmentPredicate || arguments[0] instanceof Field));
+        return (arguments != null && arguments.length > 0 && (arguments[0] instanceof SpeedmentPredicate || arguments[0] instanceof Field));
     }
     
 }
@@ -19,9 +19,11 @@ import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.merger.result.CriteriaMergeResult;
 import com.speedment.jpastreamer.merger.CriteriaMerger;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.result.InternalCriteriaMergeResult;
+import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.AggregateCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.DistinctCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.FilterCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.CriteriaModifier;
+import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.ProjectionCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.SortedCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.reference.IntermediateOperationReference;
 import com.speedment.jpastreamer.merger.standard.internal.tracker.MergingTracker;
@@ -33,12 +35,15 @@ import java.util.*;
 
 public final class InternalCriteriaMerger implements CriteriaMerger {
 
-    private final Map<IntermediateOperationType, CriteriaModifier> mergingStrategies = new EnumMap<>(IntermediateOperationType.class);
+    private final Map<IntermediateOperationType, List<CriteriaModifier>> mergingStrategies = new EnumMap<>(IntermediateOperationType.class);
 
     public InternalCriteriaMerger() {
         registerMergingStrategy(FILTER, FilterCriteriaModifier.INSTANCE);
         registerMergingStrategy(DISTINCT, DistinctCriteriaModifier.INSTANCE);
         registerMergingStrategy(SORTED, SortedCriteriaModifier.INSTANCE);
+        registerMergingStrategy(MAP, ProjectionCriteriaModifier.INSTANCE);
+        registerMergingStrategy(MAP_TO, AggregateCriteriaModifier.INSTANCE);
+        registerMergingStrategy(MAP_TO, ProjectionCriteriaModifier.INSTANCE);
     }
 
     @Override
@@ -61,15 +66,16 @@ public final class InternalCriteriaMerger implements CriteriaMerger {
                 continue;
             }
 
-            final CriteriaModifier criteriaModifier = mergingStrategies.get(operationType);
+            final IntermediateOperationReference operationReference =
+                    IntermediateOperationReference.createReference(operation, i, intermediateOperations);
 
-            if (criteriaModifier != null) {
+            // Strategies are tried in the order they were registered until one of them merges the operation
+            for (final CriteriaModifier criteriaModifier : mergingStrategies.getOrDefault(operationType, Collections.emptyList())) {
+                if (mergingTracker.mergedOperations().contains(operationType)) {
+                    break;
+                }
 
-                final IntermediateOperationReference operationReference =
-                        IntermediateOperationReference.createReference(operation, i, intermediateOperations);
-
-                criteriaModifier.modifyCriteria(operationReference, criteria, mergingTracker);
-                
+                criteriaModifier.modifyCriteria(pipeline, operationReference, criteria, mergingTracker);
             }
 
             if (!mergingTracker.mergedOperations().contains(operationType)) {
@@ -77,6 +83,11 @@ public final class InternalCriteriaMerger implements CriteriaMerger {
                 // as that risks changing the order in which the operations are applied
                 break;
             }
+
+            if (operationType == MAP || operationType == MAP_TO) {
+                // The following operations are applied to the selected values rather than to the entities
+                break;
+            }
             
         }
 
@@ -89,6 +100,6 @@ public final class InternalCriteriaMerger implements CriteriaMerger {
     }
 
     private void registerMergingStrategy(final IntermediateOperationType operationType, final CriteriaModifier criteriaModifier) {
-        mergingStrategies.put(operationType, criteriaModifier);
+        mergingStrategies.computeIfAbsent(operationType, type -> new ArrayList<>()).add(criteriaModifier);
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.standard.internal.criteria.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.MAP_TO;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.merger.standard.internal.reference.IntermediateOperationReference;
+import com.speedment.jpastreamer.merger.standard.internal.tracker.MergingTracker;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.Optional;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+/**
+ * Merges a trailing {@code mapToInt}/{@code mapToLong}/{@code mapToDouble} of a
+ * {@link Field} into an aggregate selection, provided that the pipeline terminates
+ * with a numeric reduction and that the criteria selects {@link Tuple Tuples}.
+ * <p>
+ * The aggregates are selected with the aliases {@code count}, {@code sum},
+ * {@code min} and {@code max}, only the ones required by the terminal operation
+ * are included.
+ * <p>
+ * The sum of an integral field is computed as a decimal, as the sum of the column
+ * type may overflow in the database. Its low-order bits are then retained in the
+ * same way as they are by {@code IntStream::sum} and {@code LongStream::sum}.
+ */
+public enum AggregateCriteriaModifier implements CriteriaModifier {
+
+    INSTANCE;
+
+    @Override
+    public <ENTITY> void modifyCriteria(
+        final IntermediateOperationReference operationReference,
+        final Criteria<ENTITY, ?> criteria,
+        final MergingTracker mergingTracker
+    ) {
+        // The terminal operation is required to select the aggregates
+    }
+
+    @Override
+    public <ENTITY> void modifyCriteria(
+        final Pipeline<ENTITY> pipeline,
+        final IntermediateOperationReference operationReference,
+        final Criteria<ENTITY, ?> criteria,
+        final MergingTracker mergingTracker
+    ) {
+        requireNonNull(pipeline);
+        requireNonNull(operationReference);
+        requireNonNull(criteria);
+        requireNonNull(mergingTracker);
+
+        final IntermediateOperation<?, ?> operation = operationReference.get();
+
+        final IntermediateOperationType operationType = operation.type();
+
+        if (operationType != MAP_TO || operation.streamType() != Stream.class) {
+            return;
+        }
+
+        if (criteria.getQuery().getResultType() != Tuple.class || operationReference.next().isPresent()) {
+            return;
+        }
+
+        // All preceding operations must be part of the criteria, the mapped stream is not materialized
+        for (int i = 0; i < operationReference.index(); i++) {
+            if (!mergingTracker.forRemoval().contains(i)) {
+                return;
+            }
+        }
+
+        final Optional<Field<?>> optionalField = getField(operation);
+
+        if (!optionalField.isPresent()) {
+            return;
+        }
+
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final Expression<Number> path = criteria.getRoot().get(optionalField.get().columnName());
+        final Expression<? extends Number> sum = operation.returnType() == DoubleStream.class
+            ? builder.sum(path)
+            : builder.sum(builder.toBigDecimal(path));
+
+        final Selection<?>[] selections;
+        final TerminalOperationType terminalOperationType = pipeline.terminatingOperation().type();
+        switch (terminalOperationType) {
+            case SUM_INT:
+            case SUM_LONG:
+            case SUM_DOUBLE:
+                selections = new Selection<?>[] {sum.alias("sum")};
+                break;
+            case AVERAGE:
+                // Computed from the sum to retain the semantics of the Java average for integral types
+                selections = new Selection<?>[] {builder.count(path).alias("count"), sum.alias("sum")};
+                break;
+            case MIN:
+                selections = new Selection<?>[] {builder.min(path).alias("min")};
+                break;
+            case MAX:
+                selections = new Selection<?>[] {builder.max(path).alias("max")};
+                break;
+            case SUMMARY_STATISTICS:
+                selections = new Selection<?>[] {
+                    builder.count(path).alias("count"),
+                    sum.alias("sum"),
+                    builder.min(path).alias("min"),
+                    builder.max(path).alias("max")
+                };
+                break;
+            default:
+                return;
+        }
+
+        criteria.getQuery().multiselect(selections);
+
+        mergingTracker.markAsMerged(operationType);
+        mergingTracker.markForRemoval(operationReference.index());
+    }
+
+    private Optional<Field<?>> getField(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length != 1) {
+            return Optional.empty();
+        }
+
+        if (arguments[0] instanceof Field) {
+            return Optional.of((Field<?>) arguments[0]);
+        }
+
+        return Optional.empty();
+    }
+}
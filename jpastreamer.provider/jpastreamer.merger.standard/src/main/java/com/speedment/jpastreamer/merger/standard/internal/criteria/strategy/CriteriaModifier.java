@@ -15,6 +15,7 @@ package com.speedment.jpastreamer.merger.standard.internal.criteria.strategy;
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.merger.standard.internal.reference.IntermediateOperationReference;
 import com.speedment.jpastreamer.merger.standard.internal.tracker.MergingTracker;
+import com.speedment.jpastreamer.pipeline.Pipeline;
 
 /**
  * @author Mislav Milicevic
@@ -38,4 +39,25 @@ public interface CriteriaModifier {
         final Criteria<ENTITY, ?> criteria,
         final MergingTracker mergingTracker
     );
+
+    /**
+     * Modifies the provided {@code criteria} using the provided {@code operationReference} as
+     * the source of the modification, with access to the {@code pipeline} that the referenced
+     * operation belongs to. Strategies that depend on the terminal operation of the pipeline
+     * should override this method.
+     *
+     * @param pipeline the referenced operation belongs to
+     * @param operationReference that provides modification information
+     * @param criteria to modify
+     * @param mergingTracker to store information about the side effects of the modification
+     * @param <ENTITY> entity type
+     */
+    default <ENTITY> void modifyCriteria(
+        final Pipeline<ENTITY> pipeline,
+        final IntermediateOperationReference operationReference,
+        final Criteria<ENTITY, ?> criteria,
+        final MergingTracker mergingTracker
+    ) {
+        modifyCriteria(operationReference, criteria, mergingTracker);
+    }
 }
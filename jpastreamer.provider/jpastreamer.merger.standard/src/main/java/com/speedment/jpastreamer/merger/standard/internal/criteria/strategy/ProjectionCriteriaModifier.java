@@ -0,0 +1,167 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.standard.internal.criteria.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.MAP;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.MAP_TO;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.method.GetDouble;
+import com.speedment.jpastreamer.field.method.GetInt;
+import com.speedment.jpastreamer.field.method.GetLong;
+import com.speedment.jpastreamer.field.method.GetReference;
+import com.speedment.jpastreamer.merger.standard.internal.reference.IntermediateOperationReference;
+import com.speedment.jpastreamer.merger.standard.internal.tracker.MergingTracker;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.projection.Projection;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+
+import java.util.Optional;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Merges a {@code map} of the entities to the value of a {@link Field} (or the getter
+ * of a field) or to a {@link Projection} into the selection of the criteria, so that
+ * only the selected columns are fetched rather than the entities. The same applies to
+ * {@code mapToInt}/{@code mapToLong}/{@code mapToDouble} of a field.
+ * <p>
+ * The operation is only merged if the criteria is typed as {@code Object}, which
+ * indicates that the entities are to be selected only if no operation selects the
+ * columns. Once merged, the query yields the value of the column (or an
+ * {@code Object[]} holding the values of the columns of a projection).
+ * <p>
+ * Only basic attributes are selected. Selecting an association would join it
+ * implicitly, and the inner join would drop the entities whose association is null.
+ */
+public enum ProjectionCriteriaModifier implements CriteriaModifier {
+
+    INSTANCE;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ENTITY> void modifyCriteria(
+        final IntermediateOperationReference operationReference,
+        final Criteria<ENTITY, ?> criteria,
+        final MergingTracker mergingTracker
+    ) {
+        requireNonNull(operationReference);
+        requireNonNull(criteria);
+        requireNonNull(mergingTracker);
+
+        final IntermediateOperation<?, ?> operation = operationReference.get();
+
+        final IntermediateOperationType operationType = operation.type();
+
+        if ((operationType != MAP && operationType != MAP_TO) || operation.streamType() != Stream.class) {
+            return;
+        }
+
+        if (operationType == MAP_TO && !isPrimitiveStream(operation.returnType())) {
+            return;
+        }
+
+        final CriteriaQuery<Object> query = (CriteriaQuery<Object>) criteria.getQuery();
+
+        if (query.getResultType() != Object.class) {
+            return;
+        }
+
+        // Selecting distinct columns differs from selecting distinct entities
+        if (query.isDistinct()) {
+            return;
+        }
+
+        // All preceding operations must be part of the criteria as they operate on the entities
+        for (int i = 0; i < operationReference.index(); i++) {
+            if (!mergingTracker.forRemoval().contains(i)) {
+                return;
+            }
+        }
+
+        final Optional<Selection<?>[]> selections = getSelections(operation, criteria.getRoot());
+
+        if (!selections.isPresent()) {
+            return;
+        }
+
+        if (selections.get().length == 1) {
+            query.select((Selection<Object>) selections.get()[0]);
+        } else {
+            query.multiselect(selections.get());
+        }
+
+        mergingTracker.markAsMerged(operationType);
+        mergingTracker.markForRemoval(operationReference.index());
+    }
+
+    private <ENTITY> Optional<Selection<?>[]> getSelections(final IntermediateOperation<?, ?> operation, final Root<ENTITY> root) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length != 1) {
+            return Optional.empty();
+        }
+
+        final Object argument = arguments[0];
+
+        if (argument instanceof Projection) {
+            final Projection<?> projection = (Projection<?>) argument;
+            if (!projection.fields().stream().allMatch(field -> isBasic(root, field))) {
+                return Optional.empty();
+            }
+            return Optional.of(projection.fields().stream()
+                .map(field -> root.get(field.columnName()))
+                .toArray(Selection<?>[]::new));
+        }
+
+        return getField(argument)
+            .filter(field -> isBasic(root, field))
+            .map(field -> new Selection<?>[] {root.get(field.columnName())});
+    }
+
+    private boolean isBasic(final Root<?> root, final Field<?> field) {
+        return root.getModel().getAttribute(field.columnName()).getPersistentAttributeType() == PersistentAttributeType.BASIC;
+    }
+
+    private Optional<Field<?>> getField(final Object argument) {
+        if (argument instanceof Field) {
+            return Optional.of((Field<?>) argument);
+        }
+        if (argument instanceof GetReference) {
+            return Optional.of(((GetReference<?, ?>) argument).getField());
+        }
+        if (argument instanceof GetInt) {
+            return Optional.of(((GetInt<?>) argument).getField());
+        }
+        if (argument instanceof GetLong) {
+            return Optional.of(((GetLong<?>) argument).getField());
+        }
+        if (argument instanceof GetDouble) {
+            return Optional.of(((GetDouble<?>) argument).getField());
+        }
+        return Optional.empty();
+    }
+
+    private boolean isPrimitiveStream(final Class<?> streamType) {
+        return streamType == IntStream.class || streamType == LongStream.class || streamType == DoubleStream.class;
+    }
+}
@@ -18,6 +18,7 @@ import com.speedment.jpastreamer.merger.standard.StandardMergerFactory;
 module jpastreamer.merger.standard {
     requires transitive jpastreamer.merger;
     requires jpastreamer.pipeline;
+    requires jpastreamer.projection;
     requires jpastreamer.rootfactory;
     requires jpastreamer.exception;
     
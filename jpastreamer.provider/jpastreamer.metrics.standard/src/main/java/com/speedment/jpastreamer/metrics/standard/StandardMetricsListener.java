@@ -0,0 +1,69 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics.standard;
+
+import com.speedment.jpastreamer.metrics.Metrics;
+import com.speedment.jpastreamer.metrics.MetricsListener;
+import com.speedment.jpastreamer.metrics.StreamContext;
+import com.speedment.jpastreamer.metrics.standard.internal.InternalMetricsListener;
+
+import java.util.Optional;
+
+public final class StandardMetricsListener implements MetricsListener {
+
+    private final MetricsListener delegate;
+
+    public StandardMetricsListener() {
+        this.delegate = new InternalMetricsListener();
+    }
+
+    @Override
+    public void onOpen(final StreamContext context) {
+        delegate.onOpen(context);
+    }
+
+    @Override
+    public void onQuery(final StreamContext context, final long nanos) {
+        delegate.onQuery(context, nanos);
+    }
+
+    @Override
+    public void onFirstRow(final StreamContext context, final long nanos) {
+        delegate.onFirstRow(context, nanos);
+    }
+
+    @Override
+    public void onRows(final StreamContext context, final long rows) {
+        delegate.onRows(context, rows);
+    }
+
+    @Override
+    public void onResidualOperations(final StreamContext context, final int operations) {
+        delegate.onResidualOperations(context, operations);
+    }
+
+    @Override
+    public void onClose(final StreamContext context, final long nanos) {
+        delegate.onClose(context, nanos);
+    }
+
+    @Override
+    public void onException(final StreamContext context, final Throwable throwable) {
+        delegate.onException(context, throwable);
+    }
+
+    @Override
+    public Optional<Metrics> metrics() {
+        return delegate.metrics();
+    }
+}
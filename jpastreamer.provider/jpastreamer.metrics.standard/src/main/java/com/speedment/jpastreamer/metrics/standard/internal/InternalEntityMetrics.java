@@ -0,0 +1,132 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.metrics.EntityMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+final class InternalEntityMetrics implements EntityMetrics {
+
+    private final Class<?> entityClass;
+    private final long created;
+    private final LongAdder streams;
+    private final LongAdder queries;
+    private final LongAdder rows;
+    private final LongAdder residualOperations;
+    private final LongAdder exceptions;
+    private final InternalHistogram queryLatency;
+    private final InternalHistogram firstRowLatency;
+    private final InternalHistogram streamLatency;
+
+    InternalEntityMetrics(final Class<?> entityClass) {
+        this.entityClass = requireNonNull(entityClass);
+        this.created = System.nanoTime();
+        this.streams = new LongAdder();
+        this.queries = new LongAdder();
+        this.rows = new LongAdder();
+        this.residualOperations = new LongAdder();
+        this.exceptions = new LongAdder();
+        this.queryLatency = new InternalHistogram();
+        this.firstRowLatency = new InternalHistogram();
+        this.streamLatency = new InternalHistogram();
+    }
+
+    @Override
+    public Class<?> entityClass() {
+        return entityClass;
+    }
+
+    @Override
+    public long streams() {
+        return streams.sum();
+    }
+
+    @Override
+    public long queries() {
+        return queries.sum();
+    }
+
+    @Override
+    public long rows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long residualOperations() {
+        return residualOperations.sum();
+    }
+
+    @Override
+    public long exceptions() {
+        return exceptions.sum();
+    }
+
+    @Override
+    public double queriesPerSecond() {
+        final long elapsed = Math.max(1, System.nanoTime() - created);
+        return queries.sum() * 1e9 / elapsed;
+    }
+
+    @Override
+    public InternalHistogram queryLatency() {
+        return queryLatency;
+    }
+
+    @Override
+    public InternalHistogram firstRowLatency() {
+        return firstRowLatency;
+    }
+
+    @Override
+    public InternalHistogram streamLatency() {
+        return streamLatency;
+    }
+
+    LongAdder streamCount() {
+        return streams;
+    }
+
+    LongAdder queryCount() {
+        return queries;
+    }
+
+    LongAdder rowCount() {
+        return rows;
+    }
+
+    LongAdder residualOperationCount() {
+        return residualOperations;
+    }
+
+    LongAdder exceptionCount() {
+        return exceptions;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityMetrics{" +
+            "entityClass=" + entityClass.getSimpleName() +
+            ", streams=" + streams() +
+            ", queries=" + queries() +
+            ", rows=" + rows() +
+            ", residualOperations=" + residualOperations() +
+            ", exceptions=" + exceptions() +
+            ", queryLatency=" + queryLatency +
+            ", firstRowLatency=" + firstRowLatency +
+            ", streamLatency=" + streamLatency +
+            '}';
+    }
+}
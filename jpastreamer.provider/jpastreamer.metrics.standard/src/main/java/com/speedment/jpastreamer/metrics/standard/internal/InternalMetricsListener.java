@@ -0,0 +1,104 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.metrics.EntityMetrics;
+import com.speedment.jpastreamer.metrics.Metrics;
+import com.speedment.jpastreamer.metrics.MetricsListener;
+import com.speedment.jpastreamer.metrics.StreamContext;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the metrics of the Streams per entity class. Events are recorded using
+ * striped counters and lock-free histograms so that concurrent Streams do not contend.
+ */
+public final class InternalMetricsListener implements MetricsListener, Metrics {
+
+    private final Map<Class<?>, InternalEntityMetrics> entities;
+
+    public InternalMetricsListener() {
+        this.entities = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onOpen(final StreamContext context) {
+        metricsOf(context).streamCount().increment();
+    }
+
+    @Override
+    public void onQuery(final StreamContext context, final long nanos) {
+        final InternalEntityMetrics metrics = metricsOf(context);
+        metrics.queryCount().increment();
+        metrics.queryLatency().record(nanos);
+    }
+
+    @Override
+    public void onFirstRow(final StreamContext context, final long nanos) {
+        metricsOf(context).firstRowLatency().record(nanos);
+    }
+
+    @Override
+    public void onRows(final StreamContext context, final long rows) {
+        metricsOf(context).rowCount().add(rows);
+    }
+
+    @Override
+    public void onResidualOperations(final StreamContext context, final int operations) {
+        metricsOf(context).residualOperationCount().add(operations);
+    }
+
+    @Override
+    public void onClose(final StreamContext context, final long nanos) {
+        metricsOf(context).streamLatency().record(nanos);
+    }
+
+    @Override
+    public void onException(final StreamContext context, final Throwable throwable) {
+        metricsOf(context).exceptionCount().increment();
+    }
+
+    @Override
+    public Optional<Metrics> metrics() {
+        return Optional.of(this);
+    }
+
+    @Override
+    public Optional<EntityMetrics> of(final Class<?> entityClass) {
+        requireNonNull(entityClass);
+        return Optional.ofNullable(entities.get(entityClass));
+    }
+
+    @Override
+    public Map<Class<?>, EntityMetrics> entities() {
+        return Collections.unmodifiableMap(entities);
+    }
+
+    @Override
+    public void reset() {
+        entities.clear();
+    }
+
+    private InternalEntityMetrics metricsOf(final StreamContext context) {
+        final Class<?> entityClass = context.entityClass();
+        final InternalEntityMetrics metrics = entities.get(entityClass);
+        return metrics == null
+            ? entities.computeIfAbsent(entityClass, InternalEntityMetrics::new)
+            : metrics;
+    }
+}
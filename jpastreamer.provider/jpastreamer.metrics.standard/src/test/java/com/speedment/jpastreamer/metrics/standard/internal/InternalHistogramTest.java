@@ -0,0 +1,87 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics.standard.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class InternalHistogramTest {
+
+    @Test
+    void empty() {
+        final InternalHistogram histogram = new InternalHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(Duration.ZERO, histogram.percentile(99));
+        assertEquals(Duration.ZERO, histogram.max());
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        final InternalHistogram histogram = new InternalHistogram();
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+        assertEquals(20, histogram.count());
+        assertEquals(Duration.ofNanos(10), histogram.percentile(50));
+        assertEquals(Duration.ofNanos(20), histogram.percentile(100));
+        assertEquals(Duration.ofNanos(1), histogram.percentile(0));
+        assertEquals(Duration.ofNanos(20), histogram.max());
+    }
+
+    @Test
+    void percentiles() {
+        final InternalHistogram histogram = new InternalHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        assertWithin(500_000, histogram.percentile(50));
+        assertWithin(990_000, histogram.percentile(99));
+        assertEquals(Duration.ofNanos(1_000_000), histogram.percentile(100));
+        assertEquals(Duration.ofNanos(1_000_000), histogram.max());
+    }
+
+    @Test
+    void negativeValuesAreRecordedAsZero() {
+        final InternalHistogram histogram = new InternalHistogram();
+        histogram.record(-1);
+        assertEquals(1, histogram.count());
+        assertEquals(Duration.ZERO, histogram.max());
+    }
+
+    @Test
+    void illegalPercentile() {
+        final InternalHistogram histogram = new InternalHistogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(Double.NaN));
+    }
+
+    @Test
+    void buckets() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            final int index = InternalHistogram.indexOf(value);
+            assertTrue(value <= InternalHistogram.highestValueOf(index), Long.toString(value));
+            if (index > 0) {
+                assertTrue(value > InternalHistogram.highestValueOf(index - 1), Long.toString(value));
+            }
+        }
+    }
+
+    private static void assertWithin(final long expected, final Duration actual) {
+        final long nanos = actual.toNanos();
+        assertTrue(nanos >= expected && nanos <= expected * 1.04, "Expected about " + expected + " but was " + nanos);
+    }
+}
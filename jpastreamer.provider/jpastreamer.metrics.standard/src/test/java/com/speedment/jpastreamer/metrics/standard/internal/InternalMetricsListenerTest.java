@@ -0,0 +1,104 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.metrics.standard.internal;
+
+import com.speedment.jpastreamer.metrics.EntityMetrics;
+import com.speedment.jpastreamer.metrics.Metrics;
+import com.speedment.jpastreamer.metrics.StreamContext;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class InternalMetricsListenerTest {
+
+    private InternalMetricsListener listener;
+
+    @BeforeEach
+    void setup() {
+        listener = new InternalMetricsListener();
+    }
+
+    @Test
+    void metrics() {
+        assertSame(listener, listener.metrics().orElseThrow());
+    }
+
+    @Test
+    void countsPerEntity() {
+        final StreamContext strings = context(String.class);
+        listener.onOpen(strings);
+        listener.onQuery(strings, 2_000);
+        listener.onResidualOperations(strings, 2);
+        listener.onFirstRow(strings, 3_000);
+        listener.onRows(strings, 10);
+        listener.onClose(strings, 5_000);
+
+        final StreamContext integers = context(Integer.class);
+        listener.onOpen(integers);
+        listener.onException(integers, new IllegalStateException());
+
+        final Metrics metrics = listener.metrics().orElseThrow();
+        assertEquals(2, metrics.entities().size());
+
+        final EntityMetrics stringMetrics = metrics.of(String.class).orElseThrow();
+        assertEquals(String.class, stringMetrics.entityClass());
+        assertEquals(1, stringMetrics.streams());
+        assertEquals(1, stringMetrics.queries());
+        assertEquals(10, stringMetrics.rows());
+        assertEquals(2, stringMetrics.residualOperations());
+        assertEquals(0, stringMetrics.exceptions());
+        assertEquals(Duration.ofNanos(2_000), stringMetrics.queryLatency().max());
+        assertEquals(Duration.ofNanos(3_000), stringMetrics.firstRowLatency().max());
+        assertEquals(1, stringMetrics.streamLatency().count());
+        assertTrue(stringMetrics.queriesPerSecond() > 0);
+
+        final EntityMetrics integerMetrics = metrics.of(Integer.class).orElseThrow();
+        assertEquals(1, integerMetrics.streams());
+        assertEquals(0, integerMetrics.queries());
+        assertEquals(1, integerMetrics.exceptions());
+
+        assertEquals(Optional.empty(), metrics.of(Long.class));
+    }
+
+    @Test
+    void reset() {
+        listener.onOpen(context(String.class));
+        listener.reset();
+        assertTrue(listener.entities().isEmpty());
+        assertEquals(Optional.empty(), listener.of(String.class));
+    }
+
+    private static StreamContext context(final Class<?> entityClass) {
+        return new StreamContext() {
+            @Override
+            public Class<?> entityClass() {
+                return entityClass;
+            }
+
+            @Override
+            public TerminalOperationType terminalOperationType() {
+                return TerminalOperationType.FOR_EACH;
+            }
+
+            @Override
+            public Optional<String> signature() {
+                return Optional.empty();
+            }
+        };
+    }
+}
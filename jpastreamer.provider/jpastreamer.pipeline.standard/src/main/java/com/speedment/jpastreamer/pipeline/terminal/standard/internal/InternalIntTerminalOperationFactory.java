@@ -49,13 +49,13 @@ public class InternalIntTerminalOperationFactory implements IntTerminalOperation
             IntStream::max);
 
     private static final TerminalOperation<IntStream, OptionalDouble> AVERAGE = new ApplyTerminalOperation<>(
-            TerminalOperationType.MAX,
+            TerminalOperationType.AVERAGE,
             IntStream.class,
             OptionalDouble.class,
             IntStream::average);
 
     private static final TerminalOperation<IntStream, IntSummaryStatistics> SUMMARY_STATISTICS = new ApplyTerminalOperation<>(
-            TerminalOperationType.MAX,
+            TerminalOperationType.SUMMARY_STATISTICS,
             IntStream.class,
             IntSummaryStatistics.class,
             IntStream::summaryStatistics);
@@ -12,13 +12,16 @@
  */
 package com.speedment.jpastreamer.renderer.standard;
 
+import com.speedment.jpastreamer.pipeline.Pipeline;
 import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.RendererCache;
 import com.speedment.jpastreamer.renderer.RendererFactory;
 import com.speedment.jpastreamer.renderer.standard.internal.InternalRendererFactory;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public final class StandardRendererFactory implements RendererFactory {
@@ -38,4 +41,34 @@ public final class StandardRendererFactory implements RendererFactory {
     public Renderer createRenderer(final EntityManager entityManager) {
         return delegate.createRenderer(entityManager);
     }
+
+    @Override
+    public Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier, final RendererCache cache) {
+        return delegate.createRenderer(entityManagerSupplier, cache);
+    }
+
+    @Override
+    public Renderer createRenderer(final EntityManager entityManager, final RendererCache cache) {
+        return delegate.createRenderer(entityManager, cache);
+    }
+
+    @Override
+    public Renderer createRenderer(
+        final EntityManager entityManager,
+        final RendererCache cache,
+        final Supplier<EntityManager> partitionEntityManagerSupplier,
+        final Consumer<EntityManager> partitionEntityManagerRelease
+    ) {
+        return delegate.createRenderer(entityManager, cache, partitionEntityManagerSupplier, partitionEntityManagerRelease);
+    }
+
+    @Override
+    public boolean isSeekable(final Pipeline<?> pipeline) {
+        return delegate.isSeekable(pipeline);
+    }
+
+    @Override
+    public RendererCache createCache() {
+        return delegate.createCache();
+    }
 }
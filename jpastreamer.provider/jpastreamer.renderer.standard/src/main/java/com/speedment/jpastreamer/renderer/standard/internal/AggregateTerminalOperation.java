@@ -0,0 +1,242 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFunctionalType;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+
+import jakarta.persistence.Tuple;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * A terminal operation that ignores the stream it is applied to and returns a
+ * result that was computed by the database, such as an aggregate, a grouping or the
+ * outcome of a match.
+ *
+ * @param <S> the type of the stream
+ * @param <R> the type of the result
+ */
+final class AggregateTerminalOperation<S extends BaseStream<?, S>, R> implements TerminalOperation<S, R> {
+
+    private final TerminalOperation<S, R> terminalOperation;
+    private final Object result;
+
+    private AggregateTerminalOperation(final TerminalOperation<S, R> terminalOperation, final Object result) {
+        this.terminalOperation = requireNonNull(terminalOperation);
+        if (terminalOperation.type().functionalType() == TerminalOperationFunctionalType.ACCEPT) {
+            throw new IllegalArgumentException("A result cannot be computed for " + terminalOperation.type());
+        }
+        this.result = result;
+    }
+
+    /**
+     * Creates a terminal operation that returns the result of the provided
+     * {@code terminalOperation} from the aggregates of the provided {@code tuple}.
+     *
+     * @param terminalOperation that was pushed down to the database
+     * @param streamType the type of primitive stream the operation was applied to
+     * @param tuple holding the aggregates selected by the query
+     * @param <S> the type of the stream
+     * @param <R> the type of the result
+     * @return a terminal operation returning the result of the aggregation
+     */
+    static <S extends BaseStream<?, S>, R> AggregateTerminalOperation<S, R> of(
+        final TerminalOperation<S, R> terminalOperation,
+        final Class<?> streamType,
+        final Tuple tuple
+    ) {
+        requireNonNull(terminalOperation);
+        requireNonNull(streamType);
+        requireNonNull(tuple);
+
+        return new AggregateTerminalOperation<>(terminalOperation, result(terminalOperation.type(), streamType, tuple));
+    }
+
+    /**
+     * Creates a terminal operation that returns the provided {@code result}
+     * in place of the result of the provided {@code terminalOperation}.
+     *
+     * @param terminalOperation that was pushed down to the database
+     * @param result computed by the database
+     * @param <S> the type of the stream
+     * @param <R> the type of the result
+     * @return a terminal operation returning the provided result
+     */
+    static <S extends BaseStream<?, S>, R> AggregateTerminalOperation<S, R> of(
+        final TerminalOperation<S, R> terminalOperation,
+        final R result
+    ) {
+        return new AggregateTerminalOperation<>(requireNonNull(terminalOperation), result);
+    }
+
+    /**
+     * Returns an empty stream of the provided primitive {@code streamType}.
+     *
+     * @param streamType of the stream
+     * @return an empty stream of the provided type
+     */
+    static BaseStream<?, ?> emptyStream(final Class<?> streamType) {
+        if (streamType == IntStream.class) {
+            return IntStream.empty();
+        }
+        if (streamType == LongStream.class) {
+            return LongStream.empty();
+        }
+        return DoubleStream.empty();
+    }
+
+    @Override
+    public TerminalOperationType type() {
+        return terminalOperation.type();
+    }
+
+    @Override
+    public Class<? super S> streamType() {
+        return terminalOperation.streamType();
+    }
+
+    @Override
+    public Class<? super R> returnType() {
+        return terminalOperation.returnType();
+    }
+
+    @Override
+    public Object[] arguments() {
+        return terminalOperation.arguments();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Function<S, R> function() {
+        return s -> (R) result;
+    }
+
+    @Override
+    public ToLongFunction<S> toLongFunction() {
+        return s -> ((Number) result).longValue();
+    }
+
+    @Override
+    public ToIntFunction<S> toIntFunction() {
+        return s -> ((Number) result).intValue();
+    }
+
+    @Override
+    public ToDoubleFunction<S> toDoubleFunction() {
+        return s -> ((Number) result).doubleValue();
+    }
+
+    @Override
+    public Predicate<S> predicate() {
+        return s -> (Boolean) result;
+    }
+
+    /**
+     * Returns a consumer that does nothing, as the result of this operation was
+     * computed by the database and operations that only consume the elements,
+     * such as {@code forEach}, are never created.
+     */
+    @Override
+    public Consumer<S> consumer() {
+        return s -> {};
+    }
+
+    private static Object result(final TerminalOperationType type, final Class<?> streamType, final Tuple tuple) {
+        switch (type) {
+            case SUM_INT:
+                return sum(tuple).intValue();
+            case SUM_LONG:
+                return sum(tuple).longValue();
+            case SUM_DOUBLE:
+                return sum(tuple).doubleValue();
+            case AVERAGE: {
+                final long count = count(tuple);
+                if (count == 0) {
+                    return OptionalDouble.empty();
+                }
+                // The average of integral values is computed from their sum as a long, as in Java
+                return streamType == DoubleStream.class
+                    ? OptionalDouble.of(sum(tuple).doubleValue() / count)
+                    : OptionalDouble.of((double) sum(tuple).longValue() / count);
+            }
+            case MIN:
+                return optional(streamType, (Number) tuple.get("min"));
+            case MAX:
+                return optional(streamType, (Number) tuple.get("max"));
+            case SUMMARY_STATISTICS:
+                return summaryStatistics(streamType, tuple);
+            default:
+                throw new IllegalArgumentException("Unsupported aggregate operation " + type);
+        }
+    }
+
+    private static Object optional(final Class<?> streamType, final Number value) {
+        if (streamType == IntStream.class) {
+            return value == null ? OptionalInt.empty() : OptionalInt.of(value.intValue());
+        }
+        if (streamType == LongStream.class) {
+            return value == null ? OptionalLong.empty() : OptionalLong.of(value.longValue());
+        }
+        return value == null ? OptionalDouble.empty() : OptionalDouble.of(value.doubleValue());
+    }
+
+    private static Object summaryStatistics(final Class<?> streamType, final Tuple tuple) {
+        final long count = count(tuple);
+        final Number min = (Number) tuple.get("min");
+        final Number max = (Number) tuple.get("max");
+
+        if (streamType == IntStream.class) {
+            return count == 0
+                ? new IntSummaryStatistics()
+                : new IntSummaryStatistics(count, min.intValue(), max.intValue(), sum(tuple).longValue());
+        }
+        if (streamType == LongStream.class) {
+            return count == 0
+                ? new LongSummaryStatistics()
+                : new LongSummaryStatistics(count, min.longValue(), max.longValue(), sum(tuple).longValue());
+        }
+        return count == 0
+            ? new DoubleSummaryStatistics()
+            : new DoubleSummaryStatistics(count, min.doubleValue(), max.doubleValue(), sum(tuple).doubleValue());
+    }
+
+    private static long count(final Tuple tuple) {
+        final Number count = (Number) tuple.get("count");
+        return count == null ? 0 : count.longValue();
+    }
+
+    private static Number sum(final Tuple tuple) {
+        // SUM over an empty set of rows is NULL
+        final Number sum = (Number) tuple.get("sum");
+        return sum == null ? 0 : sum;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.method.GetDouble;
+import com.speedment.jpastreamer.field.method.GetInt;
+import com.speedment.jpastreamer.field.method.GetLong;
+import com.speedment.jpastreamer.field.method.GetReference;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Converts the rows of a query where a {@code map} (or {@code mapToInt}, {@code mapToLong},
+ * {@code mapToDouble}) of the entities has been merged into the selection of the criteria,
+ * into the stream that the operation would have produced.
+ * <p>
+ * This also applies to Streams that select a {@link Projection} of the entities, see
+ * {@link StreamConfiguration#selecting(Projection)}, provided that the {@code map} only
+ * reads selected columns. The query then yields the columns rather than entities
+ * constructed from them.
+ */
+final class ColumnProjection {
+
+    private ColumnProjection() {}
+
+    /**
+     * Returns whether the criteria of the provided pipeline should select {@code Object}
+     * rather than the entities, allowing a {@code map} operation to replace the selection.
+     *
+     * @param pipeline to render
+     * @param streamConfiguration used to render the pipeline
+     * @return whether the criteria should select {@code Object}
+     */
+    static boolean isApplicable(final Pipeline<?> pipeline, final StreamConfiguration<?> streamConfiguration) {
+        requireNonNull(pipeline);
+        requireNonNull(streamConfiguration);
+
+        // Fetch joins require the owner of the association to be selected, and
+        // a keyset cursor is computed from the entities
+        if (!streamConfiguration.joins().isEmpty()
+            || streamConfiguration.keyset().isPresent()
+            || pipeline.terminatingOperation().type() == TerminalOperationType.COUNT) {
+            return false;
+        }
+
+        final Optional<IntermediateOperation<?, ?>> map = pipeline.intermediateOperations().stream()
+            .filter(ColumnProjection::isMap)
+            .findFirst();
+
+        if (!map.isPresent()) {
+            return false;
+        }
+
+        // Columns that are not selected hold default values in the constructed entities
+        return streamConfiguration.selections()
+            .map(selections -> selections.fields().stream().map(Field::columnName).collect(Collectors.toSet()))
+            .map(selected -> mappedColumns(map.get()).map(selected::containsAll).orElse(false))
+            .orElse(true);
+    }
+
+    /**
+     * Returns the {@code map} operation among the merged operations, if any.
+     *
+     * @param operations of the pipeline before merging
+     * @param mergedOperations the indices of the merged operations
+     * @return the merged {@code map} operation, if any
+     */
+    static Optional<IntermediateOperation<?, ?>> mergedMap(
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<Integer> mergedOperations
+    ) {
+        return mergedOperations.stream()
+            .<IntermediateOperation<?, ?>>map(operations::get)
+            .filter(ColumnProjection::isMap)
+            .findFirst();
+    }
+
+    /**
+     * Converts the provided rows, selected by the merged {@code operation}, into the stream
+     * that the operation would have produced.
+     *
+     * @param rows selected by the query
+     * @param operation that was merged into the selection
+     * @return the stream that the operation would have produced
+     */
+    static BaseStream<?, ?> apply(final Stream<?> rows, final IntermediateOperation<?, ?> operation) {
+        requireNonNull(rows);
+        requireNonNull(operation);
+
+        final Class<?> returnType = operation.returnType();
+        if (returnType == IntStream.class) {
+            return rows.mapToInt(value -> ((Number) value).intValue());
+        }
+        if (returnType == LongStream.class) {
+            return rows.mapToLong(value -> ((Number) value).longValue());
+        }
+        if (returnType == DoubleStream.class) {
+            return rows.mapToDouble(value -> ((Number) value).doubleValue());
+        }
+
+        final Object argument = operation.arguments()[0];
+        if (argument instanceof Projection) {
+            final Projection<?> projection = (Projection<?>) argument;
+            // A single selection yields the value itself rather than an Object[]
+            return projection.fields().size() == 1
+                ? rows.map(value -> projection.tuple(new Object[] {value}))
+                : rows.map(row -> projection.tuple((Object[]) row));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Returns the columns read by the provided {@code map} operation, or {@link Optional#empty()}
+     * if the operation cannot be merged into the selection.
+     */
+    private static Optional<Set<String>> mappedColumns(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+        if (arguments.length != 1) {
+            return Optional.empty();
+        }
+
+        final Object argument = arguments[0];
+        if (argument instanceof Projection) {
+            return Optional.of(((Projection<?>) argument).fields().stream()
+                .map(Field::columnName)
+                .collect(Collectors.toSet()));
+        }
+
+        final Field<?> field;
+        if (argument instanceof Field) {
+            field = (Field<?>) argument;
+        } else if (argument instanceof GetReference) {
+            field = ((GetReference<?, ?>) argument).getField();
+        } else if (argument instanceof GetInt) {
+            field = ((GetInt<?>) argument).getField();
+        } else if (argument instanceof GetLong) {
+            field = ((GetLong<?>) argument).getField();
+        } else if (argument instanceof GetDouble) {
+            field = ((GetDouble<?>) argument).getField();
+        } else {
+            return Optional.empty();
+        }
+        return Optional.of(Set.of(field.columnName()));
+    }
+
+    private static boolean isMap(final IntermediateOperation<?, ?> operation) {
+        return operation.type() == IntermediateOperationType.MAP || operation.type() == IntermediateOperationType.MAP_TO;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A Spliterator of the entities read by a read-only Stream, see
+ * {@link StreamConfiguration#readOnly()}.
+ * <p>
+ * Each entity is detached from the persistence context when the next entity is read,
+ * at which point it has passed through the operations of a sequential Stream unless
+ * it was buffered, so that the number of managed entities does not grow with the size
+ * of the result. The last entity is detached when the Stream is closed.
+ *
+ * @param <T> the type of the elements
+ */
+final class DetachingSpliterator<T> implements Spliterator<T> {
+
+    /**
+     * The hint loading entities in read-only mode, whereby no snapshot is kept to
+     * detect changes. Other providers ignore the hint, in which case their read-only
+     * hint can be set using {@link StreamConfiguration#withHint(String, Object)}.
+     */
+    static final String READ_ONLY_HINT = "org.hibernate.readOnly";
+
+    private final Spliterator<T> rows;
+    private final EntityManager entityManager;
+    private T previous;
+
+    private DetachingSpliterator(final Spliterator<T> rows, final EntityManager entityManager) {
+        this.rows = rows;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns a Stream of the provided entities that detaches each entity from the
+     * persistence context of the provided EntityManager once the next entity is read.
+     *
+     * @param rows of the query, which must be entities
+     * @param entityManager holding the persistence context
+     * @param <T> the type of the elements
+     * @return a Stream of the provided entities detaching the entities as they are read
+     */
+    static <T> Stream<T> stream(final Stream<T> rows, final EntityManager entityManager) {
+        requireNonNull(rows);
+        requireNonNull(entityManager);
+
+        final DetachingSpliterator<T> spliterator = new DetachingSpliterator<>(rows.spliterator(), entityManager);
+        return StreamSupport.stream(spliterator, false)
+            .onClose(spliterator::detachPrevious)
+            .onClose(rows::close);
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        detachPrevious();
+        return rows.tryAdvance(row -> {
+            previous = row;
+            action.accept(row);
+        });
+    }
+
+    private void detachPrevious() {
+        if (previous != null && entityManager.isOpen()) {
+            entityManager.detach(previous);
+        }
+        previous = null;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return rows.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return rows.characteristics();
+    }
+}
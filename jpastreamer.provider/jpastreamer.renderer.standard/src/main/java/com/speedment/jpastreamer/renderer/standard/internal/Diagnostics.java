@@ -0,0 +1,250 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.*;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.ChainedComparator;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.method.Getter;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.metrics.StreamContext;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.projection.Projection;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the pipelines that leave filtering, sorting, skip or limit operations to be
+ * applied in memory, once per pipeline signature, naming the operation that blocked
+ * pushing the operations into the query and why. Streams that take longer than a
+ * latency threshold or read more rows than a row threshold are logged as well.
+ * <p>
+ * Diagnostics are enabled by setting the system property {@value #ENABLED_PROPERTY} to
+ * {@code true}. The thresholds are set by the system properties
+ * {@value #LATENCY_THRESHOLD_PROPERTY} (in milliseconds) and {@value #ROW_THRESHOLD_PROPERTY}.
+ * Messages are logged as warnings to the {@link System.Logger} named {@value #LOGGER_NAME}.
+ */
+final class Diagnostics {
+
+    static final String ENABLED_PROPERTY = "jpastreamer.diagnostics";
+    static final String LATENCY_THRESHOLD_PROPERTY = "jpastreamer.diagnostics.latencyThreshold";
+    static final String ROW_THRESHOLD_PROPERTY = "jpastreamer.diagnostics.rowThreshold";
+    static final String LOGGER_NAME = "com.speedment.jpastreamer.diagnostics";
+
+    static final long DEFAULT_LATENCY_THRESHOLD_MILLIS = 1_000;
+    static final long DEFAULT_ROW_THRESHOLD = 10_000;
+
+    // Bounds the memory used if pipelines are built dynamically
+    private static final int MAX_REPORTED_PIPELINES = 10_000;
+
+    private static final Set<IntermediateOperationType> PUSHABLE_OPERATIONS = EnumSet.of(FILTER, SORTED, SKIP, LIMIT);
+
+    private static final Diagnostics INSTANCE = new Diagnostics(
+        Boolean.getBoolean(ENABLED_PROPERTY),
+        Long.getLong(LATENCY_THRESHOLD_PROPERTY, DEFAULT_LATENCY_THRESHOLD_MILLIS),
+        Long.getLong(ROW_THRESHOLD_PROPERTY, DEFAULT_ROW_THRESHOLD)
+    );
+
+    private final boolean enabled;
+    private final long latencyThresholdMillis;
+    private final long rowThreshold;
+    private final Set<String> reported;
+    private final Logger logger;
+
+    Diagnostics(final boolean enabled, final long latencyThresholdMillis, final long rowThreshold) {
+        this(enabled, latencyThresholdMillis, rowThreshold, System.getLogger(LOGGER_NAME));
+    }
+
+    Diagnostics(final boolean enabled, final long latencyThresholdMillis, final long rowThreshold, final Logger logger) {
+        this.enabled = enabled;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+        this.rowThreshold = rowThreshold;
+        this.reported = ConcurrentHashMap.newKeySet();
+        this.logger = requireNonNull(logger);
+    }
+
+    /**
+     * Returns the diagnostics configured by the system properties.
+     *
+     * @return the diagnostics configured by the system properties
+     */
+    static Diagnostics get() {
+        return INSTANCE;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Logs the first of the provided residual operations as blocking pushdown if any of
+     * the residual operations could otherwise have been pushed into the query, unless
+     * it has already been logged for the same pipeline signature.
+     *
+     * @param context of the stream
+     * @param operations of the pipeline before they were merged into the query
+     * @param residualOperations that were not merged into the query
+     */
+    void residualOperations(
+        final StreamContext context,
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<IntermediateOperation<?, ?>> residualOperations
+    ) {
+        requireNonNull(context);
+        requireNonNull(operations);
+        requireNonNull(residualOperations);
+        if (!enabled || residualOperations.stream().noneMatch(operation -> PUSHABLE_OPERATIONS.contains(operation.type()))) {
+            return;
+        }
+
+        final IntermediateOperation<?, ?> blocker = residualOperations.get(0);
+        final Object argument = argument(blocker);
+        final String key = context.signature().orElse(context.entityClass().getName())
+            + '|' + blocker.type() + ':' + (argument == null ? null : argument.getClass().getName())
+            + '|' + residualOperations.stream().map(operation -> operation.type().name()).collect(Collectors.joining(","));
+
+        if (reported.size() >= MAX_REPORTED_PIPELINES || !reported.add(key) || !logger.isLoggable(Level.WARNING)) {
+            return;
+        }
+
+        final int index = indexOf(operations, blocker);
+        final IntermediateOperation<?, ?> previous = index > 0 ? operations.get(index - 1) : null;
+
+        logger.log(Level.WARNING, String.format(
+            "The %s operation of a Stream of %s could not be pushed down to the database as %s. " +
+                "The operations %s are applied in memory to the rows read. Pipeline signature: %s",
+            describe(blocker),
+            context.entityClass().getSimpleName(),
+            reason(blocker, argument, previous),
+            residualOperations.stream().map(Diagnostics::name).collect(Collectors.toList()),
+            context.signature().orElse("n/a")
+        ));
+    }
+
+    /**
+     * Logs the closed stream if its latency or the number of rows it read exceeds the
+     * thresholds.
+     *
+     * @param context of the stream
+     * @param nanos elapsed from the creation of the stream until it was closed
+     * @param rows read from the database
+     */
+    void close(final StreamContext context, final long nanos, final long rows) {
+        requireNonNull(context);
+        if (!enabled) {
+            return;
+        }
+
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        final boolean slow = millis > latencyThresholdMillis;
+        final boolean large = rows > rowThreshold;
+        if ((slow || large) && logger.isLoggable(Level.WARNING)) {
+            logger.log(Level.WARNING, String.format(
+                "A Stream of %s terminated by %s took %d ms and read %d rows, exceeding the %s. Pipeline signature: %s",
+                context.entityClass().getSimpleName(),
+                context.terminalOperationType(),
+                millis,
+                rows,
+                slow && large
+                    ? "latency threshold of " + latencyThresholdMillis + " ms and the row threshold of " + rowThreshold + " rows"
+                    : slow
+                        ? "latency threshold of " + latencyThresholdMillis + " ms"
+                        : "row threshold of " + rowThreshold + " rows",
+                context.signature().orElse("n/a")
+            ));
+        }
+    }
+
+    private static String reason(final IntermediateOperation<?, ?> blocker, final Object argument, final IntermediateOperation<?, ?> previous) {
+        if (previous != null && (previous.type() == MAP || previous.type() == MAP_TO)) {
+            return "it follows a projection and is applied to the selected values rather than to the entities";
+        }
+
+        switch (blocker.type()) {
+            case FILTER:
+                return argument instanceof FieldPredicate || argument instanceof CombinedPredicate
+                    ? "its predicate contains a condition that cannot be expressed in the query"
+                    : "its predicate is not built from fields, e.g. it is a lambda";
+            case SORTED:
+                if (argument == null) {
+                    return "it sorts by natural order, which is unknown to the database";
+                }
+                if (argument instanceof ChainedComparator) {
+                    return "only the leading fields of its comparator can be expressed in the query";
+                }
+                return argument instanceof FieldComparator || argument instanceof CombinedComparator
+                    ? "its comparator cannot be expressed in the query"
+                    : "its comparator is not built from fields, e.g. it is a lambda";
+            case MAP:
+            case MAP_TO:
+                return argument instanceof Field || argument instanceof Getter || argument instanceof Projection
+                    ? "the selection of the query of this Stream cannot be replaced"
+                    : "its mapper is neither a field nor a projection";
+            case SKIP:
+            case LIMIT:
+            case DISTINCT:
+                return "it cannot be expressed in the query of this Stream";
+            default:
+                return "it can only be applied in memory";
+        }
+    }
+
+    private static Object argument(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+        return arguments.length == 1 ? arguments[0] : null;
+    }
+
+    private static int indexOf(final List<IntermediateOperation<?, ?>> operations, final IntermediateOperation<?, ?> operation) {
+        // Operations are compared by identity as they do not override equals
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i) == operation) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String describe(final IntermediateOperation<?, ?> operation) {
+        final Object argument = argument(operation);
+        return argument == null
+            ? name(operation) + "()"
+            : name(operation) + "(" + argument.getClass().getName() + ")";
+    }
+
+    /**
+     * Returns the name of the Stream method of the provided operation, e.g. "mapTo"
+     * for {@link IntermediateOperationType#MAP_TO}.
+     */
+    private static String name(final IntermediateOperation<?, ?> operation) {
+        final String[] words = operation.type().name().toLowerCase(Locale.ROOT).split("_");
+        final StringBuilder sb = new StringBuilder(words[0]);
+        for (int i = 1; i < words.length; i++) {
+            sb.append(Character.toUpperCase(words[i].charAt(0))).append(words[i].substring(1));
+        }
+        return sb.toString();
+    }
+}
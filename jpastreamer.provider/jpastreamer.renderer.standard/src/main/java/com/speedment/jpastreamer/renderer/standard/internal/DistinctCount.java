@@ -0,0 +1,183 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.method.GetReference;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+import com.speedment.jpastreamer.projection.Projection;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders a pipeline counting the distinct values of a field, or the distinct tuples of a
+ * {@link Projection}, i.e. {@code map(field).distinct().count()}, into a single query that
+ * counts them in the database.
+ * <p>
+ * A single column is counted using {@code COUNT(DISTINCT column)}. As SQL ignores
+ * {@code null} values where {@code Stream::distinct} retains a single {@code null},
+ * the query also counts the rows and the non-null values to detect the presence of nulls.
+ * Several columns are counted as the number of groups of the columns, by selecting one
+ * representative id per group in a subquery, which treats {@code null} values as equal.
+ */
+final class DistinctCount {
+
+    private DistinctCount() {}
+
+    /**
+     * Returns the fields whose distinct values are counted by the provided pipeline, or an
+     * empty Optional if the pipeline does not end with {@code map(field).distinct().count()}
+     * or {@code map(projection).distinct().count()}. The operations preceding the
+     * {@code map} are not inspected.
+     *
+     * @param pipeline to inspect
+     * @return the fields whose distinct values are counted
+     */
+    static Optional<List<Field<?>>> fields(final Pipeline<?> pipeline) {
+        requireNonNull(pipeline);
+
+        final List<IntermediateOperation<?, ?>> operations = pipeline.intermediateOperations();
+        if (pipeline.terminatingOperation().type() != TerminalOperationType.COUNT || operations.size() < 2) {
+            return Optional.empty();
+        }
+
+        final IntermediateOperation<?, ?> map = operations.get(operations.size() - 2);
+        if (operations.get(operations.size() - 1).type() != IntermediateOperationType.DISTINCT
+            || map.type() != IntermediateOperationType.MAP
+            || map.streamType() != Stream.class
+            || map.arguments().length != 1) {
+            return Optional.empty();
+        }
+
+        final Object argument = map.arguments()[0];
+        if (argument instanceof Projection) {
+            return Optional.of(new ArrayList<>(((Projection<?>) argument).fields()));
+        }
+        if (argument instanceof Field) {
+            return Optional.of(Collections.singletonList((Field<?>) argument));
+        }
+        if (argument instanceof GetReference) {
+            return Optional.of(Collections.singletonList(((GetReference<?, ?>) argument).getField()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns whether the distinct tuples of the provided fields can be counted for the
+     * provided root, which requires a single id if there are several fields.
+     *
+     * @param fields whose distinct values are counted
+     * @param root of the query
+     * @return whether the distinct values can be counted
+     */
+    static boolean isSupported(final List<Field<?>> fields, final Root<?> root) {
+        return fields.size() == 1 || id(root).isPresent();
+    }
+
+    /**
+     * Selects the aggregates counting the distinct values of the provided fields.
+     *
+     * @param criteria to select the aggregates with, holding the restriction of the entities
+     * @param fields whose distinct values are counted
+     * @param subqueryRestriction returning the restriction of the entities for a subquery root
+     * @param <E> the entity type
+     */
+    static <E> void select(
+        final Criteria<E, Tuple> criteria,
+        final List<Field<?>> fields,
+        final Function<Root<E>, Optional<Predicate>> subqueryRestriction
+    ) {
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final Root<E> root = criteria.getRoot();
+
+        if (fields.size() == 1) {
+            final Path<?> column = root.get(fields.get(0).columnName());
+            criteria.getQuery().multiselect(builder.countDistinct(column), builder.count(root), builder.count(column));
+            return;
+        }
+
+        final String id = id(root).orElseThrow(IllegalStateException::new);
+        @SuppressWarnings("rawtypes")
+        final Subquery<Comparable> subquery = criteria.getQuery().subquery(Comparable.class);
+        @SuppressWarnings("unchecked")
+        final Root<E> subRoot = subquery.from((Class<E>) root.getJavaType());
+        subquery.select(least(builder, subRoot.get(id)))
+            .groupBy(fields.stream().map(field -> subRoot.get(field.columnName())).collect(Collectors.toList()));
+        subqueryRestriction.apply(subRoot).ifPresent(subquery::where);
+
+        final Predicate representative = root.get(id).in(subquery);
+        final Predicate restriction = criteria.getQuery().getRestriction();
+        criteria.getQuery()
+            .multiselect(builder.count(root))
+            .where(restriction == null ? representative : builder.and(restriction, representative));
+    }
+
+    /**
+     * Returns the number of distinct values from the aggregates selected by
+     * {@link #select(Criteria, List, Function)}.
+     *
+     * @param tuple holding the aggregates
+     * @param fields whose distinct values are counted
+     * @return the number of distinct values
+     */
+    static long count(final Tuple tuple, final List<Field<?>> fields) {
+        if (fields.size() == 1) {
+            final long distinct = ((Number) tuple.get(0)).longValue();
+            final long rows = ((Number) tuple.get(1)).longValue();
+            final long values = ((Number) tuple.get(2)).longValue();
+            return rows > values ? distinct + 1 : distinct;
+        }
+        return ((Number) tuple.get(0)).longValue();
+    }
+
+    private static Optional<String> id(final Root<?> root) {
+        final List<SingularAttribute<?, ?>> ids = root.getModel().getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .collect(Collectors.toList());
+
+        if (ids.size() != 1) {
+            return Optional.empty();
+        }
+
+        final SingularAttribute<?, ?> id = ids.get(0);
+        return Comparable.class.isAssignableFrom(id.getJavaType()) || id.getJavaType().isPrimitive()
+            ? Optional.of(id.getName())
+            : Optional.empty();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Expression<Comparable> least(final CriteriaBuilder builder, final Path<?> path) {
+        return builder.least((Expression) path);
+    }
+}
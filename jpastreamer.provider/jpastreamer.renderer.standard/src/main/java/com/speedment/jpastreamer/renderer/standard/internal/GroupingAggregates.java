@@ -0,0 +1,298 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.ReferenceField;
+import com.speedment.jpastreamer.field.collector.AggregateCollector;
+import com.speedment.jpastreamer.field.collector.AggregateType;
+import com.speedment.jpastreamer.field.collector.FieldCollector;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Renders a {@link FieldCollector} grouping by a field into a query that computes the
+ * groups and their {@link AggregateCollector downstream aggregates} in the database, and
+ * builds the resulting {@code Map} from the rows of that query.
+ * <p>
+ * {@link AggregateType#MIN_BY} and {@link AggregateType#MAX_BY} select the entities whose
+ * value equals the minimum (maximum) of their group, all other types select tuples
+ * consisting of the key and the aggregates of each group.
+ * <p>
+ * Integral values are summed as decimals, as the sum of the column type may overflow in
+ * the database, and the low-order bits of the sum are retained as they are by the
+ * collectors in Java.
+ */
+final class GroupingAggregates {
+
+    private GroupingAggregates() {}
+
+    /**
+     * Returns whether the provided collector can be computed by the database.
+     *
+     * @param collector to inspect
+     * @return whether the collector can be computed by the database
+     */
+    static boolean isSupported(final FieldCollector<?, ?, ?> collector) {
+        requireNonNull(collector);
+
+        final Optional<? extends AggregateCollector<?, ?, ?>> optionalDownstream = collector.getDownstream();
+        if (!optionalDownstream.isPresent()) {
+            return false;
+        }
+
+        final AggregateCollector<?, ?, ?> downstream = optionalDownstream.get();
+        switch (downstream.getAggregateType()) {
+            case MIN_BY:
+            case MAX_BY:
+                // The SQL aggregates ignore null values whereas a comparator may order them first
+                return downstream.getComparator()
+                    .map(comparator -> !(comparator.getField() instanceof ReferenceField))
+                    .orElse(false);
+            case MAPPING:
+                return downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+                    && downstream.supplier().get() instanceof Set;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns whether the groups of the provided collector consist of entities rather than tuples.
+     *
+     * @param collector to inspect
+     * @return whether the groups consist of entities
+     */
+    static boolean selectsEntities(final FieldCollector<?, ?, ?> collector) {
+        final AggregateType aggregateType = downstream(collector).getAggregateType();
+        return aggregateType == AggregateType.MIN_BY || aggregateType == AggregateType.MAX_BY;
+    }
+
+    /**
+     * Selects the key and the aggregates of each group.
+     *
+     * @param criteria to select the groups with
+     * @param collector to compute
+     * @param <E> the entity type
+     */
+    static <E> void selectGroups(final Criteria<E, Tuple> criteria, final FieldCollector<?, ?, ?> collector) {
+        final AggregateCollector<?, ?, ?> downstream = downstream(collector);
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final Path<?> key = criteria.getRoot().get(collector.getField().columnName());
+
+        switch (downstream.getAggregateType()) {
+            case COUNTING:
+                criteria.getQuery().multiselect(key, builder.count(criteria.getRoot()));
+                break;
+            case SUMMING_INT:
+            case SUMMING_LONG:
+                criteria.getQuery().multiselect(key, builder.sum(builder.toBigDecimal(value(criteria, downstream))));
+                break;
+            case SUMMING_DOUBLE:
+                criteria.getQuery().multiselect(key, builder.sum(value(criteria, downstream)));
+                break;
+            case AVERAGING_INT:
+            case AVERAGING_LONG: {
+                // Computed from the sum to retain the semantics of the Java average for integral types
+                final Expression<Number> value = value(criteria, downstream);
+                criteria.getQuery().multiselect(key, builder.count(value), builder.sum(builder.toBigDecimal(value)));
+                break;
+            }
+            case AVERAGING_DOUBLE: {
+                final Expression<Number> value = value(criteria, downstream);
+                criteria.getQuery().multiselect(key, builder.count(value), builder.sum(value));
+                break;
+            }
+            case MAPPING:
+                criteria.getQuery()
+                    .multiselect(key, criteria.getRoot().get(field(downstream).columnName()))
+                    .distinct(true);
+                return;
+            default:
+                throw new IllegalArgumentException("Unsupported aggregate " + downstream.getAggregateType());
+        }
+
+        criteria.getQuery().groupBy(key);
+    }
+
+    /**
+     * Restricts the selected entities to the entities holding the minimum (maximum) value of
+     * their group.
+     *
+     * @param criteria selecting the entities
+     * @param subqueryCriteria a function creating a criteria for the root of the subquery, with
+     *                         the same restrictions as the provided criteria
+     * @param collector to compute
+     * @param <E> the entity type
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <E> void selectExtremes(
+        final Criteria<E, E> criteria,
+        final Function<Root<E>, Optional<Predicate>> subqueryCriteria,
+        final FieldCollector<?, ?, ?> collector
+    ) {
+        final AggregateCollector<?, ?, ?> downstream = downstream(collector);
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final Root<E> root = criteria.getRoot();
+
+        final String keyColumn = collector.getField().columnName();
+        final String valueColumn = field(downstream).columnName();
+
+        final Subquery<Comparable> subquery = criteria.getQuery().subquery(Comparable.class);
+        final Root<E> subRoot = subquery.from(root.getModel());
+        final Expression<Comparable> subValue = subRoot.get(valueColumn);
+
+        final Predicate sameGroup = builder.or(
+            builder.equal(subRoot.get(keyColumn), root.get(keyColumn)),
+            builder.and(builder.isNull(subRoot.get(keyColumn)), builder.isNull(root.get(keyColumn)))
+        );
+
+        subquery
+            .select(isMinimum(downstream) ? builder.least(subValue) : builder.greatest(subValue))
+            .where(subqueryCriteria.apply(subRoot)
+                .map(restriction -> builder.and(restriction, sameGroup))
+                .orElse(sameGroup));
+
+        final Predicate extreme = builder.equal(root.get(valueColumn), subquery);
+        final Predicate restriction = criteria.getQuery().getRestriction();
+
+        criteria.getQuery().where(restriction == null ? extreme : builder.and(restriction, extreme));
+
+        // Of several entities sharing the extreme value, the one first in the order of the id is retained
+        root.getModel().getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .findFirst()
+            .ifPresent(id -> criteria.getQuery().orderBy(builder.asc(root.get(id.getName()))));
+    }
+
+    /**
+     * Builds the result of the collector from the groups selected by
+     * {@link #selectGroups(Criteria, FieldCollector)}.
+     *
+     * @param groups selected by the query
+     * @param collector to compute
+     * @return the result of the collector
+     */
+    @SuppressWarnings("unchecked")
+    static Object collectGroups(final List<Tuple> groups, final FieldCollector<?, ?, ?> collector) {
+        final AggregateCollector<?, ?, ?> downstream = downstream(collector);
+        final Map<Object, Object> result = (Map<Object, Object>) collector.supplier().get();
+
+        for (final Tuple group : groups) {
+            final Object key = key(group.get(0));
+
+            switch (downstream.getAggregateType()) {
+                case COUNTING:
+                    result.put(key, ((Number) group.get(1)).longValue());
+                    break;
+                case SUMMING_INT:
+                    result.put(key, number(group.get(1)).intValue());
+                    break;
+                case SUMMING_LONG:
+                    result.put(key, number(group.get(1)).longValue());
+                    break;
+                case SUMMING_DOUBLE:
+                    result.put(key, number(group.get(1)).doubleValue());
+                    break;
+                case AVERAGING_INT:
+                case AVERAGING_LONG: {
+                    final long count = number(group.get(1)).longValue();
+                    result.put(key, count == 0 ? 0d : (double) number(group.get(2)).longValue() / count);
+                    break;
+                }
+                case AVERAGING_DOUBLE: {
+                    final long count = number(group.get(1)).longValue();
+                    result.put(key, count == 0 ? 0d : number(group.get(2)).doubleValue() / count);
+                    break;
+                }
+                case MAPPING:
+                    ((Set<Object>) result.computeIfAbsent(key, k -> downstream.supplier().get())).add(group.get(1));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported aggregate " + downstream.getAggregateType());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the result of the collector from the entities selected by
+     * {@link #selectExtremes(Criteria, Function, FieldCollector)}. If several entities share
+     * the minimum (maximum) value of a group, the first one is retained, which is the one
+     * with the lowest id.
+     *
+     * @param entities selected by the query
+     * @param collector to compute
+     * @param <E> the entity type
+     * @return the result of the collector
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Object collectExtremes(final List<E> entities, final FieldCollector<?, ?, ?> collector) {
+        final Function<E, ?> classifier = ((Field<E>) collector.getField()).getter()::apply;
+        final Map<Object, Object> result = (Map<Object, Object>) collector.supplier().get();
+
+        for (final E entity : entities) {
+            result.putIfAbsent(key(classifier.apply(entity)), Optional.of(entity));
+        }
+
+        return result;
+    }
+
+    private static boolean isMinimum(final AggregateCollector<?, ?, ?> downstream) {
+        final boolean reversed = downstream.getComparator().map(FieldComparator::isReversed).orElse(false);
+        return (downstream.getAggregateType() == AggregateType.MIN_BY) != reversed;
+    }
+
+    private static Object key(final Object key) {
+        // Retains the semantics of groupingBy
+        return requireNonNull(key, "element cannot be mapped to a null key");
+    }
+
+    private static Number number(final Object value) {
+        // SUM over a group holding only NULL values is NULL
+        return value == null ? 0 : (Number) value;
+    }
+
+    private static <E> Expression<Number> value(final Criteria<E, ?> criteria, final AggregateCollector<?, ?, ?> downstream) {
+        return criteria.getRoot().get(field(downstream).columnName());
+    }
+
+    private static Field<?> field(final AggregateCollector<?, ?, ?> downstream) {
+        return downstream.getField()
+            .orElseThrow(() -> new IllegalArgumentException(downstream.getAggregateType() + " requires a field"));
+    }
+
+    private static AggregateCollector<?, ?, ?> downstream(final FieldCollector<?, ?, ?> collector) {
+        return collector.getDownstream()
+            .orElseThrow(() -> new IllegalArgumentException("The collector has no aggregate downstream"));
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.InListParameter;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Renders a Stream filtered by an IN-list holding more values than can be bound to a
+ * single query, see {@link StreamConfiguration#withInListLimit(int)}, into several
+ * queries, each binding a chunk of the values.
+ * <p>
+ * Only an IN-list that restricts all rows of the query, i.e. one that is not part of an
+ * {@code or} predicate, can be split. As a row matches at most one chunk, the results of
+ * the queries are disjoint and are concatenated, or merged using the comparator of the
+ * Stream if the queries are ordered.
+ */
+final class InListChunking {
+
+    private final QueryParameter<Collection<Object>> parameter;
+    private final List<Object> values;
+    private final int chunkSize;
+    private final Comparator<Object> comparator;
+
+    private InListChunking(
+        final QueryParameter<Collection<Object>> parameter,
+        final List<Object> values,
+        final int chunkSize,
+        final Comparator<Object> comparator
+    ) {
+        this.parameter = parameter;
+        this.values = values;
+        this.chunkSize = chunkSize;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the number of values of an IN-list that are bound to a single query, which
+     * is the largest power of two not exceeding the IN-list limit so that padded chunks
+     * never exceed the limit.
+     *
+     * @param streamConfiguration holding the IN-list limit
+     * @return the number of values of an IN-list that are bound to a single query
+     */
+    static int chunkSize(final StreamConfiguration<?> streamConfiguration) {
+        return Integer.highestOneBit(streamConfiguration.inListLimit());
+    }
+
+    /**
+     * Returns the chunking of the largest IN-list of the provided (merged) criteria that
+     * holds more values than are bound to a single query, or an empty Optional if there
+     * is no such IN-list that can be split.
+     *
+     * @param criteria after the operations of the pipeline have been merged
+     * @param operations of the pipeline before merging
+     * @param mergedOperations the indices of the merged operations
+     * @param streamConfiguration used to render the pipeline
+     * @return the chunking of the criteria
+     */
+    @SuppressWarnings("unchecked")
+    static Optional<InListChunking> of(
+        final Criteria<?, ?> criteria,
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<Integer> mergedOperations,
+        final StreamConfiguration<?> streamConfiguration
+    ) {
+        requireNonNull(criteria);
+        requireNonNull(operations);
+        requireNonNull(mergedOperations);
+        requireNonNull(streamConfiguration);
+
+        final int chunkSize = chunkSize(streamConfiguration);
+
+        final Set<Object> splittable = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final int index : mergedOperations) {
+            final IntermediateOperation<?, ?> operation = operations.get(index);
+            if (operation.type() == IntermediateOperationType.FILTER && operation.arguments().length == 1) {
+                addSplittable(splittable, operation.arguments()[0]);
+            }
+        }
+
+        final List<InListParameter<Object>> candidates = new ArrayList<>();
+        final Set<Object> referenced = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<Object> ambiguous = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final QueryParameter<?> queryParameter : criteria.getQueryParameters()) {
+            if (queryParameter instanceof InListParameter) {
+                final InListParameter<Object> inListParameter = (InListParameter<Object>) queryParameter;
+                if (!referenced.add(inListParameter.values())) {
+                    // The same values are also bound elsewhere, possibly as part of an or predicate
+                    ambiguous.add(inListParameter.values());
+                }
+                if (inListParameter.values().size() > chunkSize && splittable.contains(inListParameter.values())) {
+                    candidates.add(inListParameter);
+                }
+            }
+        }
+
+        final Optional<InListParameter<Object>> largest = candidates.stream()
+            .filter(candidate -> !ambiguous.contains(candidate.values()))
+            .max(Comparator.comparingInt(candidate -> candidate.values().size()));
+
+        if (!largest.isPresent()) {
+            return Optional.empty();
+        }
+
+        Comparator<Object> comparator = null;
+        if (!criteria.getQuery().getOrderList().isEmpty()) {
+            final Optional<Comparator<Object>> sortComparator = sortComparator(operations, mergedOperations);
+            if (!sortComparator.isPresent() || !selectsEntities(operations, mergedOperations, streamConfiguration)) {
+                // The results of the queries can not be merged
+                return Optional.empty();
+            }
+            comparator = sortComparator.get();
+        }
+
+        return Optional.of(new InListChunking(largest.get(), new ArrayList<>(largest.get().values()), chunkSize, comparator));
+    }
+
+    /**
+     * Returns this chunking with the results of the queries concatenated rather than
+     * merged, which applies to queries whose rows are not the elements being ordered,
+     * such as counts.
+     *
+     * @return this chunking with the results of the queries concatenated
+     */
+    InListChunking unordered() {
+        return new InListChunking(parameter, values, chunkSize, null);
+    }
+
+    /**
+     * Returns a Stream of the rows of the queries that the provided query is split into.
+     * The queries are executed lazily as the Stream is consumed, unless their results have
+     * to be merged.
+     *
+     * @param typedQuery to execute once per chunk
+     * @param <T> the type of the rows
+     * @return a Stream of the rows of the queries
+     */
+    <T> Stream<T> stream(final TypedQuery<T> typedQuery) {
+        requireNonNull(typedQuery);
+
+        final int chunks = (values.size() + chunkSize - 1) / chunkSize;
+
+        if (comparator == null) {
+            return IntStream.range(0, chunks)
+                .boxed()
+                .flatMap(chunk -> bind(typedQuery, chunk).getResultStream());
+        }
+
+        final List<List<T>> results = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            results.add(bind(typedQuery, chunk).getResultList());
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new MergingIterator<>(results, comparator), Spliterator.ORDERED), false);
+    }
+
+    private <T> TypedQuery<T> bind(final TypedQuery<T> typedQuery, final int chunk) {
+        final List<Object> chunkValues = values.subList(chunk * chunkSize, Math.min(values.size(), (chunk + 1) * chunkSize));
+        return typedQuery.setParameter(parameter.getParameterExpression(), InListParameter.pad(chunkValues));
+    }
+
+    /**
+     * Adds the values of the IN-lists that restrict all elements accepted by the provided
+     * predicate, i.e. IN-lists that are not part of an {@code or} predicate.
+     */
+    private static void addSplittable(final Set<Object> splittable, final Object predicate) {
+        if (predicate instanceof FieldPredicate) {
+            final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) predicate;
+            if (fieldPredicate.getPredicateType() == PredicateType.IN && fieldPredicate instanceof HasArg0) {
+                splittable.add(((HasArg0<?>) fieldPredicate).get0());
+            }
+        } else if (predicate instanceof CombinedPredicate) {
+            final CombinedPredicate<?> combinedPredicate = (CombinedPredicate<?>) predicate;
+            if (combinedPredicate.getType() == CombinedPredicate.Type.AND) {
+                combinedPredicate.stream().forEach(child -> addSplittable(splittable, child));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<Comparator<Object>> sortComparator(final List<IntermediateOperation<?, ?>> operations, final List<Integer> mergedOperations) {
+        Comparator<Object> comparator = null;
+        for (final int index : mergedOperations) {
+            final IntermediateOperation<?, ?> operation = operations.get(index);
+            if (operation.type() == IntermediateOperationType.SORTED) {
+                final Object[] arguments = operation.arguments();
+                if (arguments.length != 1 || !(arguments[0] instanceof FieldComparator || arguments[0] instanceof CombinedComparator)) {
+                    return Optional.empty();
+                }
+                // The last sort determines the order of the query
+                comparator = (Comparator<Object>) arguments[0];
+            }
+        }
+        return Optional.ofNullable(comparator);
+    }
+
+    private static boolean selectsEntities(
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<Integer> mergedOperations,
+        final StreamConfiguration<?> streamConfiguration
+    ) {
+        return !streamConfiguration.selections().isPresent()
+            && !ColumnProjection.mergedMap(operations, mergedOperations).isPresent();
+    }
+
+    /**
+     * Merges sorted lists into a single sorted sequence. Equal elements are yielded in
+     * the order of the lists.
+     */
+    private static final class MergingIterator<T> implements Iterator<T> {
+
+        private final List<Iterator<T>> iterators = new ArrayList<>();
+        private final PriorityQueue<Head<T>> heads;
+
+        private MergingIterator(final List<List<T>> lists, final Comparator<Object> comparator) {
+            final Comparator<Head<T>> byElement = (first, second) -> comparator.compare(first.element, second.element);
+            this.heads = new PriorityQueue<>(Math.max(1, lists.size()), byElement.thenComparingInt(head -> head.index));
+            for (final List<T> list : lists) {
+                iterators.add(list.iterator());
+                advance(iterators.size() - 1);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            final Head<T> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.index);
+            return head.element;
+        }
+
+        private void advance(final int index) {
+            final Iterator<T> iterator = iterators.get(index);
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), index));
+            }
+        }
+    }
+
+    private static final class Head<T> {
+
+        private final T element;
+        private final int index;
+
+        private Head(final T element, final int index) {
+            this.element = element;
+            this.index = index;
+        }
+    }
+}
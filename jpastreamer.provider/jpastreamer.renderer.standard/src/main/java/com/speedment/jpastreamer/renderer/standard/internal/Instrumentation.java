@@ -0,0 +1,517 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.metrics.MetricsListener;
+import com.speedment.jpastreamer.metrics.StreamContext;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+import com.speedment.jpastreamer.streamconfiguration.Explanation;
+import com.speedment.jpastreamer.streamconfiguration.Explanation.Phase;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Instruments the rendering and execution of a pipeline. The events of the stream are
+ * reported to the {@link MetricsListener} and the {@link Diagnostics} and, if the stream
+ * is explained, an {@link Explanation} is handed to the consumer of the stream
+ * configuration once the rendered stream is closed, see
+ * {@link StreamConfiguration#explaining(Consumer)}.
+ * <p>
+ * The time of a phase is the time elapsed between the previous call to {@link #lap(Phase)}
+ * (or the creation of the Instrumentation) and the call for the phase. The operations,
+ * the query and the time of each row are only recorded if the stream is explained, with
+ * the exception of the operations which are also recorded if diagnostics are enabled.
+ */
+final class Instrumentation {
+
+    private final MetricsListener listener;
+    private final Diagnostics diagnostics;
+    private final StreamContext context;
+    private final Consumer<? super Explanation> consumer;
+    private final long opened;
+    private final AtomicLongArray nanos;
+    private final AtomicBoolean firstRowRead;
+    private final AtomicBoolean failed;
+    private final Queue<RowSpliterator<?>> spliterators;
+    private long mark;
+
+    private List<IntermediateOperation<?, ?>> operations;
+    private TerminalOperation<?, ?> terminalOperation;
+    private String query;
+    private List<Object> parameters;
+
+    private Instrumentation(
+        final MetricsListener listener,
+        final Diagnostics diagnostics,
+        final StreamContext context,
+        final Consumer<? super Explanation> consumer
+    ) {
+        this.listener = listener;
+        this.diagnostics = diagnostics;
+        this.context = context;
+        this.consumer = consumer;
+        this.opened = System.nanoTime();
+        this.nanos = new AtomicLongArray(Phase.values().length);
+        this.firstRowRead = new AtomicBoolean();
+        this.failed = new AtomicBoolean();
+        this.spliterators = new ConcurrentLinkedQueue<>();
+        this.mark = opened;
+        this.parameters = Collections.emptyList();
+    }
+
+    /**
+     * Opens the instrumentation of the provided pipeline, which is yet to be rendered.
+     *
+     * @param pipeline to render
+     * @param streamConfiguration used to render the pipeline
+     * @param listener to report the events of the stream to
+     * @param diagnostics to report the residual operations and the closing of the stream to
+     * @param <E> the entity type
+     * @return the instrumentation of the provided pipeline
+     */
+    static <E> Instrumentation open(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final MetricsListener listener,
+        final Diagnostics diagnostics
+    ) {
+        requireNonNull(pipeline);
+        requireNonNull(streamConfiguration);
+        requireNonNull(listener);
+        requireNonNull(diagnostics);
+
+        final StreamContext context = new StandardStreamContext(
+            pipeline.root(),
+            pipeline.terminatingOperation().type(),
+            PipelineSignature.of(pipeline, streamConfiguration).orElse(null)
+        );
+        final Instrumentation instrumentation = new Instrumentation(listener, diagnostics, context, streamConfiguration.explanationConsumer().orElse(null));
+        listener.onOpen(context);
+        return instrumentation;
+    }
+
+    boolean isExplaining() {
+        return consumer != null;
+    }
+
+    /**
+     * Adds the time elapsed since the previous lap to the provided phase.
+     *
+     * @param phase to add the elapsed time to
+     */
+    void lap(final Phase phase) {
+        final long elapsed = elapse(phase);
+        if (phase == Phase.CREATE_QUERY) {
+            listener.onQuery(context, elapsed);
+        }
+    }
+
+    /**
+     * Adds the time elapsed since the previous lap to {@link Phase#CREATE_QUERY} without
+     * reporting a query, as the rows were read from the result cache.
+     */
+    void cacheHit() {
+        elapse(Phase.CREATE_QUERY);
+    }
+
+    private long elapse(final Phase phase) {
+        final long now = System.nanoTime();
+        final long elapsed = now - mark;
+        nanos.addAndGet(phase.ordinal(), elapsed);
+        mark = now;
+        return elapsed;
+    }
+
+    /**
+     * Records the operations of the provided pipeline, which is expected to have been
+     * optimized but not yet merged into a query.
+     *
+     * @param pipeline to record the operations of
+     */
+    void pipeline(final Pipeline<?> pipeline) {
+        if (isExplaining() || diagnostics.isEnabled()) {
+            operations = Collections.unmodifiableList(new ArrayList<>(pipeline.intermediateOperations()));
+            terminalOperation = pipeline.terminatingOperation();
+        }
+    }
+
+    /**
+     * Records the provided query and the values of its parameters.
+     *
+     * @param criteriaQuery sent to the database
+     * @param queryParameters bound to the query
+     */
+    void query(final CriteriaQuery<?> criteriaQuery, final List<QueryParameter<?>> queryParameters) {
+        if (isExplaining()) {
+            boundQuery(criteriaQuery, queryParameters.stream()
+                .map(QueryParameter<?>::getValue)
+                .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Records the provided query and the provided values of its parameters.
+     *
+     * @param criteriaQuery sent to the database
+     * @param values bound to the query
+     */
+    void boundQuery(final CriteriaQuery<?> criteriaQuery, final List<?> values) {
+        if (isExplaining()) {
+            query = render(criteriaQuery);
+            parameters = Collections.unmodifiableList(new ArrayList<>(values));
+        }
+    }
+
+    /**
+     * Reports that rendering the stream or reading its rows failed, unless a failure
+     * has already been reported.
+     *
+     * @param throwable that was thrown
+     */
+    void fail(final Throwable throwable) {
+        if (failed.compareAndSet(false, true)) {
+            listener.onException(context, throwable);
+        }
+    }
+
+    /**
+     * Returns the provided stream of rows, counting the rows and recording the time
+     * until the first row was read. If the stream is explained, the time spent reading
+     * each row is recorded as well.
+     *
+     * @param rows read from the database
+     * @param <T> the type of the rows
+     * @return the provided stream of rows, instrumenting the reading of the rows
+     */
+    <T> Stream<T> rows(final Stream<T> rows) {
+        return StreamSupport.stream(new RowSpliterator<>(rows.spliterator()), rows.isParallel())
+            .onClose(rows::close);
+    }
+
+    /**
+     * Returns the provided rendered stream, reporting the rows read and the closing of
+     * the stream (and handing the Explanation to the consumer if the stream is explained)
+     * once it is closed. The intermediate operations remaining in the provided pipeline
+     * are the ones that are applied to the rows by the stream.
+     *
+     * @param stream rendered from the pipeline
+     * @param pipeline that was rendered
+     * @param <S> the type of the stream
+     * @return the provided rendered stream, instrumenting its closing
+     */
+    <S extends BaseStream<?, S>> S close(final S stream, final Pipeline<?> pipeline) {
+        final List<IntermediateOperation<?, ?>> residualOperations = Collections.unmodifiableList(new ArrayList<>(pipeline.intermediateOperations()));
+        listener.onResidualOperations(context, residualOperations.size());
+        if (operations != null) {
+            // The operations are not recorded if the stream is known to be empty
+            diagnostics.residualOperations(context, operations, residualOperations);
+        } else if (isExplaining()) {
+            pipeline(pipeline);
+        }
+
+        final AtomicBoolean closed = new AtomicBoolean();
+        return stream.onClose(() -> {
+            if (closed.compareAndSet(false, true)) {
+                final long rows = spliterators.stream().mapToLong(RowSpliterator::count).sum();
+                final long elapsed = System.nanoTime() - opened;
+                listener.onRows(context, rows);
+                listener.onClose(context, elapsed);
+                diagnostics.close(context, elapsed, rows);
+                if (isExplaining()) {
+                    consumer.accept(new StandardExplanation(operations, terminalOperation, query, parameters, residualOperations, durations()));
+                }
+            }
+        });
+    }
+
+    private Map<Phase, Duration> durations() {
+        final Map<Phase, Duration> durations = new EnumMap<>(Phase.class);
+        for (final Phase phase : Phase.values()) {
+            durations.put(phase, Duration.ofNanos(nanos.get(phase.ordinal())));
+        }
+        return durations;
+    }
+
+    private void firstRow(final long start, final boolean advanced) {
+        final long now = System.nanoTime();
+        nanos.addAndGet(Phase.FIRST_ROW.ordinal(), now - start);
+        if (advanced) {
+            listener.onFirstRow(context, now - opened);
+        }
+    }
+
+    /**
+     * Renders the provided query as JPQL using {@code toHqlString()} if provided by the
+     * persistence provider.
+     */
+    private static String render(final CriteriaQuery<?> criteriaQuery) {
+        try {
+            final Method toHqlString = criteriaQuery.getClass().getMethod("toHqlString");
+            return String.valueOf(toHqlString.invoke(criteriaQuery));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return criteriaQuery.toString();
+        }
+    }
+
+    /**
+     * Counts the rows read by the delegate and times the first row. If the stream is
+     * explained, each row is timed, excluding the time spent by the action that the row
+     * is handed to. Failures to read a row are reported, whereas failures of the actions
+     * are left to the stream.
+     */
+    private final class RowSpliterator<T> implements Spliterator<T> {
+
+        private final Spliterator<T> delegate;
+        private long count;
+        private boolean accepting;
+        private T row;
+
+        private RowSpliterator(final Spliterator<T> delegate) {
+            this.delegate = delegate;
+            spliterators.add(this);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            final boolean first = !firstRowRead.get() && firstRowRead.compareAndSet(false, true);
+            if (!first && !isExplaining()) {
+                return advance(action);
+            }
+
+            final long start = System.nanoTime();
+            final boolean advanced;
+            try {
+                advanced = delegate.tryAdvance(next -> row = next);
+            } catch (RuntimeException e) {
+                fail(e);
+                throw e;
+            }
+            if (first) {
+                firstRow(start, advanced);
+            } else {
+                nanos.addAndGet(Phase.ITERATION.ordinal(), System.nanoTime() - start);
+            }
+
+            if (advanced) {
+                final T next = row;
+                row = null;
+                count++;
+                action.accept(next);
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            if (isExplaining()) {
+                // Rows are timed one at a time
+                while (tryAdvance(action)) { }
+                return;
+            }
+
+            if (!firstRowRead.get() && !tryAdvance(action)) {
+                return;
+            }
+
+            try {
+                delegate.forEachRemaining(next -> accept(action, next));
+            } catch (RuntimeException e) {
+                failUnlessAccepting(e);
+                throw e;
+            }
+        }
+
+        private boolean advance(final Consumer<? super T> action) {
+            try {
+                return delegate.tryAdvance(next -> accept(action, next));
+            } catch (RuntimeException e) {
+                failUnlessAccepting(e);
+                throw e;
+            }
+        }
+
+        private void accept(final Consumer<? super T> action, final T next) {
+            count++;
+            accepting = true;
+            action.accept(next);
+            accepting = false;
+        }
+
+        /**
+         * Reports failures to read a row but not failures of the operations of the
+         * stream that the row was handed to.
+         */
+        private void failUnlessAccepting(final RuntimeException e) {
+            if (!accepting) {
+                fail(e);
+            }
+            accepting = false;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final Spliterator<T> prefix = delegate.trySplit();
+            return prefix == null ? null : new RowSpliterator<>(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return delegate.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return delegate.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return delegate.getComparator();
+        }
+    }
+
+    private static final class StandardStreamContext implements StreamContext {
+
+        private final Class<?> entityClass;
+        private final TerminalOperationType terminalOperationType;
+        private final String signature;
+
+        private StandardStreamContext(final Class<?> entityClass, final TerminalOperationType terminalOperationType, final String signature) {
+            this.entityClass = entityClass;
+            this.terminalOperationType = terminalOperationType;
+            this.signature = signature;
+        }
+
+        @Override
+        public Class<?> entityClass() {
+            return entityClass;
+        }
+
+        @Override
+        public TerminalOperationType terminalOperationType() {
+            return terminalOperationType;
+        }
+
+        @Override
+        public Optional<String> signature() {
+            return Optional.ofNullable(signature);
+        }
+
+        @Override
+        public String toString() {
+            return "StreamContext{" +
+                "entityClass=" + entityClass.getSimpleName() +
+                ", terminalOperationType=" + terminalOperationType +
+                ", signature=" + signature +
+                '}';
+        }
+    }
+
+    private static final class StandardExplanation implements Explanation {
+
+        private final List<IntermediateOperation<?, ?>> operations;
+        private final TerminalOperation<?, ?> terminalOperation;
+        private final String query;
+        private final List<Object> parameters;
+        private final List<IntermediateOperation<?, ?>> residualOperations;
+        private final Map<Phase, Duration> durations;
+
+        private StandardExplanation(
+            final List<IntermediateOperation<?, ?>> operations,
+            final TerminalOperation<?, ?> terminalOperation,
+            final String query,
+            final List<Object> parameters,
+            final List<IntermediateOperation<?, ?>> residualOperations,
+            final Map<Phase, Duration> durations
+        ) {
+            this.operations = operations;
+            this.terminalOperation = terminalOperation;
+            this.query = query;
+            this.parameters = parameters;
+            this.residualOperations = residualOperations;
+            this.durations = durations;
+        }
+
+        @Override
+        public List<IntermediateOperation<?, ?>> operations() {
+            return operations;
+        }
+
+        @Override
+        public TerminalOperation<?, ?> terminalOperation() {
+            return terminalOperation;
+        }
+
+        @Override
+        public Optional<String> query() {
+            return Optional.ofNullable(query);
+        }
+
+        @Override
+        public List<Object> parameters() {
+            return parameters;
+        }
+
+        @Override
+        public List<IntermediateOperation<?, ?>> residualOperations() {
+            return residualOperations;
+        }
+
+        @Override
+        public Duration duration(final Phase phase) {
+            return durations.get(requireNonNull(phase));
+        }
+
+        @Override
+        public String toString() {
+            return "Explanation{" +
+                "query=" + query +
+                ", parameters=" + parameters +
+                ", residualOperations=" + residualOperations.stream().map(operation -> operation.type().name()).collect(Collectors.toList()) +
+                ", durations=" + Arrays.stream(Phase.values()).map(phase -> phase + "=" + durations.get(phase).toNanos() / 1_000 + "us").collect(Collectors.joining(", ", "{", "}")) +
+                '}';
+        }
+    }
+}
@@ -12,26 +12,66 @@
  */
 package com.speedment.jpastreamer.renderer.standard.internal;
 
+import com.speedment.jpastreamer.pipeline.Pipeline;
 import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.RendererCache;
 import com.speedment.jpastreamer.renderer.RendererFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public final class InternalRendererFactory implements RendererFactory {
 
     @Override
     public Renderer createRenderer(final EntityManagerFactory entityManagerFactory) {
-        return createRenderer(entityManagerFactory::createEntityManager); 
+        return new StandardRenderer(entityManagerFactory);
     }
     
     public Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier) {
-        return new StandardRenderer(entityManagerSupplier); 
+        return new StandardRenderer(entityManagerSupplier, new StandardRendererCache()); 
     }
 
     @Override
     public Renderer createRenderer(EntityManager entityManager) {
-        return new StandardRenderer(entityManager);
+        return new StandardRenderer(entityManager, new StandardRendererCache());
+    }
+
+    @Override
+    public Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier, final RendererCache cache) {
+        return new StandardRenderer(entityManagerSupplier, standardCache(cache));
+    }
+
+    @Override
+    public Renderer createRenderer(final EntityManager entityManager, final RendererCache cache) {
+        return new StandardRenderer(entityManager, standardCache(cache));
+    }
+
+    @Override
+    public Renderer createRenderer(
+        final EntityManager entityManager,
+        final RendererCache cache,
+        final Supplier<EntityManager> partitionEntityManagerSupplier,
+        final Consumer<EntityManager> partitionEntityManagerRelease
+    ) {
+        return new StandardRenderer(entityManager, standardCache(cache), partitionEntityManagerSupplier, partitionEntityManagerRelease);
+    }
+
+    @Override
+    public boolean isSeekable(final Pipeline<?> pipeline) {
+        return Keyset.isApplicable(pipeline.intermediateOperations());
+    }
+
+    @Override
+    public RendererCache createCache() {
+        return new StandardRendererCache();
+    }
+
+    private static StandardRendererCache standardCache(final RendererCache cache) {
+        if (cache instanceof StandardRendererCache) {
+            return (StandardRendererCache) cache;
+        }
+        throw new IllegalArgumentException("The cache " + cache + " was not created by this factory");
     }
 }
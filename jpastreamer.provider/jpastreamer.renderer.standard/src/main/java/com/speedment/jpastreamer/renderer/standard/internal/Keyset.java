@@ -0,0 +1,403 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.comparator.NullOrder;
+import com.speedment.jpastreamer.field.method.Getter;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.KeysetConfiguration;
+
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Bindable;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders keyset (seek) pagination, see
+ * {@link com.speedment.jpastreamer.streamconfiguration.StreamConfiguration#seekingAfter(Cursor)}.
+ * <p>
+ * Rather than skipping the elements of the preceding pages using an {@code OFFSET}, the
+ * query is restricted to the elements that are ordered after the cursor, i.e.
+ * {@code (k1, ..., kn, id) > (:k1, ..., :kn, :id)} expanded into
+ * {@code k1 > :k1 OR (k1 = :k1 AND (... OR (kn = :kn AND id > :id)))}, which allows the
+ * database to seek directly to the start of the page using an index on the sort keys.
+ * <p>
+ * Nullable keys are ordered by their null rank before their values, in the same way as
+ * {@code OrderMapper#mapNullOrder}, and the comparisons are extended accordingly. Nulls
+ * of a key without a {@link NullOrder} are ordered before the values.
+ *
+ * @param <E> the entity type
+ */
+final class Keyset<E> {
+
+    // Operations whose result depends on the preceding elements of the Stream
+    private static final Set<IntermediateOperationType> STATEFUL = EnumSet.of(
+        IntermediateOperationType.SKIP,
+        IntermediateOperationType.LIMIT,
+        IntermediateOperationType.DISTINCT,
+        IntermediateOperationType.TAKE_WHILE,
+        IntermediateOperationType.DROP_WHILE
+    );
+
+    private final List<FieldComparator<? super E>> keys;
+    private final boolean orderedById;
+    private final KeysetConfiguration configuration;
+
+    private Keyset(final List<FieldComparator<? super E>> keys, final boolean orderedById, final KeysetConfiguration configuration) {
+        this.keys = keys;
+        this.orderedById = orderedById;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Restricts the provided (merged) criteria to the elements following the cursor of the
+     * provided configuration and orders it by the sort keys followed by the id.
+     *
+     * @param criteria to restrict, after the operations of the pipeline have been merged
+     * @param operations of the pipeline before merging
+     * @param mergedOperations the indices of the merged operations
+     * @param configuration holding the cursor
+     * @param <E> the entity type
+     * @return a Keyset that tracks the cursor of the last element read
+     * @throws IllegalStateException if the pipeline is not sorted on fields, or if the
+     *                               sort or any preceding operation could not be merged
+     * @throws IllegalArgumentException if the cursor does not match the sort keys
+     */
+    static <E> Keyset<E> seek(
+        final Criteria<E, ?> criteria,
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<Integer> mergedOperations,
+        final KeysetConfiguration configuration
+    ) {
+        requireNonNull(criteria);
+        requireNonNull(operations);
+        requireNonNull(mergedOperations);
+        requireNonNull(configuration);
+
+        final List<FieldComparator<? super E>> keys = new ArrayList<>();
+        int sortIndex = -1;
+        for (int i = 0; i < operations.size(); i++) {
+            final IntermediateOperation<?, ?> operation = operations.get(i);
+            if (operation.type() == IntermediateOperationType.SORTED) {
+                if (sortIndex >= 0) {
+                    throw new IllegalStateException("Keyset pagination requires at most one sorted operation");
+                }
+                keys.addAll(keysOf(operation));
+                sortIndex = i;
+            }
+        }
+
+        for (int i = 0; i <= sortIndex; i++) {
+            if (!mergedOperations.contains(i)) {
+                throw new IllegalStateException("Keyset pagination requires " + operations.get(i) + " to be expressible in the query");
+            }
+        }
+
+        final String idName = idName(criteria);
+        final boolean orderedById = keys.stream().anyMatch(key -> key.getField().columnName().equals(idName));
+
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final CriteriaQuery<?> query = criteria.getQuery();
+
+        // Stream::sorted without a comparator is already ordered by the id
+        if (sortIndex < 0 || !keys.isEmpty()) {
+            query.orderBy(orders(criteria, keys, orderedById ? null : idName));
+        }
+
+        final List<Object> values = configuration.cursor().values();
+        if (!values.isEmpty()) {
+            final int expected = keys.size() + (orderedById ? 0 : 1);
+            if (values.size() != expected) {
+                throw new IllegalArgumentException(
+                    "The " + configuration.cursor() + " has " + values.size() + " values but " + expected + " were expected");
+            }
+
+            final Predicate seek = seekPredicate(criteria, keys, orderedById ? null : idName, values, 0);
+            final Predicate restriction = query.getRestriction();
+            query.where(restriction == null ? seek : builder.and(restriction, seek));
+        }
+
+        return new Keyset<>(keys, orderedById, configuration);
+    }
+
+    /**
+     * Returns whether a pipeline with the provided operations can be restricted by
+     * {@link #seek(Criteria, List, List, KeysetConfiguration)}, i.e. whether it is sorted at
+     * most once, using field comparators, and only preceded by filters that are guaranteed
+     * to be merged into the query. This is decided from the operations alone, before the
+     * pipeline is optimized or merged.
+     * <p>
+     * As the pipeline is applied to each page, it must not be followed by operations that
+     * depend on the preceding elements of the Stream, e.g. a limit, which would otherwise
+     * be applied to every page rather than to the Stream as a whole.
+     *
+     * @param operations of the pipeline
+     * @return whether the pipeline can be paginated by keyset
+     */
+    static boolean isApplicable(final List<IntermediateOperation<?, ?>> operations) {
+        requireNonNull(operations);
+
+        int sortIndex = -1;
+        for (int i = 0; i < operations.size(); i++) {
+            final IntermediateOperation<?, ?> operation = operations.get(i);
+            if (operation.type() == IntermediateOperationType.SORTED) {
+                if (sortIndex >= 0 || !isFieldSort(operation)) {
+                    return false;
+                }
+                sortIndex = i;
+            }
+        }
+
+        for (int i = 0; i < sortIndex; i++) {
+            final IntermediateOperation<?, ?> operation = operations.get(i);
+            if (operation.type() != IntermediateOperationType.FILTER
+                || operation.streamType() != Stream.class
+                || operation.arguments().length != 1
+                || !(operation.arguments()[0] instanceof SpeedmentPredicate)) {
+                return false;
+            }
+        }
+        return operations.stream().noneMatch(operation -> STATEFUL.contains(operation.type()));
+    }
+
+    private static boolean isFieldSort(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+        return operation.streamType() == Stream.class
+            && (arguments.length == 0 || arguments[0] instanceof FieldComparator || arguments[0] instanceof CombinedComparator);
+    }
+
+    /**
+     * Returns the provided stream of entities, tracking the last element read so that
+     * its cursor can be handed to the consumer of the configuration once the stream is
+     * closed.
+     *
+     * @param entities read by the query
+     * @param persistenceUnitUtil used to obtain the id of the entities
+     * @return the provided stream, tracking the last element read
+     */
+    Stream<E> track(final Stream<E> entities, final PersistenceUnitUtil persistenceUnitUtil) {
+        requireNonNull(entities);
+        requireNonNull(persistenceUnitUtil);
+
+        final AtomicReference<E> last = new AtomicReference<>();
+        return entities
+            .peek(last::set)
+            .onClose(() -> {
+                final E entity = last.get();
+                if (entity != null) {
+                    configuration.nextCursorConsumer().accept(cursorOf(entity, persistenceUnitUtil));
+                }
+            });
+    }
+
+    private Cursor cursorOf(final E entity, final PersistenceUnitUtil persistenceUnitUtil) {
+        final Object[] values = new Object[keys.size() + (orderedById ? 0 : 1)];
+        for (int i = 0; i < keys.size(); i++) {
+            values[i] = getter(keys.get(i).getField()).apply(entity);
+        }
+        if (!orderedById) {
+            values[keys.size()] = persistenceUnitUtil.getIdentifier(entity);
+        }
+        return Cursor.of(values);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Getter<E> getter(final Field<? super E> field) {
+        return (Getter<E>) field.getter();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> List<FieldComparator<? super E>> keysOf(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length == 0) {
+            // Stream::sorted without a comparator is ordered by the id
+            return Collections.emptyList();
+        }
+
+        if (arguments[0] instanceof FieldComparator) {
+            return Collections.singletonList((FieldComparator<? super E>) arguments[0]);
+        }
+
+        if (arguments[0] instanceof CombinedComparator) {
+            return ((CombinedComparator<E>) arguments[0]).stream().collect(Collectors.toList());
+        }
+
+        throw new IllegalStateException("Keyset pagination requires the stream to be sorted on fields but was sorted using " + arguments[0]);
+    }
+
+    private static String idName(final Criteria<?, ?> criteria) {
+        return criteria.getRoot().getModel().getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .map(Attribute::getName)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Keyset pagination requires " + criteria.getRoot().getJavaType().getName() + " to have a single id attribute"));
+    }
+
+    /**
+     * Returns the order of the keys followed by the id, replacing the order of the merged
+     * sort so that nullable keys are always ordered by their null rank, which the seek
+     * predicate relies on. A null {@code idName} indicates that the keys already include
+     * the id.
+     */
+    private static <E> List<Order> orders(
+        final Criteria<E, ?> criteria,
+        final List<FieldComparator<? super E>> keys,
+        final String idName
+    ) {
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final List<Order> orders = new ArrayList<>();
+        for (final FieldComparator<? super E> key : keys) {
+            final Path<Object> path = criteria.getRoot().get(key.getField().columnName());
+            if (isNullable(path)) {
+                final boolean nullsFirst = nullsFirst(key);
+                final Expression<Integer> nullRank = builder.<Integer>selectCase()
+                    .when(builder.isNull(path), nullsFirst ? 0 : 1)
+                    .otherwise(nullsFirst ? 1 : 0);
+                orders.add(builder.asc(nullRank));
+            }
+            orders.add(key.isReversed() ? builder.desc(path) : builder.asc(path));
+        }
+        if (idName != null) {
+            orders.add(builder.asc(criteria.getRoot().get(idName)));
+        }
+        return orders;
+    }
+
+    /**
+     * Returns the predicate selecting the elements ordered after the values, starting
+     * with the key at the provided index. A null {@code idName} indicates that the keys
+     * already include the id.
+     */
+    private static <E> Predicate seekPredicate(
+        final Criteria<E, ?> criteria,
+        final List<FieldComparator<? super E>> keys,
+        final String idName,
+        final List<Object> values,
+        final int index
+    ) {
+        final CriteriaBuilder builder = criteria.getBuilder();
+
+        if (index == keys.size()) {
+            return compare(criteria, criteria.getRoot().get(idName), values.get(index), false);
+        }
+
+        final FieldComparator<? super E> key = keys.get(index);
+        final Path<Object> path = criteria.getRoot().get(key.getField().columnName());
+        final Object value = values.get(index);
+        final boolean nullable = isNullable(path);
+        final boolean nullsFirst = nullsFirst(key);
+
+        final Predicate after;
+        if (value == null) {
+            if (!nullable) {
+                throw new IllegalArgumentException("The " + key.getField().columnName() + " value of a Cursor must not be null");
+            }
+            // Either all values follow the nulls, or none do
+            after = nullsFirst ? builder.isNotNull(path) : builder.disjunction();
+        } else {
+            final Predicate greater = compare(criteria, path, value, key.isReversed());
+            after = nullable && !nullsFirst ? builder.or(greater, builder.isNull(path)) : greater;
+        }
+
+        if (index == keys.size() - 1 && idName == null) {
+            return after;
+        }
+
+        final Predicate equal = value == null
+            ? builder.isNull(path)
+            : builder.equal(path, parameter(criteria, path, value));
+        return builder.or(after, builder.and(equal, seekPredicate(criteria, keys, idName, values, index + 1)));
+    }
+
+    // The null order of a FieldComparator is reversed along with the values
+    private static boolean nullsFirst(final FieldComparator<?> key) {
+        return (key.getNullOrder() != NullOrder.LAST) != key.isReversed();
+    }
+
+    private static boolean isNullable(final Path<?> path) {
+        final Bindable<?> model = path.getModel();
+        if (!(model instanceof SingularAttribute)) {
+            return true;
+        }
+        final SingularAttribute<?, ?> attribute = (SingularAttribute<?, ?>) model;
+        return attribute.isOptional() && !attribute.isId() && !attribute.getJavaType().isPrimitive();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(final Criteria<?, ?> criteria, final Path<Object> path, final Object value, final boolean reversed) {
+        final Expression expression = path;
+        final Expression parameter = parameter(criteria, path, value);
+        return reversed
+            ? criteria.getBuilder().lessThan(expression, parameter)
+            : criteria.getBuilder().greaterThan(expression, parameter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ParameterExpression<T> parameter(final Criteria<?, ?> criteria, final Path<Object> path, final Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The id value of a Cursor must not be null");
+        }
+
+        final ParameterExpression<T> parameter = criteria.getBuilder().parameter((Class<T>) value.getClass());
+        criteria.addQueryParameter(new SeekParameter<>(parameter, (T) value));
+        return parameter;
+    }
+
+    private static final class SeekParameter<T> implements QueryParameter<T> {
+
+        private final ParameterExpression<T> parameterExpression;
+        private final T value;
+
+        private SeekParameter(final ParameterExpression<T> parameterExpression, final T value) {
+            this.parameterExpression = parameterExpression;
+            this.value = value;
+        }
+
+        @Override
+        public ParameterExpression<T> getParameterExpression() {
+            return parameterExpression;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over the rows of partitions that are read concurrently, see
+ * {@link Partitioning}. The Spliterator splits at the boundaries of the partitions.
+ * <p>
+ * A partition is started once the Spliterator reaches it, and the partition following
+ * it is started along with it so that its first rows are read while the rows of the
+ * current partition are being consumed.
+ * <p>
+ * An ordered Spliterator traverses the partitions in order whereas an unordered
+ * Spliterator prefers partitions whose rows have already been read.
+ *
+ * @param <T> the type of the rows
+ */
+final class PartitionedSpliterator<T> implements Spliterator<T> {
+
+    private final List<Partitioning.Partition<T>> partitions;
+    private final boolean ordered;
+    private final int fence;
+    private int index;
+    private Partitioning.Partition<T> current;
+
+    PartitionedSpliterator(final List<Partitioning.Partition<T>> partitions, final boolean ordered) {
+        this(requireNonNull(partitions), ordered, 0, partitions.size());
+    }
+
+    private PartitionedSpliterator(final List<Partitioning.Partition<T>> partitions, final boolean ordered, final int index, final int fence) {
+        this.partitions = partitions;
+        this.ordered = ordered;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        requireNonNull(action);
+        do {
+            if (current != null && current.tryAdvance(action)) {
+                return true;
+            }
+        } while (advancePartition());
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        requireNonNull(action);
+        do {
+            if (current != null) {
+                while (current.tryAdvance(action)) {
+                    // Consumes the partition
+                }
+            }
+        } while (advancePartition());
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (current != null) {
+            if (index < fence) {
+                // Hand off the partition being traversed, which is the one before index
+                final Spliterator<T> prefix = new PartitionedSpliterator<>(partitions, ordered, index - 1, index);
+                current = null;
+                return prefix;
+            }
+            return null;
+        }
+
+        if (fence - index > 1) {
+            final int middle = (index + fence) >>> 1;
+            final Spliterator<T> prefix = new PartitionedSpliterator<>(partitions, ordered, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return index == fence && current == null ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ordered ? ORDERED : 0;
+    }
+
+    private boolean advancePartition() {
+        if (index == fence) {
+            current = null;
+            return false;
+        }
+
+        if (!ordered) {
+            for (int i = index; i < fence; i++) {
+                if (partitions.get(i).isStarted() && partitions.get(i).isReady()) {
+                    Collections.swap(partitions, index, i);
+                    break;
+                }
+            }
+        }
+
+        current = partitions.get(index++);
+        current.start();
+        if (index < fence) {
+            partitions.get(index).start();
+        }
+        return true;
+    }
+}
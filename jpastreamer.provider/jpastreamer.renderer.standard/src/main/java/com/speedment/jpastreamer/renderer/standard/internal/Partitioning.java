@@ -0,0 +1,435 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration.ParallelConfiguration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Bindable;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Renders a parallel Stream into concurrent queries over ranges of a numeric key, see
+ * {@link StreamConfiguration#withParallelism(int, java.util.concurrent.Executor)}.
+ * <p>
+ * The key is the first key the query is ordered by, in which case the ranges are
+ * yielded in the order of the key, or the id if the query is unordered. The ranges
+ * are computed from the minimum and maximum value of the key among the rows matching
+ * the filters of the query, and each range is read by its own {@code EntityManager},
+ * obtained from the same source as the {@code EntityManager} of the renderer.
+ * <p>
+ * A range is only queried once the Stream reaches it, or the range before it, and its
+ * rows are streamed through a buffer of at most {@value #ROWS_PREFETCHED} rows, so that
+ * a Stream terminating early neither reads nor holds the rows of all ranges.
+ */
+final class Partitioning {
+
+    /**
+     * The number of rows of a range that are read ahead of the Stream.
+     */
+    static final int ROWS_PREFETCHED = 256;
+
+    private final SingularAttribute<?, ?> key;
+    private final boolean ordered;
+    private final boolean descending;
+
+    Partitioning(final SingularAttribute<?, ?> key, final boolean ordered, final boolean descending) {
+        this.key = key;
+        this.ordered = ordered;
+        this.descending = descending;
+    }
+
+    /**
+     * Returns whether the provided pipeline should be read using concurrent queries.
+     *
+     * @param pipeline to render
+     * @param streamConfiguration used to render the pipeline
+     * @return whether the pipeline should be read using concurrent queries
+     */
+    static boolean isApplicable(final Pipeline<?> pipeline, final StreamConfiguration<?> streamConfiguration) {
+        requireNonNull(pipeline);
+        requireNonNull(streamConfiguration);
+
+        return pipeline.isParallel()
+            && streamConfiguration.parallelism().isPresent()
+            && !streamConfiguration.keyset().isPresent();
+    }
+
+    /**
+     * Returns the partitioning of the provided (merged) criteria, or an empty Optional if
+     * the criteria is not ordered by, or has no id, of a numeric type that is never null.
+     *
+     * @param pipeline to render
+     * @param criteria after the operations of the pipeline have been merged
+     * @return the partitioning of the provided criteria
+     */
+    static Optional<Partitioning> of(final Pipeline<?> pipeline, final Criteria<?, ?> criteria) {
+        requireNonNull(pipeline);
+        requireNonNull(criteria);
+
+        final List<Order> orders = criteria.getQuery().getOrderList();
+
+        if (!pipeline.isUnordered() && !orders.isEmpty()) {
+            final Order order = orders.get(0);
+            return attributeOf(order.getExpression(), criteria.getRoot())
+                .filter(attribute -> attribute.isId() || !attribute.isOptional() || attribute.getJavaType().isPrimitive())
+                .filter(attribute -> isIntegral(attribute.getJavaType()))
+                .map(attribute -> new Partitioning(attribute, true, !order.isAscending()));
+        }
+
+        return criteria.getRoot().getModel().getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .filter(attribute -> isIntegral(attribute.getJavaType()))
+            .findFirst()
+            .map(attribute -> new Partitioning(attribute, false, false));
+    }
+
+    /**
+     * Restricts the provided criteria to the ranges of the key and returns a parallel
+     * Stream of the rows of the ranges, read concurrently by the executor of the provided
+     * configuration. Closing the Stream cancels the ranges that are being read.
+     *
+     * @param entityManager used to compute the ranges
+     * @param entityManagerSupplier obtaining the EntityManager of each range
+     * @param entityManagerRelease releasing the EntityManager of each range once it has been read
+     * @param criteria to restrict
+     * @param boundsCriteria holding the restriction of the provided criteria, used to compute the ranges
+     * @param hints to apply to the queries
+     * @param parallelism holding the number of ranges and the executor
+     * @param <T> the type of the rows
+     * @return a parallel Stream of the rows of the ranges
+     */
+    @SuppressWarnings("unchecked")
+    <T> Stream<T> stream(
+        final EntityManager entityManager,
+        final Supplier<EntityManager> entityManagerSupplier,
+        final Consumer<EntityManager> entityManagerRelease,
+        final Criteria<?, T> criteria,
+        final Criteria<?, Object[]> boundsCriteria,
+        final Map<String, Object> hints,
+        final ParallelConfiguration parallelism
+    ) {
+        final List<BigInteger> boundaries = bounds(entityManager, boundsCriteria)
+            .map(minMax -> boundaries(minMax[0], minMax[1], parallelism.partitions()))
+            .orElse(Collections.emptyList());
+
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final CriteriaQuery<T> query = criteria.getQuery();
+        final Class<Object> keyType = (Class<Object>) boxed(key.getJavaType());
+        final ParameterExpression<Object> lower = builder.parameter(keyType);
+        final ParameterExpression<Object> upper = builder.parameter(keyType);
+        final Predicate range = between(builder, criteria.getRoot().get(key.getName()), lower, upper);
+        final Predicate restriction = query.getRestriction();
+        query.where(restriction == null ? range : builder.and(restriction, range));
+
+        final List<QueryParameter<?>> queryParameters = new ArrayList<>();
+        for (final QueryParameter<?> queryParameter : criteria.getQueryParameters()) {
+            queryParameters.add(queryParameter);
+        }
+
+        final List<Partition<T>> partitions = new ArrayList<>();
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+            final Object lowerValue = valueOf(boundaries.get(i), keyType);
+            final Object upperValue = valueOf(boundaries.get(i + 1).subtract(BigInteger.ONE), keyType);
+
+            partitions.add(new Partition<>(() -> {
+                final EntityManager partitionEntityManager = entityManagerSupplier.get();
+                try {
+                    final TypedQuery<T> typedQuery;
+                    // The criteria is shared by the partitions
+                    synchronized (query) {
+                        typedQuery = partitionEntityManager.createQuery(query);
+                    }
+                    queryParameters.forEach(queryParameter -> setParameter(typedQuery, queryParameter));
+                    setParameter(typedQuery, lower, lowerValue);
+                    setParameter(typedQuery, upper, upperValue);
+                    hints.forEach(typedQuery::setHint);
+                    return typedQuery.getResultStream().onClose(() -> entityManagerRelease.accept(partitionEntityManager));
+                } catch (RuntimeException e) {
+                    entityManagerRelease.accept(partitionEntityManager);
+                    throw e;
+                }
+            }, parallelism.executor(), ROWS_PREFETCHED));
+        }
+
+        if (descending) {
+            Collections.reverse(partitions);
+        }
+
+        return StreamSupport.stream(new PartitionedSpliterator<>(partitions, ordered), true)
+            .onClose(() -> partitions.forEach(Partition::cancel));
+    }
+
+    /**
+     * Returns the minimum and maximum value of the key among the rows matching the
+     * restriction of the provided criteria, or an empty Optional if no row matches.
+     *
+     * @param entityManager used to execute the query
+     * @param boundsCriteria holding the restriction
+     * @return the minimum and maximum value of the key, if any
+     */
+    Optional<BigInteger[]> bounds(final EntityManager entityManager, final Criteria<?, Object[]> boundsCriteria) {
+        final CriteriaBuilder builder = boundsCriteria.getBuilder();
+        final CriteriaQuery<Object[]> query = boundsCriteria.getQuery();
+        final Path<Number> path = boundsCriteria.getRoot().get(key.getName());
+        query.multiselect(builder.min(path), builder.max(path));
+
+        final TypedQuery<Object[]> typedQuery = entityManager.createQuery(query);
+        for (final QueryParameter<?> queryParameter : boundsCriteria.getQueryParameters()) {
+            setParameter(typedQuery, queryParameter);
+        }
+        final Object[] minMax = typedQuery.getSingleResult();
+        final Number min = (Number) minMax[0];
+        final Number max = (Number) minMax[1];
+
+        if (min == null || max == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new BigInteger[] {BigInteger.valueOf(min.longValue()), BigInteger.valueOf(max.longValue())});
+    }
+
+    /**
+     * Returns the lower bounds of at most {@code partitions} equally sized ranges covering
+     * {@code [min, max]}, followed by {@code max + 1}.
+     */
+    static List<BigInteger> boundaries(final BigInteger min, final BigInteger max, final int partitions) {
+        final BigInteger length = max.subtract(min).add(BigInteger.ONE);
+        final int count = length.min(BigInteger.valueOf(partitions)).intValueExact();
+
+        final List<BigInteger> boundaries = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) {
+            boundaries.add(min.add(length.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count))));
+        }
+        boundaries.add(max.add(BigInteger.ONE));
+        return boundaries;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate between(final CriteriaBuilder builder, final Expression<?> expression, final Expression<?> lower, final Expression<?> upper) {
+        return builder.between((Expression) expression, (Expression) lower, (Expression) upper);
+    }
+
+    private static Optional<SingularAttribute<?, ?>> attributeOf(final Expression<?> expression, final Root<?> root) {
+        if (!(expression instanceof Path)) {
+            return Optional.empty();
+        }
+
+        final Path<?> path = (Path<?>) expression;
+        final Bindable<?> model = path.getModel();
+        if (!(model instanceof SingularAttribute) || !root.equals(path.getParentPath())) {
+            return Optional.empty();
+        }
+
+        return Optional.of((SingularAttribute<?, ?>) model);
+    }
+
+    private static boolean isIntegral(final Class<?> type) {
+        final Class<?> boxed = boxed(type);
+        return boxed == Long.class || boxed == Integer.class || boxed == Short.class || boxed == Byte.class;
+    }
+
+    private static Class<?> boxed(final Class<?> type) {
+        if (type == long.class) return Long.class;
+        if (type == int.class) return Integer.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        return type;
+    }
+
+    private static Object valueOf(final BigInteger value, final Class<?> type) {
+        if (type == Integer.class) return value.intValueExact();
+        if (type == Short.class) return value.shortValueExact();
+        if (type == Byte.class) return value.byteValueExact();
+        return value.longValueExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void setParameter(final TypedQuery<?> typedQuery, final ParameterExpression<V> parameter, final Object value) {
+        typedQuery.setParameter(parameter, (V) value);
+    }
+
+    private static <V> void setParameter(final TypedQuery<?> typedQuery, final QueryParameter<V> queryParameter) {
+        typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue());
+    }
+
+    /**
+     * A range of rows that is read by a task of an executor into a bounded buffer, from
+     * which the rows are taken by the Stream. The task is submitted once the range is
+     * first {@link #start() started} and stops reading once the range is {@link #cancel()
+     * cancelled}, closing the rows read so far.
+     *
+     * @param <T> the type of the rows
+     */
+    static final class Partition<T> {
+
+        private static final Object NULL = new Object();
+        private static final Object END = new Object();
+
+        private final Supplier<? extends Stream<T>> rows;
+        private final Executor executor;
+        private final BlockingQueue<Object> buffer;
+        private final AtomicBoolean started;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        Partition(final Supplier<? extends Stream<T>> rows, final Executor executor, final int prefetch) {
+            this.rows = requireNonNull(rows);
+            this.executor = requireNonNull(executor);
+            this.buffer = new ArrayBlockingQueue<>(prefetch);
+            this.started = new AtomicBoolean();
+        }
+
+        /**
+         * Submits the task reading the rows, unless it has already been submitted.
+         */
+        void start() {
+            if (started.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::read);
+                } catch (RuntimeException e) {
+                    buffer.offer(new Failure(e));
+                }
+            }
+        }
+
+        boolean isStarted() {
+            return started.get();
+        }
+
+        /**
+         * Returns whether a row, or the end of the rows, can be taken without waiting.
+         */
+        boolean isReady() {
+            return !buffer.isEmpty();
+        }
+
+        /**
+         * Performs the provided action on the next row, waiting for it to be read, and
+         * returns true or, if all rows have been taken, returns false.
+         */
+        @SuppressWarnings("unchecked")
+        boolean tryAdvance(final Consumer<? super T> action) {
+            if (done) {
+                return false;
+            }
+            start();
+            final Object row;
+            try {
+                row = buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CancellationException("Interrupted while waiting for the rows of a partition");
+            }
+            if (row == END) {
+                done = true;
+                return false;
+            }
+            if (row instanceof Failure) {
+                done = true;
+                final Throwable cause = ((Failure) row).cause;
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+            action.accept(row == NULL ? null : (T) row);
+            return true;
+        }
+
+        /**
+         * Stops reading the rows and discards the rows that have been read.
+         */
+        void cancel() {
+            cancelled = true;
+            buffer.clear();
+        }
+
+        private void read() {
+            try (Stream<T> stream = cancelled ? Stream.empty() : rows.get()) {
+                final Iterator<T> iterator = stream.iterator();
+                while (!cancelled && iterator.hasNext()) {
+                    final T row = iterator.next();
+                    put(row == null ? NULL : row);
+                }
+                put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        private void put(final Object row) throws InterruptedException {
+            // The Stream may stop taking rows without closing the partition, hence the buffer is
+            // polled for space so that a cancellation is observed while waiting
+            while (!cancelled) {
+                if (buffer.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+
+        private void fail(final Throwable t) {
+            // The failure must reach the Stream even if the buffer is full
+            buffer.clear();
+            buffer.offer(new Failure(t));
+        }
+
+        private static final class Failure {
+
+            private final Throwable cause;
+
+            private Failure(final Throwable cause) {
+                this.cause = cause;
+            }
+        }
+    }
+}
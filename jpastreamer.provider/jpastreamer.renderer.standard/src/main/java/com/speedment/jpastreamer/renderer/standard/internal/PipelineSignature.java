@@ -0,0 +1,229 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.ChainedComparator;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.method.GetDouble;
+import com.speedment.jpastreamer.field.method.GetInt;
+import com.speedment.jpastreamer.field.method.GetLong;
+import com.speedment.jpastreamer.field.method.GetReference;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Computes a structural signature of a {@link Pipeline} and its
+ * {@link StreamConfiguration}. Two pipelines with the same signature render
+ * into the same query and only differ in the values bound to the query
+ * parameters.
+ */
+final class PipelineSignature {
+
+    private PipelineSignature() {}
+
+    /**
+     * Returns the signature of the provided (modified and optimized) pipeline, or an
+     * empty Optional if the pipeline contains elements that are rendered as literals
+     * and thus cannot share a query with other pipelines.
+     *
+     * @param pipeline to compute the signature for
+     * @param streamConfiguration used to render the pipeline
+     * @param <E> the entity type
+     * @return the signature of the pipeline, or an empty Optional if it cannot be cached
+     */
+    static <E> Optional<String> of(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        requireNonNull(pipeline);
+        requireNonNull(streamConfiguration);
+
+        // The restriction of a keyset query depends on the cursor, see Keyset, and
+        // the restriction of a partitioned query on the ranges, see Partitioning
+        if (streamConfiguration.keyset().isPresent() || Partitioning.isApplicable(pipeline, streamConfiguration)) {
+            return Optional.empty();
+        }
+
+        final StringBuilder sb = new StringBuilder(128)
+            .append(pipeline.root().getName())
+            .append('|').append(pipeline.terminatingOperation().type());
+
+        final int chunkSize = InListChunking.chunkSize(streamConfiguration);
+
+        for (final IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            sb.append('|').append(operation.type());
+
+            final Object[] arguments = operation.arguments();
+            if (arguments.length != 1) {
+                continue;
+            }
+
+            final Object argument = arguments[0];
+            if (operation.type() == IntermediateOperationType.MAP || operation.type() == IntermediateOperationType.MAP_TO) {
+                // The selection of the query depends on the mapped columns, see ColumnProjection
+                appendSelection(sb, argument);
+            } else if (argument instanceof FieldPredicate || argument instanceof CombinedPredicate) {
+                if (!appendPredicate(sb, argument, chunkSize)) {
+                    return Optional.empty();
+                }
+            } else if (argument instanceof FieldComparator || argument instanceof CombinedComparator) {
+                appendComparator(sb, (Comparator<?>) argument);
+            } else if (argument instanceof ChainedComparator) {
+                // Only the leading fields are part of the query, see PresortedOperation
+                appendComparator(sb.append("chained"), ((ChainedComparator<?>) argument).leadingComparator());
+            }
+        }
+
+        streamConfiguration.selections().ifPresent(projection -> {
+            sb.append("|select:").append(projection.entityClass().getName());
+            projection.fields().forEach(field -> sb.append(',').append(field.columnName()));
+        });
+
+        streamConfiguration.joins().forEach(joinConfiguration -> sb.append("|join:")
+            .append(joinConfiguration.field().columnName())
+            .append(':').append(joinConfiguration.joinType()));
+
+        final Map<String, Object> hints = streamConfiguration.hints();
+        if (!hints.isEmpty()) {
+            new TreeMap<>(hints).forEach((name, value) -> sb.append("|hint:").append(name).append('=').append(value));
+        }
+
+        return Optional.of(sb.toString());
+    }
+
+    private static boolean appendPredicate(final StringBuilder sb, final Object predicate, final int chunkSize) {
+        if (predicate instanceof FieldPredicate) {
+            final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) predicate;
+            final PredicateType predicateType = fieldPredicate.getPredicateType();
+
+            if (predicateType == PredicateType.IN || predicateType == PredicateType.NOT_IN) {
+                final Object values = fieldPredicate instanceof HasArg0 ? ((HasArg0<?>) fieldPredicate).get0() : null;
+                if (!(values instanceof Collection) || ((Collection<?>) values).size() > chunkSize) {
+                    // Large IN-lists may be split into several queries, see InListChunking
+                    return false;
+                }
+            }
+
+            sb.append('(').append(predicateType).append(':').append(fieldPredicate.getField().columnName());
+
+            if (fieldPredicate instanceof HasInclusion) {
+                sb.append(':').append(((HasInclusion) fieldPredicate).getInclusion());
+            }
+            if (fieldPredicate instanceof HasArg0) {
+                sb.append(':').append(parameterKind(((HasArg0<?>) fieldPredicate).get0()));
+            }
+            if (fieldPredicate instanceof HasArg1) {
+                sb.append(':').append(parameterKind(((HasArg1<?>) fieldPredicate).get1()));
+            }
+
+            sb.append(')');
+            return true;
+        }
+
+        final CombinedPredicate<?> combinedPredicate = (CombinedPredicate<?>) predicate;
+        sb.append(combinedPredicate.getType()).append('[');
+
+        final boolean cacheable = combinedPredicate.stream().allMatch(child -> {
+            sb.append(',');
+            if (child instanceof FieldPredicate || child instanceof CombinedPredicate) {
+                return appendPredicate(sb, child, chunkSize);
+            }
+            // Not supported by the predicate factory, the operation will not be merged
+            sb.append('?');
+            return true;
+        });
+
+        sb.append(']');
+        return cacheable;
+    }
+
+    private static void appendSelection(final StringBuilder sb, final Object mapper) {
+        if (mapper instanceof Projection) {
+            sb.append('(');
+            ((Projection<?>) mapper).fields().forEach(field -> sb.append(',').append(field.columnName()));
+            sb.append(')');
+            return;
+        }
+
+        final Field<?> field;
+        if (mapper instanceof Field) {
+            field = (Field<?>) mapper;
+        } else if (mapper instanceof GetReference) {
+            field = ((GetReference<?, ?>) mapper).getField();
+        } else if (mapper instanceof GetInt) {
+            field = ((GetInt<?>) mapper).getField();
+        } else if (mapper instanceof GetLong) {
+            field = ((GetLong<?>) mapper).getField();
+        } else if (mapper instanceof GetDouble) {
+            field = ((GetDouble<?>) mapper).getField();
+        } else {
+            // Not merged, the entities are selected
+            return;
+        }
+
+        sb.append('(').append(field.columnName()).append(')');
+    }
+
+    private static void appendComparator(final StringBuilder sb, final Comparator<?> comparator) {
+        if (comparator instanceof FieldComparator) {
+            final FieldComparator<?> fieldComparator = (FieldComparator<?>) comparator;
+            sb.append('(')
+                .append(fieldComparator.getField().columnName())
+                .append(':').append(fieldComparator.isReversed())
+                .append(':').append(fieldComparator.getNullOrder())
+                .append(')');
+            return;
+        }
+
+        sb.append('[');
+        ((CombinedComparator<?>) comparator).stream().forEach(child -> appendComparator(sb.append(','), child));
+        sb.append(']');
+    }
+
+    /**
+     * The type of the parameter expression that a value is bound to depends
+     * on the type of the value, hence the kind is part of the signature.
+     */
+    private static char parameterKind(final Object value) {
+        if (value instanceof Collection) {
+            // The values of an IN-list are bound as a single collection, see InListParameter
+            return ((Collection<?>) value).isEmpty() ? 'E' : 'L';
+        }
+        if (value instanceof Number || value instanceof Character) {
+            return 'N';
+        }
+        if (value instanceof String) {
+            return 'S';
+        }
+        if (value instanceof Comparable) {
+            return 'C';
+        }
+        return value == null ? '0' : 'O';
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of rendered queries keyed by
+ * {@link PipelineSignature}. A cache is shared by all renderers created with
+ * the same {@link StandardRendererCache}.
+ */
+final class PlanCache {
+
+    static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<String, Plan> plans;
+    private boolean closed;
+
+    PlanCache(final int capacity) {
+        this.plans = new LinkedHashMap<String, Plan>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Plan> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the plan cached for the provided signature, or {@code null} if no plan
+     * is cached or the cached plan was created by another {@link EntityManagerFactory}.
+     *
+     * @param signature of the pipeline
+     * @param entityManagerFactory that is to execute the plan
+     * @return the plan cached for the provided signature, or {@code null}
+     */
+    synchronized Plan get(final String signature, final EntityManagerFactory entityManagerFactory) {
+        final Plan plan = plans.get(signature);
+        return plan == null || plan.entityManagerFactory() != entityManagerFactory ? null : plan;
+    }
+
+    synchronized void put(final String signature, final Plan plan) {
+        requireNonNull(signature);
+        requireNonNull(plan);
+        if (!closed) {
+            plans.put(signature, plan);
+        }
+    }
+
+    synchronized void remove(final String signature) {
+        plans.remove(signature);
+    }
+
+    synchronized void clear() {
+        plans.clear();
+    }
+
+    /**
+     * Drops all plans and stops caching plans.
+     */
+    synchronized void close() {
+        closed = true;
+        plans.clear();
+    }
+
+    synchronized int size() {
+        return plans.size();
+    }
+
+    /**
+     * @return a snapshot of the cached plans, from the least to the most recently used
+     */
+    synchronized Map<String, Plan> plans() {
+        return new LinkedHashMap<>(plans);
+    }
+
+    /**
+     * A rendered query along with the information needed to reuse it for
+     * another pipeline with the same signature.
+     * <p>
+     * The query of a plan is shared by the renderers of all threads, each creating
+     * its own {@link jakarta.persistence.TypedQuery} from it by means of its own
+     * EntityManager. It is therefore complete when the plan is cached and must never be
+     * modified afterwards: the values of a pipeline are bound to the typed query, and
+     * skip and limit are applied to the typed query as well. As the plan is handed over
+     * by the synchronized cache, the threads see the query as it was when cached. A
+     * persistence provider is in turn expected to only read the criteria query when
+     * creating a typed query from it, as the typed query must not be affected by later
+     * modifications of the criteria query.
+     */
+    static final class Plan {
+
+        private final EntityManagerFactory entityManagerFactory;
+        private final CriteriaQuery<?> query;
+        private final List<ParameterExpression<?>> parameters;
+        private final List<Integer> mergedOperations;
+        private final boolean count;
+        private final boolean presorted;
+
+        Plan(
+            final EntityManagerFactory entityManagerFactory,
+            final CriteriaQuery<?> query,
+            final List<ParameterExpression<?>> parameters,
+            final List<Integer> mergedOperations,
+            final boolean count,
+            final boolean presorted
+        ) {
+            this.entityManagerFactory = requireNonNull(entityManagerFactory);
+            this.query = requireNonNull(query);
+            this.parameters = Collections.unmodifiableList(parameters);
+            this.mergedOperations = Collections.unmodifiableList(mergedOperations);
+            this.count = count;
+            this.presorted = presorted;
+        }
+
+        /**
+         * @return the factory of the entity managers the query was created for
+         */
+        EntityManagerFactory entityManagerFactory() {
+            return entityManagerFactory;
+        }
+
+        /**
+         * @return the query, which must only be read, see {@link Plan}
+         */
+        CriteriaQuery<?> query() {
+            return query;
+        }
+
+        /**
+         * @return the parameter expressions of the query in binding order
+         */
+        List<ParameterExpression<?>> parameters() {
+            return parameters;
+        }
+
+        /**
+         * @return the ascending indexes of the intermediate operations that were
+         *         merged into the query
+         */
+        List<Integer> mergedOperations() {
+            return mergedOperations;
+        }
+
+        /**
+         * @return whether the query is a count query
+         */
+        boolean count() {
+            return count;
+        }
+
+        /**
+         * @return whether the query is ordered by the leading fields of the first
+         *         operation that was not merged, see {@link PresortedOperation}
+         */
+        boolean presorted() {
+            return presorted;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.OrderFactory;
+import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.comparator.ChainedComparator;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+
+import jakarta.persistence.criteria.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@code sorted} operation using a {@link ChainedComparator} whose leading fields have
+ * been pushed into the ORDER BY of the query, as the comparator as a whole can not be
+ * expressed in the query.
+ * <p>
+ * As the rows arrive ordered by the leading fields, only the runs of rows that are equal
+ * according to the leading fields are sorted in memory using the tie breaker. This yields
+ * the same order as sorting all rows, but the Stream remains lazy, so a following
+ * {@code limit} or short-circuiting terminal operation stops reading rows after the run
+ * holding the last element consumed.
+ *
+ * @param <T> the type of the elements
+ */
+final class PresortedOperation<T> implements IntermediateOperation<Stream<T>, Stream<T>> {
+
+    private final ChainedComparator<T> comparator;
+
+    private PresortedOperation(final ChainedComparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Orders the provided (merged) criteria by the leading fields of the first remaining
+     * operation, if it is a {@code sorted} operation using a {@link ChainedComparator} and
+     * the criteria is not yet ordered, and replaces the operation with a
+     * {@code PresortedOperation}.
+     *
+     * @param criteria after the operations of the pipeline have been merged
+     * @param remaining the operations of the pipeline that were not merged
+     * @param orderFactory used to create the ORDER BY of the leading fields
+     * @param <E> the entity type
+     * @return whether the criteria was ordered by the leading fields
+     */
+    static <E> boolean pushDown(
+        final Criteria<E, ?> criteria,
+        final List<IntermediateOperation<?, ?>> remaining,
+        final OrderFactory orderFactory
+    ) {
+        requireNonNull(criteria);
+        requireNonNull(remaining);
+        requireNonNull(orderFactory);
+
+        if (!isApplicable(remaining) || !criteria.getQuery().getOrderList().isEmpty()) {
+            return false;
+        }
+
+        final List<Order> orders;
+        try {
+            orders = orderFactory.createOrder(criteria, PresortedOperation.<E>comparatorOf(remaining.get(0)).leadingComparator());
+        } catch (JPAStreamerException e) {
+            return false;
+        }
+
+        criteria.getQuery().orderBy(orders);
+        presort(remaining);
+        return true;
+    }
+
+    /**
+     * Replaces the first of the provided operations with a {@code PresortedOperation}, for
+     * a query that is already ordered by the leading fields of its comparator.
+     *
+     * @param remaining the operations of the pipeline that were not merged
+     * @throws IllegalStateException if the first operation does not sort using a
+     *                               {@link ChainedComparator}
+     */
+    static void presort(final List<IntermediateOperation<?, ?>> remaining) {
+        if (!isApplicable(remaining)) {
+            throw new IllegalStateException("Unable to presort " + remaining);
+        }
+        remaining.set(0, new PresortedOperation<>(comparatorOf(remaining.get(0))));
+    }
+
+    private static boolean isApplicable(final List<IntermediateOperation<?, ?>> remaining) {
+        if (remaining.isEmpty()) {
+            return false;
+        }
+
+        final IntermediateOperation<?, ?> operation = remaining.get(0);
+        return operation.type() == IntermediateOperationType.SORTED
+            && operation.streamType() == Stream.class
+            && operation.arguments().length == 1
+            && operation.arguments()[0] instanceof ChainedComparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ChainedComparator<T> comparatorOf(final IntermediateOperation<?, ?> operation) {
+        return (ChainedComparator<T>) operation.arguments()[0];
+    }
+
+    @Override
+    public IntermediateOperationType type() {
+        return IntermediateOperationType.SORTED;
+    }
+
+    @Override
+    public Class<? super Stream<T>> streamType() {
+        return Stream.class;
+    }
+
+    @Override
+    public Class<? super Stream<T>> returnType() {
+        return Stream.class;
+    }
+
+    @Override
+    public Object[] arguments() {
+        return new Object[] {comparator};
+    }
+
+    @Override
+    public Function<Stream<T>, Stream<T>> function() {
+        return stream -> StreamSupport.stream(new RunSpliterator<>(stream.spliterator(), comparator), stream.isParallel())
+            .onClose(stream::close);
+    }
+
+    @Override
+    public String toString() {
+        return "PresortedOperation{comparator=" + comparator + "}";
+    }
+
+    /**
+     * Sorts the runs of elements that are equal according to the leading comparator using
+     * the tie breaker.
+     */
+    private static final class RunSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Spliterator<T> elements;
+        private final Comparator<? super T> leadingComparator;
+        private final Comparator<? super T> tieBreaker;
+        private final List<T> run;
+        private int index;
+        private T next;
+        private boolean hasNext;
+
+        private RunSpliterator(final Spliterator<T> elements, final ChainedComparator<T> comparator) {
+            super(elements.estimateSize(), Spliterator.ORDERED);
+            this.elements = elements;
+            this.leadingComparator = comparator.leadingComparator();
+            this.tieBreaker = comparator.tieBreaker();
+            this.run = new ArrayList<>();
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (index == run.size() && !readRun()) {
+                return false;
+            }
+            action.accept(run.get(index++));
+            return true;
+        }
+
+        private boolean readRun() {
+            run.clear();
+            index = 0;
+
+            if (!hasNext && !elements.tryAdvance(this::setNext)) {
+                return false;
+            }
+
+            final T first = next;
+            run.add(first);
+            hasNext = false;
+
+            while (elements.tryAdvance(this::setNext)) {
+                if (leadingComparator.compare(first, next) != 0) {
+                    // The element starts the next run
+                    break;
+                }
+                run.add(next);
+                hasNext = false;
+            }
+
+            run.sort(tieBreaker);
+            return true;
+        }
+
+        private void setNext(final T element) {
+            next = element;
+            hasNext = true;
+        }
+    }
+}
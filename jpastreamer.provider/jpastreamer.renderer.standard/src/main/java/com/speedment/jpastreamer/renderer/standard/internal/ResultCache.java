@@ -0,0 +1,483 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A cache of query results keyed by the {@link PipelineSignature} of the query, the values
+ * bound to its parameters and its range of rows. One cache is held by each
+ * {@link StandardRendererCache} and shared by the renderers created with it.
+ * <p>
+ * Only rows of immutable values, see {@link #isValue(Object)}, are cached. Entities belong
+ * to the persistence context of the {@code EntityManager} that read them and would be
+ * flushed or lazily initialized through it, so they are never shared between Streams.
+ * Rows of several columns are copied when cached and when read.
+ * <p>
+ * The cache is bounded by the number of results and by the estimated number of bytes held
+ * by the results, and evicts results in the manner of W-TinyLFU: new results enter a small
+ * LRU window and, when leaving the window, are only admitted to the main region if they have
+ * been requested more frequently than the result that would be evicted in their favour. The
+ * frequencies are approximated by a count-min sketch that is halved periodically so that the
+ * cache adapts to changing workloads. The main region is a segmented LRU where results
+ * requested again are protected from eviction.
+ * <p>
+ * The default bounds of a cache are set by the system properties {@value #MAX_ENTRIES_PROPERTY}
+ * and {@value #MAX_BYTES_PROPERTY}.
+ */
+final class ResultCache {
+
+    static final String MAX_ENTRIES_PROPERTY = "jpastreamer.resultCache.maxEntries";
+    static final String MAX_BYTES_PROPERTY = "jpastreamer.resultCache.maxBytes";
+
+    static final int DEFAULT_MAX_ENTRIES = 1_000;
+    static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;
+
+    // Insertion ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<Key, Entry> window;
+    private final LinkedHashMap<Key, Entry> probation;
+    private final LinkedHashMap<Key, Entry> protectedRegion;
+    private long bytes;
+    private boolean closed;
+
+    ResultCache() {
+        this(Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES), Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+    }
+
+    ResultCache(final int maxEntries, final long maxBytes) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("The maximum number of entries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.windowCapacity = Math.max(1, maxEntries / 100);
+        this.protectedCapacity = (int) ((maxEntries - windowCapacity) * 0.8);
+        this.sketch = new FrequencySketch(maxEntries);
+        this.window = new LinkedHashMap<>();
+        this.probation = new LinkedHashMap<>();
+        this.protectedRegion = new LinkedHashMap<>();
+    }
+
+    /**
+     * Drops the results of the provided entity classes, or all results if no entity class
+     * is provided.
+     *
+     * @param entityClasses to drop the results of
+     */
+    synchronized void invalidate(final Class<?>... entityClasses) {
+        requireNonNull(entityClasses);
+        if (entityClasses.length == 0) {
+            clear();
+        } else {
+            Arrays.stream(entityClasses).forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Returns the rows cached for the provided key, or {@code null} if no rows are cached
+     * or the cached rows have expired.
+     *
+     * @param key of the query
+     * @return the rows cached for the provided key, or {@code null}
+     */
+    synchronized List<?> get(final Key key) {
+        sketch.increment(key);
+
+        Entry entry = window.remove(key);
+        if (entry != null) {
+            window.put(key, entry);
+        } else if ((entry = probation.remove(key)) != null) {
+            // Requested again, the entry is protected from eviction
+            protectedRegion.put(key, entry);
+            demoteProtected();
+        } else if ((entry = protectedRegion.remove(key)) != null) {
+            protectedRegion.put(key, entry);
+        } else {
+            return null;
+        }
+
+        if (entry.isExpired(System.nanoTime())) {
+            remove(key);
+            return null;
+        }
+        return entry.rows();
+    }
+
+    /**
+     * Caches the provided rows for the provided key, unless the rows alone exceed the
+     * maximum number of bytes of the cache or a row is not an immutable value.
+     *
+     * @param key of the query
+     * @param rows read by the query
+     * @param timeToLive of the cached rows
+     * @return whether the rows were cached
+     */
+    synchronized boolean put(final Key key, final List<?> rows, final Duration timeToLive) {
+        requireNonNull(key);
+        requireNonNull(rows);
+        requireNonNull(timeToLive);
+
+        remove(key);
+        if (closed || !rows.stream().allMatch(ResultCache::isValue)) {
+            return false;
+        }
+        final long size = estimateSize(rows);
+        if (size > maxBytes) {
+            return false;
+        }
+
+        final Entry entry = new Entry(copy(rows), size, System.nanoTime() + timeToLive.toNanos());
+        window.put(key, entry);
+        bytes += size;
+        evict();
+        return true;
+    }
+
+    private void invalidate(final Class<?> entityClass) {
+        requireNonNull(entityClass);
+        for (final Map<Key, Entry> region : regions()) {
+            final Iterator<Map.Entry<Key, Entry>> iterator = region.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Key, Entry> entry = iterator.next();
+                if (entry.getKey().entityClass.equals(entityClass)) {
+                    bytes -= entry.getValue().size;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    synchronized void clear() {
+        regions().forEach(Map::clear);
+        bytes = 0;
+    }
+
+    /**
+     * Drops all results and stops caching results.
+     */
+    synchronized void close() {
+        closed = true;
+        clear();
+    }
+
+    synchronized int size() {
+        return window.size() + probation.size() + protectedRegion.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized boolean contains(final Key key) {
+        return window.containsKey(key) || probation.containsKey(key) || protectedRegion.containsKey(key);
+    }
+
+    private void evict() {
+        // Entries leaving the window compete with the eldest entry of the main region
+        while (window.size() > windowCapacity) {
+            final Key candidate = eldest(window);
+            probation.put(candidate, window.remove(candidate));
+            if (size() > maxEntries) {
+                evictFromMain(candidate);
+            }
+        }
+
+        while (bytes > maxBytes || size() > maxEntries) {
+            final Map<Key, Entry> region = !probation.isEmpty()
+                ? probation
+                : !protectedRegion.isEmpty() ? protectedRegion : window;
+            remove(eldest(region));
+        }
+    }
+
+    private void evictFromMain(final Key candidate) {
+        Key victim = eldest(probation);
+        if (victim.equals(candidate)) {
+            if (protectedRegion.isEmpty()) {
+                remove(candidate);
+                return;
+            }
+            victim = eldest(protectedRegion);
+        }
+
+        final long now = System.nanoTime();
+        final Entry victimEntry = probation.containsKey(victim) ? probation.get(victim) : protectedRegion.get(victim);
+        if (victimEntry.isExpired(now)) {
+            remove(victim);
+        } else if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+            remove(victim);
+        } else {
+            remove(candidate);
+        }
+    }
+
+    private void demoteProtected() {
+        while (protectedRegion.size() > protectedCapacity) {
+            final Key eldest = eldest(protectedRegion);
+            probation.put(eldest, protectedRegion.remove(eldest));
+        }
+    }
+
+    private void remove(final Key key) {
+        for (final Map<Key, Entry> region : regions()) {
+            final Entry entry = region.remove(key);
+            if (entry != null) {
+                bytes -= entry.size;
+                return;
+            }
+        }
+    }
+
+    private List<Map<Key, Entry>> regions() {
+        return Arrays.asList(window, probation, protectedRegion);
+    }
+
+    private static Key eldest(final Map<Key, Entry> region) {
+        return region.keySet().iterator().next();
+    }
+
+    /**
+     * Returns whether the provided row is an immutable value that can be shared by Streams,
+     * or an array of such values.
+     *
+     * @param row to check
+     * @return whether the provided row can be cached
+     */
+    static boolean isValue(final Object row) {
+        if (row instanceof Object[]) {
+            return Arrays.stream((Object[]) row).allMatch(ResultCache::isScalar);
+        }
+        return isScalar(row);
+    }
+
+    private static boolean isScalar(final Object value) {
+        return value == null
+            || value instanceof String
+            || value instanceof Integer
+            || value instanceof Long
+            || value instanceof Double
+            || value instanceof Float
+            || value instanceof Short
+            || value instanceof Byte
+            || value instanceof Boolean
+            || value instanceof Character
+            || value instanceof Enum
+            || value instanceof UUID
+            || value.getClass() == BigDecimal.class
+            || value.getClass() == BigInteger.class
+            // The types of java.time are immutable value-based classes
+            || value.getClass().getName().startsWith("java.time.");
+    }
+
+    /**
+     * Returns an unmodifiable copy of the provided rows where rows of several columns are
+     * copied as well, so that a caller modifying its rows does not affect other callers.
+     */
+    private static List<?> copy(final List<?> rows) {
+        final List<Object> copy = new ArrayList<>(rows.size());
+        for (final Object row : rows) {
+            copy.add(row instanceof Object[] ? ((Object[]) row).clone() : row);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Returns an estimate of the number of bytes held by the provided rows of values.
+     */
+    static long estimateSize(final List<?> rows) {
+        long size = 16 + 8L * rows.size();
+        for (final Object row : rows) {
+            size += estimateSize(row);
+        }
+        return size;
+    }
+
+    private static long estimateSize(final Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + ((String) value).length();
+        }
+        if (value instanceof Object[]) {
+            long size = 16;
+            for (final Object element : (Object[]) value) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 48;
+        }
+        if (value.getClass().getName().startsWith("java.time.")) {
+            return 32;
+        }
+        return 16;
+    }
+
+    /**
+     * The key of a cached result.
+     */
+    static final class Key {
+
+        private final Class<?> entityClass;
+        private final String signature;
+        private final List<?> values;
+        private final int firstResult;
+        private final int maxResults;
+
+        Key(final Class<?> entityClass, final String signature, final List<?> values, final int firstResult, final int maxResults) {
+            this.entityClass = requireNonNull(entityClass);
+            this.signature = requireNonNull(signature);
+            this.values = Collections.unmodifiableList(new ArrayList<>(values));
+            this.firstResult = firstResult;
+            this.maxResults = maxResults;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key that = (Key) o;
+            return firstResult == that.firstResult
+                && maxResults == that.maxResults
+                && entityClass.equals(that.entityClass)
+                && signature.equals(that.signature)
+                && values.equals(that.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, signature, values, firstResult, maxResults);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                "signature=" + signature +
+                ", values=" + values +
+                ", firstResult=" + firstResult +
+                ", maxResults=" + maxResults +
+                '}';
+        }
+    }
+
+    private static final class Entry {
+
+        private final List<?> rows;
+        private final boolean arrays;
+        private final long size;
+        private final long expiresAt;
+
+        private Entry(final List<?> rows, final long size, final long expiresAt) {
+            this.rows = rows;
+            this.arrays = rows.stream().anyMatch(Object[].class::isInstance);
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+
+        private List<?> rows() {
+            return arrays ? copy(rows) : rows;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * A count-min sketch of counters saturating at 15 estimating how often keys have been
+     * requested. All counters are halved once the number of increments reaches ten times
+     * the maximum number of entries of the cache, so that the sketch ages with the workload.
+     */
+    static final class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0x5bd1e995, 0xc2b2ae35, 0x27d4eb2f};
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int increments;
+
+        FrequencySketch(final int maxEntries) {
+            // Four counters per entry and row keep the error caused by collisions low
+            final int width = Integer.highestOneBit(Math.max(16, Math.min(maxEntries, 1 << 22)) * 8 - 1);
+            this.counters = new byte[DEPTH * width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(16, maxEntries);
+        }
+
+        void increment(final Object key) {
+            final int hash = spread(key.hashCode());
+            boolean incremented = false;
+            for (int i = 0; i < DEPTH; i++) {
+                final int index = indexOf(hash, i);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                    incremented = true;
+                }
+            }
+            if (incremented && ++increments >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(final Object key) {
+            final int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[indexOf(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>>= 1;
+            }
+            increments /= 2;
+        }
+
+        private int indexOf(final int hash, final int row) {
+            int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+            h ^= h >>> 16;
+            return row * (mask + 1) + (h & mask);
+        }
+
+        private static int spread(final int hash) {
+            final int h = hash * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
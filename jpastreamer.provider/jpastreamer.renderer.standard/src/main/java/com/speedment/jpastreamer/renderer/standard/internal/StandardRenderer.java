@@ -17,33 +17,52 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.OrderFactory;
 import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.collector.FieldCollector;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizerFactory;
 import com.speedment.jpastreamer.merger.CriteriaMerger;
 import com.speedment.jpastreamer.merger.MergerFactory;
 import com.speedment.jpastreamer.merger.QueryMerger;
+import com.speedment.jpastreamer.metrics.MetricsListener;
 import com.speedment.jpastreamer.pipeline.Pipeline;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
 import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.renderer.RenderResult;
 import com.speedment.jpastreamer.renderer.Renderer;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.Explanation.Phase;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
 import com.speedment.jpastreamer.termopmodifier.TerminalOperationModifierFactory;
 import com.speedment.jpastreamer.termopoptimizer.TerminalOperationOptimizerFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.BaseStream;
 import java.util.stream.Collectors;
@@ -51,9 +70,42 @@ import java.util.stream.Stream;
 
 final class StandardRenderer implements Renderer {
 
+    private static final Set<TerminalOperationType> AGGREGATE_OPERATIONS = EnumSet.of(
+        TerminalOperationType.SUM_INT,
+        TerminalOperationType.SUM_LONG,
+        TerminalOperationType.SUM_DOUBLE,
+        TerminalOperationType.AVERAGE,
+        TerminalOperationType.MIN,
+        TerminalOperationType.MAX,
+        TerminalOperationType.SUMMARY_STATISTICS
+    );
+
+    /**
+     * Operations that yield no elements if preceded by no elements, and have no side effects.
+     */
+    private static final Set<IntermediateOperationType> ELEMENT_PRESERVING_OPERATIONS = EnumSet.of(
+        IntermediateOperationType.FILTER,
+        IntermediateOperationType.SORTED,
+        IntermediateOperationType.DISTINCT,
+        IntermediateOperationType.SKIP,
+        IntermediateOperationType.LIMIT
+    );
+
+    private static final Set<TerminalOperationType> MATCH_OPERATIONS = EnumSet.of(
+        TerminalOperationType.ANY_MATCH,
+        TerminalOperationType.NONE_MATCH,
+        TerminalOperationType.ALL_MATCH
+    );
+
     private final EntityManager entityManager;
+    // Obtain and release the EntityManagers of the concurrent queries of a parallel
+    // stream, or null if parallel streams are read using a single query
+    private final Supplier<EntityManager> partitionEntityManagerSupplier;
+    private final Consumer<EntityManager> partitionEntityManagerRelease;
     private final CriteriaFactory criteriaFactory;
     private final PredicateFactory predicateFactory;
+    private final OrderFactory orderFactory;
+    private final IntermediateOperationFactory intermediateOperationFactory;
 
     private final IntermediateOperationOptimizerFactory intermediateOperationOptimizerFactory;
     private final TerminalOperationModifierFactory terminalOperationModifierFactory;
@@ -61,54 +113,158 @@ final class StandardRenderer implements Renderer {
 
     private final MergerFactory mergerFactory;
 
+    private final PlanCache planCache;
+    private final ResultCache resultCache;
+    private final MetricsListener metricsListener;
+    private final Diagnostics diagnostics;
+
     StandardRenderer(final EntityManagerFactory entityManagerFactory) {
-        this(entityManagerFactory::createEntityManager); 
+        this(entityManagerFactory.createEntityManager(), new StandardRendererCache(), entityManagerFactory::createEntityManager, EntityManager::close);
     }
 
-    StandardRenderer(final Supplier<EntityManager> entityManagerSupplier) {
-        this.entityManager = requireNonNull(entityManagerSupplier).get();
-        this.criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
-        this.predicateFactory = RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load); 
-        this.intermediateOperationOptimizerFactory = RootFactory.getOrThrow(IntermediateOperationOptimizerFactory.class, ServiceLoader::load);
-        this.terminalOperationModifierFactory = RootFactory.getOrThrow(TerminalOperationModifierFactory.class, ServiceLoader::load);
-        this.terminalOperationOptimizerFactory = RootFactory.getOrThrow(TerminalOperationOptimizerFactory.class, ServiceLoader::load);
-        this.mergerFactory = RootFactory.getOrThrow(MergerFactory.class, ServiceLoader::load);
+    StandardRenderer(final Supplier<EntityManager> entityManagerSupplier, final StandardRendererCache cache) {
+        this(requireNonNull(entityManagerSupplier).get(), cache);
     }
     
-    StandardRenderer(final EntityManager entityManager) {
-        this.entityManager = entityManager; 
+    StandardRenderer(final EntityManager entityManager, final StandardRendererCache cache) {
+        this(entityManager, cache, null, null, Diagnostics.get());
+    }
+
+    StandardRenderer(
+        final EntityManager entityManager,
+        final StandardRendererCache cache,
+        final Supplier<EntityManager> partitionEntityManagerSupplier,
+        final Consumer<EntityManager> partitionEntityManagerRelease
+    ) {
+        this(entityManager, cache, requireNonNull(partitionEntityManagerSupplier), requireNonNull(partitionEntityManagerRelease), Diagnostics.get());
+    }
+
+    StandardRenderer(final EntityManager entityManager, final StandardRendererCache cache, final Diagnostics diagnostics) {
+        this(entityManager, cache, null, null, diagnostics);
+    }
+
+    private StandardRenderer(
+        final EntityManager entityManager,
+        final StandardRendererCache cache,
+        final Supplier<EntityManager> partitionEntityManagerSupplier,
+        final Consumer<EntityManager> partitionEntityManagerRelease,
+        final Diagnostics diagnostics
+    ) {
+        this.entityManager = requireNonNull(entityManager);
+        this.partitionEntityManagerSupplier = partitionEntityManagerSupplier;
+        this.partitionEntityManagerRelease = partitionEntityManagerRelease;
         this.criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
-        this.predicateFactory = RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load);
+        this.predicateFactory = RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load); 
+        this.orderFactory = RootFactory.getOrThrow(OrderFactory.class, ServiceLoader::load);
+        this.intermediateOperationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
         this.intermediateOperationOptimizerFactory = RootFactory.getOrThrow(IntermediateOperationOptimizerFactory.class, ServiceLoader::load);
         this.terminalOperationModifierFactory = RootFactory.getOrThrow(TerminalOperationModifierFactory.class, ServiceLoader::load);
         this.terminalOperationOptimizerFactory = RootFactory.getOrThrow(TerminalOperationOptimizerFactory.class, ServiceLoader::load);
         this.mergerFactory = RootFactory.getOrThrow(MergerFactory.class, ServiceLoader::load);
+        this.planCache = cache.planCache();
+        this.resultCache = cache.resultCache();
+        this.metricsListener = RootFactory.getOrThrow(MetricsListener.class, ServiceLoader::load);
+        this.diagnostics = requireNonNull(diagnostics);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        final Instrumentation instrumentation = Instrumentation.open(pipeline, streamConfiguration, metricsListener, diagnostics);
+
+        final RenderResult<E, T, S> renderResult;
+        try {
+            renderResult = render(pipeline, streamConfiguration, instrumentation);
+        } catch (RuntimeException e) {
+            instrumentation.fail(e);
+            throw e;
+        }
+
+        // The operations remaining in the pipeline are the ones replayed by the stream
+        final S instrumented = instrumentation.close(renderResult.stream(), pipeline);
+        return new StandardRenderResult<>(renderResult.root(), instrumented, renderResult.terminalOperation());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Instrumentation instrumentation
+    ) {
+        final Optional<StreamConfiguration.KeysetConfiguration> keysetConfiguration = streamConfiguration.keyset();
+
+        final boolean satisfiable = normalizeFilters(pipeline);
+        instrumentation.lap(Phase.OPTIMIZE);
+        if (!satisfiable) {
+            // A filter can never be satisfied, so the query would not return any entity
+            final S replayed = replay(Stream.empty(), pipeline);
+            return new StandardRenderResult<>(pipeline.root(), replayed, pipeline.terminatingOperation());
+        }
+
+        if (!keysetConfiguration.isPresent() && isExistence(pipeline, streamConfiguration)) {
+            instrumentation.pipeline(pipeline);
+            return renderExistence(pipeline, streamConfiguration, instrumentation);
+        }
+
         modifyPipeline(pipeline);
+        instrumentation.lap(Phase.MODIFY);
         optimizePipeline(pipeline);
+        instrumentation.lap(Phase.OPTIMIZE);
+        instrumentation.pipeline(pipeline);
 
         final Class<E> entityClass = pipeline.root();
 
+        if (!keysetConfiguration.isPresent() && isAggregate(pipeline)) {
+            return renderAggregate(pipeline, streamConfiguration, instrumentation);
+        }
+
+        if (!keysetConfiguration.isPresent()) {
+            final Optional<List<Field<?>>> distinctFields = distinctCountFields(pipeline);
+            if (distinctFields.isPresent()) {
+                final Optional<RenderResult<E, T, S>> distinctCount = renderDistinctCount(pipeline, streamConfiguration, distinctFields.get(), instrumentation);
+                if (distinctCount.isPresent()) {
+                    return distinctCount.get();
+                }
+            }
+        }
+
+        final Optional<FieldCollector<?, ?, ?>> groupingCollector = keysetConfiguration.isPresent()
+            ? Optional.empty()
+            : groupingCollector(pipeline, streamConfiguration);
+        if (groupingCollector.isPresent()) {
+            return renderGrouping(pipeline, streamConfiguration, groupingCollector.get(), instrumentation);
+        }
+
+        final Optional<String> signature = PipelineSignature.of(pipeline, streamConfiguration);
+        if (signature.isPresent()) {
+            final PlanCache.Plan plan = planCache.get(signature.get(), entityManager.getEntityManagerFactory());
+            if (plan != null) {
+                final Optional<RenderResult<E, T, S>> cached = renderPlan(plan, signature.get(), pipeline, streamConfiguration, instrumentation);
+                if (cached.isPresent()) {
+                    return cached.get();
+                }
+                planCache.remove(signature.get());
+            }
+        }
+
         final CriteriaMerger criteriaMerger = mergerFactory.createCriteriaMerger();
         final QueryMerger queryMerger = mergerFactory.createQueryMerger();
 
-        final Criteria<E, E> criteria = criteriaFactory.createCriteria(entityManager, entityClass);
+        final boolean projectable = ColumnProjection.isApplicable(pipeline, streamConfiguration);
+        final Criteria<E, E> criteria = createCriteria(entityClass, projectable);
         criteria.getRoot().alias(pipeline.root().getSimpleName());
 
         // Makes SonarType happy:
         final Optional<Projection<E>> oSelections = streamConfiguration.selections();
+        final Selection<E> entitySelection;
         if (oSelections.isPresent()) {
             final Projection<E> projection = oSelections.get();
             final Path<?>[] columns = projection.fields().stream().map(field -> criteria.getRoot().get(field.columnName())).toArray(Path[]::new);
-            final CompoundSelection<E> selection = criteria.getBuilder().construct(projection.entityClass(), columns);
-
-            criteria.getQuery().select(selection);
+            entitySelection = criteria.getBuilder().construct(projection.entityClass(), columns);
         } else {
-            criteria.getQuery().select(criteria.getRoot());
+            entitySelection = criteria.getRoot();
+        }
+        if (!projectable) {
+            criteria.getQuery().select(entitySelection);
         }
 
         streamConfiguration.joins()
@@ -117,44 +273,657 @@ final class StandardRenderer implements Renderer {
         List<IntermediateOperation<?, ?>> filters = pipeline.intermediateOperations()
                 .stream().filter(io -> io.type() == IntermediateOperationType.FILTER)
                 .collect(Collectors.toList()); 
+        final List<IntermediateOperation<?, ?>> unmerged = new ArrayList<>(pipeline.intermediateOperations());
         criteriaMerger.merge(pipeline, criteria);
+        final List<Integer> mergedOperations = mergedOperations(unmerged, pipeline.intermediateOperations());
+        final Optional<IntermediateOperation<?, ?>> projection = ColumnProjection.mergedMap(unmerged, mergedOperations);
+        if (projectable && !projection.isPresent()) {
+            // None of the operations selected the columns
+            criteria.getQuery().select(entitySelection);
+        }
+
+        // A sort that can only partly be expressed in the query is completed in memory
+        final boolean presorted = !keysetConfiguration.isPresent()
+            && !projection.isPresent()
+            && PresortedOperation.pushDown(criteria, pipeline.intermediateOperations(), orderFactory);
+
+        final Optional<Keyset<E>> keyset = keysetConfiguration
+            .map(configuration -> Keyset.seek(criteria, unmerged, mergedOperations, configuration));
 
-        if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT && pipeline.intermediateOperations().isEmpty()) {
+        if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT && pipeline.intermediateOperations().isEmpty() && !keyset.isPresent()) {
             final Criteria<E, Long> countCriteria = createCountCriteria(criteria, filters);
+            instrumentation.lap(Phase.MERGE);
 
             final TypedQuery<Long> typedQuery = entityManager.createQuery(countCriteria.getQuery());
 
             countCriteria.getQueryParameters().forEach(
                 queryParameter -> typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue())
             );
+            configure(typedQuery, streamConfiguration);
+
+            signature.ifPresent(s -> planCache.put(s, createPlan(countCriteria, mergedOperations, true, false)));
+
+            // The counts of the chunks of a large IN-list are summed by the terminal operation
+            final Stream<Long> counts = InListChunking.of(countCriteria, unmerged, mergedOperations, streamConfiguration)
+                .map(chunking -> chunking.unordered().stream(typedQuery))
+                .orElseGet(typedQuery::getResultStream);
+            instrumentation.query(countCriteria.getQuery(), queryParameters(countCriteria));
+            instrumentation.lap(Phase.CREATE_QUERY);
 
             return (RenderResult<E, T, S>) new StandardRenderResult<>(
                     entityClass,
-                    typedQuery.getResultStream(),
+                    instrumentation.rows(counts),
                     pipeline.terminatingOperation()
             );
         }
 
+        if (partitionEntityManagerSupplier != null && Partitioning.isApplicable(pipeline, streamConfiguration)) {
+            final Optional<Partitioning> partitioning = Partitioning.of(pipeline, criteria);
+            if (partitioning.isPresent()) {
+                final List<IntermediateOperation<?, ?>> mergedFilters = mergedOperations.stream()
+                    .<IntermediateOperation<?, ?>>map(unmerged::get)
+                    .filter(operation -> operation.type() == IntermediateOperationType.FILTER)
+                    .collect(Collectors.toList());
+                return renderPartitioned(partitioning.get(), criteria, mergedFilters, pipeline, streamConfiguration, projection, instrumentation);
+            }
+        }
+
+        instrumentation.lap(Phase.MERGE);
+        instrumentation.query(criteria.getQuery(), queryParameters(criteria));
+
         final TypedQuery<E> typedQuery = entityManager.createQuery(criteria.getQuery());
 
         criteria.getQueryParameters().forEach(
             queryParameter -> typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue())
         );
 
-        streamConfiguration.hints().forEach((hintName, value) -> typedQuery.setHint(hintName, value));
+        signature.ifPresent(s -> planCache.put(s, createPlan(criteria, mergedOperations, false, presorted)));
+
+        final Optional<InListChunking> chunking = keyset.isPresent()
+            ? Optional.empty()
+            : InListChunking.of(criteria, unmerged, mergedOperations, streamConfiguration);
+
+        final List<Object> values = criteria.getQueryParameters().stream()
+            .map(QueryParameter<?>::getValue)
+            .collect(Collectors.toList());
 
-        queryMerger.merge(pipeline, typedQuery);
+        return renderQuery(typedQuery, pipeline, streamConfiguration, queryMerger, projection, keyset, chunking, signature, values, instrumentation);
+    }
 
-        final Stream<E> baseStream = typedQuery.getResultStream();
-        final S replayed = replay(baseStream, pipeline);
+    /**
+     * Creates a criteria for the provided entity class. If {@code projectable}, the criteria
+     * is typed as {@code Object} and selects nothing, so that a {@code map} operation can
+     * select the columns instead of the entities, in which case the rows of the query are
+     * converted by {@link ColumnProjection}.
+     */
+    @SuppressWarnings("unchecked")
+    private <E> Criteria<E, E> createCriteria(final Class<E> entityClass, final boolean projectable) {
+        if (projectable) {
+            return (Criteria<E, E>) (Criteria<E, ?>) criteriaFactory.createCriteria(entityManager, entityClass, Object.class);
+        }
+        return criteriaFactory.createCriteria(entityManager, entityClass);
+    }
+
+    /**
+     * Renders a pipeline that reduces a field of the entities into a single aggregate query,
+     * see {@link #isAggregate(Pipeline)}. The terminal operation of the result returns the
+     * value computed by the database.
+     */
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderAggregate(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Instrumentation instrumentation
+    ) {
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        final Class<?> streamType = intermediateOperations.get(intermediateOperations.size() - 1).returnType();
+
+        final Criteria<E, Tuple> criteria = criteriaFactory.createCriteria(entityManager, pipeline.root(), Tuple.class);
+        criteria.getRoot().alias(pipeline.root().getSimpleName());
+
+        mergerFactory.createCriteriaMerger().merge(pipeline, criteria);
+
+        if (!intermediateOperations.isEmpty()) {
+            throw new IllegalStateException("Unable to merge the aggregate operation of " + pipeline);
+        }
+        instrumentation.lap(Phase.MERGE);
+        instrumentation.query(criteria.getQuery(), queryParameters(criteria));
+
+        final TypedQuery<Tuple> typedQuery = entityManager.createQuery(criteria.getQuery());
+
+        criteria.getQueryParameters().forEach(
+            queryParameter -> typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue())
+        );
+
+        configure(typedQuery, streamConfiguration);
+
+        final Tuple tuple = typedQuery.getSingleResult();
+        instrumentation.lap(Phase.CREATE_QUERY);
+
+        return new StandardRenderResult<>(
+            pipeline.root(),
+            (S) AggregateTerminalOperation.emptyStream(streamType),
+            AggregateTerminalOperation.of((TerminalOperation<S, ?>) pipeline.terminatingOperation(), streamType, tuple)
+        );
+    }
+
+    /**
+     * Returns whether the pipeline maps the entities to a primitive stream by means of a
+     * {@link Field} and then reduces it using a numeric reduction that can be computed by the
+     * database. Only pipelines where all preceding operations are guaranteed to be merged
+     * into the criteria qualify, as the mapped values are never materialized.
+     */
+    private static boolean isAggregate(final Pipeline<?> pipeline) {
+        if (!AGGREGATE_OPERATIONS.contains(pipeline.terminatingOperation().type())) {
+            return false;
+        }
+
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        if (intermediateOperations.isEmpty()) {
+            return false;
+        }
+
+        final IntermediateOperation<?, ?> mapTo = intermediateOperations.get(intermediateOperations.size() - 1);
+        if (mapTo.type() != IntermediateOperationType.MAP_TO
+            || mapTo.streamType() != Stream.class
+            || mapTo.arguments().length != 1
+            || !(mapTo.arguments()[0] instanceof Field)) {
+            return false;
+        }
+
+        return isMergeable(intermediateOperations.subList(0, intermediateOperations.size() - 1));
+    }
+
+    /**
+     * Renders a pipeline that tests whether any, no or all entities match a
+     * {@link SpeedmentPredicate} into a query selecting the constant {@code 1} of at most
+     * one matching row, so that no entity is read, see {@link #isExistence(Pipeline, StreamConfiguration)}.
+     * {@code allMatch(p)} is rendered as the absence of a row for which {@code p} is not
+     * true, i.e. {@code NOT EXISTS (... WHERE NOT p)} where a {@code NULL} outcome of
+     * {@code p} counts as not matching, as it does in Java.
+     */
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderExistence(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Instrumentation instrumentation
+    ) {
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+        final SpeedmentPredicate<E> speedmentPredicate = (SpeedmentPredicate<E>) terminalOperation.arguments()[0];
+
+        final Criteria<E, Integer> criteria = criteriaFactory.createCriteria(entityManager, pipeline.root(), Integer.class);
+        criteria.getRoot().alias(pipeline.root().getSimpleName());
+
+        mergerFactory.createCriteriaMerger().merge(pipeline, criteria);
+
+        if (!pipeline.intermediateOperations().isEmpty()) {
+            throw new IllegalStateException("Unable to merge the operations preceding the match of " + pipeline);
+        }
+
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final CriteriaQuery<Integer> query = criteria.getQuery();
+        final Predicate matching = predicateFactory.createPredicate(criteria, speedmentPredicate);
+        final Predicate test = terminalOperation.type() == TerminalOperationType.ALL_MATCH
+            ? builder.equal(builder.selectCase().when(matching, 1).otherwise(0), 0)
+            : matching;
+        final Predicate restriction = query.getRestriction();
+        query.select(builder.literal(1)).where(restriction == null ? test : builder.and(restriction, test));
+        instrumentation.lap(Phase.MERGE);
+        instrumentation.query(query, queryParameters(criteria));
+
+        final TypedQuery<Integer> typedQuery = entityManager.createQuery(query);
+        criteria.getQueryParameters().forEach(queryParameter -> setParameter(typedQuery, queryParameter));
+        configure(typedQuery, streamConfiguration);
+
+        final boolean exists = !typedQuery.setMaxResults(1).getResultList().isEmpty();
+        instrumentation.lap(Phase.CREATE_QUERY);
 
         return new StandardRenderResult<>(
-                entityClass,
+            pipeline.root(),
+            (S) Stream.empty(),
+            AggregateTerminalOperation.of((TerminalOperation<S, Boolean>) terminalOperation, terminalOperation.type() == TerminalOperationType.ANY_MATCH ? exists : !exists)
+        );
+    }
+
+    /**
+     * Returns whether the pipeline ends with {@code anyMatch}, {@code noneMatch} or
+     * {@code allMatch} of a {@link SpeedmentPredicate} and all preceding operations are
+     * guaranteed to be merged into the criteria, so that the outcome can be computed by an
+     * existence query, see {@link #renderExistence(Pipeline, StreamConfiguration)}.
+     * Fetch joins may restrict the entities, so pipelines with joins do not qualify.
+     */
+    private static boolean isExistence(final Pipeline<?> pipeline, final StreamConfiguration<?> streamConfiguration) {
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+
+        return MATCH_OPERATIONS.contains(terminalOperation.type())
+            && terminalOperation.arguments().length == 1
+            && terminalOperation.arguments()[0] instanceof SpeedmentPredicate
+            && streamConfiguration.joins().isEmpty()
+            && isMergeable(pipeline.intermediateOperations());
+    }
+
+    /**
+     * Renders a pipeline counting the distinct values of a field or projection into a query
+     * counting them in the database, see {@link DistinctCount}, or returns an empty Optional
+     * if the entity lacks the single id needed to count several columns.
+     */
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> Optional<RenderResult<E, T, S>> renderDistinctCount(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final List<Field<?>> fields,
+        final Instrumentation instrumentation
+    ) {
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        final Optional<SpeedmentPredicate<E>> filter = intermediateOperations.size() > 2
+            ? getPredicate(intermediateOperations.get(0))
+            : Optional.empty();
+
+        final Criteria<E, Tuple> criteria = criteriaFactory.createCriteria(entityManager, pipeline.root(), Tuple.class);
+        criteria.getRoot().alias(pipeline.root().getSimpleName());
+
+        if (!DistinctCount.isSupported(fields, criteria.getRoot())) {
+            return Optional.empty();
+        }
+
+        filter.ifPresent(speedmentPredicate -> criteria.getQuery().where(predicateFactory.createPredicate(criteria, speedmentPredicate)));
+
+        final List<QueryParameter<?>> subqueryParameters = new ArrayList<>();
+        DistinctCount.select(criteria, fields, subRoot -> filter.map(speedmentPredicate -> {
+            final Criteria<E, Tuple> subqueryCriteria = criteriaFactory.createCriteria(criteria.getBuilder(), criteria.getQuery(), subRoot);
+            final Predicate predicate = predicateFactory.createPredicate(subqueryCriteria, speedmentPredicate);
+            subqueryParameters.addAll(queryParameters(subqueryCriteria));
+            return predicate;
+        }));
+        instrumentation.lap(Phase.MERGE);
+        instrumentation.query(criteria.getQuery(), concat(queryParameters(criteria), subqueryParameters));
+
+        final TypedQuery<Tuple> typedQuery = entityManager.createQuery(criteria.getQuery());
+        criteria.getQueryParameters().forEach(queryParameter -> setParameter(typedQuery, queryParameter));
+        subqueryParameters.forEach(queryParameter -> setParameter(typedQuery, queryParameter));
+        configure(typedQuery, streamConfiguration);
+
+        final long count = DistinctCount.count(typedQuery.getSingleResult(), fields);
+        instrumentation.lap(Phase.CREATE_QUERY);
+
+        return Optional.of(new StandardRenderResult<>(
+            pipeline.root(),
+            (S) Stream.empty(),
+            AggregateTerminalOperation.of((TerminalOperation<S, Long>) pipeline.terminatingOperation(), count)
+        ));
+    }
+
+    /**
+     * Returns the fields of a pipeline counting the distinct values of a field or projection,
+     * see {@link DistinctCount#fields(Pipeline)}, provided that the operations preceding the
+     * {@code map} are guaranteed to be merged into the criteria.
+     */
+    private static Optional<List<Field<?>>> distinctCountFields(final Pipeline<?> pipeline) {
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        return DistinctCount.fields(pipeline)
+            .filter(fields -> isMergeable(intermediateOperations.subList(0, intermediateOperations.size() - 2)));
+    }
+
+    /**
+     * Renders a pipeline that groups the entities using a {@link FieldCollector} into a
+     * query computing the groups, see {@link GroupingAggregates}. The terminal operation of
+     * the result returns the {@code Map} built from the rows of the query.
+     */
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderGrouping(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final FieldCollector<?, ?, ?> collector,
+        final Instrumentation instrumentation
+    ) {
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        final Optional<SpeedmentPredicate<E>> filter = intermediateOperations.isEmpty()
+            ? Optional.empty()
+            : getPredicate(intermediateOperations.get(0));
+
+        final Object result;
+        if (GroupingAggregates.selectsEntities(collector)) {
+            final Criteria<E, E> criteria = criteriaFactory.createCriteria(entityManager, pipeline.root());
+            criteria.getRoot().alias(pipeline.root().getSimpleName());
+            criteria.getQuery().select(criteria.getRoot());
+
+            streamConfiguration.joins()
+                .forEach(joinConfiguration -> criteria.getRoot().fetch(joinConfiguration.field().columnName(), joinConfiguration.joinType()));
+
+            mergeGrouping(pipeline, criteria);
+
+            final List<QueryParameter<?>> subqueryParameters = new ArrayList<>();
+            GroupingAggregates.selectExtremes(criteria, subRoot -> filter.map(speedmentPredicate -> {
+                final Criteria<E, E> subqueryCriteria = criteriaFactory.createCriteria(criteria.getBuilder(), criteria.getQuery(), subRoot);
+                final Predicate predicate = predicateFactory.createPredicate(subqueryCriteria, speedmentPredicate);
+                subqueryParameters.addAll(queryParameters(subqueryCriteria));
+                return predicate;
+            }), collector);
+            instrumentation.lap(Phase.MERGE);
+            instrumentation.query(criteria.getQuery(), concat(queryParameters(criteria), subqueryParameters));
+
+            final TypedQuery<E> typedQuery = entityManager.createQuery(criteria.getQuery());
+            criteria.getQueryParameters().forEach(queryParameter -> setParameter(typedQuery, queryParameter));
+            subqueryParameters.forEach(queryParameter -> setParameter(typedQuery, queryParameter));
+            configure(typedQuery, streamConfiguration);
+
+            result = GroupingAggregates.collectExtremes(typedQuery.getResultList(), collector);
+            instrumentation.lap(Phase.CREATE_QUERY);
+        } else {
+            final Criteria<E, Tuple> criteria = criteriaFactory.createCriteria(entityManager, pipeline.root(), Tuple.class);
+            criteria.getRoot().alias(pipeline.root().getSimpleName());
+
+            mergeGrouping(pipeline, criteria);
+
+            GroupingAggregates.selectGroups(criteria, collector);
+            instrumentation.lap(Phase.MERGE);
+            instrumentation.query(criteria.getQuery(), queryParameters(criteria));
+
+            final TypedQuery<Tuple> typedQuery = entityManager.createQuery(criteria.getQuery());
+            criteria.getQueryParameters().forEach(queryParameter -> setParameter(typedQuery, queryParameter));
+            configure(typedQuery, streamConfiguration);
+
+            result = GroupingAggregates.collectGroups(typedQuery.getResultList(), collector);
+            instrumentation.lap(Phase.CREATE_QUERY);
+        }
+
+        return new StandardRenderResult<>(
+            pipeline.root(),
+            (S) Stream.empty(),
+            AggregateTerminalOperation.of((TerminalOperation<S, Object>) pipeline.terminatingOperation(), result)
+        );
+    }
+
+    private <E> void mergeGrouping(final Pipeline<E> pipeline, final Criteria<E, ?> criteria) {
+        mergerFactory.createCriteriaMerger().merge(pipeline, criteria);
+
+        if (!pipeline.intermediateOperations().isEmpty()) {
+            throw new IllegalStateException("Unable to merge the operations preceding the grouping of " + pipeline);
+        }
+    }
+
+    /**
+     * Returns the {@link FieldCollector} of a pipeline that collects the entities into groups
+     * that can be computed by the database, see {@link GroupingAggregates#isSupported(FieldCollector)}.
+     */
+    private static Optional<FieldCollector<?, ?, ?>> groupingCollector(final Pipeline<?> pipeline, final StreamConfiguration<?> streamConfiguration) {
+        if (pipeline.terminatingOperation().type() != TerminalOperationType.COLLECT
+            || streamConfiguration.selections().isPresent()
+            || !isMergeable(pipeline.intermediateOperations())) {
+            return Optional.empty();
+        }
+
+        final Object[] arguments = pipeline.terminatingOperation().arguments();
+        if (arguments.length != 1 || !(arguments[0] instanceof FieldCollector)) {
+            return Optional.empty();
+        }
+
+        final FieldCollector<?, ?, ?> collector = (FieldCollector<?, ?, ?>) arguments[0];
+        return GroupingAggregates.isSupported(collector) ? Optional.of(collector) : Optional.empty();
+    }
+
+    /**
+     * Returns whether the provided operations are guaranteed to be merged into the criteria,
+     * which is the case for at most one filter using a {@link SpeedmentPredicate}.
+     */
+    private static boolean isMergeable(final List<IntermediateOperation<?, ?>> intermediateOperations) {
+        if (intermediateOperations.isEmpty()) {
+            return true;
+        }
+
+        if (intermediateOperations.size() > 1) {
+            return false;
+        }
+
+        final IntermediateOperation<?, ?> filter = intermediateOperations.get(0);
+        return filter.type() == IntermediateOperationType.FILTER
+            && filter.arguments().length == 1
+            && filter.arguments()[0] instanceof SpeedmentPredicate;
+    }
+
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderQuery(
+        final TypedQuery<E> typedQuery,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final QueryMerger queryMerger,
+        final Optional<IntermediateOperation<?, ?>> projection,
+        final Optional<Keyset<E>> keyset,
+        final Optional<InListChunking> chunking,
+        final Optional<String> signature,
+        final List<?> parameterValues,
+        final Instrumentation instrumentation
+    ) {
+        configure(typedQuery, streamConfiguration);
+
+        final OptionalInt chunkSize = streamConfiguration.chunkSize();
+        if (chunkSize.isPresent() && !streamConfiguration.hints().containsKey(WindowedSpliterator.FETCH_SIZE_HINT)) {
+            typedQuery.setHint(WindowedSpliterator.FETCH_SIZE_HINT, chunkSize.getAsInt());
+        }
+
+        final Stream<E> rows;
+        final boolean cached;
+        if (chunking.isPresent()) {
+            // Skip and limit apply to the concatenated results and are executed by the stream
+            rows = chunking.get().stream(typedQuery);
+            cached = false;
+            instrumentation.lap(Phase.CREATE_QUERY);
+        } else {
+            queryMerger.merge(pipeline, typedQuery);
+            final Optional<Duration> timeToLive = streamConfiguration.cacheTimeToLive();
+            // Only columns can be shared, entities belong to the persistence context
+            cached = timeToLive.isPresent() && signature.isPresent() && projection.isPresent();
+            if (cached) {
+                final ResultCache.Key key = new ResultCache.Key(pipeline.root(), signature.get(), parameterValues, typedQuery.getFirstResult(), typedQuery.getMaxResults());
+                rows = cachedRows(typedQuery, key, timeToLive.get(), instrumentation);
+            } else {
+                rows = typedQuery.getResultStream();
+                instrumentation.lap(Phase.CREATE_QUERY);
+            }
+        }
+        final Stream<E> instrumentedRows = instrumentation.rows(rows);
+        // Cached rows are already held in memory
+        final Stream<E> resultStream = chunkSize.isPresent() && !cached
+            ? WindowedSpliterator.stream(instrumentedRows, entityManager, chunkSize.getAsInt())
+            : instrumentedRows;
+        // Rows that are projected or cached are not managed by the persistence context
+        final Stream<E> detachedStream = streamConfiguration.isReadOnly() && !cached && !projection.isPresent() && !streamConfiguration.selections().isPresent()
+            ? DetachingSpliterator.stream(resultStream, entityManager)
+            : resultStream;
+        final Stream<E> baseStream = keyset
+            .map(k -> k.track(detachedStream, entityManager.getEntityManagerFactory().getPersistenceUnitUtil()))
+            .orElse(detachedStream);
+        final BaseStream<?, ?> projected = projection
+            .<BaseStream<?, ?>>map(operation -> ColumnProjection.apply(baseStream, operation))
+            .orElse(baseStream);
+        final S replayed = replay(projected, pipeline);
+
+        return new StandardRenderResult<>(
+                pipeline.root(),
+                replayed,
+                pipeline.terminatingOperation()
+        );
+    }
+
+    /**
+     * Applies the hints of the provided configuration to the provided query and, if the
+     * configuration is read-only, disables flushing before the query and sets the
+     * read-only hint unless a value is given by the configuration.
+     */
+    private static void configure(final Query query, final StreamConfiguration<?> streamConfiguration) {
+        final Map<String, Object> hints = streamConfiguration.hints();
+        hints.forEach(query::setHint);
+        if (streamConfiguration.isReadOnly()) {
+            query.setFlushMode(FlushModeType.COMMIT);
+            if (!hints.containsKey(DetachingSpliterator.READ_ONLY_HINT)) {
+                query.setHint(DetachingSpliterator.READ_ONLY_HINT, true);
+            }
+        }
+    }
+
+    /**
+     * Returns the rows of the provided query from the result cache, executing the query
+     * and caching its rows unless they are already cached.
+     */
+    @SuppressWarnings("unchecked")
+    private <E> Stream<E> cachedRows(
+        final TypedQuery<E> typedQuery,
+        final ResultCache.Key key,
+        final Duration timeToLive,
+        final Instrumentation instrumentation
+    ) {
+        final List<?> cachedRows = resultCache.get(key);
+        if (cachedRows != null) {
+            instrumentation.cacheHit();
+            return (Stream<E>) cachedRows.stream();
+        }
+
+        final List<E> rows = typedQuery.getResultList();
+        // Rows referring to entities, e.g. a map to an association, are not cached
+        resultCache.put(key, rows, timeToLive);
+        instrumentation.lap(Phase.CREATE_QUERY);
+        return rows.stream();
+    }
+
+    /**
+     * Renders a parallel pipeline into concurrent queries over ranges of a key, see
+     * {@link Partitioning}. Skip and limit are not merged into the queries and are
+     * instead executed by the parallel stream. The ranges are computed from the rows
+     * matching the provided merged filters.
+     */
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderPartitioned(
+        final Partitioning partitioning,
+        final Criteria<E, E> criteria,
+        final List<IntermediateOperation<?, ?>> mergedFilters,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Optional<IntermediateOperation<?, ?>> projection,
+        final Instrumentation instrumentation
+    ) {
+        instrumentation.lap(Phase.MERGE);
+        instrumentation.query(criteria.getQuery(), queryParameters(criteria));
+        final Stream<E> rows = instrumentation.rows(partitioning.stream(
+            entityManager,
+            partitionEntityManagerSupplier,
+            partitionEntityManagerRelease,
+            criteria,
+            createBoundsCriteria(pipeline, criteria, mergedFilters),
+            streamConfiguration.hints(),
+            streamConfiguration.parallelism().orElseThrow(IllegalStateException::new)
+        ));
+        instrumentation.lap(Phase.CREATE_QUERY);
+        final BaseStream<?, ?> projected = projection
+            .<BaseStream<?, ?>>map(operation -> ColumnProjection.apply(rows, operation))
+            .orElse(rows);
+        final S replayed = replay(projected, pipeline);
+
+        return new StandardRenderResult<>(
+                pipeline.root(),
                 replayed,
                 pipeline.terminatingOperation()
         );
     }
 
+    /**
+     * Renders the pipeline using a previously created plan. Criteria construction and
+     * predicate mapping are skipped, only the parameter values of the pipeline are bound.
+     */
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> Optional<RenderResult<E, T, S>> renderPlan(
+        final PlanCache.Plan plan,
+        final String signature,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Instrumentation instrumentation
+    ) {
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+
+        final List<Object> values = new ArrayList<>(plan.parameters().size());
+        for (final int index : plan.mergedOperations()) {
+            final IntermediateOperation<?, ?> operation = intermediateOperations.get(index);
+            if (operation.type() == IntermediateOperationType.FILTER) {
+                this.<E>getPredicate(operation).ifPresent(predicate -> values.addAll(predicateFactory.createParameterValues(predicate)));
+            }
+        }
+
+        if (values.size() != plan.parameters().size()) {
+            return Optional.empty();
+        }
+
+        final Optional<IntermediateOperation<?, ?>> projection = ColumnProjection.mergedMap(intermediateOperations, plan.mergedOperations());
+
+        for (int i = plan.mergedOperations().size() - 1; i >= 0; i--) {
+            intermediateOperations.remove((int) plan.mergedOperations().get(i));
+        }
+
+        if (plan.presorted()) {
+            PresortedOperation.presort(intermediateOperations);
+        }
+        instrumentation.lap(Phase.MERGE);
+        instrumentation.boundQuery(plan.query(), values);
+
+        final TypedQuery<?> typedQuery = entityManager.createQuery(plan.query());
+        for (int i = 0; i < values.size(); i++) {
+            setParameter(typedQuery, plan.parameters().get(i), values.get(i));
+        }
+
+        if (plan.count()) {
+            configure(typedQuery, streamConfiguration);
+            final Stream<?> counts = typedQuery.getResultStream();
+            instrumentation.lap(Phase.CREATE_QUERY);
+            return Optional.of((RenderResult<E, T, S>) new StandardRenderResult<>(
+                pipeline.root(),
+                instrumentation.rows(counts),
+                pipeline.terminatingOperation()
+            ));
+        }
+
+        return Optional.of(renderQuery((TypedQuery<E>) typedQuery, pipeline, streamConfiguration, mergerFactory.createQueryMerger(), projection, Optional.empty(), Optional.empty(), Optional.of(signature), values, instrumentation));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void setParameter(final TypedQuery<?> typedQuery, final ParameterExpression<V> parameter, final Object value) {
+        typedQuery.setParameter(parameter, (V) value);
+    }
+
+    private static <V> void setParameter(final TypedQuery<?> typedQuery, final QueryParameter<V> queryParameter) {
+        typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue());
+    }
+
+    private static List<QueryParameter<?>> queryParameters(final Criteria<?, ?> criteria) {
+        final List<QueryParameter<?>> queryParameters = new ArrayList<>();
+        for (final QueryParameter<?> queryParameter : criteria.getQueryParameters()) {
+            queryParameters.add(queryParameter);
+        }
+        return queryParameters;
+    }
+
+    private static List<QueryParameter<?>> concat(final List<QueryParameter<?>> first, final List<QueryParameter<?>> second) {
+        final List<QueryParameter<?>> queryParameters = new ArrayList<>(first);
+        queryParameters.addAll(second);
+        return queryParameters;
+    }
+
+    private PlanCache.Plan createPlan(final Criteria<?, ?> criteria, final List<Integer> mergedOperations, final boolean count, final boolean presorted) {
+        final List<ParameterExpression<?>> parameters = new ArrayList<>();
+        for (final QueryParameter<?> queryParameter : criteria.getQueryParameters()) {
+            parameters.add(queryParameter.getParameterExpression());
+        }
+
+        return new PlanCache.Plan(entityManager.getEntityManagerFactory(), criteria.getQuery(), parameters, mergedOperations, count, presorted);
+    }
+
+    private static List<Integer> mergedOperations(final List<IntermediateOperation<?, ?>> before, final List<IntermediateOperation<?, ?>> after) {
+        final List<Integer> merged = new ArrayList<>();
+        for (int i = 0, j = 0; i < before.size(); i++) {
+            if (j < after.size() && before.get(i) == after.get(j)) {
+                j++;
+            } else {
+                merged.add(i);
+            }
+        }
+        return merged;
+    }
+
     private <T> Criteria<T, Long> createCountCriteria(final Criteria<T, T> criteria, final List<IntermediateOperation<?, ?>> filters) {
         final CriteriaQuery<T> criteriaQuery = criteria.getQuery();
 
@@ -185,8 +954,32 @@ final class StandardRenderer implements Renderer {
         return countCriteria;
     }
 
+    /**
+     * Creates a criteria of the entities of the provided criteria that is restricted by the
+     * provided filters, to which {@link Partitioning} adds the selection of the bounds of
+     * its key.
+     */
+    private <E> Criteria<E, Object[]> createBoundsCriteria(final Pipeline<E> pipeline, final Criteria<E, E> criteria, final List<IntermediateOperation<?, ?>> filters) {
+        final Criteria<E, Object[]> boundsCriteria = criteriaFactory.createCriteria(
+            entityManager,
+            pipeline.root(),
+            Object[].class
+        );
+        boundsCriteria.getRoot().alias(criteria.getRoot().getAlias());
+
+        final Predicate[] predicates = filters.stream()
+            .map(this::<E>getPredicate)
+            .flatMap(Optional::stream)
+            .map(speedmentPredicate -> predicateFactory.createPredicate(boundsCriteria, speedmentPredicate))
+            .toArray(Predicate[]::new);
+        if (predicates.length > 0) {
+            boundsCriteria.getQuery().where(predicates);
+        }
+        return boundsCriteria;
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private <E, T, S extends BaseStream<T, S>> S replay(final Stream<E> stream, final Pipeline<E> pipeline) {
+    private <E, T, S extends BaseStream<T, S>> S replay(final BaseStream<?, ?> stream, final Pipeline<E> pipeline) {
         return pipeline.intermediateOperations().stream()
                 .sequential()
                 .reduce(
@@ -204,6 +997,54 @@ final class StandardRenderer implements Renderer {
         */
     }
     
+    /**
+     * Replaces the {@link SpeedmentPredicate} of each filter of the entities with its
+     * normalized form, see {@link PredicateFactory#normalize(SpeedmentPredicate)}, and
+     * removes the filters that are always satisfied. Normalizing the filters up front
+     * also keeps the signature of the pipeline in line with the rendered query.
+     * <p>
+     * Returns false if a filter can never be satisfied and all preceding operations yield
+     * no elements when given none, in which case the operations up to and including the
+     * filter are removed as the pipeline is known to operate on an empty stream.
+     */
+    private <T> boolean normalizeFilters(final Pipeline<T> pipeline) {
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+
+        for (int i = 0; i < intermediateOperations.size(); i++) {
+            final IntermediateOperation<?, ?> operation = intermediateOperations.get(i);
+            if (operation.type() != FILTER || operation.streamType() != Stream.class) {
+                continue;
+            }
+
+            final Optional<SpeedmentPredicate<T>> predicate = getPredicate(operation);
+            if (!predicate.isPresent()) {
+                continue;
+            }
+
+            final SpeedmentPredicate<T> normalized = predicateFactory.normalize(predicate.get());
+            if (isPredicateType(normalized, PredicateType.ALWAYS_FALSE) && isElementPreserving(intermediateOperations.subList(0, i))) {
+                intermediateOperations.subList(0, i + 1).clear();
+                return false;
+            }
+
+            if (isPredicateType(normalized, PredicateType.ALWAYS_TRUE)) {
+                intermediateOperations.remove(i--);
+            } else if (normalized != predicate.get()) {
+                intermediateOperations.set(i, intermediateOperationFactory.createFilter(normalized));
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPredicateType(final SpeedmentPredicate<?> predicate, final PredicateType predicateType) {
+        return predicate instanceof FieldPredicate && ((FieldPredicate<?>) predicate).getPredicateType() == predicateType;
+    }
+
+    private static boolean isElementPreserving(final List<IntermediateOperation<?, ?>> intermediateOperations) {
+        return intermediateOperations.stream()
+            .allMatch(operation -> operation.streamType() == Stream.class && ELEMENT_PRESERVING_OPERATIONS.contains(operation.type()));
+    }
+
     private <T> void modifyPipeline(final Pipeline<T> pipeline) {
         terminalOperationModifierFactory.get().modify(pipeline);
     }
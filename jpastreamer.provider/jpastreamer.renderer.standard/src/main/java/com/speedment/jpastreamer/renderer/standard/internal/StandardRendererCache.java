@@ -0,0 +1,62 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.renderer.RendererCache;
+
+/**
+ * The state that {@link StandardRenderer StandardRenderers} cache across Streams.
+ * It is held by whoever created it, e.g. a JPAStreamer, rather than by a static
+ * registry so that the cached queries, which refer to the
+ * {@link jakarta.persistence.EntityManagerFactory}, and the cached results are
+ * released along with it.
+ */
+final class StandardRendererCache implements RendererCache {
+
+    private final PlanCache planCache;
+    private final ResultCache resultCache;
+
+    StandardRendererCache() {
+        this(PlanCache.DEFAULT_CAPACITY);
+    }
+
+    StandardRendererCache(final int planCapacity) {
+        this(new PlanCache(planCapacity), new ResultCache());
+    }
+
+    StandardRendererCache(final PlanCache planCache, final ResultCache resultCache) {
+        this.planCache = requireNonNull(planCache);
+        this.resultCache = requireNonNull(resultCache);
+    }
+
+    PlanCache planCache() {
+        return planCache;
+    }
+
+    ResultCache resultCache() {
+        return resultCache;
+    }
+
+    @Override
+    public void invalidate(final Class<?>... entityClasses) {
+        resultCache.invalidate(entityClasses);
+    }
+
+    @Override
+    public void close() {
+        planCache.close();
+        resultCache.close();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A Spliterator that reads the rows of a query in windows of a fixed number of rows and
+ * clears the persistence context before reading the next window, see
+ * {@link StreamConfiguration#withChunkSize(int)}.
+ * <p>
+ * The persistence context is cleared once the elements of a window have been passed
+ * downstream, so that the number of managed entities is bounded by the size of a window.
+ *
+ * @param <T> the type of the elements
+ */
+final class WindowedSpliterator<T> implements Spliterator<T> {
+
+    /**
+     * The hint setting the JDBC fetch size. Other providers ignore the hint, in which
+     * case the fetch size can be set using {@link StreamConfiguration#withHint(String, Object)}.
+     */
+    static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+
+    private final Spliterator<T> rows;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private int remaining;
+
+    private WindowedSpliterator(final Spliterator<T> rows, final EntityManager entityManager, final int chunkSize) {
+        this.rows = rows;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+        this.remaining = chunkSize;
+    }
+
+    /**
+     * Returns a Stream of the provided rows that clears the persistence context of the
+     * provided EntityManager each time {@code chunkSize} rows have been read.
+     *
+     * @param rows of the query
+     * @param entityManager holding the persistence context
+     * @param chunkSize the number of rows of a window
+     * @param <T> the type of the elements
+     * @return a Stream of the provided rows read in windows
+     */
+    static <T> Stream<T> stream(final Stream<T> rows, final EntityManager entityManager, final int chunkSize) {
+        requireNonNull(rows);
+        requireNonNull(entityManager);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        }
+
+        return StreamSupport.stream(new WindowedSpliterator<>(rows.spliterator(), entityManager, chunkSize), false)
+            .onClose(rows::close);
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        if (remaining == 0) {
+            // All elements of the previous window have been passed downstream
+            entityManager.clear();
+            remaining = chunkSize;
+        }
+
+        if (rows.tryAdvance(action)) {
+            remaining--;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return rows.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return rows.characteristics();
+    }
+}
@@ -1,6 +1,9 @@
 import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.OrderFactory;
 import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizerFactory;
 import com.speedment.jpastreamer.merger.MergerFactory;
+import com.speedment.jpastreamer.metrics.MetricsListener;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
 import com.speedment.jpastreamer.renderer.RendererFactory;
 import com.speedment.jpastreamer.renderer.standard.StandardRendererFactory;
 import com.speedment.jpastreamer.termopoptimizer.TerminalOperationOptimizerFactory;
@@ -28,9 +31,14 @@ module jpastreamer.renderer.standard {
     requires jpastreamer.interopoptimizer;
     requires jpastreamer.termopmodifier;
     requires jpastreamer.termopoptimizer;
+    requires jpastreamer.exception;
+    requires jpastreamer.metrics;
     
     uses CriteriaFactory;
+    uses OrderFactory;
     uses MergerFactory;
+    uses MetricsListener;
+    uses IntermediateOperationFactory;
     uses IntermediateOperationOptimizerFactory; 
     uses TerminalOperationOptimizerFactory; 
 
@@ -0,0 +1,203 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Measurement;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Measurement$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares the aggregates computed by the database to the same aggregates computed
+ * in memory, see {@link AggregateTerminalOperation}.
+ */
+final class AggregateTest extends DatabaseTest {
+
+    private static final List<SpeedmentPredicate<Film>> FILTERS = List.of(
+        Film$.cost.greaterOrEqual(0),
+        Film$.cost.greaterThan(6),
+        Film$.rating.equal("PG"),
+        // No film matches, the aggregates are computed over an empty set of rows
+        Film$.cost.greaterThan(100)
+    );
+
+    private static List<Measurement> measurements;
+
+    @BeforeAll
+    static void setUpMeasurements() {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.persist(new Measurement(1, Integer.MAX_VALUE, Long.MAX_VALUE));
+            entityManager.persist(new Measurement(2, Integer.MAX_VALUE, Long.MAX_VALUE));
+            entityManager.persist(new Measurement(3, 7, 5));
+            entityManager.persist(new Measurement(4, Integer.MIN_VALUE, Long.MIN_VALUE));
+            entityManager.getTransaction().commit();
+            entityManager.clear();
+
+            measurements = entityManager
+                .createQuery("select m from Measurement m order by m.measurementId", Measurement.class)
+                .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void intAggregates() {
+        for (final SpeedmentPredicate<Film> filter : FILTERS) {
+            final List<Integer> costs = films.stream().filter(filter).map(Film::getCost).collect(Collectors.toList());
+            final String message = filter.toString();
+
+            assertEquals(costs.stream().mapToInt(i -> i).sum(), (int) aggregate(s -> s.filter(filter).mapToInt(Film$.cost).sum()), message);
+            assertEquals(costs.stream().mapToInt(i -> i).average(), aggregate(s -> s.filter(filter).mapToInt(Film$.cost).average()), message);
+            assertEquals(costs.stream().mapToInt(i -> i).min(), aggregate(s -> s.filter(filter).mapToInt(Film$.cost).min()), message);
+            assertEquals(costs.stream().mapToInt(i -> i).max(), aggregate(s -> s.filter(filter).mapToInt(Film$.cost).max()), message);
+            assertEquals(
+                costs.stream().mapToInt(i -> i).summaryStatistics().toString(),
+                aggregate(s -> s.filter(filter).mapToInt(Film$.cost).summaryStatistics()).toString(),
+                message
+            );
+            try (Stream<Film> stream = films()) {
+                assertEquals(costs.size(), stream.filter(filter).count(), message);
+            }
+        }
+    }
+
+    @Test
+    void doubleAggregates() {
+        for (final SpeedmentPredicate<Film> filter : FILTERS) {
+            // The scores are multiples of 0.25, so the sums are exact regardless of the order of summation
+            final List<Double> scores = films.stream().filter(filter).map(Film::getScore).collect(Collectors.toList());
+            final String message = filter.toString();
+
+            assertEquals(scores.stream().mapToDouble(d -> d).sum(), aggregate(s -> s.filter(filter).mapToDouble(Film$.score).sum()), message);
+            assertEquals(scores.stream().mapToDouble(d -> d).average(), aggregate(s -> s.filter(filter).mapToDouble(Film$.score).average()), message);
+            assertEquals(scores.stream().mapToDouble(d -> d).min(), aggregate(s -> s.filter(filter).mapToDouble(Film$.score).min()), message);
+            assertEquals(scores.stream().mapToDouble(d -> d).max(), aggregate(s -> s.filter(filter).mapToDouble(Film$.score).max()), message);
+            assertEquals(
+                scores.stream().mapToDouble(d -> d).summaryStatistics().toString(),
+                aggregate(s -> s.filter(filter).mapToDouble(Film$.score).summaryStatistics()).toString(),
+                message
+            );
+        }
+    }
+
+    @Test
+    void emptyAggregates() {
+        final SpeedmentPredicate<Film> none = Film$.cost.greaterThan(100);
+
+        // SUM and AVG over no rows are NULL in the database
+        assertEquals(0, (int) aggregate(s -> s.filter(none).mapToInt(Film$.cost).sum()));
+        assertEquals(0d, aggregate(s -> s.filter(none).mapToDouble(Film$.score).sum()));
+        assertEquals(OptionalDouble.empty(), aggregate(s -> s.filter(none).mapToInt(Film$.cost).average()));
+        assertEquals(OptionalDouble.empty(), aggregate(s -> s.filter(none).mapToDouble(Film$.score).average()));
+        assertEquals(OptionalInt.empty(), aggregate(s -> s.filter(none).mapToInt(Film$.cost).min()));
+        assertEquals(OptionalDouble.empty(), aggregate(s -> s.filter(none).mapToDouble(Film$.score).max()));
+        assertEquals(0, aggregate(s -> s.filter(none).mapToInt(Film$.cost).summaryStatistics()).getCount());
+        try (Stream<Film> stream = films()) {
+            assertEquals(0, stream.filter(none).count());
+        }
+    }
+
+    @Test
+    void intSumOverflowsAsInMemory() {
+        final int expected = measurements.stream().mapToInt(Measurement::getAmount).sum();
+        assertEquals(expected, (int) aggregate(Measurement.class, s -> s.mapToInt(Measurement$.amount).sum()));
+    }
+
+    @Test
+    void longSumOverflowsAsInMemory() {
+        final long expected = measurements.stream().mapToLong(Measurement::getVolume).sum();
+        assertEquals(expected, (long) aggregate(Measurement.class, s -> s.mapToLong(Measurement$.volume).sum()));
+    }
+
+    @Test
+    void intAverageIsComputedFromWidenedSum() {
+        // The average of an IntStream is computed from a long sum and does not overflow
+        final OptionalDouble expected = measurements.stream().mapToInt(Measurement::getAmount).average();
+        assertEquals(expected, aggregate(Measurement.class, s -> s.mapToInt(Measurement$.amount).average()));
+        assertEquals(
+            measurements.stream().mapToInt(Measurement::getAmount).summaryStatistics().toString(),
+            aggregate(Measurement.class, s -> s.mapToInt(Measurement$.amount).summaryStatistics()).toString()
+        );
+    }
+
+    @Test
+    void longAverageOverflowsAsInMemory() {
+        final OptionalDouble expected = measurements.stream().mapToLong(Measurement::getVolume).average();
+        assertEquals(expected, aggregate(Measurement.class, s -> s.mapToLong(Measurement$.volume).average()));
+        assertEquals(
+            measurements.stream().mapToLong(Measurement::getVolume).summaryStatistics().toString(),
+            aggregate(Measurement.class, s -> s.mapToLong(Measurement$.volume).summaryStatistics()).toString()
+        );
+    }
+
+    @Test
+    void longExtremes() {
+        assertEquals(OptionalLong.of(Long.MIN_VALUE), aggregate(Measurement.class, s -> s.mapToLong(Measurement$.volume).min()));
+        assertEquals(OptionalLong.of(Long.MAX_VALUE), aggregate(Measurement.class, s -> s.mapToLong(Measurement$.volume).max()));
+    }
+
+    @Test
+    void resultIsReturnedRegardlessOfStream() {
+        final AggregateTerminalOperation<Stream<Film>, Long> operation = AggregateTerminalOperation.of(terminalOperation(Stream::count), 42L);
+        assertEquals(42L, operation.toLongFunction().applyAsLong(Stream.of(new Film())));
+        assertDoesNotThrow(() -> operation.consumer().accept(Stream.of(new Film())));
+    }
+
+    @Test
+    void consumingOperationsAreRejected() {
+        final TerminalOperation<Stream<Film>, Void> forEach = terminalOperation(s -> s.forEach(f -> {}));
+        assertThrows(IllegalArgumentException.class, () -> AggregateTerminalOperation.of(forEach, null));
+    }
+
+    private static <R> R aggregate(final Function<Stream<Film>, R> terminal) {
+        return aggregate(Film.class, terminal);
+    }
+
+    /**
+     * Returns the result of the provided terminal computed by the database, after asserting
+     * that the Stream returns the same result.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E, R> R aggregate(final Class<E> entityClass, final Function<Stream<E>, R> terminal) {
+        final R pushedDown = (R) pushedDown(StreamConfiguration.of(entityClass), terminal::apply);
+        try (Stream<E> stream = stream(StreamConfiguration.of(entityClass))) {
+            assertEquals(String.valueOf(pushedDown), String.valueOf(terminal.apply(stream)));
+        }
+        return pushedDown;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> TerminalOperation<Stream<Film>, R> terminalOperation(final Consumer<Stream<Film>> terminal) {
+        return (TerminalOperation<Stream<Film>, R>) pipeline(StreamConfiguration.of(Film.class), terminal).terminatingOperation();
+    }
+}
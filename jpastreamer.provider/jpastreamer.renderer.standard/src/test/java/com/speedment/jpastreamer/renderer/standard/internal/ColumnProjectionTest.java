@@ -0,0 +1,135 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streams that select a {@link Projection} and then map selected columns.
+ * <p>
+ * The model has no {@code Film(String, String)} constructor, so a selection of
+ * the title and rating only succeeds if the map replaces the selection of the
+ * constructed entities.
+ */
+final class ColumnProjectionTest extends DatabaseTest {
+
+    private static final Projection<Film> TITLE_AND_RATING = Projection.select(Film$.title, Film$.rating);
+
+    @Test
+    void mapOfSelectedField() {
+        final List<String> titles = stream(StreamConfiguration.of(Film.class).selecting(TITLE_AND_RATING))
+            .map(Film$.title)
+            .collect(Collectors.toList());
+
+        assertEquals(films.stream().map(Film::getTitle).collect(Collectors.toList()), titles);
+    }
+
+    @Test
+    void mapOfSelectedNullableField() {
+        final List<String> ratings = stream(StreamConfiguration.of(Film.class).selecting(TITLE_AND_RATING))
+            .filter(Film$.title.startsWith("FILM 1"))
+            .map(Film$.rating)
+            .collect(Collectors.toList());
+
+        assertEquals(films.stream()
+            .filter(film -> film.getTitle().startsWith("FILM 1"))
+            .map(Film::getRating)
+            .collect(Collectors.toList()), ratings);
+        assertTrue(ratings.contains(null));
+    }
+
+    @Test
+    void mapOfSelectedProjection() {
+        final Projection<Film> rating = Projection.select(Film$.rating);
+        final List<Tuple> tuples = stream(StreamConfiguration.of(Film.class).selecting(TITLE_AND_RATING))
+            .map(rating)
+            .collect(Collectors.toList());
+
+        assertEquals(films.stream().map(rating).collect(Collectors.toList()), tuples);
+    }
+
+    @Test
+    void mapOfAllSelectedColumns() {
+        final List<Tuple> tuples = stream(StreamConfiguration.of(Film.class).selecting(TITLE_AND_RATING))
+            .map(TITLE_AND_RATING)
+            .collect(Collectors.toList());
+
+        assertEquals(films.stream().map(TITLE_AND_RATING).collect(Collectors.toList()), tuples);
+    }
+
+    @Test
+    void mapOfUnselectedFieldIsNotMerged() {
+        // The constructed entities hold the default value of the unselected column
+        final List<String> ratings = stream(StreamConfiguration.of(Film.class).selecting(Projection.select(Film$.filmId, Film$.title)))
+            .map(Film$.rating)
+            .collect(Collectors.toList());
+
+        assertEquals(Collections.nCopies(FILMS, null), ratings);
+    }
+
+    @Test
+    void mapOfAssociationKeepsEntitiesWithoutAssociation() {
+        // Selecting the association would join it and drop the films without a language
+        final List<Integer> languages = stream(StreamConfiguration.of(Film.class))
+            .map(Film$.language.getter())
+            .map(language -> language == null ? null : language.getLanguageId())
+            .collect(Collectors.toList());
+
+        assertEquals(films.stream()
+            .map(film -> film.getLanguage() == null ? null : film.getLanguage().getLanguageId())
+            .collect(Collectors.toList()), languages);
+        assertTrue(languages.contains(null));
+    }
+
+    @Test
+    void mapOfProjectionOfAssociationKeepsEntitiesWithoutAssociation() {
+        final Projection<Film> titleAndLanguage = Projection.select(Film$.title, Film$.language);
+        final List<Tuple> tuples = stream(StreamConfiguration.of(Film.class))
+            .map(titleAndLanguage)
+            .collect(Collectors.toList());
+
+        assertEquals(FILMS, tuples.size());
+        assertEquals(films.stream().map(Film::getTitle).collect(Collectors.toList()),
+            tuples.stream().map(tuple -> tuple.get(0)).collect(Collectors.toList()));
+        assertTrue(tuples.stream().anyMatch(tuple -> tuple.get(1) == null));
+    }
+
+    @Test
+    void entitiesOfSelectionAreConstructed() {
+        final List<Film> selected = stream(StreamConfiguration.of(Film.class).selecting(Projection.select(Film$.filmId, Film$.title)))
+            .collect(Collectors.toList());
+
+        assertEquals(films.stream().map(Film::getTitle).collect(Collectors.toList()),
+            selected.stream().map(Film::getTitle).collect(Collectors.toList()));
+        assertTrue(selected.stream().allMatch(film -> film.getRating() == null));
+    }
+
+    @Test
+    void selectionWithoutConstructorRequiresMerge() {
+        // An anonymous lambda cannot be merged into the selection
+        assertThrows(RuntimeException.class, () -> stream(StreamConfiguration.of(Film.class).selecting(TITLE_AND_RATING))
+            .map(film -> film.getTitle())
+            .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import com.speedment.jpastreamer.autoclose.AutoCloseFactory;
+import com.speedment.jpastreamer.builder.BuilderFactory;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Language;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+/**
+ * Renders streams of {@link Film Films} against an in-memory H2 database.
+ * <p>
+ * Some films lack a length, a rating or a language so that the nullable columns
+ * and inner joins can be compared to the same operations executed in memory.
+ */
+abstract class DatabaseTest {
+
+    static final int FILMS = 100;
+    static final String[] RATINGS = {"G", "PG", "PG-13", "R", "NC-17"};
+
+    static EntityManagerFactory entityManagerFactory;
+    static StandardRendererCache cache;
+    static List<Film> films;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("renderer-test");
+        cache = new StandardRendererCache();
+
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            final List<Language> languages = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                final Language language = new Language(i, "Language " + i);
+                entityManager.persist(language);
+                languages.add(language);
+            }
+            for (int i = 1; i <= FILMS; i++) {
+                final Film film = new Film(i, "FILM " + Integer.toString(i * 7919 % 1000, 36).toUpperCase());
+                film.setLength(i % 10 == 0 ? null : 40 + i * 37 % 140);
+                film.setRating(i % 7 == 0 ? null : RATINGS[i % RATINGS.length]);
+                film.setCost(i % 13);
+                film.setScore(i * 0.25);
+                film.setLanguage(i % 9 == 0 ? null : languages.get(i % languages.size()));
+                entityManager.persist(film);
+            }
+            entityManager.getTransaction().commit();
+            entityManager.clear();
+
+            // The films the streams are compared to are read without JPAStreamer
+            films = Collections.unmodifiableList(entityManager
+                .createQuery("select f from Film f left join fetch f.language order by f.filmId", Film.class)
+                .getResultList());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        cache.close();
+        entityManagerFactory.close();
+    }
+
+    /**
+     * Returns a Stream of the provided configuration rendered by a new renderer that
+     * shares the {@link #cache} of the test and is closed along with the Stream.
+     */
+    static <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration) {
+        return stream(streamConfiguration, new StandardRenderer(entityManagerFactory.createEntityManager(), cache));
+    }
+
+    static <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration, final StandardRenderer renderer) {
+        final BuilderFactory builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        final AutoCloseFactory autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
+        return autoCloseFactory.createAutoCloseStream(builderFactory.createBuilder(streamConfiguration, renderer).onClose(renderer::close));
+    }
+
+    static Stream<Film> films() {
+        return stream(StreamConfiguration.of(Film.class));
+    }
+
+    /**
+     * Returns the pipeline that the provided {@code terminal} creates from a Stream of the
+     * provided configuration, as it is handed to the renderer, without executing any query.
+     * The returned pipeline can be rendered once.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Pipeline<T> pipeline(final StreamConfiguration<T> streamConfiguration, final Consumer<Stream<T>> terminal) {
+        final AtomicReference<Pipeline<T>> captured = new AtomicReference<>();
+        final Renderer probe = new Renderer() {
+            @Override
+            public <E, U, S extends BaseStream<U, S>> RenderResult<E, U, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> configuration) {
+                captured.set((Pipeline<T>) pipeline);
+                final List<IntermediateOperation<?, ?>> operations = pipeline.intermediateOperations();
+                final Class<?> streamType = operations.isEmpty() ? Stream.class : operations.get(operations.size() - 1).returnType();
+                final BaseStream<?, ?> empty = streamType == Stream.class ? Stream.empty() : AggregateTerminalOperation.emptyStream(streamType);
+                return new StandardRenderResult<>(pipeline.root(), (S) empty, pipeline.terminatingOperation());
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final BuilderFactory builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        try (Stream<T> stream = builderFactory.createBuilder(streamConfiguration, probe)) {
+            terminal.accept(stream);
+        }
+        return captured.get();
+    }
+
+    /**
+     * Renders the pipeline that the provided {@code terminal} creates from a Stream of the
+     * provided configuration, asserts that its result was computed by the database rather
+     * than by a Stream of entities, and returns that result.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> Object pushedDown(final StreamConfiguration<T> streamConfiguration, final Consumer<Stream<T>> terminal) {
+        final Pipeline<T> pipeline = pipeline(streamConfiguration, terminal);
+        final StandardRenderer renderer = new StandardRenderer(entityManagerFactory.createEntityManager(), cache);
+        try {
+            final RenderResult<T, ?, ?> result = renderer.render(pipeline, streamConfiguration);
+            assertInstanceOf(AggregateTerminalOperation.class, result.terminalOperation());
+            final TerminalOperation operation = result.terminalOperation();
+            switch (result.terminalOperation().type().functionalType()) {
+                case APPLY_AS_INT:
+                    return operation.toIntFunction().applyAsInt(result.stream());
+                case APPLY_AS_LONG:
+                    return operation.toLongFunction().applyAsLong(result.stream());
+                case APPLY_AS_DOUBLE:
+                    return operation.toDoubleFunction().applyAsDouble(result.stream());
+                case TEST:
+                    return operation.predicate().test(result.stream());
+                default:
+                    return operation.function().apply(result.stream());
+            }
+        } finally {
+            renderer.close();
+        }
+    }
+}
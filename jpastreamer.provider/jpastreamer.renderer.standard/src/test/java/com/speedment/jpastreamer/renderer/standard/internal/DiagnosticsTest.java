@@ -0,0 +1,134 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class DiagnosticsTest extends DatabaseTest {
+
+    private final RecordingLogger logger = new RecordingLogger();
+
+    @Test
+    void lambdaFilterIsReportedOncePerPipeline() {
+        final Diagnostics diagnostics = new Diagnostics(true, Long.MAX_VALUE, Long.MAX_VALUE, logger);
+        final Consumer<Stream<Film>> pipeline = s -> s.filter(f -> f.getCost() > 3).sorted(Film$.title).limit(10).collect(Collectors.toList());
+
+        run(diagnostics, pipeline);
+        run(diagnostics, pipeline);
+
+        assertEquals(1, logger.messages.size(), logger.messages::toString);
+        final String message = logger.messages.get(0);
+        assertTrue(message.startsWith("The filter("), message);
+        assertTrue(message.contains("of a Stream of Film could not be pushed down to the database as its predicate is not built from fields, e.g. it is a lambda"), message);
+        // The sort is pushed into the query as the lambda filter does not change the order
+        assertTrue(message.contains("The operations [filter, limit] are applied in memory"), message);
+    }
+
+    @Test
+    void pushedDownPipelineIsNotReported() {
+        final Diagnostics diagnostics = new Diagnostics(true, Long.MAX_VALUE, Long.MAX_VALUE, logger);
+
+        run(diagnostics, s -> s.filter(Film$.cost.greaterThan(3)).sorted(Film$.title).limit(10).collect(Collectors.toList()));
+
+        assertEquals(List.of(), logger.messages);
+    }
+
+    @Test
+    void sortFollowingProjectionIsReported() {
+        final Diagnostics diagnostics = new Diagnostics(true, Long.MAX_VALUE, Long.MAX_VALUE, logger);
+
+        run(diagnostics, s -> s.map(Film$.title).sorted().collect(Collectors.toList()));
+
+        assertEquals(1, logger.messages.size(), logger.messages::toString);
+        assertTrue(logger.messages.get(0).contains("as it follows a projection and is applied to the selected values rather than to the entities"), logger.messages::toString);
+    }
+
+    @Test
+    void streamExceedingRowThresholdIsReported() {
+        final Diagnostics diagnostics = new Diagnostics(true, Long.MAX_VALUE, FILMS - 1, logger);
+
+        run(diagnostics, s -> s.collect(Collectors.toList()));
+
+        assertEquals(1, logger.messages.size(), logger.messages::toString);
+        final String message = logger.messages.get(0);
+        assertTrue(message.startsWith("A Stream of Film terminated by COLLECT took "), message);
+        assertTrue(message.contains(" and read " + FILMS + " rows, exceeding the row threshold of " + (FILMS - 1) + " rows."), message);
+    }
+
+    @Test
+    void streamWithinThresholdsIsNotReported() {
+        final Diagnostics diagnostics = new Diagnostics(true, Long.MAX_VALUE, FILMS, logger);
+
+        run(diagnostics, s -> s.collect(Collectors.toList()));
+
+        assertEquals(List.of(), logger.messages);
+    }
+
+    @Test
+    void disabledDiagnosticsReportNothing() {
+        final Diagnostics diagnostics = new Diagnostics(false, 0, 0, logger);
+
+        run(diagnostics, s -> s.filter(f -> f.getCost() > 3).collect(Collectors.toList()));
+
+        assertEquals(List.of(), logger.messages);
+    }
+
+    private static void run(final Diagnostics diagnostics, final Consumer<Stream<Film>> terminal) {
+        final StandardRenderer renderer = new StandardRenderer(entityManagerFactory.createEntityManager(), cache, diagnostics);
+        try (Stream<Film> stream = stream(StreamConfiguration.of(Film.class), renderer)) {
+            terminal.accept(stream);
+        }
+    }
+
+    private static final class RecordingLogger implements Logger {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String getName() {
+            return Diagnostics.LOGGER_NAME;
+        }
+
+        @Override
+        public boolean isLoggable(final Level level) {
+            return true;
+        }
+
+        @Override
+        public void log(final Level level, final ResourceBundle bundle, final String msg, final Throwable thrown) {
+            assertEquals(Level.WARNING, level);
+            messages.add(msg);
+        }
+
+        @Override
+        public void log(final Level level, final ResourceBundle bundle, final String format, final Object... params) {
+            assertEquals(Level.WARNING, level);
+            messages.add(params == null || params.length == 0 ? format : MessageFormat.format(format, params));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@code anyMatch}, {@code noneMatch} and {@code allMatch} computed by an
+ * existence query to the same operations executed in memory.
+ */
+final class ExistenceTest extends DatabaseTest {
+
+    private static final List<SpeedmentPredicate<Film>> FILTERS = List.of(
+        Film$.cost.greaterOrEqual(0),
+        Film$.cost.greaterThan(6),
+        // No film matches, the matches are tested on an empty set of rows
+        Film$.cost.greaterThan(100)
+    );
+
+    private static final List<SpeedmentPredicate<Film>> PREDICATES = List.of(
+        // All films match
+        Film$.cost.lessThan(13),
+        Film$.title.startsWith("FILM"),
+        // No film matches
+        Film$.cost.greaterThan(12),
+        Film$.title.isEmpty(),
+        // Some films match
+        Film$.cost.between(3, 7),
+        Film$.score.greaterThan(10d),
+        // Nullable columns, for which the predicates are NULL in the database
+        Film$.length.greaterThan(100),
+        Film$.length.lessOrEqual(200),
+        Film$.length.isNotNull(),
+        Film$.length.isNull(),
+        Film$.rating.equal("G"),
+        Film$.rating.notEqual("G"),
+        Film$.rating.in("G", "PG", "PG-13", "R", "NC-17"),
+        Film$.rating.notIn("NC-17")
+    );
+
+    @Test
+    void anyMatch() {
+        assertMatchesAsInMemory(Stream::anyMatch);
+    }
+
+    @Test
+    void noneMatch() {
+        assertMatchesAsInMemory(Stream::noneMatch);
+    }
+
+    @Test
+    void allMatch() {
+        assertMatchesAsInMemory(Stream::allMatch);
+    }
+
+    @Test
+    void allMatchOfNullablePredicate() {
+        // length > 0 is NULL for the films without a length, which do not match
+        assertTrue(match(Film$.length.isNotNull(), Film$.length.greaterThan(0), Stream::allMatch));
+        assertFalse(match(Film$.cost.greaterOrEqual(0), Film$.length.greaterThan(0), Stream::allMatch));
+    }
+
+    private static void assertMatchesAsInMemory(final BiFunction<Stream<Film>, SpeedmentPredicate<Film>, Boolean> match) {
+        for (final SpeedmentPredicate<Film> filter : FILTERS) {
+            for (final SpeedmentPredicate<Film> predicate : PREDICATES) {
+                final boolean expected = match.apply(films.stream().filter(filter), predicate);
+                assertEquals(expected, match(filter, predicate, match), filter + " " + predicate);
+            }
+        }
+    }
+
+    /**
+     * Returns the provided match of the films passing the provided filter computed by an
+     * existence query, after asserting that the Stream returns the same.
+     */
+    private static boolean match(
+        final SpeedmentPredicate<Film> filter,
+        final SpeedmentPredicate<Film> predicate,
+        final BiFunction<Stream<Film>, SpeedmentPredicate<Film>, Boolean> match
+    ) {
+        final boolean matched = (Boolean) pushedDown(StreamConfiguration.of(Film.class), s -> match.apply(s.filter(filter), predicate));
+        try (Stream<Film> stream = films()) {
+            assertEquals(matched, match.apply(stream.filter(filter), predicate));
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.field.collector.FieldCollectors;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Measurement;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Measurement$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares the groups computed by the database, see {@link GroupingAggregates}, to the
+ * groups computed in memory by {@link Collectors#groupingBy(java.util.function.Function, Collector)}.
+ */
+final class GroupingTest extends DatabaseTest {
+
+    private static final List<SpeedmentPredicate<Film>> FILTERS = List.of(
+        Film$.rating.isNotNull(),
+        Film$.rating.in("G", "PG").and(Film$.cost.greaterThan(3)),
+        // No film matches
+        Film$.rating.equal("X")
+    );
+
+    private static List<Measurement> measurements;
+
+    @BeforeAll
+    static void setUpMeasurements() {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.persist(new Measurement(1, Integer.MAX_VALUE, Long.MAX_VALUE));
+            entityManager.persist(new Measurement(2, Integer.MAX_VALUE, Long.MAX_VALUE));
+            entityManager.persist(new Measurement(3, 7, 5));
+            entityManager.persist(new Measurement(4, 7, Long.MIN_VALUE));
+            entityManager.getTransaction().commit();
+            entityManager.clear();
+
+            measurements = entityManager
+                .createQuery("select m from Measurement m order by m.measurementId", Measurement.class)
+                .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void counting() {
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.counting()));
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.cost, FieldCollectors.counting()));
+    }
+
+    @Test
+    void summing() {
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.summingInt(Film$.cost)));
+        // The scores are multiples of 0.25, so the sums are exact regardless of the order of summation
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.summingDouble(Film$.score)));
+    }
+
+    @Test
+    void averaging() {
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.averagingInt(Film$.cost)));
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.cost, FieldCollectors.averagingDouble(Film$.score)));
+    }
+
+    @Test
+    void mappingToSet() {
+        // The set of a group holds null if a film of the group lacks a length
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.mapping(Film$.length, toSet())));
+    }
+
+    @Test
+    void minByAndMaxBy() {
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.minBy(Film$.score.comparator())));
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.maxBy(Film$.score.comparator())));
+    }
+
+    @Test
+    void minByAndMaxByWithTies() {
+        // Several films of each rating share the minimum and maximum cost
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.minBy(Film$.cost.comparator())));
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.maxBy(Film$.cost.comparator())));
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.minBy(Film$.cost.comparator().reversed())));
+        assertGroupsAsInMemory(FieldCollectors.groupingBy(Film$.cost, FieldCollectors.maxBy(Film$.cost.comparator())));
+    }
+
+    @Test
+    void nullKeysAreRejectedAsInMemory() {
+        final List<Collector<Film, ?, ? extends Map<?, ?>>> collectors = List.of(
+            FieldCollectors.groupingBy(Film$.rating, FieldCollectors.counting()),
+            FieldCollectors.groupingBy(Film$.length, FieldCollectors.summingInt(Film$.cost)),
+            FieldCollectors.groupingBy(Film$.length, FieldCollectors.maxBy(Film$.cost.comparator()))
+        );
+        for (final Collector<Film, ?, ? extends Map<?, ?>> collector : collectors) {
+            assertThrows(NullPointerException.class, () -> films.stream().collect(collector));
+            assertThrows(NullPointerException.class, () -> pushedDown(StreamConfiguration.of(Film.class), s -> s.collect(collector)));
+        }
+    }
+
+    @Test
+    void integralSumsOverflowAsInMemory() {
+        assertEquals(
+            measurements.stream().collect(Collectors.groupingBy(Measurement::getVolume, Collectors.summingInt(Measurement::getAmount))),
+            pushedDown(StreamConfiguration.of(Measurement.class), s -> s.collect(FieldCollectors.groupingBy(Measurement$.volume, FieldCollectors.summingInt(Measurement$.amount))))
+        );
+        assertEquals(
+            measurements.stream().collect(Collectors.groupingBy(Measurement::getAmount, Collectors.summingLong(Measurement::getVolume))),
+            pushedDown(StreamConfiguration.of(Measurement.class), s -> s.collect(FieldCollectors.groupingBy(Measurement$.amount, FieldCollectors.summingLong(Measurement$.volume))))
+        );
+        assertEquals(
+            measurements.stream().collect(Collectors.groupingBy(Measurement::getAmount, Collectors.averagingLong(Measurement::getVolume))),
+            pushedDown(StreamConfiguration.of(Measurement.class), s -> s.collect(FieldCollectors.groupingBy(Measurement$.amount, FieldCollectors.averagingLong(Measurement$.volume))))
+        );
+    }
+
+    /**
+     * Asserts that the provided collector, applied to the films passing each filter, is
+     * computed by the database with the same result as in memory.
+     */
+    private static void assertGroupsAsInMemory(final Collector<Film, ?, ? extends Map<?, ?>> collector) {
+        for (final SpeedmentPredicate<Film> filter : FILTERS) {
+            final Map<?, ?> expected = films.stream().filter(filter).collect(collector);
+            final Object actual = pushedDown(StreamConfiguration.of(Film.class), s -> s.filter(filter).collect(collector));
+            assertEquals(ids(expected), ids((Map<?, ?>) actual), filter.toString());
+
+            try (Stream<Film> stream = films()) {
+                assertEquals(ids(expected), ids(stream.filter(filter).collect(collector)), filter.toString());
+            }
+        }
+    }
+
+    /**
+     * Replaces the films of the provided groups by their ids, as the films read by
+     * different EntityManagers are not equal.
+     */
+    private static Map<?, ?> ids(final Map<?, ?> groups) {
+        return groups.entrySet().stream().collect(toMap(Map.Entry::getKey, entry -> {
+            final Object value = entry.getValue();
+            if (value instanceof Optional) {
+                return ((Optional<?>) value).map(film -> ((Film) film).getFilmId());
+            }
+            return value;
+        }));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.builder.BuilderFactory;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class KeysetTest extends DatabaseTest {
+
+    private static final int PAGE_SIZE = 7;
+
+    private final InternalRendererFactory rendererFactory = new InternalRendererFactory();
+
+    @Test
+    void fieldSortsPrecededByFieldFiltersAreSeekable() {
+        assertTrue(isSeekable(UnaryOperator.identity()));
+        assertTrue(isSeekable(Stream::sorted));
+        assertTrue(isSeekable(s -> s.sorted(Film$.length)));
+        assertTrue(isSeekable(s -> s.sorted(Film$.rating.reversed().thenComparing(Film$.length))));
+        assertTrue(isSeekable(s -> s.filter(Film$.cost.greaterThan(3)).filter(Film$.rating.equal("G")).sorted(Film$.title)));
+        // Operations following the sort are executed by each page
+        assertTrue(isSeekable(s -> s.sorted(Film$.title).filter(f -> f.getCost() > 3)));
+    }
+
+    @Test
+    void lambdaSortsAreNotSeekable() {
+        assertFalse(isSeekable(s -> s.sorted(Comparator.comparing(Film::getTitle))));
+    }
+
+    @Test
+    void lambdaFiltersPrecedingTheSortAreNotSeekable() {
+        assertFalse(isSeekable(s -> s.filter(f -> f.getCost() > 3).sorted(Film$.title)));
+    }
+
+    @Test
+    void repeatedSortsAreNotSeekable() {
+        assertFalse(isSeekable(s -> s.sorted(Film$.title).sorted(Film$.length)));
+    }
+
+    @Test
+    void operationsOtherThanFiltersPrecedingTheSortAreNotSeekable() {
+        assertFalse(isSeekable(s -> s.limit(10).sorted(Film$.title)));
+        assertFalse(isSeekable(s -> s.distinct().sorted(Film$.title)));
+    }
+
+    @Test
+    void statefulOperationsAreNotSeekable() {
+        // Each page applies the pipeline again, so these would apply to every page
+        assertFalse(isSeekable(s -> s.limit(250)));
+        assertFalse(isSeekable(s -> s.sorted(Film$.title).limit(250)));
+        assertFalse(isSeekable(s -> s.sorted(Film$.title).skip(10)));
+    }
+
+    @Test
+    void pagesOfUnsortedStreamAreOrderedById() {
+        assertPagedAsInMemory(UnaryOperator.identity(), Comparator.comparing(Film::getFilmId));
+    }
+
+    @Test
+    void pagesOfTiedKeysWithNullsLast() {
+        assertPagedAsInMemory(s -> s.sorted(Film$.rating), Film$.rating.comparator());
+        assertPagedAsInMemory(s -> s.sorted(Film$.rating.reversed()), Film$.rating.reversed());
+    }
+
+    @Test
+    void pagesOfTiedKeysWithNullsFirst() {
+        assertPagedAsInMemory(s -> s.sorted(Film$.rating.comparatorNullFieldsFirst()), Film$.rating.comparatorNullFieldsFirst());
+        assertPagedAsInMemory(s -> s.sorted(Film$.rating.comparatorNullFieldsFirst().reversed()), Film$.rating.comparatorNullFieldsFirst().reversed());
+    }
+
+    @Test
+    void pagesOfCombinedNullableKeys() {
+        assertPagedAsInMemory(
+            s -> s.sorted(Film$.rating.reversed().thenComparing(Film$.length)),
+            Film$.rating.reversed().thenComparing(Film$.length)
+        );
+        assertPagedAsInMemory(
+            s -> s.sorted(Film$.length.comparatorNullFieldsFirst().thenComparing(Film$.rating.comparatorNullFieldsFirst().reversed())),
+            Film$.length.comparatorNullFieldsFirst().thenComparing(Film$.rating.comparatorNullFieldsFirst().reversed())
+        );
+    }
+
+    @Test
+    void pagesOfFilteredStream() {
+        assertPagedAsInMemory(
+            s -> s.filter(Film$.cost.greaterThan(3)).sorted(Film$.cost.reversed().thenComparing(Film$.rating.comparator())),
+            Film$.cost.reversed().thenComparing(Film$.rating.comparator()),
+            f -> f.getCost() > 3
+        );
+    }
+
+    @Test
+    void nullCursorValueOfNonNullableKey() {
+        final StreamConfiguration<Film> configuration = StreamConfiguration.of(Film.class).seekingAfter(Cursor.of(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> {
+            try (Stream<Film> stream = stream(configuration)) {
+                stream.sorted(Film$.cost).limit(PAGE_SIZE).count();
+            }
+        });
+    }
+
+    private static void assertPagedAsInMemory(final UnaryOperator<Stream<Film>> pipeline, final Comparator<Film> comparator) {
+        assertPagedAsInMemory(pipeline, comparator, f -> true);
+    }
+
+    /**
+     * Reads all pages of the provided pipeline and asserts that they hold the same films,
+     * in the same order, as the films sorted in memory by the provided comparator followed
+     * by the id, without any film being skipped or repeated.
+     */
+    private static void assertPagedAsInMemory(
+        final UnaryOperator<Stream<Film>> pipeline,
+        final Comparator<Film> comparator,
+        final Predicate<Film> filter
+    ) {
+        final List<Integer> expected = films.stream()
+            .filter(filter)
+            .sorted(comparator.thenComparing(Film::getFilmId))
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+
+        final List<Integer> actual = new ArrayList<>();
+        Cursor cursor = Cursor.start();
+        List<Integer> page;
+        do {
+            final AtomicReference<Cursor> next = new AtomicReference<>();
+            try (Stream<Film> stream = stream(StreamConfiguration.of(Film.class).seekingAfter(cursor, next::set))) {
+                page = pipeline.apply(stream).limit(PAGE_SIZE).map(Film::getFilmId).collect(Collectors.toList());
+            }
+            assertTrue(page.size() <= PAGE_SIZE);
+            actual.addAll(page);
+            cursor = next.get();
+        } while (page.size() == PAGE_SIZE);
+
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Applies the provided pipeline to a Stream whose renderer only captures the
+     * operations, and asks the renderer factory whether they can be paginated by keyset.
+     */
+    private boolean isSeekable(final UnaryOperator<Stream<Film>> pipeline) {
+        final AtomicReference<Pipeline<?>> captured = new AtomicReference<>();
+        final Renderer probe = new Renderer() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> p, final StreamConfiguration<E> streamConfiguration) {
+                captured.set(p);
+                return new StandardRenderResult<>(p.root(), (S) Stream.empty(), p.terminatingOperation());
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final BuilderFactory builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        try (Stream<Film> stream = builderFactory.createBuilder(StreamConfiguration.of(Film.class), probe)) {
+            pipeline.apply(stream).iterator();
+        }
+        return rendererFactory.isSeekable(captured.get());
+    }
+}
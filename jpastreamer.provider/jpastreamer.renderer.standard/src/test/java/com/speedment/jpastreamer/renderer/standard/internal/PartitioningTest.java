@@ -0,0 +1,292 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PartitioningTest extends DatabaseTest {
+
+    private static ExecutorService executor;
+
+    private final AtomicInteger obtained = new AtomicInteger();
+    private final AtomicInteger released = new AtomicInteger();
+
+    @BeforeAll
+    static void setUpExecutor() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterAll
+    static void tearDownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void boundaries() {
+        assertEquals(bigIntegers(1, 26, 51, 76, 101), Partitioning.boundaries(BigInteger.ONE, BigInteger.valueOf(100), 4));
+        assertEquals(bigIntegers(-3, 0, 4), Partitioning.boundaries(BigInteger.valueOf(-3), BigInteger.valueOf(3), 2));
+        // Fewer values than partitions
+        assertEquals(bigIntegers(5, 6, 7), Partitioning.boundaries(BigInteger.valueOf(5), BigInteger.valueOf(6), 4));
+        assertEquals(bigIntegers(7, 8), Partitioning.boundaries(BigInteger.valueOf(7), BigInteger.valueOf(7), 4));
+    }
+
+    @Test
+    void boundsOfRestrictedRows() {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final Partitioning partitioning = new Partitioning(filmId(entityManager), false, false);
+
+            assertArrayEquals(bigIntegers(1, FILMS).toArray(), partitioning.bounds(entityManager, boundsCriteria(entityManager)).orElseThrow());
+
+            final Criteria<Film, Object[]> restricted = boundsCriteria(entityManager);
+            restricted.getQuery().where(restricted.getBuilder().between(restricted.getRoot().get("filmId"), 41, 60));
+            assertArrayEquals(bigIntegers(41, 60).toArray(), partitioning.bounds(entityManager, restricted).orElseThrow());
+
+            final Criteria<Film, Object[]> empty = boundsCriteria(entityManager);
+            empty.getQuery().where(empty.getBuilder().gt(empty.getRoot().get("filmId"), FILMS));
+            assertEquals(Optional.empty(), partitioning.bounds(entityManager, empty));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void parallelStreamIsOrderedByKey() {
+        final List<Integer> ids = partitionedStream(StreamConfiguration.of(Film.class).withParallelism(4, executor))
+            .parallel()
+            .sorted(Film$.filmId)
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+
+        assertEquals(IntStream.rangeClosed(1, FILMS).boxed().collect(Collectors.toList()), ids);
+        // Each range is read by an EntityManager of the renderer, which is released once read
+        assertEquals(4, obtained.get());
+        awaitTrue(() -> released.get() == 4);
+    }
+
+    @Test
+    void parallelStreamOfRendererWithoutPartitionEntityManagersIsReadByOneQuery() {
+        final List<Integer> ids = stream(StreamConfiguration.of(Film.class).withParallelism(4, executor))
+            .parallel()
+            .sorted(Film$.filmId)
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+
+        assertEquals(IntStream.rangeClosed(1, FILMS).boxed().collect(Collectors.toList()), ids);
+        assertEquals(0, obtained.get());
+    }
+
+    @Test
+    void parallelStreamIsOrderedByDescendingKey() {
+        final List<Integer> ids = partitionedStream(StreamConfiguration.of(Film.class).withParallelism(4, executor))
+            .parallel()
+            .sorted(Film$.filmId.reversed())
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+
+        final List<Integer> expected = IntStream.rangeClosed(1, FILMS).boxed().collect(Collectors.toList());
+        Collections.reverse(expected);
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void filteredParallelStream() {
+        final List<String> titles = partitionedStream(StreamConfiguration.of(Film.class).withParallelism(3, executor))
+            .parallel()
+            .filter(Film$.filmId.between(41, 61))
+            .filter(Film$.rating.equal("PG"))
+            .sorted(Film$.filmId)
+            .map(Film::getTitle)
+            .collect(Collectors.toList());
+
+        assertEquals(films.stream()
+            .filter(film -> film.getFilmId() >= 41 && film.getFilmId() < 61)
+            .filter(film -> "PG".equals(film.getRating()))
+            .map(Film::getTitle)
+            .collect(Collectors.toList()), titles);
+    }
+
+    @Test
+    void unorderedParallelStream() {
+        final List<Integer> ids = partitionedStream(StreamConfiguration.of(Film.class).withParallelism(4, executor))
+            .parallel()
+            .unordered()
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+
+        ids.sort(Comparator.naturalOrder());
+        assertEquals(IntStream.rangeClosed(1, FILMS).boxed().collect(Collectors.toList()), ids);
+    }
+
+    @Test
+    void limitOfParallelStream() {
+        final List<Integer> ids = partitionedStream(StreamConfiguration.of(Film.class).withParallelism(4, executor))
+            .parallel()
+            .sorted(Film$.filmId)
+            .limit(5)
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+
+        assertEquals(List.of(1, 2, 3, 4, 5), ids);
+    }
+
+    @Test
+    void partitionsAreTraversedInOrder() {
+        final List<Partitioning.Partition<Integer>> partitions = List.of(
+            partition(1, 2), partition(), partition(3), partition((Integer) null), partition(4, 5)
+        );
+
+        assertEquals(Arrays.asList(1, 2, 3, null, 4, 5), stream(partitions, false).collect(Collectors.toList()));
+    }
+
+    @Test
+    void partitionsAreSplitInOrder() {
+        final List<Partitioning.Partition<Integer>> partitions = IntStream.range(0, 8)
+            .mapToObj(i -> partition(IntStream.range(i * 100, i * 100 + 100).boxed().toArray(Integer[]::new)))
+            .collect(Collectors.toList());
+
+        assertEquals(IntStream.range(0, 800).boxed().collect(Collectors.toList()), stream(partitions, true).collect(Collectors.toList()));
+    }
+
+    @Test
+    void partitionsAreStartedLazily() {
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final List<Partitioning.Partition<Integer>> partitions = IntStream.range(0, 4)
+            .mapToObj(i -> new Partitioning.Partition<>(() -> {
+                opened.incrementAndGet();
+                // More rows than are read ahead
+                return Stream.iterate(0, n -> n + 1).onClose(closed::incrementAndGet);
+            }, executor, 16))
+            .collect(Collectors.toList());
+
+        final List<Integer> rows;
+        try (Stream<Integer> stream = stream(partitions, false)) {
+            rows = stream.limit(10).collect(Collectors.toList());
+        }
+
+        assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), rows);
+        // Only the first partition and the partition following it were started
+        assertTrue(partitions.get(0).isStarted());
+        assertTrue(partitions.get(1).isStarted());
+        assertFalse(partitions.get(2).isStarted());
+        assertFalse(partitions.get(3).isStarted());
+        // The rows that were opened are closed although not all rows were read
+        awaitTrue(() -> opened.get() == closed.get());
+        assertTrue(opened.get() >= 1 && opened.get() <= 2);
+    }
+
+    @Test
+    void failureOfPartitionIsThrown() {
+        final IllegalStateException failure = new IllegalStateException("Failed");
+        final List<Partitioning.Partition<Integer>> partitions = List.of(
+            partition(1),
+            new Partitioning.Partition<>(() -> { throw failure; }, executor, 16)
+        );
+
+        try (Stream<Integer> stream = stream(partitions, false)) {
+            assertSame(failure, assertThrows(IllegalStateException.class, () -> stream.collect(Collectors.toList())));
+        }
+    }
+
+    @Test
+    void rejectionOfPartitionIsThrown() {
+        final List<Partitioning.Partition<Integer>> partitions = List.of(
+            new Partitioning.Partition<>(() -> Stream.of(1), runnable -> { throw new RejectedExecutionException(); }, 16)
+        );
+
+        try (Stream<Integer> stream = stream(partitions, false)) {
+            assertThrows(RejectedExecutionException.class, () -> stream.collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Returns a Stream of the provided configuration rendered by a renderer that reads
+     * the ranges of a parallel Stream using EntityManagers that are counted as they are
+     * obtained and released.
+     */
+    private <T> Stream<T> partitionedStream(final StreamConfiguration<T> streamConfiguration) {
+        return stream(streamConfiguration, new StandardRenderer(
+            entityManagerFactory.createEntityManager(),
+            cache,
+            () -> {
+                obtained.incrementAndGet();
+                return entityManagerFactory.createEntityManager();
+            },
+            entityManager -> {
+                released.incrementAndGet();
+                entityManager.close();
+            }
+        ));
+    }
+
+    private static Stream<Integer> stream(final List<Partitioning.Partition<Integer>> partitions, final boolean parallel) {
+        final List<Partitioning.Partition<Integer>> list = new ArrayList<>(partitions);
+        return StreamSupport.stream(new PartitionedSpliterator<>(list, true), parallel)
+            .onClose(() -> list.forEach(Partitioning.Partition::cancel));
+    }
+
+    private static Partitioning.Partition<Integer> partition(final Integer... rows) {
+        return new Partitioning.Partition<>(() -> Arrays.stream(rows), executor, 2);
+    }
+
+    private static Criteria<Film, Object[]> boundsCriteria(final EntityManager entityManager) {
+        return RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load).createCriteria(entityManager, Film.class, Object[].class);
+    }
+
+    private static SingularAttribute<?, ?> filmId(final EntityManager entityManager) {
+        return entityManager.getMetamodel().entity(Film.class).getSingularAttribute("filmId");
+    }
+
+    private static List<BigInteger> bigIntegers(final long... values) {
+        return Arrays.stream(values).mapToObj(BigInteger::valueOf).collect(Collectors.toList());
+    }
+
+    private static void awaitTrue(final BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.onSpinWait();
+        }
+    }
+}
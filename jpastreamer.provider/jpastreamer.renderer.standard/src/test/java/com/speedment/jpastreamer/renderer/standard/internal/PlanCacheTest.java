@@ -0,0 +1,207 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+final class PlanCacheTest extends DatabaseTest {
+
+    @BeforeEach
+    void clearPlans() {
+        cache.planCache().clear();
+    }
+
+    @Test
+    void leastRecentlyUsedPlanIsEvicted() {
+        final EntityManagerFactory factory = mock(EntityManagerFactory.class);
+        final PlanCache planCache = new PlanCache(2);
+        final PlanCache.Plan a = plan(factory);
+        final PlanCache.Plan b = plan(factory);
+        final PlanCache.Plan c = plan(factory);
+
+        planCache.put("a", a);
+        planCache.put("b", b);
+        assertSame(a, planCache.get("a", factory));
+        planCache.put("c", c);
+
+        assertEquals(2, planCache.size());
+        assertSame(a, planCache.get("a", factory));
+        assertNull(planCache.get("b", factory));
+        assertSame(c, planCache.get("c", factory));
+    }
+
+    @Test
+    void planOfAnotherFactoryIsNotReturned() {
+        final EntityManagerFactory factory = mock(EntityManagerFactory.class);
+        final PlanCache planCache = new PlanCache(2);
+        planCache.put("a", plan(factory));
+
+        assertNull(planCache.get("a", mock(EntityManagerFactory.class)));
+        assertNotNull(planCache.get("a", factory));
+    }
+
+    @Test
+    void closedCacheHoldsNoPlans() {
+        final EntityManagerFactory factory = mock(EntityManagerFactory.class);
+        final PlanCache planCache = new PlanCache(2);
+        planCache.put("a", plan(factory));
+        planCache.close();
+        planCache.put("b", plan(factory));
+
+        assertEquals(0, planCache.size());
+        assertNull(planCache.get("a", factory));
+    }
+
+    @Test
+    void planIsReusedWithReboundParameters() {
+        assertEquals(expected(f -> f.getCost() > 5), titles(5));
+        assertEquals(1, cache.planCache().size());
+        final PlanCache.Plan plan = onlyPlan();
+
+        for (int cost : new int[] {0, 7, 11, 12, 20}) {
+            assertEquals(expected(f -> f.getCost() > cost), titles(cost), Integer.toString(cost));
+        }
+        // A miss would have replaced the plan
+        assertEquals(1, cache.planCache().size());
+        assertSame(plan, onlyPlan());
+    }
+
+    @Test
+    void planWithAnotherShapeIsNotReused() {
+        titles(5);
+        final List<String> actual = stream(StreamConfiguration.of(Film.class))
+            .filter(Film$.cost.greaterThan(5).and(Film$.rating.equal("G")))
+            .sorted(Film$.filmId)
+            .map(Film::getTitle)
+            .collect(Collectors.toList());
+
+        assertEquals(expected(f -> f.getCost() > 5 && "G".equals(f.getRating())), actual);
+        assertEquals(2, cache.planCache().size());
+    }
+
+    @Test
+    void evictedPlanIsRenderedAgain() {
+        final StandardRendererCache small = new StandardRendererCache(1);
+        final List<String> first = titles(5, small);
+        final PlanCache.Plan plan = onlyPlan(small);
+        stream(StreamConfiguration.of(Film.class), new StandardRenderer(entityManagerFactory.createEntityManager(), small))
+            .filter(Film$.rating.equal("G"))
+            .count();
+        assertEquals(1, small.planCache().size());
+
+        assertNotSame(plan, onlyPlan(small));
+
+        assertEquals(first, titles(5, small));
+        assertNotSame(plan, onlyPlan(small));
+        small.close();
+    }
+
+    @Test
+    void planIsReusedConcurrentlyByEntityManagersOfSeveralThreads() throws Exception {
+        final int threads = 8;
+        final int iterations = 25;
+        // Caches the plans, which are then only read by the threads
+        titles(5);
+        count(5);
+        final Map<String, PlanCache.Plan> plans = cache.planCache().plans();
+        assertEquals(2, plans.size());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    assertTrue(start.await(10, TimeUnit.SECONDS));
+                    for (int i = 0; i < iterations; i++) {
+                        final int cost = (thread + i) % 14;
+                        assertEquals(expected(f -> f.getCost() > cost), titles(cost), Integer.toString(cost));
+                        assertEquals(films.stream().filter(f -> f.getCost() > cost).count(), count(cost), Integer.toString(cost));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // All streams were rendered from the plans cached before the threads started
+        assertEquals(plans, cache.planCache().plans());
+    }
+
+    private static long count(final int cost) {
+        try (Stream<Film> stream = stream(StreamConfiguration.of(Film.class))) {
+            return stream.filter(Film$.cost.greaterThan(cost)).count();
+        }
+    }
+
+    private static List<String> titles(final int cost) {
+        return titles(cost, cache);
+    }
+
+    private static List<String> titles(final int cost, final StandardRendererCache rendererCache) {
+        try (Stream<Film> stream = stream(StreamConfiguration.of(Film.class), new StandardRenderer(entityManagerFactory.createEntityManager(), rendererCache))) {
+            return stream
+                .filter(Film$.cost.greaterThan(cost))
+                .sorted(Film$.filmId)
+                .map(Film::getTitle)
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> expected(final Predicate<Film> predicate) {
+        return films.stream().filter(predicate).map(Film::getTitle).collect(Collectors.toList());
+    }
+
+    private static PlanCache.Plan onlyPlan() {
+        return onlyPlan(cache);
+    }
+
+    private static PlanCache.Plan onlyPlan(final StandardRendererCache rendererCache) {
+        final Map<String, PlanCache.Plan> plans = rendererCache.planCache().plans();
+        assertEquals(1, plans.size());
+        return plans.values().iterator().next();
+    }
+
+    private static PlanCache.Plan plan(final EntityManagerFactory factory) {
+        return new PlanCache.Plan(factory, mock(CriteriaQuery.class), Collections.emptyList(), Collections.emptyList(), false, false);
+    }
+}
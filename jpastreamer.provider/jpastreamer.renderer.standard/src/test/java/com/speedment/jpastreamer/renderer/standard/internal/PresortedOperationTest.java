@@ -0,0 +1,178 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.OrderFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.metamodel.Attribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class PresortedOperationTest extends DatabaseTest {
+
+    // The leading fields can be ordered by the database, the title can not
+    private static final Comparator<Film> RATING_LENGTH_TITLE = Film$.rating.comparator()
+        .thenComparing(Film$.length.comparator())
+        .thenComparing(Comparator.comparing(Film::getTitle));
+
+    @BeforeEach
+    void clearPlans() {
+        cache.planCache().clear();
+    }
+
+    @Test
+    void orderByMatchesLeadingFields() {
+        // Each nullable field is ordered by its null rank first
+        assertEquals(List.of("(nulls) asc", "rating asc", "(nulls) asc", "length asc"), pushedDownOrder(RATING_LENGTH_TITLE));
+    }
+
+    @Test
+    void orderByOfReversedComparator() {
+        assertEquals(List.of("(nulls) asc", "rating desc", "(nulls) asc", "length desc"), pushedDownOrder(RATING_LENGTH_TITLE.reversed()));
+    }
+
+    @Test
+    void orderByOfThenComparingChain() {
+        final Comparator<Film> comparator = Film$.cost.comparator()
+            .thenComparing(Comparator.comparing(Film::getTitle))
+            .thenComparing(Film$.filmId.comparator());
+        // The fields following the lambda are part of the tie breaker
+        assertEquals(List.of("cost asc"), pushedDownOrder(comparator));
+        assertEquals(List.of("cost desc"), pushedDownOrder(comparator.reversed()));
+    }
+
+    @Test
+    void orderedQueryIsNotPresorted() {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final Criteria<Film, Film> criteria = criteria(entityManager);
+            criteria.getQuery().orderBy(criteria.getBuilder().asc(criteria.getRoot().get("title")));
+            final List<IntermediateOperation<?, ?>> remaining = sortedOperations(RATING_LENGTH_TITLE);
+
+            assertFalse(PresortedOperation.pushDown(criteria, remaining, orderFactory()));
+            assertFalse(remaining.get(0) instanceof PresortedOperation);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void onlyRunsOfEqualLeadingFieldsAreSorted() {
+        final PresortedOperation<Film> presorted = presorted(Film$.cost.comparator().thenComparing(Comparator.comparing(Film::getTitle)));
+
+        // An infinite stream can only be consumed if it is never sorted as a whole
+        final List<Integer> ids = presorted.function()
+            .apply(Stream.iterate(0, i -> i + 1).map(i -> film(i, i / 3, "FILM " + (9 - i % 3))))
+            .limit(7)
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+
+        // Each run of three films with the same cost is sorted by the title
+        assertEquals(List.of(2, 1, 0, 5, 4, 3, 8), ids);
+    }
+
+    @Test
+    void streamIsSortedAsInMemory() {
+        assertSortedAsInMemory(RATING_LENGTH_TITLE);
+        assertSortedAsInMemory(RATING_LENGTH_TITLE.reversed());
+        assertSortedAsInMemory(Film$.rating.comparatorNullFieldsFirst().thenComparing(Comparator.comparing(Film::getTitle)).reversed());
+        assertSortedAsInMemory(Film$.cost.comparator()
+            .thenComparing(Comparator.comparing(Film::getScore, Comparator.reverseOrder()))
+            .thenComparing(Film$.filmId.comparator()));
+    }
+
+    private static void assertSortedAsInMemory(final Comparator<Film> comparator) {
+        cache.planCache().clear();
+        final List<Integer> expected = films.stream().sorted(comparator).map(Film::getFilmId).collect(Collectors.toList());
+        try (Stream<Film> stream = films()) {
+            assertEquals(expected, stream.sorted(comparator).map(Film::getFilmId).collect(Collectors.toList()));
+        }
+
+        // The plan records that the sort was completed by a PresortedOperation
+        final Map<String, PlanCache.Plan> plans = cache.planCache().plans();
+        assertEquals(1, plans.size());
+        assertTrue(plans.values().iterator().next().presorted());
+    }
+
+    /**
+     * Pushes the sort of the provided comparator down into a criteria and returns its ORDER BY,
+     * rendering each order as the name of the attribute, or {@code (nulls)} for a null rank,
+     * followed by its direction.
+     */
+    private static List<String> pushedDownOrder(final Comparator<Film> comparator) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final Criteria<Film, Film> criteria = criteria(entityManager);
+            final List<IntermediateOperation<?, ?>> remaining = sortedOperations(comparator);
+
+            assertTrue(PresortedOperation.pushDown(criteria, remaining, orderFactory()));
+            assertInstanceOf(PresortedOperation.class, remaining.get(0));
+
+            return criteria.getQuery().getOrderList().stream()
+                .map(order -> name(order) + (order.isAscending() ? " asc" : " desc"))
+                .collect(Collectors.toList());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String name(final Order order) {
+        return order.getExpression() instanceof Path
+            ? ((Attribute<?, ?>) ((Path<?>) order.getExpression()).getModel()).getName()
+            : "(nulls)";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PresortedOperation<Film> presorted(final Comparator<Film> comparator) {
+        final List<IntermediateOperation<?, ?>> remaining = sortedOperations(comparator);
+        PresortedOperation.presort(remaining);
+        return (PresortedOperation<Film>) remaining.get(0);
+    }
+
+    private static List<IntermediateOperation<?, ?>> sortedOperations(final Comparator<Film> comparator) {
+        return new ArrayList<>(pipeline(StreamConfiguration.of(Film.class), s -> s.sorted(comparator).forEach(f -> {})).intermediateOperations());
+    }
+
+    private static Criteria<Film, Film> criteria(final EntityManager entityManager) {
+        return RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load).createCriteria(entityManager, Film.class);
+    }
+
+    private static OrderFactory orderFactory() {
+        return RootFactory.getOrThrow(OrderFactory.class, ServiceLoader::load);
+    }
+
+    private static Film film(final int id, final int cost, final String title) {
+        final Film film = new Film(id, title);
+        film.setCost(cost);
+        return film;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Language;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ResultCacheTest extends DatabaseTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    @BeforeEach
+    void clearResults() {
+        cache.resultCache().clear();
+    }
+
+    @Test
+    void cachedRowsAreReturned() {
+        final ResultCache resultCache = new ResultCache(10, 1 << 20);
+        assertTrue(resultCache.put(key("a"), List.of("x", "y"), TIME_TO_LIVE));
+
+        assertEquals(List.of("x", "y"), resultCache.get(key("a")));
+        assertNull(resultCache.get(key("b")));
+        assertNull(resultCache.get(new ResultCache.Key(Film.class, "a", List.of(1), 0, Integer.MAX_VALUE)));
+        assertNull(resultCache.get(new ResultCache.Key(Film.class, "a", List.of(), 10, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void expiredRowsAreDropped() {
+        final ResultCache resultCache = new ResultCache(10, 1 << 20);
+        assertTrue(resultCache.put(key("a"), List.of("x"), Duration.ofNanos(1)));
+
+        assertNull(resultCache.get(key("a")));
+        assertEquals(0, resultCache.size());
+        assertEquals(0, resultCache.bytes());
+    }
+
+    @Test
+    void onlyValuesAreCached() {
+        final ResultCache resultCache = new ResultCache(10, 1 << 20);
+
+        assertFalse(resultCache.put(key("entity"), List.of(new Film(1, "x")), TIME_TO_LIVE));
+        assertFalse(resultCache.put(key("column"), Collections.singletonList(new Object[]{1, new Language(1, "x")}), TIME_TO_LIVE));
+        assertFalse(resultCache.contains(key("entity")));
+        assertFalse(resultCache.contains(key("column")));
+
+        assertTrue(resultCache.put(key("values"), List.of(1, 2L, 3.0, "x", LocalDate.of(2020, 1, 1)), TIME_TO_LIVE));
+        assertTrue(resultCache.put(key("nulls"), Collections.singletonList(null), TIME_TO_LIVE));
+    }
+
+    @Test
+    void rowsOfColumnsAreCopied() {
+        final ResultCache resultCache = new ResultCache(10, 1 << 20);
+        final Object[] row = {1, "x"};
+        assertTrue(resultCache.put(key("a"), Collections.singletonList(row), TIME_TO_LIVE));
+        row[1] = "y";
+
+        final Object[] cached = (Object[]) resultCache.get(key("a")).get(0);
+        assertArrayEquals(new Object[]{1, "x"}, cached);
+        cached[1] = "z";
+        assertArrayEquals(new Object[]{1, "x"}, (Object[]) resultCache.get(key("a")).get(0));
+    }
+
+    @Test
+    void unreadCandidateIsNotAdmitted() {
+        // A window of one entry and a main region of two entries
+        final ResultCache resultCache = new ResultCache(3, 1 << 20);
+        put(resultCache, "a", "b", "c", "d");
+
+        // "c" left the window but was not read more often than "a"
+        assertCached(resultCache, "a", "b", "d");
+        assertNotCached(resultCache, "c");
+    }
+
+    @Test
+    void frequentlyReadCandidateIsAdmitted() {
+        final ResultCache resultCache = new ResultCache(3, 1 << 20);
+        put(resultCache, "a", "b", "c");
+        resultCache.get(key("c"));
+        resultCache.get(key("c"));
+        put(resultCache, "d");
+
+        assertCached(resultCache, "b", "c", "d");
+        assertNotCached(resultCache, "a");
+    }
+
+    @Test
+    void readEntryIsProtected() {
+        final ResultCache resultCache = new ResultCache(3, 1 << 20);
+        put(resultCache, "a", "b", "c");
+        // "a" moves to the protected segment and "b" becomes the eldest entry of the main region
+        resultCache.get(key("a"));
+        resultCache.get(key("c"));
+        resultCache.get(key("c"));
+        put(resultCache, "d");
+
+        assertCached(resultCache, "a", "c", "d");
+        assertNotCached(resultCache, "b");
+    }
+
+    @Test
+    void frequentlyReadEntriesSurviveScan() {
+        final ResultCache resultCache = new ResultCache(100, 1 << 20);
+        final String[] hot = IntStream.range(0, 100).mapToObj(i -> "hot" + i).toArray(String[]::new);
+        put(resultCache, hot);
+        for (int i = 0; i < 3; i++) {
+            for (String signature : hot) {
+                resultCache.get(key(signature));
+            }
+        }
+
+        final String[] cold = IntStream.range(0, 1_000).mapToObj(i -> "cold" + i).toArray(String[]::new);
+        put(resultCache, cold);
+
+        assertEquals(100, resultCache.size());
+        // Only the window holds a cold result, which in turn displaced a hot result from the window
+        assertEquals(99, IntStream.range(0, hot.length).filter(i -> resultCache.contains(key(hot[i]))).count());
+        assertCached(resultCache, cold[cold.length - 1]);
+    }
+
+    @Test
+    void rowsExceedingMaxBytesAreNotCached() {
+        final List<String> rows = List.of("x".repeat(100));
+        final long size = ResultCache.estimateSize(rows);
+        final ResultCache resultCache = new ResultCache(10, size - 1);
+
+        assertFalse(resultCache.put(key("a"), rows, TIME_TO_LIVE));
+        assertEquals(0, resultCache.bytes());
+    }
+
+    @Test
+    void eldestResultsAreEvictedBeyondMaxBytes() {
+        final List<String> rows = List.of("x".repeat(100));
+        final long size = ResultCache.estimateSize(rows);
+        final ResultCache resultCache = new ResultCache(10, 3 * size);
+        put(resultCache, rows, "a", "b", "c");
+        assertEquals(3 * size, resultCache.bytes());
+
+        put(resultCache, rows, "d");
+        assertEquals(3, resultCache.size());
+        assertEquals(3 * size, resultCache.bytes());
+        assertNotCached(resultCache, "a");
+        assertCached(resultCache, "b", "c", "d");
+    }
+
+    @Test
+    void invalidateDropsResultsOfEntityClass() {
+        final ResultCache resultCache = new ResultCache(10, 1 << 20);
+        resultCache.put(key("a"), List.of("x"), TIME_TO_LIVE);
+        final ResultCache.Key language = new ResultCache.Key(Language.class, "a", List.of(), 0, Integer.MAX_VALUE);
+        resultCache.put(language, List.of("y"), TIME_TO_LIVE);
+
+        resultCache.invalidate(Film.class);
+        assertNotCached(resultCache, "a");
+        assertTrue(resultCache.contains(language));
+        assertEquals(ResultCache.estimateSize(List.of("y")), resultCache.bytes());
+
+        resultCache.invalidate();
+        assertEquals(0, resultCache.size());
+        assertEquals(0, resultCache.bytes());
+    }
+
+    @Test
+    void closedCacheCachesNothing() {
+        final ResultCache resultCache = new ResultCache(10, 1 << 20);
+        resultCache.put(key("a"), List.of("x"), TIME_TO_LIVE);
+        resultCache.close();
+
+        assertFalse(resultCache.put(key("b"), List.of("x"), TIME_TO_LIVE));
+        assertEquals(0, resultCache.size());
+    }
+
+    @Test
+    void sketchAges() {
+        final ResultCache.FrequencySketch sketch = new ResultCache.FrequencySketch(16);
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("a");
+        }
+        assertEquals(15, sketch.frequency("a"));
+
+        // The counters are halved after ten times the number of entries increments
+        IntStream.range(0, 160).forEach(i -> sketch.increment("b" + i));
+        assertTrue(sketch.frequency("a") <= 7);
+    }
+
+    @Test
+    void columnsOfStreamAreCached() {
+        final List<String> titles = films.stream().map(Film::getTitle).collect(Collectors.toList());
+        final StreamConfiguration<Film> configuration = StreamConfiguration.of(Film.class).caching(TIME_TO_LIVE);
+
+        assertEquals(titles, stream(configuration).map(Film$.title).collect(Collectors.toList()));
+        assertEquals(1, cache.resultCache().size());
+        assertEquals(titles, stream(configuration).map(Film$.title).collect(Collectors.toList()));
+        assertEquals(1, cache.resultCache().size());
+
+        final Projection<Film> projection = Projection.select(Film$.filmId, Film$.rating);
+        final List<Tuple> tuples = films.stream().map(projection).collect(Collectors.toList());
+        assertEquals(tuples, stream(configuration).map(projection).collect(Collectors.toList()));
+        assertEquals(tuples, stream(configuration).map(projection).collect(Collectors.toList()));
+        assertEquals(2, cache.resultCache().size());
+
+        cache.invalidate(Film.class);
+        assertEquals(0, cache.resultCache().size());
+    }
+
+    @Test
+    void entitiesOfStreamAreNotCached() {
+        final StreamConfiguration<Film> configuration = StreamConfiguration.of(Film.class).caching(TIME_TO_LIVE);
+        final Film first = stream(configuration).findFirst().orElseThrow();
+        final Film second = stream(configuration).findFirst().orElseThrow();
+
+        assertEquals(0, cache.resultCache().size());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void associationsOfStreamAreNotCached() {
+        final StreamConfiguration<Film> configuration = StreamConfiguration.of(Film.class).caching(TIME_TO_LIVE);
+        final List<Language> languages = stream(configuration).map(Film$.language.getter()).collect(Collectors.toList());
+
+        assertEquals(FILMS, languages.size());
+        assertEquals(films.stream().filter(film -> film.getLanguage() == null).count(), languages.stream().filter(language -> language == null).count());
+        assertEquals(0, cache.resultCache().size());
+    }
+
+    private static ResultCache.Key key(final String signature) {
+        return new ResultCache.Key(Film.class, signature, List.of(), 0, Integer.MAX_VALUE);
+    }
+
+    private static void put(final ResultCache resultCache, final String... signatures) {
+        put(resultCache, List.of("x"), signatures);
+    }
+
+    private static void put(final ResultCache resultCache, final List<?> rows, final String... signatures) {
+        for (String signature : signatures) {
+            assertTrue(resultCache.put(key(signature), rows, TIME_TO_LIVE));
+        }
+    }
+
+    private static void assertCached(final ResultCache resultCache, final String... signatures) {
+        for (String signature : signatures) {
+            assertTrue(resultCache.contains(key(signature)), signature);
+        }
+    }
+
+    private static void assertNotCached(final ResultCache resultCache, final String... signatures) {
+        for (String signature : signatures) {
+            assertFalse(resultCache.contains(key(signature)), signature);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.ReferenceField;
+import com.speedment.jpastreamer.field.StringField;
+
+public final class Film$ {
+
+    /**
+     * This Field corresponds to the {@link Film} field "filmId".
+     */
+    public static final ComparableField<Film, Integer> filmId = ComparableField.create(
+        Film.class,
+        "filmId",
+        Film::getFilmId,
+        true
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "title".
+     */
+    public static final StringField<Film> title = StringField.create(
+        Film.class,
+        "title",
+        Film::getTitle,
+        false
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "length".
+     */
+    public static final ComparableField<Film, Integer> length = ComparableField.create(
+        Film.class,
+        "length",
+        Film::getLength,
+        false
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "rating".
+     */
+    public static final StringField<Film> rating = StringField.create(
+        Film.class,
+        "rating",
+        Film::getRating,
+        false
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "cost".
+     */
+    public static final IntField<Film> cost = IntField.create(
+        Film.class,
+        "cost",
+        Film::getCost,
+        false
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "score".
+     */
+    public static final DoubleField<Film> score = DoubleField.create(
+        Film.class,
+        "score",
+        Film::getScore,
+        false
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "language".
+     */
+    public static final ReferenceField<Film, Language> language = ReferenceField.create(
+        Film.class,
+        "language",
+        Film::getLanguage,
+        false
+    );
+}
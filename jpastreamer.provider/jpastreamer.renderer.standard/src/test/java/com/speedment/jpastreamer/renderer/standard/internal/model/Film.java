@@ -0,0 +1,107 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "film")
+public class Film {
+
+    public Film() {}
+
+    public Film(Integer filmId, String title) {
+        this.filmId = filmId;
+        this.title = title;
+    }
+
+    @Id
+    @Column(name = "film_id", nullable = false, updatable = false)
+    private Integer filmId;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "length")
+    private Integer length;
+
+    @Column(name = "rating", length = 5)
+    private String rating;
+
+    @Column(name = "cost", nullable = false)
+    private int cost;
+
+    @Column(name = "score", nullable = false)
+    private double score;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "language_id")
+    private Language language;
+
+    public Integer getFilmId() {
+        return filmId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+
+    public String getRating() {
+        return rating;
+    }
+
+    public void setRating(String rating) {
+        this.rating = rating;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public void setCost(int cost) {
+        this.cost = cost;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public Language getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(Language language) {
+        this.language = language;
+    }
+
+    @Override
+    public String toString() {
+        return "Film{filmId=" + filmId + ", title='" + title + "', length=" + length + ", rating='" + rating + "'}";
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "language")
+public class Language {
+
+    public Language() {}
+
+    public Language(Integer languageId, String name) {
+        this.languageId = languageId;
+        this.name = name;
+    }
+
+    @Id
+    @Column(name = "language_id", nullable = false, updatable = false)
+    private Integer languageId;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    public Integer getLanguageId() {
+        return languageId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "Language{languageId=" + languageId + ", name='" + name + "'}";
+    }
+}
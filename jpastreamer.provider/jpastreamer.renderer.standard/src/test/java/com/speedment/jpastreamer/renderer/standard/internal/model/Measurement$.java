@@ -0,0 +1,48 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import com.speedment.jpastreamer.field.ComparableField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+
+public final class Measurement$ {
+
+    /**
+     * This Field corresponds to the {@link Measurement} field "measurementId".
+     */
+    public static final ComparableField<Measurement, Integer> measurementId = ComparableField.create(
+        Measurement.class,
+        "measurementId",
+        Measurement::getMeasurementId,
+        true
+    );
+    /**
+     * This Field corresponds to the {@link Measurement} field "amount".
+     */
+    public static final IntField<Measurement> amount = IntField.create(
+        Measurement.class,
+        "amount",
+        Measurement::getAmount,
+        false
+    );
+    /**
+     * This Field corresponds to the {@link Measurement} field "volume".
+     */
+    public static final LongField<Measurement> volume = LongField.create(
+        Measurement.class,
+        "volume",
+        Measurement::getVolume,
+        false
+    );
+}
@@ -0,0 +1,58 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "measurement")
+public class Measurement {
+
+    public Measurement() {}
+
+    public Measurement(Integer measurementId, int amount, long volume) {
+        this.measurementId = measurementId;
+        this.amount = amount;
+        this.volume = volume;
+    }
+
+    @Id
+    @Column(name = "measurement_id", nullable = false, updatable = false)
+    private Integer measurementId;
+
+    @Column(name = "amount", nullable = false)
+    private int amount;
+
+    @Column(name = "volume", nullable = false)
+    private long volume;
+
+    public Integer getMeasurementId() {
+        return measurementId;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    @Override
+    public String toString() {
+        return "Measurement{measurementId=" + measurementId + ", amount=" + amount + ", volume=" + volume + "}";
+    }
+}
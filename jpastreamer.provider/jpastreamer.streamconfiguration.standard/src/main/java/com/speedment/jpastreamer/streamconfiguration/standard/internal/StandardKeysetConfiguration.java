@@ -0,0 +1,47 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration.standard.internal;
+
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+final class StandardKeysetConfiguration implements StreamConfiguration.KeysetConfiguration {
+
+    private final Cursor cursor;
+    private final Consumer<? super Cursor> nextCursorConsumer;
+
+    StandardKeysetConfiguration(final Cursor cursor, final Consumer<? super Cursor> nextCursorConsumer) {
+        this.cursor = requireNonNull(cursor);
+        this.nextCursorConsumer = requireNonNull(nextCursorConsumer);
+    }
+
+    @Override
+    public Cursor cursor() {
+        return cursor;
+    }
+
+    @Override
+    public Consumer<? super Cursor> nextCursorConsumer() {
+        return nextCursorConsumer;
+    }
+
+    @Override
+    public String toString() {
+        return "seeking after " + cursor;
+    }
+
+}
@@ -16,36 +16,65 @@ import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.Explanation;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import jakarta.persistence.criteria.JoinType;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public final class StandardStreamConfiguration<T> implements StreamConfiguration<T> {
 
+    private static final int DEFAULT_IN_LIST_LIMIT = 1000;
+
     private final Class<T> entityClass;
     private final Projection<T> projection;
     private final Set<JoinConfiguration<T>> joinConfigurations;
     private final Map<String, Object> queryHints;
+    private final KeysetConfiguration keyset;
+    private final int chunkSize;
+    private final ParallelConfiguration parallelism;
+    private final int inListLimit;
+    private final Consumer<? super Explanation> explanationConsumer;
+    private final Duration cacheTimeToLive;
+    private final boolean readOnly;
 
     public StandardStreamConfiguration(final Class<T> entityClass) {
         this.entityClass = requireNonNull(entityClass);
         this.projection = null;
         this.joinConfigurations = Collections.emptySet();
         this.queryHints = Collections.emptyMap();
+        this.keyset = null;
+        this.chunkSize = 0;
+        this.parallelism = null;
+        this.inListLimit = DEFAULT_IN_LIST_LIMIT;
+        this.explanationConsumer = null;
+        this.cacheTimeToLive = null;
+        this.readOnly = false;
     }
 
-    private StandardStreamConfiguration(final Class<T> entityClass, Projection<T> projection, final Set<JoinConfiguration<T>> joinConfigurations, final Map<String, Object> queryHints) {
+    private StandardStreamConfiguration(final Class<T> entityClass, Projection<T> projection, final Set<JoinConfiguration<T>> joinConfigurations, final Map<String, Object> queryHints, final KeysetConfiguration keyset, final int chunkSize, final ParallelConfiguration parallelism, final int inListLimit, final Consumer<? super Explanation> explanationConsumer, final Duration cacheTimeToLive, final boolean readOnly) {
         this.entityClass = entityClass;
         this.projection = projection;
         this.joinConfigurations = new HashSet<>(joinConfigurations);
         this.queryHints = new HashMap<>(queryHints);
+        this.keyset = keyset;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.inListLimit = inListLimit;
+        this.explanationConsumer = explanationConsumer;
+        this.cacheTimeToLive = cacheTimeToLive;
+        this.readOnly = readOnly;
     }
 
     @Override
@@ -64,7 +93,7 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
         requireNonNull(joinType);
         final Set<JoinConfiguration<T>> newJoins = new HashSet<>(joinConfigurations);
         newJoins.add(new StandardJoinConfiguration<>(field, joinType));
-        return new StandardStreamConfiguration<>(entityClass, projection, newJoins, queryHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, newJoins, queryHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
     }
 
     @Override
@@ -75,7 +104,7 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
     @Override
     public StreamConfiguration<T> selecting(Projection<T> projection) {
         requireNonNull(projection);
-        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
     }
 
     @Override
@@ -89,7 +118,95 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
         requireNonNull(value);
         final HashMap<String, Object> newHints = new HashMap<>(queryHints);
         newHints.put(hintName, value);
-        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, newHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, newHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
+    }
+
+    @Override
+    public Optional<KeysetConfiguration> keyset() {
+        return Optional.ofNullable(keyset);
+    }
+
+    @Override
+    public StreamConfiguration<T> seekingAfter(final Cursor cursor, final Consumer<? super Cursor> nextCursorConsumer) {
+        requireNonNull(cursor);
+        requireNonNull(nextCursorConsumer);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, new StandardKeysetConfiguration(cursor, nextCursorConsumer), chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
+    }
+
+    @Override
+    public OptionalInt chunkSize() {
+        return chunkSize == 0 ? OptionalInt.empty() : OptionalInt.of(chunkSize);
+    }
+
+    @Override
+    public StreamConfiguration<T> withChunkSize(final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
+    }
+
+    @Override
+    public Optional<ParallelConfiguration> parallelism() {
+        return Optional.ofNullable(parallelism);
+    }
+
+    @Override
+    public StreamConfiguration<T> withParallelism(final int partitions) {
+        return withParallelism(partitions, StandardParallelConfiguration.defaultExecutor());
+    }
+
+    @Override
+    public StreamConfiguration<T> withParallelism(final int partitions, final Executor executor) {
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunkSize, new StandardParallelConfiguration(partitions, executor), inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
+    }
+
+    @Override
+    public int inListLimit() {
+        return inListLimit;
+    }
+
+    @Override
+    public StreamConfiguration<T> withInListLimit(final int inListLimit) {
+        if (inListLimit <= 0) {
+            throw new IllegalArgumentException("The IN-list limit must be positive: " + inListLimit);
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
+    }
+
+    @Override
+    public Optional<Consumer<? super Explanation>> explanationConsumer() {
+        return Optional.ofNullable(explanationConsumer);
+    }
+
+    @Override
+    public StreamConfiguration<T> explaining(final Consumer<? super Explanation> explanationConsumer) {
+        requireNonNull(explanationConsumer);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, readOnly);
+    }
+
+    @Override
+    public Optional<Duration> cacheTimeToLive() {
+        return Optional.ofNullable(cacheTimeToLive);
+    }
+
+    @Override
+    public StreamConfiguration<T> caching(final Duration timeToLive) {
+        requireNonNull(timeToLive);
+        if (timeToLive.isZero() || timeToLive.isNegative()) {
+            throw new IllegalArgumentException("The time to live must be positive: " + timeToLive);
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, timeToLive, readOnly);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public StreamConfiguration<T> readOnly() {
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunkSize, parallelism, inListLimit, explanationConsumer, cacheTimeToLive, true);
     }
 
     @Override
@@ -120,9 +237,39 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
                 .sorted()
                 .collect(Collectors.joining(", "));
 
+        final String keysetText = keyset == null
+                ? ""
+                : " " + keyset;
+
+        final String chunkText = chunkSize == 0
+                ? ""
+                : " in chunks of " + chunkSize;
+
+        final String parallelText = parallelism == null
+                ? ""
+                : " " + parallelism;
+
+        final String explainText = explanationConsumer == null
+                ? ""
+                : " explained";
+
+        final String cacheText = cacheTimeToLive == null
+                ? ""
+                : " cached for " + cacheTimeToLive;
+
+        final String readOnlyText = readOnly
+                ? " read-only"
+                : "";
+
         return "StandardStreamConfiguration{" +
                 "of " + entityClass.getSimpleName() +
                 joinText +
+                keysetText +
+                chunkText +
+                parallelText +
+                explainText +
+                cacheText +
+                readOnlyText +
                 '}';
     }
 }
@@ -13,13 +13,21 @@
 package com.speedment.jpastreamer.streamconfiguration.standard.internal;
 
 import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.streamconfiguration.Cursor;
+import com.speedment.jpastreamer.streamconfiguration.Explanation;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import jakarta.persistence.criteria.JoinType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,6 +60,107 @@ final class StandardStreamConfigurationTest {
         assertNotSame(j1, j2);
     }
 
+    @Test
+    void seekingAfter() {
+        assertFalse(initial.keyset().isPresent());
+
+        final List<Cursor> nextCursors = new ArrayList<>();
+        final Cursor cursor = Cursor.of("ACADEMY DINOSAUR", 1);
+        final StreamConfiguration<Film> seeking = initial.joining(Film$.title).seekingAfter(cursor, nextCursors::add);
+
+        final StreamConfiguration.KeysetConfiguration keyset = seeking.keyset().orElseThrow(AssertionError::new);
+        assertEquals(cursor, keyset.cursor());
+        keyset.nextCursorConsumer().accept(Cursor.of("AFRICAN EGG", 5));
+        assertEquals(Collections.singletonList(Cursor.of("AFRICAN EGG", 5)), nextCursors);
+
+        assertEquals(initial.joining(Film$.title).joins(), seeking.joins());
+        assertTrue(seeking.joining(Film$.length).keyset().isPresent());
+        assertNotSame(initial, seeking);
+    }
+
+    @Test
+    void withChunkSize() {
+        assertFalse(initial.chunkSize().isPresent());
+
+        final StreamConfiguration<Film> chunked = initial.joining(Film$.title).withChunkSize(1000);
+        assertEquals(1000, chunked.chunkSize().getAsInt());
+        assertEquals(1000, chunked.joining(Film$.length).chunkSize().getAsInt());
+        assertEquals(initial.joining(Film$.title).joins(), chunked.joins());
+
+        assertThrows(IllegalArgumentException.class, () -> initial.withChunkSize(0));
+    }
+
+    @Test
+    void withParallelism() {
+        assertFalse(initial.parallelism().isPresent());
+
+        final Executor executor = Runnable::run;
+        final StreamConfiguration<Film> parallel = initial.withParallelism(8, executor);
+        final StreamConfiguration.ParallelConfiguration parallelism = parallel.parallelism().orElseThrow(AssertionError::new);
+        assertEquals(8, parallelism.partitions());
+        assertSame(executor, parallelism.executor());
+        // The blocking queries are not executed by the common pool by default
+        final Executor defaultExecutor = initial.withParallelism(2).parallelism().orElseThrow(AssertionError::new).executor();
+        assertNotSame(ForkJoinPool.commonPool(), defaultExecutor);
+        assertSame(defaultExecutor, initial.withParallelism(4).parallelism().orElseThrow(AssertionError::new).executor());
+        assertTrue(parallel.withChunkSize(10).parallelism().isPresent());
+
+        assertThrows(IllegalArgumentException.class, () -> initial.withParallelism(0));
+        assertThrows(NullPointerException.class, () -> initial.withParallelism(2, null));
+    }
+
+    @Test
+    void withInListLimit() {
+        assertEquals(1000, initial.inListLimit());
+
+        final StreamConfiguration<Film> limited = initial.withChunkSize(10).withInListLimit(256);
+        assertEquals(256, limited.inListLimit());
+        assertEquals(256, limited.joining(Film$.length).inListLimit());
+        assertEquals(10, limited.chunkSize().getAsInt());
+
+        assertThrows(IllegalArgumentException.class, () -> initial.withInListLimit(0));
+    }
+
+    @Test
+    void explaining() {
+        assertFalse(initial.explanationConsumer().isPresent());
+
+        final Consumer<Explanation> consumer = explanation -> {};
+        final StreamConfiguration<Film> explaining = initial.withInListLimit(256).explaining(consumer);
+        assertSame(consumer, explaining.explanationConsumer().orElseThrow(AssertionError::new));
+        assertSame(consumer, explaining.joining(Film$.title).withChunkSize(10).explanationConsumer().orElseThrow(AssertionError::new));
+        assertEquals(256, explaining.inListLimit());
+        assertFalse(initial.explanationConsumer().isPresent());
+
+        assertThrows(NullPointerException.class, () -> initial.explaining(null));
+    }
+
+    @Test
+    void caching() {
+        assertFalse(initial.cacheTimeToLive().isPresent());
+
+        final StreamConfiguration<Film> caching = initial.withChunkSize(10).caching(Duration.ofMinutes(5));
+        assertEquals(Duration.ofMinutes(5), caching.cacheTimeToLive().orElseThrow(AssertionError::new));
+        assertEquals(Duration.ofMinutes(5), caching.joining(Film$.title).withInListLimit(256).cacheTimeToLive().orElseThrow(AssertionError::new));
+        assertEquals(10, caching.chunkSize().orElseThrow(AssertionError::new));
+        assertFalse(initial.cacheTimeToLive().isPresent());
+
+        assertThrows(NullPointerException.class, () -> initial.caching(null));
+        assertThrows(IllegalArgumentException.class, () -> initial.caching(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> initial.caching(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void readOnly() {
+        assertFalse(initial.isReadOnly());
+
+        final StreamConfiguration<Film> readOnly = initial.withChunkSize(10).readOnly();
+        assertTrue(readOnly.isReadOnly());
+        assertTrue(readOnly.joining(Film$.title).caching(Duration.ofMinutes(5)).isReadOnly());
+        assertEquals(10, readOnly.chunkSize().orElseThrow(AssertionError::new));
+        assertFalse(initial.isReadOnly());
+    }
+
     @Test
     void testEquals() {
         final StreamConfiguration<Film> first = initial.joining(Film$.title).joining(Film$.length);
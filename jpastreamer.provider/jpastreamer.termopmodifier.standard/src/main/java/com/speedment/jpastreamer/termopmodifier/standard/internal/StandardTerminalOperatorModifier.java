@@ -12,17 +12,23 @@
  */
 package com.speedment.jpastreamer.termopmodifier.standard.internal;
 
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
 import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
 import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
 import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 import com.speedment.jpastreamer.termopmodifier.TerminalOperationModifier;
 
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
 
@@ -51,6 +57,10 @@ final class StandardTerminalOperatorModifier implements TerminalOperationModifie
                 return modifyFindFirst(pipeline);
             case FIND_ANY:
                 return modifyFindAny(pipeline);
+            case MIN:
+                return modifyMinMax(pipeline, false);
+            case MAX:
+                return modifyMinMax(pipeline, true);
             default:
                 return pipeline;
         }
@@ -87,6 +97,51 @@ final class StandardTerminalOperatorModifier implements TerminalOperationModifie
         return pipeline;
     }
 
+    /**
+     * Rewrites {@code min(c)} as {@code sorted(c).limit(1).min(c)} and {@code max(c)} as
+     * {@code sorted(c.reversed()).limit(1).max(c)} if {@code c} is a {@code FieldComparator}
+     * or a {@code CombinedComparator}, so that the sort and limit can be merged into the
+     * query. The rewrite is only made if the preceding operations are filters using a
+     * {@code SpeedmentPredicate}, as the entities would otherwise be sorted in memory.
+     */
+    private <T> Pipeline<T> modifyMinMax(Pipeline<T> pipeline, boolean max) {
+        if (pipeline.terminatingOperation().streamType() != Stream.class || !onlyFilters(pipeline)) {
+            return pipeline;
+        }
+
+        this.<T>getComparator(pipeline.terminatingOperation()).ifPresent(comparator -> {
+            pipeline.intermediateOperations().add(intermediateOperationFactory.createSorted(max ? comparator.reversed() : comparator));
+            pipeline.intermediateOperations().add(intermediateOperationFactory.createLimit(1));
+        });
+        return pipeline;
+    }
+
+    private boolean onlyFilters(Pipeline<?> pipeline) {
+        for (IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            if (operation.type() != IntermediateOperationType.FILTER
+                || operation.arguments().length != 1
+                || !(operation.arguments()[0] instanceof SpeedmentPredicate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<Comparator<T>> getComparator(final TerminalOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length != 1) {
+            return Optional.empty();
+        }
+
+        if (arguments[0] instanceof FieldComparator || arguments[0] instanceof CombinedComparator) {
+            return Optional.of((Comparator<T>) arguments[0]);
+        }
+
+        return Optional.empty();
+    }
+
     private <T> Optional<SpeedmentPredicate<T>> getPredicate(final TerminalOperation<?, ?> operation) {
         final Object[] arguments = operation.arguments();
 
@@ -0,0 +1,157 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.termopmodifier.standard.internal;
+
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.termopmodifier.standard.internal.model.Film;
+import com.speedment.jpastreamer.termopmodifier.standard.internal.model.Film$;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class MinMaxTest extends StandardTerminalOperationModifierTest<Film> {
+
+    @Override
+    Class<Film> getEntityClass() {
+        return Film.class;
+    }
+
+    @Override
+    protected Stream<PipelineTestCase<Film>> pipelines() {
+        return Stream.of(
+                minLambda(),
+                minFieldComparator(),
+                maxFieldComparator(),
+                maxReversedFieldComparator(),
+                maxCombinedComparator(),
+                minAfterFilter(),
+                minAfterLimit()
+        );
+    }
+
+    private PipelineTestCase<Film> minLambda() {
+        final Comparator<Film> comparator = Comparator.comparing(Film::getTitle);
+
+        final Pipeline<Film> min = createPipeline(
+                tof.createMin(comparator)
+        );
+
+        final Pipeline<Film> minExpected = createPipeline(
+                tof.createMin(comparator)
+        );
+
+        return new PipelineTestCase<>("Min Lambda", min, minExpected);
+    }
+
+    private PipelineTestCase<Film> minFieldComparator() {
+        final FieldComparator<Film> comparator = Film$.length.comparator();
+
+        final Pipeline<Film> min = createPipeline(
+                tof.createMin(comparator)
+        );
+
+        final Pipeline<Film> minExpected = createPipeline(
+                tof.createMin(comparator),
+                iof.createSorted(comparator),
+                iof.createLimit(1)
+        );
+
+        return new PipelineTestCase<>("Min Field Comparator", min, minExpected);
+    }
+
+    private PipelineTestCase<Film> maxFieldComparator() {
+        final FieldComparator<Film> comparator = Film$.length.comparator();
+
+        final Pipeline<Film> max = createPipeline(
+                tof.createMax(comparator)
+        );
+
+        final Pipeline<Film> maxExpected = createPipeline(
+                tof.createMax(comparator),
+                iof.createSorted(comparator.reversed()),
+                iof.createLimit(1)
+        );
+
+        return new PipelineTestCase<>("Max Field Comparator", max, maxExpected);
+    }
+
+    private PipelineTestCase<Film> maxReversedFieldComparator() {
+        final FieldComparator<Film> comparator = Film$.length.comparator().reversed();
+
+        final Pipeline<Film> max = createPipeline(
+                tof.createMax(comparator)
+        );
+
+        final Pipeline<Film> maxExpected = createPipeline(
+                tof.createMax(comparator),
+                iof.createSorted(Film$.length.comparator()),
+                iof.createLimit(1)
+        );
+
+        return new PipelineTestCase<>("Max Reversed Field Comparator", max, maxExpected);
+    }
+
+    private PipelineTestCase<Film> maxCombinedComparator() {
+        final Comparator<Film> comparator = Film$.rating.comparator().thenComparing(Film$.length.reversed());
+
+        final Pipeline<Film> max = createPipeline(
+                tof.createMax(comparator)
+        );
+
+        final Pipeline<Film> maxExpected = createPipeline(
+                tof.createMax(comparator),
+                iof.createSorted(comparator.reversed()),
+                iof.createLimit(1)
+        );
+
+        return new PipelineTestCase<>("Max Combined Comparator", max, maxExpected);
+    }
+
+    private PipelineTestCase<Film> minAfterFilter() {
+        final FieldComparator<Film> comparator = Film$.length.comparator();
+        final SpeedmentPredicate<Film> predicate = Film$.rating.equal("PG");
+
+        final Pipeline<Film> min = createPipeline(
+                tof.createMin(comparator),
+                iof.createFilter(predicate)
+        );
+
+        final Pipeline<Film> minExpected = createPipeline(
+                tof.createMin(comparator),
+                iof.createFilter(predicate),
+                iof.createSorted(comparator),
+                iof.createLimit(1)
+        );
+
+        return new PipelineTestCase<>("Min After Filter", min, minExpected);
+    }
+
+    private PipelineTestCase<Film> minAfterLimit() {
+        final FieldComparator<Film> comparator = Film$.length.comparator();
+
+        final Pipeline<Film> min = createPipeline(
+                tof.createMin(comparator),
+                iof.createLimit(10)
+        );
+
+        final Pipeline<Film> minExpected = createPipeline(
+                tof.createMin(comparator),
+                iof.createLimit(10)
+        );
+
+        return new PipelineTestCase<>("Min After Limit", min, minExpected);
+    }
+
+}
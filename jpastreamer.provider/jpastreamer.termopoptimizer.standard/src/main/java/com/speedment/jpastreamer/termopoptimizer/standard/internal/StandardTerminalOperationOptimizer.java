@@ -53,6 +53,15 @@ final class StandardTerminalOperationOptimizer implements TerminalOperationOptim
                 break; 
             }
         }
+
+        // The number of distinct elements does not depend on their order, so sorting
+        // directly preceding a trailing distinct can be removed as well. This leaves
+        // e.g. map(Film$.rating).distinct() to be rendered as a COUNT(DISTINCT rating).
+        if (!intermediateOperations.isEmpty() && intermediateOperations.getLast().type() == IntermediateOperationType.DISTINCT) {
+            for (int i = intermediateOperations.size() - 2; i >= 0 && intermediateOperations.get(i).type() == IntermediateOperationType.SORTED; i--) {
+                intermediateOperations.remove(i);
+            }
+        }
         
         pipeline.ordered(false);
         return pipeline;
@@ -33,7 +33,8 @@ public class CountTest extends StandardTerminalOperationOptimizerTest {
                 countTest2(),
                 countTest3(),
                 countTest4(),
-                countTest5()
+                countTest5(),
+                countDistinctTest()
         );
     }
 
@@ -145,4 +146,26 @@ public class CountTest extends StandardTerminalOperationOptimizerTest {
         return new PipelineTestCase<>("Count Test 5", unoptimized, optimized);
     }
     
+    private PipelineTestCase<Film> countDistinctTest() {
+        final Pipeline<Film> unoptimized = createPipeline(
+                tof.acquireCount(),
+                iof.createFilter(Film$.title.equal("TITANIC")),
+                iof.createSorted(Film$.length),
+                iof.createMap(Film$.rating),
+                iof.createSorted(Film$.title),
+                iof.acquireDistinct(),
+                iof.createSorted(Film$.title)
+        );
+
+        final Pipeline<Film> optimized = createPipeline(
+                tof.acquireCount(),
+                iof.createFilter(Film$.title.equal("TITANIC")),
+                iof.createSorted(Film$.length),
+                iof.createMap(Film$.rating),
+                iof.acquireDistinct()
+        );
+
+        return new PipelineTestCase<>("Count Distinct Test", unoptimized, optimized);
+    }
+
 }
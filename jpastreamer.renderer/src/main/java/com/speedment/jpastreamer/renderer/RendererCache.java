@@ -0,0 +1,40 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer;
+
+/**
+ * Holds the state that {@link Renderer Renderers} cache across Streams, such as
+ * rendered queries and query results, see {@link RendererFactory#createCache()}. The cache is shared by
+ * all renderers created with it and lives until it is closed, typically along with
+ * the JPAStreamer that created it.
+ *
+ * @since 3.0.4
+ */
+public interface RendererCache {
+
+    /**
+     * Drops the cached query results of Streams of the provided entity classes, or of
+     * all entity classes if none are provided.
+     *
+     * @param entityClasses to drop the cached query results of
+     */
+    default void invalidate(final Class<?>... entityClasses) {
+        // Renderers do not cache query results by default
+    }
+
+    /**
+     * Drops all state held by this cache. Renderers created with this cache
+     * remain usable but no longer cache anything.
+     */
+    void close();
+}
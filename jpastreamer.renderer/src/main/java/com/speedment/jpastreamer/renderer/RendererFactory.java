@@ -12,8 +12,10 @@
  */
 package com.speedment.jpastreamer.renderer;
 
+import com.speedment.jpastreamer.pipeline.Pipeline;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public interface RendererFactory {
@@ -40,4 +42,92 @@ public interface RendererFactory {
     Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier);
     
     Renderer createRenderer(final EntityManager entityManager);
+
+    /**
+     * Creates and returns a new {@code Renderer} whereby the provided {@code entityManagerSupplier}
+     * is used to create streams, and whereby state that is cached across streams is held
+     * by the provided {@code cache}.
+     *
+     * @param entityManagerSupplier to be used for creating streams
+     * @param cache holding the state cached across streams
+     * @return a new {@code Renderer}
+     * @since 3.0.4
+     */
+    default Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier, final RendererCache cache) {
+        return createRenderer(entityManagerSupplier);
+    }
+
+    /**
+     * Creates and returns a new {@code Renderer} whereby the provided {@code entityManager}
+     * is used to create streams, and whereby state that is cached across streams is held
+     * by the provided {@code cache}.
+     *
+     * @param entityManager to be used for creating streams
+     * @param cache holding the state cached across streams
+     * @return a new {@code Renderer}
+     * @since 3.0.4
+     */
+    default Renderer createRenderer(final EntityManager entityManager, final RendererCache cache) {
+        return createRenderer(entityManager);
+    }
+
+    /**
+     * Creates and returns a new {@code Renderer} whereby the provided {@code entityManager}
+     * is used to create streams, and whereby state that is cached across streams is held
+     * by the provided {@code cache}.
+     * <p>
+     * Each of the concurrent queries of a parallel Stream, see
+     * {@link com.speedment.jpastreamer.streamconfiguration.StreamConfiguration#withParallelism(int, java.util.concurrent.Executor)},
+     * is read by an {@code EntityManager} obtained from the provided
+     * {@code partitionEntityManagerSupplier}, which is handed to the provided
+     * {@code partitionEntityManagerRelease} once the query has been read or the Stream
+     * is closed. Renderers created by the other methods of this factory may read parallel
+     * Streams using a single query, as they have no means to obtain further
+     * {@code EntityManager}s.
+     * <p>
+     * Renderers do not read parallel Streams using concurrent queries by default.
+     *
+     * @param entityManager to be used for creating streams
+     * @param cache holding the state cached across streams
+     * @param partitionEntityManagerSupplier obtaining the EntityManagers of the concurrent queries
+     * @param partitionEntityManagerRelease releasing the EntityManagers of the concurrent queries
+     * @return a new {@code Renderer}
+     * @since 3.0.4
+     */
+    default Renderer createRenderer(
+        final EntityManager entityManager,
+        final RendererCache cache,
+        final Supplier<EntityManager> partitionEntityManagerSupplier,
+        final Consumer<EntityManager> partitionEntityManagerRelease
+    ) {
+        return createRenderer(entityManager, cache);
+    }
+
+    /**
+     * Returns whether a Stream with the provided {@code pipeline} can be read using keyset
+     * pagination, see {@link com.speedment.jpastreamer.streamconfiguration.StreamConfiguration#seekingAfter(com.speedment.jpastreamer.streamconfiguration.Cursor)},
+     * without querying the database. The pipeline is applied to every page, so it must yield
+     * the elements that follow the cursor in the Stream as a whole.
+     * <p>
+     * Renderers do not support keyset pagination by default.
+     *
+     * @param pipeline describing the intended Stream, before it is rendered
+     * @return whether the Stream can be read using keyset pagination
+     * @since 3.0.4
+     */
+    default boolean isSeekable(final Pipeline<?> pipeline) {
+        return false;
+    }
+
+    /**
+     * Creates and returns a new, empty {@code RendererCache} to be shared by the
+     * renderers that are created with it.
+     *
+     * @return a new, empty {@code RendererCache}
+     * @since 3.0.4
+     */
+    default RendererCache createCache() {
+        // Renderers do not cache state across streams by default
+        return () -> {};
+    }
 }
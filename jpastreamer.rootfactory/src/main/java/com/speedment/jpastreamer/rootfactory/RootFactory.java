@@ -19,6 +19,16 @@ import java.util.ServiceLoader;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+/**
+ * Utility methods for resolving services.
+ * <p>
+ * Services obtained via {@link #get(Class, Function)} and {@link #getOrThrow(Class, Function)}
+ * are resolved once per service type, context ClassLoader and loader function, subsequent
+ * calls with the same arguments return the same instance. Resolved services never keep the
+ * context ClassLoader reachable; a service defined by another ClassLoader than its service type
+ * may hence be resolved again once it is no longer referenced. Use {@link #invalidate()} or {@link #invalidate(ClassLoader)} to
+ * discard resolved services, for example after the set of available providers has changed.
+ */
 public final class RootFactory {
     private RootFactory() {}
 
@@ -34,4 +44,20 @@ public final class RootFactory {
         return InternalRootFactory.stream(service, loader);
     }
 
+    /**
+     * Discards all services that have been resolved so far.
+     */
+    public static void invalidate() {
+        InternalRootFactory.invalidate();
+    }
+
+    /**
+     * Discards the services that have been resolved for the provided {@code classLoader}.
+     *
+     * @param classLoader for which resolved services should be discarded
+     */
+    public static void invalidate(final ClassLoader classLoader) {
+        InternalRootFactory.invalidate(classLoader);
+    }
+
 }
@@ -15,6 +15,7 @@ package com.speedment.jpastreamer.rootfactory.internal;
 import com.speedment.jpastreamer.rootfactory.Priority;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.AnnotatedElement;
 import java.util.*;
 import java.util.function.Function;
@@ -27,19 +28,42 @@ public final class InternalRootFactory {
 
     public static final String PROVIDER = "Provider ";
 
+    /**
+     * Resolved service providers per service type, context ClassLoader and loader function.
+     * <p>
+     * The memo of a service type is attached to the service Class itself, so it is
+     * reclaimed together with the Class. Within it, the context ClassLoaders and loader
+     * functions are weakly referenced, and a provider defined by another ClassLoader than
+     * the service type is weakly referenced as well, so that a memoized provider never
+     * keeps a redeployed application reachable.
+     */
+    private static final ClassValue<Memos> REGISTRY = new ClassValue<>() {
+        @Override
+        protected Memos computeValue(final Class<?> service) {
+            final Memos memos = new Memos();
+            ALL_MEMOS.add(memos);
+            return memos;
+        }
+    };
+
+    /**
+     * All the memos of {@link #REGISTRY}, weakly referenced, so that they can be invalidated.
+     */
+    private static final Set<Memos> ALL_MEMOS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
     private InternalRootFactory() {
     }
 
     public static <S> Optional<S> get(final Class<S> service, final Function<Class<S>, ServiceLoader<S>> loader) {
         requireNonNull(service);
         requireNonNull(loader);
-        return Optional.ofNullable(getHelper(service, loader));
+        return Optional.ofNullable(getMemoized(service, loader));
     }
 
     public static <S> S getOrThrow(final Class<S> service, Function<Class<S>, ServiceLoader<S>> loader) {
         requireNonNull(service);
         requireNonNull(loader);
-        final S selectedService = getHelper(service, loader);
+        final S selectedService = getMemoized(service, loader);
         if (selectedService == null) {
             throw new NoSuchElementException("Unable to get the service " + service.getName());
         } else {
@@ -65,6 +89,48 @@ public final class InternalRootFactory {
 
     }
 
+    public static void invalidate() {
+        allMemos().forEach(Memos::clear);
+    }
+
+    public static void invalidate(final ClassLoader classLoader) {
+        requireNonNull(classLoader);
+        allMemos().forEach(memos -> memos.remove(classLoader));
+    }
+
+    private static List<Memos> allMemos() {
+        synchronized (ALL_MEMOS) {
+            return new ArrayList<>(ALL_MEMOS);
+        }
+    }
+
+    private static <S> S getMemoized(final Class<S> service, final Function<Class<S>, ServiceLoader<S>> loader) {
+        final Memos memos = REGISTRY.get(service);
+        final ClassLoader classLoader = classLoader(service);
+
+        final Object memoized = memos.get(classLoader, loader);
+        if (memoized != null) {
+            return service.cast(memoized);
+        }
+
+        // Resolved outside of the memos since providers may look up other services when created
+        final S selectedService = getHelper(service, loader);
+        if (selectedService == null) {
+            return null;
+        }
+
+        return service.cast(memos.putIfAbsent(classLoader, loader, service, selectedService));
+    }
+
+    private static ClassLoader classLoader(final Class<?> service) {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            return contextClassLoader;
+        }
+        final ClassLoader serviceClassLoader = service.getClassLoader();
+        return serviceClassLoader == null ? ClassLoader.getSystemClassLoader() : serviceClassLoader;
+    }
+
     private static <S> S getHelper(final Class<S> service, Function<Class<S>, ServiceLoader<S>> loader) {
         Optional<ServiceLoader.Provider<S>> provider = loader.apply(service)
                 .stream()
@@ -112,4 +178,53 @@ public final class InternalRootFactory {
         throw new ServiceConfigurationError(service.getName() + ": " + msg);
     }
 
+    /**
+     * The providers memoized for a service type. The context ClassLoaders and the loader
+     * functions are weakly referenced. A provider is strongly referenced only if it is defined
+     * by the same ClassLoader as its service type, since it then cannot keep anything reachable
+     * that the service type does not already keep reachable.
+     */
+    private static final class Memos {
+
+        private final Map<ClassLoader, Map<Function<?, ?>, Object>> providers = new WeakHashMap<>();
+
+        private synchronized Object get(final ClassLoader classLoader, final Function<?, ?> loader) {
+            final Map<Function<?, ?>, Object> byLoader = providers.get(classLoader);
+            return byLoader == null ? null : unwrap(byLoader.get(loader));
+        }
+
+        private synchronized Object putIfAbsent(final ClassLoader classLoader,
+                                                final Function<?, ?> loader,
+                                                final Class<?> service,
+                                                final Object provider) {
+            final Map<Function<?, ?>, Object> byLoader = providers.computeIfAbsent(classLoader, cl -> new WeakHashMap<>());
+            final Object previous = unwrap(byLoader.get(loader));
+            if (previous != null) {
+                return previous;
+            }
+            byLoader.put(loader, provider.getClass().getClassLoader() == service.getClassLoader()
+                    ? provider
+                    : new WeakProvider(provider));
+            return provider;
+        }
+
+        private synchronized void remove(final ClassLoader classLoader) {
+            providers.remove(classLoader);
+        }
+
+        private synchronized void clear() {
+            providers.clear();
+        }
+
+        private static Object unwrap(final Object memo) {
+            return memo instanceof WeakProvider ? ((WeakProvider) memo).get() : memo;
+        }
+    }
+
+    private static final class WeakProvider extends WeakReference<Object> {
+
+        private WeakProvider(final Object provider) {
+            super(provider);
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.rootfactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class RootFactoryTest {
+
+    @AfterEach
+    void invalidate() {
+        RootFactory.invalidate();
+    }
+
+    @Test
+    void getIsMemoized() {
+        final CountingLoader loader = new CountingLoader();
+        final TestService first = RootFactory.getOrThrow(TestService.class, loader);
+        final TestService second = RootFactory.getOrThrow(TestService.class, loader);
+        assertInstanceOf(TestServiceImpl.class, first);
+        assertSame(first, second);
+        assertSame(first, RootFactory.get(TestService.class, loader).orElseThrow());
+        assertEquals(1, loader.count());
+    }
+
+    @Test
+    void anotherLoaderIsResolvedSeparately() {
+        final CountingLoader loader = new CountingLoader();
+        final CountingLoader otherLoader = new CountingLoader();
+        final TestService first = RootFactory.getOrThrow(TestService.class, loader);
+        final TestService other = RootFactory.getOrThrow(TestService.class, otherLoader);
+        assertNotSame(first, other);
+        assertSame(other, RootFactory.getOrThrow(TestService.class, otherLoader));
+        assertEquals(1, loader.count());
+        assertEquals(1, otherLoader.count());
+    }
+
+    @Test
+    void invalidateDiscardsResolvedServices() {
+        final CountingLoader loader = new CountingLoader();
+        final TestService first = RootFactory.getOrThrow(TestService.class, loader);
+        RootFactory.invalidate();
+        final TestService second = RootFactory.getOrThrow(TestService.class, loader);
+        assertNotSame(first, second);
+        assertEquals(2, loader.count());
+    }
+
+    @Test
+    void invalidateClassLoaderDiscardsOnlyItsServices() {
+        final CountingLoader loader = new CountingLoader();
+        final ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {};
+
+        final TestService service = RootFactory.getOrThrow(TestService.class, loader);
+        final TestService contextService = withContextClassLoader(classLoader, () -> RootFactory.getOrThrow(TestService.class, loader));
+        assertNotSame(service, contextService);
+        assertEquals(2, loader.count());
+
+        RootFactory.invalidate(classLoader);
+        assertSame(service, RootFactory.getOrThrow(TestService.class, loader));
+        assertNotSame(contextService, withContextClassLoader(classLoader, () -> RootFactory.getOrThrow(TestService.class, loader)));
+        assertEquals(3, loader.count());
+    }
+
+    @Test
+    void providerOfContextClassLoaderDoesNotPinIt() throws InterruptedException {
+        final WeakReference<ClassLoader> classLoader = resolveWithChildFirstClassLoader();
+        for (int i = 0; i < 100 && classLoader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(classLoader.get());
+    }
+
+    private WeakReference<ClassLoader> resolveWithChildFirstClassLoader() {
+        final ClassLoader classLoader = new ChildFirstClassLoader(getClass().getClassLoader());
+        final Function<Class<TestService>, ServiceLoader<TestService>> loader = s -> ServiceLoader.load(s, classLoader);
+        final TestService service = withContextClassLoader(classLoader, () -> RootFactory.getOrThrow(TestService.class, loader));
+        assertSame(classLoader, service.getClass().getClassLoader());
+        assertSame(service, withContextClassLoader(classLoader, () -> RootFactory.getOrThrow(TestService.class, loader)));
+        return new WeakReference<>(classLoader);
+    }
+
+    private static <T> T withContextClassLoader(final ClassLoader classLoader, final java.util.function.Supplier<T> supplier) {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return supplier.get();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private static final class CountingLoader implements Function<Class<TestService>, ServiceLoader<TestService>> {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public ServiceLoader<TestService> apply(final Class<TestService> service) {
+            count.incrementAndGet();
+            return ServiceLoader.load(service);
+        }
+
+        int count() {
+            return count.get();
+        }
+    }
+
+    /**
+     * Defines its own copy of {@link TestServiceImpl}, like a redeployed application would.
+     */
+    private static final class ChildFirstClassLoader extends ClassLoader {
+
+        private ChildFirstClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!TestServiceImpl.class.getName().equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                final Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    final byte[] bytes = in.readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
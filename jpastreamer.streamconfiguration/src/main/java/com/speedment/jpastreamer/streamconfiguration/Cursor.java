@@ -0,0 +1,70 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.streamconfiguration.internal.InternalCursor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Cursor identifies the position of the last element of a page in a stream that
+ * is paginated using keyset (seek) pagination, see
+ * {@link StreamConfiguration#seekingAfter(Cursor)}.
+ * <p>
+ * The position consists of the values of the fields the stream is sorted by, followed
+ * by the id of the entity unless the stream is sorted by the id. The values are of the
+ * types of the corresponding entity attributes, which allows a Cursor to be recreated
+ * using {@link #of(Object...)} after having been handed to a client.
+ * <p>
+ * Instances are immutable.
+ *
+ * @since 3.0.4
+ */
+public interface Cursor {
+
+    /**
+     * Returns the values of the sort keys and the id of the last element of a page,
+     * or an empty list if this Cursor denotes the start of the stream.
+     *
+     * @return the values identifying the position of this Cursor
+     */
+    List<Object> values();
+
+    /**
+     * Returns a Cursor denoting the start of a stream, i.e. the position before
+     * the first element.
+     *
+     * @return a Cursor denoting the start of a stream
+     */
+    static Cursor start() {
+        return InternalCursor.START;
+    }
+
+    /**
+     * Returns a Cursor positioned at an element having the provided values of the
+     * sort keys and id.
+     *
+     * @param values of the sort keys followed by the id
+     * @return a Cursor positioned at an element having the provided values
+     */
+    static Cursor of(final Object... values) {
+        requireNonNull(values);
+        return values.length == 0
+            ? InternalCursor.START
+            : new InternalCursor(Collections.unmodifiableList(Arrays.asList(values.clone())));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration;
+
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An Explanation describes how a Stream was executed, see
+ * {@link StreamConfiguration#explaining(java.util.function.Consumer)}.
+ * <p>
+ * It holds the operations of the Stream after they have been optimized,
+ * the query that was sent to the database along with its parameters, the
+ * operations that could not be expressed in the query and were instead
+ * executed by the Stream, and the time spent in each {@link Phase}.
+ * <p>
+ * Instances are immutable.
+ *
+ * @since 3.0.4
+ */
+public interface Explanation {
+
+    /**
+     * Returns the intermediate operations of the Stream after they have been
+     * modified and optimized, but before they were merged into the query.
+     *
+     * @return the optimized intermediate operations of the Stream
+     */
+    List<IntermediateOperation<?, ?>> operations();
+
+    /**
+     * Returns the terminal operation of the Stream after it has been modified
+     * and optimized.
+     *
+     * @return the optimized terminal operation of the Stream
+     */
+    TerminalOperation<?, ?> terminalOperation();
+
+    /**
+     * Returns the query that was sent to the database, rendered as JPQL if
+     * supported by the persistence provider, or {@link Optional#empty()} if
+     * the Stream was known to be empty without querying the database.
+     *
+     * @return the query that was sent to the database
+     */
+    Optional<String> query();
+
+    /**
+     * Returns the values bound to the parameters of the query, in the order
+     * the parameters appear in the query.
+     *
+     * @return the values bound to the parameters of the query
+     */
+    List<Object> parameters();
+
+    /**
+     * Returns the intermediate operations that could not be expressed in the
+     * query and were instead applied to the rows read from the database.
+     *
+     * @return the intermediate operations that were executed in memory
+     */
+    List<IntermediateOperation<?, ?>> residualOperations();
+
+    /**
+     * Returns the time spent in the provided {@code phase}, or
+     * {@link Duration#ZERO} if the Stream did not pass the phase.
+     *
+     * @param phase to return the time of
+     * @return the time spent in the provided {@code phase}
+     */
+    Duration duration(Phase phase);
+
+    /**
+     * The phases of the execution of a Stream.
+     */
+    enum Phase {
+
+        /**
+         * Modification of the operations, e.g. replacing a terminal operation
+         * by intermediate operations that can be merged into the query.
+         */
+        MODIFY,
+
+        /**
+         * Optimization of the operations, e.g. normalizing predicates and
+         * combining consecutive filters.
+         */
+        OPTIMIZE,
+
+        /**
+         * Construction of the query and merging the operations into it.
+         */
+        MERGE,
+
+        /**
+         * Creation of the query, binding of its parameters and its execution
+         * by the database.
+         */
+        CREATE_QUERY,
+
+        /**
+         * Reading of the first row of the result, excluding the time spent
+         * by the Stream processing it.
+         */
+        FIRST_ROW,
+
+        /**
+         * Reading of the remaining rows of the result, excluding the time
+         * spent by the Stream processing them.
+         */
+        ITERATION
+    }
+}
@@ -18,10 +18,15 @@ import com.speedment.jpastreamer.rootfactory.RootFactory;
 
 import jakarta.persistence.criteria.JoinType;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * StreamConfiguration instances are used
@@ -158,6 +163,316 @@ public interface StreamConfiguration<T> {
      */
     StreamConfiguration<T> withHint(final String hintName, final Object value);
 
+    /**
+     * Returns the keyset pagination that will be applied in a future Stream
+     * or {@link Optional#empty()} if the stream is not paginated using a keyset.
+     *
+     * @return the keyset pagination that will be applied in a future Stream
+     * @since 3.0.4
+     */
+    Optional<KeysetConfiguration> keyset();
+
+    /**
+     * Creates and returns a new StreamConfiguration that uses keyset (seek)
+     * pagination to start the future Stream after the element identified by
+     * the provided {@code cursor}.
+     * <p>
+     * Rather than skipping the elements of the preceding pages (which costs
+     * time proportional to the number of skipped rows in the database), the
+     * query is restricted to the elements following the cursor in the order
+     * of the stream. The stream is ordered by the fields it is sorted by,
+     * followed by the id of the entity so that the order is total. If the
+     * stream is not sorted, it is ordered by the id only. The size of a page
+     * is set using {@link java.util.stream.Stream#limit(long)}.
+     * <p>
+     * The stream must be sorted using field comparators. Nulls of nullable
+     * sort keys are ordered as per the {@code NullOrder} of the comparator,
+     * also if it is {@code NONE}, in which case they precede the values.
+     * Operations preceding the sort must be possible to express in the query.
+     *
+     * @param cursor identifying the last element of the previous page, or
+     *               {@link Cursor#start()} for the first page
+     * @return a new StreamConfiguration starting the future Stream after the
+     * element identified by the provided {@code cursor}
+     * @since 3.0.4
+     */
+    default StreamConfiguration<T> seekingAfter(final Cursor cursor) {
+        return seekingAfter(cursor, nextCursor -> {});
+    }
+
+    /**
+     * Creates and returns a new StreamConfiguration that uses keyset (seek)
+     * pagination to start the future Stream after the element identified by
+     * the provided {@code cursor}, see {@link #seekingAfter(Cursor)}.
+     * <p>
+     * When the future Stream is closed, the provided {@code nextCursorConsumer}
+     * is called with a cursor identifying the last element that was read from
+     * the database, unless the page was empty.
+     *
+     * @param cursor identifying the last element of the previous page, or
+     *               {@link Cursor#start()} for the first page
+     * @param nextCursorConsumer to call with the cursor of the next page
+     * @return a new StreamConfiguration starting the future Stream after the
+     * element identified by the provided {@code cursor}
+     * @since 3.0.4
+     */
+    StreamConfiguration<T> seekingAfter(final Cursor cursor, final Consumer<? super Cursor> nextCursorConsumer);
+
+    /**
+     * Returns the number of rows of a window in which a future Stream reads
+     * its elements or {@link OptionalInt#empty()} if the elements are not read
+     * in windows.
+     *
+     * @return the number of rows of a window in which a future Stream reads
+     * its elements
+     * @since 3.0.4
+     */
+    OptionalInt chunkSize();
+
+    /**
+     * Creates and returns a new StreamConfiguration that reads the elements
+     * of a future Stream in windows of {@code chunkSize} rows.
+     * <p>
+     * The JDBC fetch size is set to {@code chunkSize} and the persistence
+     * context is cleared each time a window has been consumed by the stream,
+     * so that the memory used by the persistence context is bounded by the
+     * size of a window rather than by the size of the result. As a consequence,
+     * elements of previous windows are detached and lazy associations of
+     * these elements can no longer be loaded. Pending changes of managed
+     * entities are discarded when the persistence context is cleared.
+     * <p>
+     * This is useful when streaming through a large number of entities, for
+     * example when exporting a table.
+     *
+     * @param chunkSize the number of rows of a window, must be positive
+     * @return a new StreamConfiguration reading the elements of a future
+     * Stream in windows of {@code chunkSize} rows
+     * @throws IllegalArgumentException if the provided {@code chunkSize} is
+     * not positive
+     * @since 3.0.4
+     */
+    StreamConfiguration<T> withChunkSize(final int chunkSize);
+
+    /**
+     * Returns the partitioned execution that will be applied to a future
+     * parallel Stream or {@link Optional#empty()} if parallel Streams are
+     * read using a single query.
+     *
+     * @return the partitioned execution that will be applied to a future
+     * parallel Stream
+     * @since 3.0.4
+     */
+    Optional<ParallelConfiguration> parallelism();
+
+    /**
+     * Creates and returns a new StreamConfiguration that reads a future
+     * {@link java.util.stream.BaseStream#parallel() parallel} Stream using
+     * {@code partitions} concurrent queries, executed by an executor
+     * dedicated to such queries, see {@link #withParallelism(int, Executor)}.
+     * <p>
+     * As the queries perform blocking I/O, the standard implementation
+     * executes them by a pool of daemon threads, or virtual threads where
+     * available, rather than by the {@link ForkJoinPool#commonPool() common pool}
+     * that this default method uses.
+     *
+     * @param partitions the number of partitions, must be positive
+     * @return a new StreamConfiguration reading a future parallel Stream
+     * using {@code partitions} concurrent queries
+     * @throws IllegalArgumentException if the provided {@code partitions} is
+     * not positive
+     * @since 3.0.4
+     */
+    default StreamConfiguration<T> withParallelism(final int partitions) {
+        return withParallelism(partitions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates and returns a new StreamConfiguration that reads a future
+     * {@link java.util.stream.BaseStream#parallel() parallel} Stream using
+     * {@code partitions} concurrent queries, executed by the provided
+     * {@code executor}.
+     * <p>
+     * The query of the Stream is split into ranges of the key the Stream is
+     * sorted by, or of the id if the Stream is unsorted or
+     * {@link java.util.stream.BaseStream#unordered() unordered}. The ranges
+     * evenly divide the values of the key among the elements matching the
+     * filters of the Stream. Each range is read by its own
+     * {@code EntityManager} once the Stream reaches it, a bounded number of
+     * elements ahead of the Stream, and the {@code EntityManager} is closed,
+     * or returned to the pool of JPAStreamer if it has one, once the range
+     * has been read or the Stream is closed. Hence, the
+     * elements are detached and lazy associations of the elements can not be
+     * loaded. The ranges are exposed as
+     * a splittable Stream so that the remaining operations of the Stream are
+     * executed in parallel as well. An ordered Stream yields the elements of
+     * the ranges in the order of the key whereas an unordered Stream yields the
+     * ranges in the order they are read.
+     * <p>
+     * The key must be numeric and may not be null. If no such key exists, the
+     * Stream is read using a single query. So is a Stream of a JPAStreamer
+     * whose {@code EntityManager}s are provided by a caller-supplied
+     * {@code Supplier}, as such {@code EntityManager}s are not owned by
+     * JPAStreamer. Operations such as
+     * {@link java.util.stream.Stream#skip(long)} and
+     * {@link java.util.stream.Stream#limit(long)} are executed by the Stream
+     * rather than by the queries.
+     * <p>
+     * As the queries perform blocking I/O, using a dedicated executor is
+     * recommended.
+     *
+     * @param partitions the number of partitions, must be positive
+     * @param executor executing the queries of the partitions
+     * @return a new StreamConfiguration reading a future parallel Stream
+     * using {@code partitions} concurrent queries
+     * @throws IllegalArgumentException if the provided {@code partitions} is
+     * not positive
+     * @since 3.0.4
+     */
+    StreamConfiguration<T> withParallelism(final int partitions, final Executor executor);
+
+    /**
+     * Returns the maximum number of values of an IN-list that are bound to
+     * a single query of a future Stream, by default 1000.
+     *
+     * @return the maximum number of values of an IN-list that are bound to
+     * a single query
+     * @since 3.0.4
+     */
+    int inListLimit();
+
+    /**
+     * Creates and returns a new StreamConfiguration that binds at most
+     * {@code inListLimit} values of an IN-list to a single query of a future
+     * Stream.
+     * <p>
+     * The values of an IN-list are bound as a list whose length is padded to
+     * a power of two, so that IN-lists of similar lengths share prepared
+     * statements. A Stream filtered by a larger IN-list, such as
+     * {@code Film$.id.in(ids)}, is read using several queries, each binding
+     * a chunk of the values, whose results are concatenated (or merged if the
+     * Stream is sorted on fields). Skip and limit operations of such a Stream
+     * are executed by the Stream rather than by the queries. An IN-list that
+     * can not be split, for example one that is part of an {@code or}
+     * predicate, is bound in full.
+     * <p>
+     * This keeps the number of parameters below the limits of the JDBC
+     * driver, which are usually in the range of 1000 to 65535.
+     *
+     * @param inListLimit the maximum number of values of an IN-list, must
+     *                    be positive
+     * @return a new StreamConfiguration binding at most {@code inListLimit}
+     * values of an IN-list to a single query
+     * @throws IllegalArgumentException if the provided {@code inListLimit}
+     * is not positive
+     * @since 3.0.4
+     */
+    StreamConfiguration<T> withInListLimit(final int inListLimit);
+
+    /**
+     * Returns the consumer that will be handed an {@link Explanation} of a
+     * future Stream once it is closed or {@link Optional#empty()} if the
+     * Stream is not explained.
+     *
+     * @return the consumer that will be handed an Explanation of a future
+     * Stream
+     * @since 3.0.4
+     */
+    Optional<Consumer<? super Explanation>> explanationConsumer();
+
+    /**
+     * Creates and returns a new StreamConfiguration that explains how a
+     * future Stream is executed.
+     * <p>
+     * When the future Stream is closed, the provided {@code explanationConsumer}
+     * is called with an {@link Explanation} holding the optimized operations of
+     * the Stream, the query sent to the database and its parameters, the
+     * operations that were executed in memory rather than by the database
+     * and the time spent in each phase of the execution. Unless the Stream is
+     * closed explicitly, it is closed once its terminal operation completes.
+     * <p>
+     * This is useful when verifying that a Stream is expressed in its query,
+     * and when finding out where the time of a slow Stream is spent.
+     *
+     * @param explanationConsumer to call with the Explanation of the Stream
+     * @return a new StreamConfiguration explaining how a future Stream is
+     * executed
+     * @since 3.0.4
+     */
+    StreamConfiguration<T> explaining(final Consumer<? super Explanation> explanationConsumer);
+
+    /**
+     * Returns the time a result of a future Stream is kept in the result cache
+     * or {@link Optional#empty()} if results are not cached.
+     *
+     * @return the time a result of a future Stream is kept in the result cache
+     * @since 3.0.4
+     */
+    Optional<Duration> cacheTimeToLive();
+
+    /**
+     * Creates and returns a new StreamConfiguration that caches the result of
+     * the query of a future Stream for {@code timeToLive}.
+     * <p>
+     * A Stream whose query and parameter values equal those of a cached result
+     * reads its elements from the cached result rather than from the database.
+     * Operations that are not expressed in the query are executed by the Stream
+     * as usual. Results are cached per {@code JPAStreamer} and are evicted, in
+     * favour of frequently read results, once the cache holds too many results
+     * or too many estimated bytes. The results of an entity class are dropped
+     * by {@code JPAStreamer.resetStreamer(Class...)}.
+     * <p>
+     * Only results of immutable values are cached, that is Streams whose query
+     * selects columns because a {@code map} to a field or {@code Projection} has
+     * been merged into it. Streams of entities, which belong to the persistence
+     * context of their {@code EntityManager}, read from the database as usual.
+     * Results of Streams seeking after a cursor or reading large IN-lists in
+     * several queries are not cached either.
+     * <p>
+     * This is useful for reference data that is read frequently and rarely
+     * changes. Changes made to the database are not detected until the cached
+     * result expires or is dropped.
+     *
+     * @param timeToLive the time a result is kept in the cache, must be positive
+     * @return a new StreamConfiguration caching the result of the query of a
+     * future Stream
+     * @throws IllegalArgumentException if the provided {@code timeToLive} is
+     * not positive
+     * @since 3.0.4
+     */
+    StreamConfiguration<T> caching(final Duration timeToLive);
+
+    /**
+     * Returns whether the entities of a future Stream are read for reading only,
+     * see {@link #readOnly()}.
+     *
+     * @return whether the entities of a future Stream are read for reading only
+     * @since 3.0.4
+     */
+    boolean isReadOnly();
+
+    /**
+     * Creates and returns a new StreamConfiguration that reads the entities of a
+     * future Stream for reading only.
+     * <p>
+     * The queries of the Stream do not flush pending changes of the persistence
+     * context ({@code FlushModeType.COMMIT}) and are executed with the read-only
+     * hint of the persistence provider, if supported, so that the provider does not
+     * keep a snapshot of each entity to detect changes. Each entity is detached from
+     * the persistence context once the next entity has been read by the Stream,
+     * i.e. after it has passed through the operations executed by the Stream unless
+     * it is buffered by an operation such as {@code sorted}. As a consequence, the
+     * persistence context does not grow with the size of the result, changes made
+     * to the entities are never written to the database and lazy associations can
+     * only be loaded while the entity is being processed.
+     * <p>
+     * This is useful for reporting and analytics over a large number of entities.
+     *
+     * @return a new StreamConfiguration reading the entities of a future Stream
+     * for reading only
+     * @since 3.0.4
+     */
+    StreamConfiguration<T> readOnly();
+
     /**
      * Creates and returns a new StreamConfiguration that can be used
      * to configure streams.
@@ -203,4 +518,52 @@ public interface StreamConfiguration<T> {
         JoinType joinType();
     }
 
+    /**
+     * ParallelConfiguration instances are used to configure the
+     * partitioned execution of parallel Streams.
+     *
+     * @since 3.0.4
+     */
+    interface ParallelConfiguration {
+        /**
+         * Returns the number of partitions, and thus concurrent queries,
+         * of a parallel Stream.
+         *
+         * @return the number of partitions of a parallel Stream
+         */
+        int partitions();
+
+        /**
+         * Returns the Executor executing the queries of the partitions.
+         *
+         * @return the Executor executing the queries of the partitions
+         */
+        Executor executor();
+    }
+
+    /**
+     * KeysetConfiguration instances are used to configure
+     * keyset (seek) pagination of Streams.
+     *
+     * @since 3.0.4
+     */
+    interface KeysetConfiguration {
+        /**
+         * Returns the cursor identifying the last element of the
+         * previous page.
+         *
+         * @return the cursor identifying the last element of the
+         * previous page
+         */
+        Cursor cursor();
+
+        /**
+         * Returns the consumer to call with the cursor identifying
+         * the last element of the current page.
+         *
+         * @return the consumer to call with the cursor of the next page
+         */
+        Consumer<? super Cursor> nextCursorConsumer();
+    }
+
 }
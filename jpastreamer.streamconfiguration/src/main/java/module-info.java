@@ -16,6 +16,7 @@ module jpastreamer.streamconfiguration {
     requires transitive jpastreamer.field;
     requires transitive jakarta.persistence;
     requires transitive jpastreamer.projection; // To be removed
+    requires transitive jpastreamer.pipeline;
     requires jpastreamer.rootfactory;
 
     uses StreamConfigurationFactory;